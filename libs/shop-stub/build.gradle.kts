@@ -0,0 +1,43 @@
+plugins {
+    `java-library`
+    application
+    id("io.spring.dependency-management") version "1.1.5"
+}
+
+group = "com.alertify"
+version = "0.0.1-SNAPSHOT"
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencyManagement {
+    imports {
+        mavenBom("org.springframework.boot:spring-boot-dependencies:3.3.2")
+    }
+}
+
+dependencies {
+    implementation("com.fasterxml.jackson.core:jackson-databind")
+
+    testImplementation("org.assertj:assertj-core")
+}
+
+application {
+    // Load test against a running fetcher-service: ./gradlew :libs:shop-stub:run --args="--rate 50 --duration 60"
+    mainClass.set("com.alertify.stub.LoadDriver")
+}
+
+tasks.named<JavaExec>("run") {
+    workingDir = rootDir
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
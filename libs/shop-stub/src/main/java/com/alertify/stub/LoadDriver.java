@@ -0,0 +1,244 @@
+package com.alertify.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pushes a fixed rate of product fetches through a running fetcher-service's POST /api/fetch, against a
+ * {@link StubShop} serving the recorded corpus, and reports throughput, latency percentiles and the
+ * fetcher's heap. Start the fetcher pointed at the stub first, e.g.
+ * JAVA_TOOL_OPTIONS="-Dhttp.proxyHost=127.0.0.1 -Dhttp.proxyPort=18080" FETCHER_POLITENESS_ENABLED=false
+ * FETCHER_BROWSER_WARM_ON_STARTUP=false.
+ * <p>
+ * The load is open: requests go out on schedule whether or not earlier ones have finished, and latency
+ * is measured from the scheduled send time, so a stalled fetcher shows up in the percentiles instead of
+ * silently lowering the rate. Each URL cycles through url-variants query strings; fewer variants means
+ * more hits in the fetcher's result and validator caches.
+ * <p>
+ * Options, as --name value: fetcher (http://localhost:8081), corpus
+ * (services/fetcher-service/src/test/resources/corpus/v1), stub-port (18080), rate per second (20),
+ * duration and warmup in seconds (60, 10), url-variants (1000), timeout-ms (30000), and the stub's
+ * latency-ms (150), jitter-ms (100), error-rate (0), throttle-rps (0, per host), throttle-burst (5) and
+ * etags (true).
+ */
+public final class LoadDriver {
+
+    private static final String SOURCE_TYPE = "ECOMMERCE_PRODUCT";
+    private static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+    private static final int TRANSPORT_ERROR = -1;
+
+    private final Map<String, String> options;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    private LoadDriver(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver(parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        String fetcher = option("fetcher", "http://localhost:8081");
+        double rate = Double.parseDouble(option("rate", "20"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("duration", "60")));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("warmup", "10")));
+        int variants = Math.max(1, Integer.parseInt(option("url-variants", "1000")));
+        long timeoutMs = Long.parseLong(option("timeout-ms", "30000"));
+
+        StubBehaviour behaviour = StubBehaviour.defaults()
+                .withLatency(Long.parseLong(option("latency-ms", "150")), Long.parseLong(option("jitter-ms", "100")))
+                .withErrorRate(Double.parseDouble(option("error-rate", "0")))
+                .withThrottle(Double.parseDouble(option("throttle-rps", "0")),
+                        Integer.parseInt(option("throttle-burst", "5")), 1)
+                .withEtags(Boolean.parseBoolean(option("etags", "true")));
+
+        try (StubShop shop = StubShop.builder()
+                .corpus(Path.of(option("corpus", "services/fetcher-service/src/test/resources/corpus/v1")))
+                .port(Integer.parseInt(option("stub-port", "18080")))
+                .behaviour(behaviour)
+                .start()) {
+            List<String> urls = shop.urls();
+            System.out.printf("Stub shop serving %d pages as proxy %s with %s%n", urls.size(), shop.proxy(), behaviour);
+            System.out.printf("Driving %.1f fetches/s at %s for %ds after a %ds warmup%n", rate, fetcher,
+                    TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos));
+
+            long intervalNanos = (long) (1_000_000_000L / rate);
+            long start = System.nanoTime();
+            long measureFrom = start + warmupNanos;
+            long end = measureFrom + durationNanos;
+            long nextReport = start + TimeUnit.SECONDS.toNanos(10);
+            Optional<Allocation> allocationAtStart = Optional.empty();
+            boolean measuring = false;
+            for (long i = 0; ; i++) {
+                long scheduled = start + i * intervalNanos;
+                if (scheduled >= end) {
+                    break;
+                }
+                if (!measuring && scheduled >= measureFrom) {
+                    measuring = true;
+                    allocationAtStart = allocation(fetcher);
+                }
+                LockSupport.parkNanos(scheduled - System.nanoTime());
+                String url = urls.get((int) (i % urls.size())) + "?lt=" + (i / urls.size()) % variants;
+                send(fetcher, url, timeoutMs, scheduled, scheduled >= measureFrom);
+
+                if (System.nanoTime() >= nextReport) {
+                    nextReport += TimeUnit.SECONDS.toNanos(10);
+                    System.out.printf("%4ds: %d sent, %d in flight, statuses %s%n",
+                            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), i + 1, inFlight.get(),
+                            new TreeMap<>(statuses));
+                }
+            }
+
+            long drainUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+                Thread.sleep(100);
+            }
+            report(fetcher, durationNanos, shop.stats(), allocationAtStart);
+        }
+    }
+
+    private void send(String fetcher, String url, long timeoutMs, long scheduled, boolean measured) throws Exception {
+        Map<String, Object> body = Map.of("sourceType", SOURCE_TYPE, "params", Map.of("url", url));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(fetcher + "/api/fetch"))
+                .timeout(Duration.ofMillis(timeoutMs))
+                .header("Content-Type", "application/json")
+                .header(TIMEOUT_HEADER, String.valueOf(timeoutMs))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    if (!measured) {
+                        return;
+                    }
+                    int status = response != null ? response.statusCode() : TRANSPORT_ERROR;
+                    statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                    if (status == 200) {
+                        latencies.add(System.nanoTime() - scheduled);
+                    }
+                });
+    }
+
+    private void report(String fetcher, long durationNanos, StubShop.Stats stubStats,
+                        Optional<Allocation> allocationAtStart) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double seconds = durationNanos / 1e9;
+
+        System.out.println();
+        System.out.printf("Statuses (-1 is a transport error or timeout): %s%n", new TreeMap<>(statuses));
+        System.out.printf("Throughput: %.1f successful fetches/s%n", sorted.length / seconds);
+        if (sorted.length > 0) {
+            System.out.printf("Latency ms: p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), sorted[sorted.length - 1] / 1e6);
+        }
+        System.out.printf("Stub shop: %s%n", stubStats);
+
+        Map<String, String> heap = Map.of("tag", "area:heap");
+        metric(fetcher, "jvm.memory.used", heap, "VALUE")
+                .ifPresent(used -> System.out.printf("Fetcher heap used: %.1f MiB%n", used / (1024 * 1024)));
+        metric(fetcher, "jvm.gc.pause", Map.of(), "TOTAL_TIME")
+                .ifPresent(pause -> System.out.printf("Fetcher GC pause total: %.2f s%n", pause));
+        allocationAtStart.ifPresent(before -> allocation(fetcher).ifPresent(after -> {
+            double fetches = after.fetches() - before.fetches();
+            if (fetches > 0) {
+                System.out.printf("Fetcher allocation per fetch: %.1f KiB (all threads, over %.0f fetches)%n",
+                        (after.bytes() - before.bytes()) / fetches / 1024, fetches);
+            }
+        }));
+    }
+
+    /**
+     * Heap the fetcher has allocated on all its threads and the site fetches it has run. Fetches run
+     * on virtual threads, which per-thread allocation counters do not cover, so allocation per fetch
+     * is the difference of two of these over the measured run.
+     */
+    private Optional<Allocation> allocation(String fetcher) {
+        return metric(fetcher, "fetcher.allocated", Map.of(), "COUNT").flatMap(bytes ->
+                metric(fetcher, "fetcher.fetch.duration", Map.of(), "COUNT")
+                        .map(fetches -> new Allocation(bytes, fetches)));
+    }
+
+    private record Allocation(double bytes, double fetches) {
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    /**
+     * One statistic of a fetcher meter from its actuator, if the endpoint answers.
+     */
+    private Optional<Double> metric(String fetcher, String name, Map<String, String> query, String statistic) {
+        StringBuilder url = new StringBuilder(fetcher).append("/actuator/metrics/").append(name);
+        query.forEach((key, value) -> url.append(url.indexOf("?") < 0 ? '?' : '&').append(key).append('=').append(value));
+        try {
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create(url.toString())).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return Optional.empty();
+            }
+            for (JsonNode measurement : objectMapper.readTree(response.body()).path("measurements")) {
+                if (statistic.equals(measurement.path("statistic").asText())) {
+                    return Optional.of(measurement.path("value").asDouble());
+                }
+            }
+        } catch (Exception e) {
+            System.out.printf("Could not read %s from the fetcher: %s%n", name, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> rest = new ArrayList<>(Arrays.asList(args));
+        while (!rest.isEmpty()) {
+            String name = rest.removeFirst();
+            if (!name.startsWith("--") || rest.isEmpty()) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + String.join(" ", args));
+            }
+            options.put(name.substring(2), rest.removeFirst());
+        }
+        return options;
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+}
@@ -0,0 +1,61 @@
+package com.alertify.stub;
+
+/**
+ * How a stubbed site answers. Latency is latencyMs plus a uniform random share of latencyJitterMs;
+ * errorRate is the fraction of requests answered 503; throttlePerSecond (0 for unlimited) caps
+ * requests per host with a token bucket of throttleBurst, answering 429 with Retry-After beyond it.
+ * With etags on, pages carry an ETag and matching If-None-Match requests get 304.
+ */
+public record StubBehaviour(long latencyMs,
+                            long latencyJitterMs,
+                            double errorRate,
+                            double throttlePerSecond,
+                            int throttleBurst,
+                            int retryAfterSeconds,
+                            boolean etags,
+                            boolean gzip) {
+
+    public StubBehaviour {
+        if (latencyMs < 0 || latencyJitterMs < 0) {
+            throw new IllegalArgumentException("Latency must not be negative");
+        }
+        if (errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("Error rate must be between 0 and 1: " + errorRate);
+        }
+        if (throttlePerSecond < 0) {
+            throw new IllegalArgumentException("Throttle rate must not be negative: " + throttlePerSecond);
+        }
+    }
+
+    /**
+     * Fast, reliable and unthrottled, with ETags and gzip like the real sites.
+     */
+    public static StubBehaviour defaults() {
+        return new StubBehaviour(0, 0, 0.0, 0.0, 1, 1, true, true);
+    }
+
+    public StubBehaviour withLatency(long latencyMs, long latencyJitterMs) {
+        return new StubBehaviour(latencyMs, latencyJitterMs, errorRate, throttlePerSecond, throttleBurst,
+                retryAfterSeconds, etags, gzip);
+    }
+
+    public StubBehaviour withErrorRate(double errorRate) {
+        return new StubBehaviour(latencyMs, latencyJitterMs, errorRate, throttlePerSecond, throttleBurst,
+                retryAfterSeconds, etags, gzip);
+    }
+
+    public StubBehaviour withThrottle(double throttlePerSecond, int throttleBurst, int retryAfterSeconds) {
+        return new StubBehaviour(latencyMs, latencyJitterMs, errorRate, throttlePerSecond, Math.max(1, throttleBurst),
+                retryAfterSeconds, etags, gzip);
+    }
+
+    public StubBehaviour withEtags(boolean etags) {
+        return new StubBehaviour(latencyMs, latencyJitterMs, errorRate, throttlePerSecond, throttleBurst,
+                retryAfterSeconds, etags, gzip);
+    }
+
+    public StubBehaviour withGzip(boolean gzip) {
+        return new StubBehaviour(latencyMs, latencyJitterMs, errorRate, throttlePerSecond, throttleBurst,
+                retryAfterSeconds, etags, gzip);
+    }
+}
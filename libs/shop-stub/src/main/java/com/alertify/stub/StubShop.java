@@ -0,0 +1,316 @@
+package com.alertify.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A local stand-in for the marketplaces, serving recorded pages so fetcher-service can be load and
+ * integration tested without touching the real sites. Pages are keyed by host and path; the query is
+ * ignored, so cache-busting variants of a URL all get the page. The server works both as an origin
+ * (the host comes from the Host header) and as a plain HTTP proxy, which is how fetcher-service
+ * reaches it: start the fetcher with the JVM proxy properties http.proxyHost and http.proxyPort set to
+ * {@link #proxy()} and fetch http:// URLs of the real sites.
+ */
+public final class StubShop implements AutoCloseable {
+
+    private static final String CONTENT_TYPE = "text/html; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Page> pages;
+    private final StubBehaviour defaultBehaviour;
+    private final Map<String, StubBehaviour> behaviours;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+
+    private StubShop(Builder builder) throws IOException {
+        this.pages = Map.copyOf(builder.pages);
+        this.defaultBehaviour = builder.behaviour;
+        this.behaviours = Map.copyOf(builder.behaviours);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(builder.bindAddress, builder.port), 1024);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * The "host:port" the stub serves as a proxy on.
+     */
+    public String proxy() {
+        return server.getAddress().getHostString() + ":" + port();
+    }
+
+    /**
+     * Plain http:// URLs of every page served, in no particular order.
+     */
+    public List<String> urls() {
+        return pages.values().stream().map(Page::url).toList();
+    }
+
+    public Stats stats() {
+        return new Stats(requests.sum(), served.sum(), notModified.sum(), throttled.sum(), failed.sum(),
+                notFound.sum());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Requests answered so far, by outcome.
+     */
+    public record Stats(long requests, long served, long notModified, long throttled, long failed, long notFound) {
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            String host = hostOf(exchange);
+            StubBehaviour behaviour = behaviours.getOrDefault(host, defaultBehaviour);
+
+            // Throttling answers at once, as rate limiters in front of the real sites do
+            if (behaviour.throttlePerSecond() > 0 && !bucketFor(host, behaviour).tryAcquire()) {
+                throttled.increment();
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(behaviour.retryAfterSeconds()));
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+
+            delay(behaviour);
+            if (behaviour.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < behaviour.errorRate()) {
+                failed.increment();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            Page page = pages.get(host + exchange.getRequestURI().getRawPath());
+            if (page == null) {
+                notFound.increment();
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (behaviour.etags()) {
+                exchange.getResponseHeaders().set("ETag", page.etag());
+                String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+                if (ifNoneMatch != null && ifNoneMatch.contains(page.etag())) {
+                    notModified.increment();
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+            }
+
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            byte[] body = page.html();
+            if (behaviour.gzip() && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                body = page.gzipped();
+            }
+            served.increment();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private TokenBucket bucketFor(String host, StubBehaviour behaviour) {
+        return buckets.computeIfAbsent(host,
+                key -> new TokenBucket(behaviour.throttlePerSecond(), behaviour.throttleBurst()));
+    }
+
+    private static void delay(StubBehaviour behaviour) {
+        long millis = behaviour.latencyMs();
+        if (behaviour.latencyJitterMs() > 0) {
+            millis += ThreadLocalRandom.current().nextLong(behaviour.latencyJitterMs() + 1);
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The origin host: from the request line when the stub is used as a proxy, else the Host header.
+     */
+    private static String hostOf(HttpExchange exchange) {
+        String host = exchange.getRequestURI().getHost();
+        if (host == null) {
+            host = exchange.getRequestHeaders().getFirst("Host");
+        }
+        if (host == null) {
+            return "";
+        }
+        int port = host.lastIndexOf(':');
+        return normalize(port > 0 && host.indexOf(']') < port ? host.substring(0, port) : host);
+    }
+
+    private static String normalize(String host) {
+        String lower = host.toLowerCase(Locale.ROOT);
+        return lower.startsWith("www.") ? lower.substring(4) : lower;
+    }
+
+    private record Page(String url, byte[] html, byte[] gzipped, String etag) {
+
+        static Page of(String url, String html) {
+            byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            String etag = "\"" + HexFormat.of().toHexDigits((int) crc.getValue()) + "-" + bytes.length + "\"";
+            return new Page(url, bytes, gzip(bytes), etag);
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static final class TokenBucket {
+
+        private final double perNano;
+        private final int burst;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(double perSecond, int burst) {
+            this.perNano = perSecond / 1_000_000_000.0;
+            this.burst = burst;
+            this.tokens = burst;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * perNano);
+            refilledAt = now;
+            if (tokens < 1.0) {
+                return false;
+            }
+            tokens -= 1.0;
+            return true;
+        }
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Page> pages = new HashMap<>();
+        private final Map<String, StubBehaviour> behaviours = new HashMap<>();
+        private StubBehaviour behaviour = StubBehaviour.defaults();
+        private String bindAddress = "127.0.0.1";
+        private int port;
+
+        private Builder() {
+        }
+
+        /**
+         * Serves html at the url's host and path, whatever its scheme and query.
+         */
+        public Builder page(String url, String html) {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) {
+                throw new IllegalArgumentException("Page URL without a host: " + url);
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            String plain = "http://" + uri.getRawAuthority() + path;
+            pages.put(normalize(uri.getHost()) + path, Page.of(plain, html));
+            return this;
+        }
+
+        /**
+         * Serves every page of a recorded corpus directory: its manifest.json lists the pages by id
+         * and url, and each page is the file id + ".html" next to it.
+         */
+        public Builder corpus(Path directory) {
+            try {
+                JsonNode manifest = new ObjectMapper().readTree(directory.resolve("manifest.json").toFile());
+                for (JsonNode page : manifest.path("pages")) {
+                    String html = Files.readString(directory.resolve(page.path("id").asText() + ".html"));
+                    page(page.path("url").asText(), html);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read corpus " + directory, e);
+            }
+            return this;
+        }
+
+        public Builder behaviour(StubBehaviour behaviour) {
+            this.behaviour = behaviour;
+            return this;
+        }
+
+        /**
+         * Overrides the behaviour for one host, e.g. to throttle only "trendyol.com".
+         */
+        public Builder behaviour(String host, StubBehaviour behaviour) {
+            behaviours.put(normalize(host), behaviour);
+            return this;
+        }
+
+        public Builder bindAddress(String bindAddress) {
+            this.bindAddress = bindAddress;
+            return this;
+        }
+
+        /**
+         * The port to listen on; 0, the default, picks a free one.
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public StubShop start() throws IOException {
+            return new StubShop(this);
+        }
+    }
+}
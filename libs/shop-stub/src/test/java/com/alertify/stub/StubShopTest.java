@@ -0,0 +1,77 @@
+package com.alertify.stub;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StubShopTest {
+
+    private static final String PAGE_URL = "https://www.trendyol.com/sespro/kulaklik-p-22113";
+    private static final String PAGE = "<html><body><span class=\"prc-dsc\">849,90 TL</span></body></html>";
+
+    @Test
+    void servesPagesAsAProxyAndRevalidatesByEtag() throws Exception {
+        try (StubShop shop = StubShop.builder().page(PAGE_URL, PAGE).start()) {
+            HttpClient client = proxiedClient(shop);
+
+            HttpResponse<String> page = client.send(get("http://trendyol.com/sespro/kulaklik-p-22113?lt=3"),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(page.statusCode()).isEqualTo(200);
+            assertThat(page.body()).isEqualTo(PAGE);
+            String etag = page.headers().firstValue("ETag").orElseThrow();
+
+            HttpResponse<String> revalidated = client.send(
+                    HttpRequest.newBuilder(URI.create("http://www.trendyol.com/sespro/kulaklik-p-22113"))
+                            .header("If-None-Match", etag)
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(revalidated.statusCode()).isEqualTo(304);
+
+            assertThat(client.send(get("http://www.trendyol.com/other-p-1"), HttpResponse.BodyHandlers.discarding())
+                    .statusCode()).isEqualTo(404);
+            assertThat(shop.urls()).containsExactly("http://www.trendyol.com/sespro/kulaklik-p-22113");
+            assertThat(shop.stats()).isEqualTo(new StubShop.Stats(3, 1, 1, 0, 0, 1));
+        }
+    }
+
+    @Test
+    void throttlesPerHostAndFailsAtTheConfiguredRate() throws Exception {
+        try (StubShop shop = StubShop.builder()
+                .page(PAGE_URL, PAGE)
+                .page("https://www.n11.com/urun/saat-1", PAGE)
+                .behaviour("trendyol.com", StubBehaviour.defaults().withThrottle(0.01, 2, 30))
+                .behaviour("n11.com", StubBehaviour.defaults().withErrorRate(1.0))
+                .start()) {
+            HttpClient client = proxiedClient(shop);
+            HttpRequest trendyol = get("http://www.trendyol.com/sespro/kulaklik-p-22113");
+
+            assertThat(client.send(trendyol, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+            assertThat(client.send(trendyol, HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+            HttpResponse<Void> throttled = client.send(trendyol, HttpResponse.BodyHandlers.discarding());
+            assertThat(throttled.statusCode()).isEqualTo(429);
+            assertThat(throttled.headers().firstValue("Retry-After")).contains("30");
+
+            assertThat(client.send(get("http://www.n11.com/urun/saat-1"), HttpResponse.BodyHandlers.discarding())
+                    .statusCode()).isEqualTo(503);
+            assertThat(shop.stats().throttled()).isEqualTo(1);
+            assertThat(shop.stats().failed()).isEqualTo(1);
+        }
+    }
+
+    private static HttpClient proxiedClient(StubShop shop) {
+        return HttpClient.newBuilder()
+                .proxy(ProxySelector.of(new InetSocketAddress("127.0.0.1", shop.port())))
+                .build();
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).build();
+    }
+}
@@ -1,6 +1,7 @@
 plugins {
     id("org.springframework.boot") version "3.3.2"
     id("io.spring.dependency-management") version "1.1.5"
+    id("me.champeau.jmh") version "0.7.2"
     java
 }
 
@@ -22,8 +23,11 @@ dependencies {
     implementation(project(":libs:common-web"))
 
     implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("io.micrometer:micrometer-registry-prometheus")
 
-    implementation("org.jsoup:jsoup:1.17.2")
+    implementation("org.jsoup:jsoup:1.18.1")
+    implementation("com.google.guava:guava:33.1.0-jre")
 
     implementation("org.seleniumhq.selenium:selenium-java:4.15.0")
     implementation("org.seleniumhq.selenium:selenium-chrome-driver:4.15.0")
@@ -34,8 +38,18 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testImplementation(project(":libs:shop-stub"))
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+jmh {
+    // Benchmarks read the recorded page corpus from src/test/resources/corpus; run with ./gradlew :services:fetcher-service:jmh
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+}
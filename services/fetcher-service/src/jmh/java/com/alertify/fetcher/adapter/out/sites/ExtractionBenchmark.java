@@ -0,0 +1,72 @@
+package com.alertify.fetcher.adapter.out.sites;
+
+import com.alertify.fetcher.adapter.out.sites.RecordedCorpus.RecordedPage;
+import com.alertify.fetcher.adapter.out.sites.base.AbstractSiteFetcher;
+import com.alertify.fetcher.domain.model.FetchedPage;
+import com.alertify.fetcher.domain.model.MetricSample;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full extraction path of each site fetcher (parse plus the learned strategy order) over the recorded
+ * corpus. Throughput gives pages per millisecond, sample time the p99 latency, and the gc profiler
+ * configured in the build the allocation rate per page. A trial fails when the fetcher does not come
+ * up with the page's expected price, so a faster but wrong extractor never produces a result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExtractionBenchmark {
+
+    private static final Map<String, String> PARAMS = Map.of();
+
+    @Param({
+            "hepsiburada/product-campaign",
+            "hepsiburada/product-plain",
+            "n11/product",
+            "trendyol/product",
+            "generic/product-jsonld",
+            "generic/product-selectors"
+    })
+    public String page;
+
+    private RecordedPage recorded;
+    private AbstractSiteFetcher fetcher;
+    private FetchedPage fetchedPage;
+
+    @Setup(Level.Trial)
+    public void load() {
+        recorded = RecordedCorpus.page(page);
+        // An empty composite registry is a no-op, so meter bookkeeping stays out of the numbers
+        fetcher = RecordedCorpus.fetcherFor(recorded, new CompositeMeterRegistry());
+        fetchedPage = recorded.toFetchedPage();
+        verify();
+    }
+
+    @TearDown(Level.Trial)
+    public void verify() {
+        BigDecimal price = extract().value();
+        if (price.compareTo(recorded.expectedPrice()) != 0) {
+            throw new IllegalStateException("Extracted " + price + " from " + page
+                    + " of corpus " + RecordedCorpus.VERSION + ", expected " + recorded.expectedPrice());
+        }
+    }
+
+    @Benchmark
+    public MetricSample extract() {
+        return fetcher.extract(fetchedPage, PARAMS);
+    }
+}
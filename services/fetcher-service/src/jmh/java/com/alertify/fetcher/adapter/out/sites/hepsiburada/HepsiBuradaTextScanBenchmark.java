@@ -0,0 +1,128 @@
+package com.alertify.fetcher.adapter.out.sites.hepsiburada;
+
+import com.alertify.fetcher.adapter.out.sites.RecordedCorpus;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CPU cost per page of the "xpath-text" strategy: the former one-search-per-phrase implementation
+ * against the single-pass scanner. Parsing is done once in setup so only the search is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HepsiBuradaTextScanBenchmark {
+
+    private static final String[] CONTEXT_PHRASES = {"sepete özel", "özel fiyat", "indirimli", "kazancınız", "tasarruf"};
+    private static final String[] CURRENCY_SYMBOLS = {"₺", "TL", "tl"};
+
+    @Param({"product-campaign", "product-plain"})
+    public String page;
+
+    private Document document;
+
+    @Setup(Level.Trial)
+    public void parse() {
+        document = Jsoup.parse(RecordedCorpus.page("hepsiburada/" + page).html());
+        if (!singlePass().equals(perPhraseSearch())) {
+            throw new IllegalStateException("Implementations disagree on " + page
+                    + ": " + singlePass() + " vs " + perPhraseSearch());
+        }
+    }
+
+    @Benchmark
+    public Optional<BigDecimal> singlePass() {
+        return HepsiBuradaTextScanner.scan(document);
+    }
+
+    @Benchmark
+    public Optional<BigDecimal> perPhraseSearch() {
+        for (String phrase : CONTEXT_PHRASES) {
+            Optional<BigDecimal> price = findPriceByTextContext(document, phrase);
+            if (price.isPresent()) {
+                return price;
+            }
+        }
+        return findPriceByCurrencyProximity(document);
+    }
+
+    // The strategy as it was before the scanner: every phrase and currency symbol walks the whole document
+
+    private static Optional<BigDecimal> findPriceByTextContext(Document doc, String contextText) {
+        for (Element contextElement : doc.getElementsContainingOwnText(contextText)) {
+            Set<Element> relatedElements = new HashSet<>();
+            Element parent = contextElement.parent();
+            if (parent != null) {
+                relatedElements.addAll(parent.getAllElements());
+            }
+            Element grandParent = parent != null ? parent.parent() : null;
+            if (grandParent != null) {
+                relatedElements.addAll(grandParent.getAllElements());
+            }
+            relatedElements.addAll(contextElement.nextElementSiblings());
+
+            for (Element element : relatedElements) {
+                String text = element.ownText().trim();
+                if (containsNumericPrice(text)) {
+                    Optional<BigDecimal> price = HepsiBuradaPriceText.parse(text);
+                    if (price.isPresent() && HepsiBuradaPriceText.isReasonable(price.get())) {
+                        return price;
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<BigDecimal> findPriceByCurrencyProximity(Document doc) {
+        for (String currency : CURRENCY_SYMBOLS) {
+            Elements currencyElements = doc.getElementsContainingOwnText(currency);
+            for (Element currencyElement : currencyElements) {
+                String fullText = currencyElement.text();
+                String[] patterns = {
+                        "([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})\\s*(?:" + currency + ")",
+                        "([0-9]+,[0-9]{2})\\s*(?:" + currency + ")",
+                        "(?:" + currency + ")\\s*([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})",
+                        "(?:" + currency + ")\\s*([0-9]+,[0-9]{2})"
+                };
+                for (String pattern : patterns) {
+                    Matcher matcher = Pattern.compile(pattern).matcher(fullText);
+                    if (matcher.find()) {
+                        Optional<BigDecimal> price = HepsiBuradaPriceText.parse(matcher.group(1));
+                        if (price.isPresent() && HepsiBuradaPriceText.isReasonable(price.get())) {
+                            return price;
+                        }
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean containsNumericPrice(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return false;
+        }
+        return text.matches(".*[0-9]{1,3}(?:[\\.,][0-9]{3})*[\\.,]?[0-9]{0,2}.*") &&
+                (text.contains("TL") || text.contains("₺") || text.matches(".*[0-9]+[\\.,][0-9]{2}.*"));
+    }
+}
@@ -2,8 +2,10 @@ package com.alertify.fetcher;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FetcherServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(FetcherServiceApplication.class, args);
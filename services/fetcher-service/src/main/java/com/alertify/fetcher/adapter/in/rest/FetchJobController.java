@@ -0,0 +1,93 @@
+package com.alertify.fetcher.adapter.in.rest;
+
+import com.alertify.fetcher.application.service.FetchJobService;
+import com.alertify.fetcher.application.service.FetchJobService.FetchJobView;
+import com.alertify.fetcher.application.service.FetcherOrchestratorService;
+import com.alertify.fetcher.domain.model.FetchJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/fetch/jobs")
+@RequiredArgsConstructor
+public class FetchJobController {
+
+    private final FetchJobService fetchJobService;
+    private final FetcherOrchestratorService orchestratorService;
+
+    @PostMapping
+    public ResponseEntity<FetchJobView> submit(@RequestBody FetchJobRequest request) {
+        if (request.params() == null || request.params().get("url") == null
+                || request.params().get("url").isBlank()
+                || !orchestratorService.supports(request.sourceType())) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            FetchJob job = fetchJobService.submit(
+                    request.sourceType(), request.paramsWithMetrics(), request.callbackUrl(), request.deadlineMs());
+
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/fetch/jobs/" + job.getId()))
+                    .body(FetchJobView.of(job));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid fetch job for {}: {}", request.params().get("url"), e.getMessage());
+            return ResponseEntity.badRequest().build();
+
+        } catch (RejectedExecutionException e) {
+            log.warn("Fetch job queue full ({} waiting), rejecting {}",
+                    fetchJobService.queueDepth(), request.params().get("url"));
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+    }
+
+    /**
+     * With waitMs set this long-polls: it answers as soon as the job is final or the wait elapses,
+     * and the request thread is released meanwhile.
+     */
+    @GetMapping("/{jobId}")
+    public CompletableFuture<ResponseEntity<FetchJobView>> get(@PathVariable String jobId,
+                                                               @RequestParam(defaultValue = "0") long waitMs) {
+        return fetchJobService.await(jobId, Duration.ofMillis(waitMs))
+                .map(job -> job.thenApply(done -> ResponseEntity.ok(FetchJobView.of(done))))
+                .orElseGet(() -> CompletableFuture.completedFuture(ResponseEntity.notFound().build()));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<FetchJobView> cancel(@PathVariable String jobId) {
+        return fetchJobService.cancel(jobId)
+                .map(job -> ResponseEntity.ok(FetchJobView.of(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * metrics works as on the synchronous fetch, so a job returns the same sample for the same request.
+     */
+    public record FetchJobRequest(
+            String sourceType,
+            Map<String, String> params,
+            List<String> metrics,
+            String callbackUrl,
+            Long deadlineMs
+    ) {
+
+        Map<String, String> paramsWithMetrics() {
+            return new FetcherController.FetchRequest(sourceType, params, metrics).paramsWithMetrics();
+        }
+    }
+}
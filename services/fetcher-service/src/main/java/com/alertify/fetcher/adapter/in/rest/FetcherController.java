@@ -1,14 +1,32 @@
 package com.alertify.fetcher.adapter.in.rest;
 
+import com.alertify.fetcher.application.service.FetchExecutor;
 import com.alertify.fetcher.application.service.FetcherOrchestratorService;
+import com.alertify.fetcher.application.service.StrategyStatsService;
+import com.alertify.fetcher.domain.exception.BrowserUnavailableException;
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+import com.alertify.fetcher.domain.exception.DomainRateLimitedException;
+import com.alertify.fetcher.domain.exception.FetcherOverloadedException;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.ListingSnapshot;
 import com.alertify.fetcher.domain.model.MetricSample;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @RestController
@@ -16,39 +34,129 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class FetcherController {
 
-    private final FetcherOrchestratorService orchestratorService;
+    /**
+     * Milliseconds the caller is still willing to wait; relative so the two hosts' clocks need not agree.
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    // Chrome usually comes up within this long when it is still starting
+    private static final long BROWSER_RETRY_AFTER_SECONDS = 10;
 
+    private final FetcherOrchestratorService orchestratorService;
+    private final FetchExecutor fetchExecutor;
+    private final StrategyStatsService strategyStatsService;
+    private final HealthEndpoint healthEndpoint;
+
+    /**
+     * The fetch runs on the fetch executor and the request thread is released meanwhile, so a
+     * burst of slow fetches cannot starve health checks; a full executor answers 429 with Retry-After.
+     */
     @PostMapping
-    public ResponseEntity<MetricSample> fetchMetric(@RequestBody FetchRequest request) {
-        log.info("Received fetch request for sourceType: {} and URL: {}",
-                request.sourceType(), request.params().get("url"));
+    public CompletableFuture<ResponseEntity<MetricSample>> fetchMetric(@RequestBody FetchRequest request,
+                                                                       @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        String url = request.params().get("url");
+        log.info("Received fetch request for sourceType: {} and URL: {}", request.sourceType(), url);
 
-        try {
-            if (!orchestratorService.supports(request.sourceType())) {
-                return ResponseEntity.badRequest().build();
-            }
+        if (!orchestratorService.supports(request.sourceType())) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
 
-            MetricSample sample = orchestratorService.fetch(request.params());
+        Map<String, String> params = request.paramsWithMetrics();
+        Deadline deadline = deadline(timeoutMs);
+        return fetchExecutor.submit(url, () -> orchestratorService.fetch(params, deadline))
+                .thenApply(sample -> {
+                    log.info("Successfully fetched metric: {} = {} {}{}",
+                            sample.metric(), sample.value(), sample.unit(),
+                            sample.metrics().size() > 1 ? " with " + sample.metrics().keySet() : "");
+                    return ResponseEntity.ok(sample);
+                })
+                .exceptionally(e -> failure(e, url));
+    }
+
+    /**
+     * Every product and price on a category or search page, for refreshing many monitors from one page load.
+     */
+    @PostMapping("/listing")
+    public CompletableFuture<ResponseEntity<ListingSnapshot>> fetchListing(@RequestBody FetchRequest request,
+                                                                           @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeoutMs) {
+        String url = request.params().get("url");
+        log.info("Received listing request for sourceType: {} and URL: {}", request.sourceType(), url);
+
+        if (!orchestratorService.supports(request.sourceType())) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
 
-            log.info("Successfully fetched metric: {} = {} {}",
-                    sample.metric(), sample.value(), sample.unit());
+        Deadline deadline = deadline(timeoutMs);
+        return fetchExecutor.submit(url, () -> orchestratorService.fetchListing(request.params(), deadline))
+                .thenApply(listing -> {
+                    log.info("Fetched {} listed products from {}", listing.items().size(), listing.url());
+                    return ResponseEntity.ok(listing);
+                })
+                .exceptionally(e -> failure(e, url));
+    }
 
-            return ResponseEntity.ok(sample);
+    private static Deadline deadline(Long timeoutMs) {
+        return timeoutMs != null && timeoutMs > 0
+                ? Deadline.after(Duration.ofMillis(timeoutMs))
+                : Deadline.none();
+    }
 
-        } catch (IllegalArgumentException e) {
-            log.warn("Invalid request: {}", e.getMessage());
+    private static <T> ResponseEntity<T> failure(Throwable error, String url) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (e instanceof IllegalArgumentException) {
+            log.warn("Invalid request for {}: {}", url, e.getMessage());
             return ResponseEntity.badRequest().build();
+        }
+        FetcherOverloadedException overloaded = findCause(e, FetcherOverloadedException.class);
+        if (overloaded != null) {
+            log.warn("Shedding fetch for {}: {}", url, overloaded.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, overloaded.getRetryAfter().toSeconds())))
+                    .build();
+        }
+        DomainRateLimitedException rateLimited = findCause(e, DomainRateLimitedException.class);
+        if (rateLimited != null) {
+            log.warn("Rejecting fetch for {}: {}", url, rateLimited.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, rateLimited.getRetryAfter().toSeconds())))
+                    .build();
+        }
+        BrowserUnavailableException browserUnavailable = findCause(e, BrowserUnavailableException.class);
+        if (browserUnavailable != null) {
+            log.warn("Cannot fetch {} yet: {}", url, browserUnavailable.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(BROWSER_RETRY_AFTER_SECONDS))
+                    .build();
+        }
+        DeadlineExceededException exceeded = findCause(e, DeadlineExceededException.class);
+        if (exceeded != null) {
+            log.warn("Gave up on {} at the caller's deadline: {}", url, exceeded.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+        log.error("Failed to fetch {}: {}", url, e.getMessage(), e);
+        return ResponseEntity.internalServerError().build();
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to fetch metric: {}", e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+    private static <T extends Throwable> T findCause(Throwable error, Class<T> type) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (type.isInstance(current)) {
+                return type.cast(current);
+            }
         }
+        return null;
     }
 
+    /**
+     * Summary of the actuator health: the service is UP while it can serve HTTP fetches, and the
+     * browser status says whether JS-rendered sites can be fetched too.
+     */
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
+        HealthComponent readiness = healthEndpoint.healthForPath("readiness");
+        HealthComponent browser = healthEndpoint.healthForPath("browser");
         return ResponseEntity.ok(Map.of(
-                "status", "UP",
+                "status", (readiness != null ? readiness : healthEndpoint.health()).getStatus().getCode(),
+                "browser", (browser != null ? browser.getStatus() : Status.UNKNOWN).getCode(),
                 "service", "fetcher-service",
                 "version", "2.0.0"
         ));
@@ -66,6 +174,11 @@ public class FetcherController {
         return ResponseEntity.ok(fetchers);
     }
 
+    @GetMapping("/strategy-stats")
+    public ResponseEntity<Map<String, List<StrategyStatsService.StrategyStat>>> getStrategyStats() {
+        return ResponseEntity.ok(strategyStatsService.snapshot());
+    }
+
     @GetMapping("/best-fetcher")
     public ResponseEntity<Map<String, String>> getBestFetcher(@RequestParam String url) {
         try {
@@ -117,8 +230,26 @@ public class FetcherController {
         }
     }
 
+    /**
+     * metrics names what to read from the page besides the price (e.g. "in_stock", "list_price");
+     * all of them come from the same page load.
+     */
     public record FetchRequest(
             String sourceType,
-            Map<String, String> params
-    ) {}
+            Map<String, String> params,
+            List<String> metrics
+    ) {
+
+        /**
+         * The params with the wanted metrics folded in, so cached results are kept apart by them too.
+         */
+        Map<String, String> paramsWithMetrics() {
+            if (metrics == null || metrics.isEmpty()) {
+                return params;
+            }
+            Map<String, String> merged = new HashMap<>(params);
+            merged.put(MetricSample.METRICS_PARAM, String.join(",", new TreeSet<>(metrics)));
+            return merged;
+        }
+    }
 }
\ No newline at end of file
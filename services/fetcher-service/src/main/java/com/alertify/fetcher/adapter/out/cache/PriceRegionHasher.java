@@ -0,0 +1,103 @@
+package com.alertify.fetcher.adapter.out.cache;
+
+import com.alertify.fetcher.domain.model.SiteConfig;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Hashes only the parts of a page a price can come from (structured data, embedded application
+ * state, price selectors and currency-bearing text), so ads, CSRF tokens and recommendation
+ * widgets do not defeat the cache.
+ */
+public final class PriceRegionHasher {
+
+    private static final String STRUCTURED_PRICE_QUERY = String.join(", ",
+            "script[type=application/ld+json]",
+            "script#__NEXT_DATA__",
+            "meta[property~=(?i)price]",
+            "meta[name~=(?i)price]",
+            "[itemprop=price]",
+            "[itemprop=lowPrice]",
+            "[data-price]"
+    );
+
+    // The window.__*STATE__ assignments EmbeddedStateExtractor reads prices from
+    private static final Pattern WINDOW_STATE = Pattern.compile("window\\.__[A-Za-z0-9_]*STATE__\\s*=");
+
+    private static final String CURRENCY_TEXT_QUERY = ":containsOwn(₺), :containsOwn(TL), :containsOwn($), :containsOwn(€)";
+
+    private PriceRegionHasher() {
+    }
+
+    /**
+     * @return hex digest of the price region, or null when the page has no recognisable price region
+     */
+    public static String hash(String html, SiteConfig config) {
+        if (html == null || html.isEmpty()) {
+            return null;
+        }
+        return hash(Jsoup.parse(html), config);
+    }
+
+    /**
+     * Same as {@link #hash(String, SiteConfig)} on a page already parsed, which it only reads.
+     */
+    public static String hash(Document doc, SiteConfig config) {
+        Set<Element> region = new LinkedHashSet<>(doc.select(STRUCTURED_PRICE_QUERY));
+        addStateScripts(doc, region);
+
+        addSelectorMatches(doc, config.getPriceSelectors(), region);
+        addSelectorMatches(doc, config.getFallbackSelectors(), region);
+        region.addAll(doc.body().select(CURRENCY_TEXT_QUERY));
+
+        if (region.isEmpty()) {
+            return null;
+        }
+
+        MessageDigest digest = sha256();
+        for (Element element : region) {
+            digest.update(element.outerHtml().getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void addStateScripts(Document doc, Set<Element> region) {
+        for (Element script : doc.select("script:not([src])")) {
+            String data = script.data();
+            if (data.contains("STATE__") && WINDOW_STATE.matcher(data).find()) {
+                region.add(script);
+            }
+        }
+    }
+
+    private static void addSelectorMatches(Document doc, List<String> selectors, Set<Element> region) {
+        if (selectors == null) {
+            return;
+        }
+        for (String selector : selectors) {
+            try {
+                region.addAll(doc.select(selector));
+            } catch (Exception e) {
+                // invalid selectors are already tolerated by the extractors, ignore them here too
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
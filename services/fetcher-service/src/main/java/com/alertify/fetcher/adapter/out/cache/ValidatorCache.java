@@ -0,0 +1,116 @@
+package com.alertify.fetcher.adapter.out.cache;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.MetricSample;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Per-URL HTTP validators plus the last sample extracted for that URL, bounded as an LRU.
+ * Lets a check skip extraction when the server answers 304 or the price region hashes the same.
+ */
+@Slf4j
+@Component
+public class ValidatorCache {
+
+    private final boolean enabled;
+    private final Map<String, Entry> entries;
+
+    private final Counter notModifiedCounter;
+    private final Counter unchangedRegionCounter;
+    private final Counter missCounter;
+
+    public ValidatorCache(FetcherProperties properties, MeterRegistry meterRegistry) {
+        FetcherProperties.ValidatorCacheConfig config = properties.getValidatorCache();
+        int maxEntries = config.getMaxEntries();
+
+        this.enabled = config.isEnabled();
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.notModifiedCounter = Counter.builder("fetcher.validator_cache.requests")
+                .tag("result", "not_modified")
+                .register(meterRegistry);
+        this.unchangedRegionCounter = Counter.builder("fetcher.validator_cache.requests")
+                .tag("result", "unchanged_region")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("fetcher.validator_cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+
+        Gauge.builder("fetcher.validator_cache.size", this, ValidatorCache::size)
+                .register(meterRegistry);
+        Gauge.builder("fetcher.validator_cache.hit_ratio", this, ValidatorCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized Optional<Entry> get(String url) {
+        return enabled ? Optional.ofNullable(entries.get(url)) : Optional.empty();
+    }
+
+    public synchronized void put(String url, Entry entry) {
+        if (enabled) {
+            entries.put(url, entry);
+        }
+    }
+
+    /**
+     * Returns the cached sample re-stamped to now, recording which validator short-circuited the fetch.
+     */
+    public MetricSample reuse(Entry entry, String unit, boolean notModified) {
+        (notModified ? notModifiedCounter : unchangedRegionCounter).increment();
+        MetricSample cached = entry.sample();
+        return new MetricSample(cached.metric(), cached.value(), unit, Instant.now(), cached.metrics());
+    }
+
+    public void recordMiss() {
+        if (enabled) {
+            missCounter.increment();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private double hitRatio() {
+        double hits = notModifiedCounter.count() + unchangedRegionCounter.count();
+        double total = hits + missCounter.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    public record Entry(
+            String etag,
+            String lastModified,
+            String regionHash,
+            MetricSample sample
+    ) {
+
+        public Map<String, String> conditionalHeaders() {
+            Map<String, String> headers = new LinkedHashMap<>();
+            if (etag != null) {
+                headers.put("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                headers.put("If-Modified-Since", lastModified);
+            }
+            return headers;
+        }
+    }
+}
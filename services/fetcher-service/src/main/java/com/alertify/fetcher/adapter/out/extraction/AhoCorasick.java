@@ -0,0 +1,140 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Multi-pattern substring matcher for page text: one left-to-right pass over a text reports which of
+ * up to 64 patterns occur in it, however many patterns there are. Case is ignored and any run of
+ * whitespace matches a single space, as in rendered text. The automaton is
+ * compiled to a dense transition table over the characters the patterns use, so matching does one
+ * array lookup per input character.
+ */
+public final class AhoCorasick {
+
+    private final Map<Character, Integer> alphabet = new HashMap<>();
+    private final int[] latin1Symbols = new int[256];
+    private final int[][] next;
+    private final long[] outputs;
+    private final long allPatterns;
+
+    public AhoCorasick(List<String> patterns) {
+        if (patterns.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " patterns are supported");
+        }
+        this.allPatterns = patterns.size() == Long.SIZE ? -1L : (1L << patterns.size()) - 1;
+
+        // Symbol 0 stands for every character no pattern contains
+        List<String> folded = patterns.stream().map(pattern -> pattern.toLowerCase(Locale.ROOT)).toList();
+        for (String pattern : folded) {
+            for (char c : pattern.toCharArray()) {
+                alphabet.computeIfAbsent(c, unused -> alphabet.size() + 1);
+            }
+        }
+        alphabet.forEach((c, symbol) -> {
+            if (c < latin1Symbols.length) {
+                latin1Symbols[c] = symbol;
+            }
+        });
+        int symbols = alphabet.size() + 1;
+
+        List<int[]> trie = new ArrayList<>();
+        List<Long> trieOutputs = new ArrayList<>();
+        trie.add(newRow(symbols));
+        trieOutputs.add(0L);
+        for (int i = 0; i < folded.size(); i++) {
+            int state = 0;
+            for (char c : folded.get(i).toCharArray()) {
+                int symbol = symbol(c);
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newRow(symbols));
+                    trieOutputs.add(0L);
+                }
+                state = trie.get(state)[symbol];
+            }
+            trieOutputs.set(state, trieOutputs.get(state) | 1L << i);
+        }
+
+        this.next = trie.toArray(int[][]::new);
+        this.outputs = trieOutputs.stream().mapToLong(Long::longValue).toArray();
+        compileFailureLinks(symbols);
+    }
+
+    /**
+     * @return bit i set when pattern i occurs in text
+     */
+    public long matches(CharSequence text) {
+        long found = 0;
+        int state = 0;
+        boolean afterSpace = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || c == '\u00A0') {
+                if (afterSpace) {
+                    continue;
+                }
+                afterSpace = true;
+                c = ' ';
+            } else {
+                afterSpace = false;
+                c = Character.toLowerCase(c);
+            }
+            state = next[state][symbol(c)];
+            found |= outputs[state];
+            if (found == allPatterns) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    private int symbol(char c) {
+        if (c < latin1Symbols.length) {
+            return latin1Symbols[c];
+        }
+        return alphabet.getOrDefault(c, 0);
+    }
+
+    // Breadth-first over the trie, replacing missing edges by the failure state's edge so the table becomes a DFA
+    private void compileFailureLinks(int symbols) {
+        int[] failure = new int[next.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            if (next[0][symbol] < 0) {
+                next[0][symbol] = 0;
+            } else {
+                queue.add(next[0][symbol]);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            // A state also reports every pattern that ends at its longest proper suffix
+            outputs[state] |= outputs[failure[state]];
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                int child = next[state][symbol];
+                if (child < 0) {
+                    next[state][symbol] = next[failure[state]][symbol];
+                } else {
+                    failure[child] = next[failure[state]][symbol];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    private static int[] newRow(int symbols) {
+        int[] row = new int[symbols];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,89 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the price from a product API response the page requested, so JS-heavy sites can be
+ * answered from their own JSON instead of the rendered DOM.
+ */
+@Slf4j
+@Component
+public class ApiResponsePriceExtractor {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Pattern> urlPatterns = new ConcurrentHashMap<>();
+    private final Map<String, JsonPointer> pricePaths = new ConcurrentHashMap<>();
+
+    public ApiResponsePriceExtractor(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean matches(String requestUrl, List<String> patterns) {
+        return patterns.stream()
+                .anyMatch(pattern -> urlPatterns.computeIfAbsent(pattern, ApiResponsePriceExtractor::globToRegex)
+                        .matcher(requestUrl)
+                        .matches());
+    }
+
+    /**
+     * @return the first positive price found under paths, tried in order
+     */
+    public Optional<StreamingExtraction> extract(String body, List<String> paths) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(body);
+        } catch (Exception e) {
+            log.debug("Captured response is not JSON: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        for (String path : paths) {
+            JsonNode value = root.at(pricePaths.computeIfAbsent(path, ApiResponsePriceExtractor::toPointer));
+            Optional<BigDecimal> price = value.isNumber()
+                    ? Optional.of(value.decimalValue()).filter(number -> number.signum() > 0)
+                    : StructuredDataPrices.parseMachinePrice(value.asText(""));
+            if (price.isPresent()) {
+                return Optional.of(StreamingExtraction.found(price.get(), "api:" + path, body.length()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void recordOutcome(boolean captured) {
+        meterRegistry.counter("fetcher.api_capture.requests", "outcome", captured ? "captured" : "missed").increment();
+    }
+
+    /**
+     * "result.prices[0].value" becomes the JSON Pointer "/result/prices/0/value"; pointers pass through.
+     */
+    static JsonPointer toPointer(String path) {
+        if (path.startsWith("/")) {
+            return JsonPointer.compile(path);
+        }
+        String dotted = path.replaceFirst("^\\$\\.?", "").replaceAll("\\[(\\d+)]", ".$1");
+        return JsonPointer.compile("/" + dotted.replace("~", "~0").replace("/", "~1").replace('.', '/'));
+    }
+
+    private static Pattern globToRegex(String glob) {
+        String[] parts = glob.split("\\*", -1);
+        StringBuilder regex = new StringBuilder(Pattern.quote(parts[0]));
+        for (int i = 1; i < parts.length; i++) {
+            regex.append(".*").append(Pattern.quote(parts[i]));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,168 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import com.alertify.fetcher.domain.model.SiteConfig;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the price out of server-rendered application state (__NEXT_DATA__, window.__*STATE__
+ * assignments, JSON-LD) so JS-heavy sites can usually be served without a browser.
+ */
+@Slf4j
+@Component
+public class EmbeddedStateExtractor {
+
+    private static final Pattern WINDOW_STATE = Pattern.compile(
+            "window\\.(__[A-Za-z0-9_]*STATE__)\\s*=\\s*(?=[{\\[])");
+
+    private static final List<String> DEFAULT_PRICE_FIELDS = List.of(
+            "discountedPrice", "sellingPrice", "finalPrice", "salePrice", "currentPrice", "price"
+    );
+
+    private static final List<String> VALUE_FIELDS = List.of("value", "amount", "price");
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public EmbeddedStateExtractor(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Optional<StreamingExtraction> extract(String html, SiteConfig config) {
+        if (html == null || html.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Document doc = Jsoup.parse(html);
+        List<String> priceFields = config.getEmbeddedStatePriceFields() != null
+                ? config.getEmbeddedStatePriceFields()
+                : DEFAULT_PRICE_FIELDS;
+
+        Element nextData = doc.getElementById("__NEXT_DATA__");
+        if (nextData != null) {
+            Optional<BigDecimal> price = readTree(nextData.data()).flatMap(tree -> findStatePrice(tree, priceFields));
+            if (price.isPresent()) {
+                return Optional.of(StreamingExtraction.found(price.get(), "__NEXT_DATA__", html.length()));
+            }
+        }
+
+        for (Element script : doc.select("script:not([src])")) {
+            String data = script.data();
+            if (!data.contains("__") || !data.contains("STATE__")) {
+                continue;
+            }
+            Matcher matcher = WINDOW_STATE.matcher(data);
+            while (matcher.find()) {
+                Optional<BigDecimal> price = readTree(data.substring(matcher.end()))
+                        .flatMap(tree -> findStatePrice(tree, priceFields));
+                if (price.isPresent()) {
+                    return Optional.of(StreamingExtraction.found(price.get(), matcher.group(1), html.length()));
+                }
+            }
+        }
+
+        if (config.isEnableJsonLd()) {
+            for (Element script : doc.select("script[type=application/ld+json]")) {
+                Optional<BigDecimal> price = JsonLdOfferExtractor.firstOffer(script.data())
+                        .map(JsonLdOfferExtractor.Offer::price);
+                if (price.isPresent()) {
+                    return Optional.of(StreamingExtraction.found(price.get(), "json-ld", html.length()));
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Counts whether a tiered fetch was served from HTTP alone or had to escalate to a browser.
+     */
+    public void recordTier(String site, boolean escalated) {
+        Counter.builder("fetcher.tiered.requests")
+                .tag("site", site)
+                .tag("outcome", escalated ? "escalated" : "browserless")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Parses the first JSON value in the text; whatever follows it (";", more script) is ignored.
+     */
+    private Optional<JsonNode> readTree(String text) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(text)) {
+            return Optional.ofNullable(objectMapper.readTree(parser));
+        } catch (Exception e) {
+            log.debug("Skipping unparseable embedded state: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Breadth-first so the product's own price wins over prices nested deeper in recommendation
+     * or bundle widgets: the shallowest level holding any of the fields wins, and within a level
+     * the field configured first.
+     */
+    private Optional<BigDecimal> findStatePrice(JsonNode root, List<String> priceFields) {
+        List<JsonNode> level = List.of(root);
+        while (!level.isEmpty()) {
+            BigDecimal best = null;
+            int bestField = priceFields.size();
+            List<JsonNode> next = new ArrayList<>();
+            for (JsonNode node : level) {
+                if (node.isObject()) {
+                    for (int i = 0; i < bestField; i++) {
+                        JsonNode value = node.get(priceFields.get(i));
+                        Optional<BigDecimal> price = value != null ? priceValue(value) : Optional.empty();
+                        if (price.isPresent()) {
+                            best = price.get();
+                            bestField = i;
+                            break;
+                        }
+                    }
+                }
+                if (node.isContainerNode()) {
+                    node.forEach(next::add);
+                }
+            }
+            if (best != null) {
+                return Optional.of(best);
+            }
+            level = next;
+        }
+        return Optional.empty();
+    }
+
+    private Optional<BigDecimal> priceValue(JsonNode node) {
+        if (node.isNumber() || node.isTextual()) {
+            return StructuredDataPrices.parseMachinePrice(node.asText());
+        }
+        if (node.isObject()) {
+            for (String field : VALUE_FIELDS) {
+                JsonNode value = node.get(field);
+                if (value != null && (value.isNumber() || value.isTextual())) {
+                    Optional<BigDecimal> price = StructuredDataPrices.parseMachinePrice(value.asText());
+                    if (price.isPresent()) {
+                        return price;
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,141 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import com.alertify.fetcher.domain.model.SiteConfig;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Finds price candidates inside the browser so only a few kilobytes cross the WebDriver protocol
+ * instead of the whole rendered DOM. JSON-LD and price meta tags are read on this side as with
+ * streaming extraction; selector matches come back as a pruned page for the site's extractors.
+ */
+@Slf4j
+@Component
+public class InBrowserPriceExtractor {
+
+    private static final String SCRIPT_RESOURCE = "browser/price-candidates.js";
+    private static final int MAX_FRAGMENT_CHARS = 20_000;
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary payloadSize;
+    private final String script;
+
+    public InBrowserPriceExtractor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.payloadSize = DistributionSummary.builder("fetcher.browser_extraction.payload")
+                .baseUnit("bytes")
+                .description("Characters transferred from the browser per in-browser extraction")
+                .register(meterRegistry);
+        try {
+            this.script = new ClassPathResource(SCRIPT_RESOURCE).getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load " + SCRIPT_RESOURCE, e);
+        }
+    }
+
+    /**
+     * @return a found price from structured data, a pruned page holding only the candidate
+     *         elements, or empty when the page has no candidates and its full source is needed
+     */
+    public Optional<StreamingExtraction> extract(JavascriptExecutor browser, SiteConfig config) {
+        Object raw = browser.executeScript(script, selectors(config), MAX_FRAGMENT_CHARS);
+        if (!(raw instanceof Map<?, ?> candidates)) {
+            record("page_source");
+            return Optional.empty();
+        }
+
+        List<String> jsonLd = strings(candidates.get("jsonLd"));
+        List<String> meta = strings(candidates.get("meta"));
+        List<String> fragments = strings(candidates.get("fragments"));
+        long payloadChars = length(jsonLd) + length(meta) + length(fragments);
+        payloadSize.record(payloadChars);
+
+        if (config.isEnableJsonLd()) {
+            for (String block : jsonLd) {
+                Optional<BigDecimal> price = JsonLdOfferExtractor.firstOffer(block).map(JsonLdOfferExtractor.Offer::price);
+                if (price.isPresent()) {
+                    record("structured");
+                    return Optional.of(StreamingExtraction.found(price.get(), "browser:json-ld", payloadChars));
+                }
+            }
+        }
+        if (config.isEnableMetaTags()) {
+            for (String content : meta) {
+                Optional<BigDecimal> price = StructuredDataPrices.parseMachinePrice(content);
+                if (price.isPresent()) {
+                    record("structured");
+                    return Optional.of(StreamingExtraction.found(price.get(), "browser:meta", payloadChars));
+                }
+            }
+        }
+
+        if (fragments.isEmpty()) {
+            record("page_source");
+            return Optional.empty();
+        }
+
+        record("candidates");
+        log.debug("Transferred {} price candidate fragments ({} chars) from the browser", fragments.size(), payloadChars);
+        return Optional.of(StreamingExtraction.notFound(prunedPage(jsonLd, fragments), payloadChars, false));
+    }
+
+    /**
+     * Counts fetches where the candidates were not enough and the page had to be loaded in full.
+     */
+    public void recordFullPageRetry() {
+        record("full_page_retry");
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("fetcher.browser_extraction.requests", "outcome", outcome).increment();
+    }
+
+
+    private static List<String> selectors(SiteConfig config) {
+        List<String> selectors = new ArrayList<>();
+        if (config.getPriceSelectors() != null) {
+            selectors.addAll(config.getPriceSelectors());
+        }
+        if (config.getFallbackSelectors() != null) {
+            selectors.addAll(config.getFallbackSelectors());
+        }
+        return selectors;
+    }
+
+    private static String prunedPage(List<String> jsonLd, List<String> fragments) {
+        StringBuilder html = new StringBuilder("<html><head>");
+        for (String block : jsonLd) {
+            html.append("<script type=\"application/ld+json\">").append(block).append("</script>");
+        }
+        html.append("</head><body>");
+        fragments.forEach(html::append);
+        return html.append("</body></html>").toString();
+    }
+
+    private static List<String> strings(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return List.of();
+        }
+        return list.stream()
+                .filter(String.class::isInstance)
+                .map(String.class::cast)
+                .toList();
+    }
+
+    private static long length(List<String> values) {
+        return values.stream().mapToLong(String::length).sum();
+    }
+}
@@ -0,0 +1,359 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the first priced schema.org offer out of JSON-LD with Jackson's streaming parser, without
+ * building a tree. Offers are found under a node's "offers" (object or array, including
+ * AggregateOffer), through "@graph" and "mainEntity", or as a top-level Offer; a price comes from
+ * "price", "lowPrice" or a non-strikethrough "priceSpecification", whose strikethrough entry is kept
+ * as the list price. Every other member is skipped
+ * unread, so related products and reviews elsewhere in the block can't contribute a price, and
+ * parsing stops at the end of the first offer that has one.
+ */
+@Slf4j
+public final class JsonLdOfferExtractor {
+
+    // Script bodies are raw text in HTML, so the block needs no entity decoding
+    private static final Pattern JSON_LD_SCRIPT = Pattern.compile(
+            "<script\\b[^>]*\\btype\\s*=\\s*[\"']?application/ld\\+json[\"']?[^>]*>(.*?)</script\\s*>",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    // Hand-written blocks routinely carry raw newlines in descriptions and trailing commas
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+            .build();
+
+    private JsonLdOfferExtractor() {
+    }
+
+    /**
+     * listPrice is the crossed-out price of a priceSpecification, offerCount the number of sellers of
+     * an AggregateOffer; both are null when the offer does not say.
+     */
+    public record Offer(BigDecimal price, String currency, String availability, BigDecimal listPrice, Integer offerCount) {
+
+        /**
+         * Whether the schema.org availability means the product can be bought, or null when it is not given.
+         */
+        public Boolean inStock() {
+            if (availability == null || availability.isBlank()) {
+                return null;
+            }
+            String value = availability.substring(availability.lastIndexOf('/') + 1);
+            return switch (value) {
+                case "InStock", "LimitedAvailability", "OnlineOnly", "InStoreOnly", "PreSale" -> true;
+                case "OutOfStock", "SoldOut", "Discontinued" -> false;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * A product of an ItemList with the URL it links to.
+     */
+    public record ListedOffer(String url, Offer offer) {
+    }
+
+    /**
+     * First offer across the page's application/ld+json scripts, in document order.
+     */
+    public static Optional<Offer> firstOfferInPage(String html) {
+        Matcher matcher = JSON_LD_SCRIPT.matcher(html);
+        while (matcher.find()) {
+            Optional<Offer> offer = firstOffer(matcher.group(1));
+            if (offer.isPresent()) {
+                return offer;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<Offer> firstOffer(String json) {
+        try (JsonParser parser = JSON.createParser(json)) {
+            return readValue(parser, parser.nextToken(), false);
+        } catch (IOException e) {
+            log.debug("Skipping unparseable JSON-LD block: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Priced products of the page's schema.org ItemLists (category and search pages), in list order.
+     * Entries that carry only a position and URL are left out.
+     */
+    public static List<ListedOffer> itemListInPage(String html) {
+        List<ListedOffer> listed = new ArrayList<>();
+        Matcher matcher = JSON_LD_SCRIPT.matcher(html);
+        while (matcher.find()) {
+            try (JsonParser parser = JSON.createParser(matcher.group(1))) {
+                collectItemLists(parser, parser.nextToken(), listed);
+            } catch (IOException e) {
+                log.debug("Skipping unparseable JSON-LD block: {}", e.getMessage());
+            }
+        }
+        return listed;
+    }
+
+    private static void collectItemLists(JsonParser parser, JsonToken token, List<ListedOffer> listed) throws IOException {
+        if (token == JsonToken.START_ARRAY) {
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                collectItemLists(parser, token, listed);
+            }
+            return;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "@graph", "mainEntity" -> collectItemLists(parser, value, listed);
+                case "itemListElement" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while ((value = parser.nextToken()) != JsonToken.END_ARRAY && value != null) {
+                            readListElement(parser, value).ifPresent(listed::add);
+                        }
+                    } else {
+                        readListElement(parser, value).ifPresent(listed::add);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * A ListItem wrapping its product under "item", or the Product itself.
+     */
+    private static Optional<ListedOffer> readListElement(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return Optional.empty();
+        }
+        String url = null;
+        String id = null;
+        Optional<Offer> offer = Optional.empty();
+        Optional<ListedOffer> item = Optional.empty();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "url" -> url = scalarText(parser, value);
+                case "@id" -> id = scalarText(parser, value);
+                case "offers" -> offer = readOffers(parser, value);
+                case "item" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        item = readListElement(parser, value);
+                    } else {
+                        url = url != null ? url : scalarText(parser, value);
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (item.isPresent()) {
+            return item;
+        }
+        String link = url != null ? url : id;
+        return link != null && offer.isPresent() ? Optional.of(new ListedOffer(link, offer.get())) : Optional.empty();
+    }
+
+    /**
+     * The first offer of a list entry; unlike a single-offer read, the rest of the value is consumed
+     * so the walk can go on to the next entry.
+     */
+    private static Optional<Offer> readOffers(JsonParser parser, JsonToken token) throws IOException {
+        if (!token.isStructStart()) {
+            return Optional.empty();
+        }
+        int depth = parser.getParsingContext().getNestingDepth();
+        Optional<Offer> offer = readValue(parser, token, true);
+        while (parser.getParsingContext().getNestingDepth() >= depth && parser.nextToken() != null) {
+            parser.skipChildren();
+        }
+        return offer;
+    }
+
+    private static Optional<Offer> readValue(JsonParser parser, JsonToken token, boolean offerContext) throws IOException {
+        if (token == JsonToken.START_OBJECT) {
+            return readObject(parser, offerContext);
+        }
+        if (token == JsonToken.START_ARRAY) {
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                Optional<Offer> offer = readValue(parser, token, offerContext);
+                if (offer.isPresent()) {
+                    return offer;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Members can come in any order, so an object's own price is only judged at its end; an offer
+     * nested under it is returned as soon as it closes.
+     */
+    private static Optional<Offer> readObject(JsonParser parser, boolean offerContext) throws IOException {
+        String type = "";
+        BigDecimal price = null;
+        BigDecimal lowPrice = null;
+        String currency = null;
+        String availability = null;
+        Integer offerCount = null;
+        Specification specified = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "@graph", "mainEntity" -> {
+                    Optional<Offer> offer = readValue(parser, value, false);
+                    if (offer.isPresent()) {
+                        return offer;
+                    }
+                }
+                case "offers" -> {
+                    Optional<Offer> offer = readValue(parser, value, true);
+                    if (offer.isPresent()) {
+                        return offer;
+                    }
+                }
+                case "priceSpecification" -> {
+                    if (specified == null) {
+                        specified = new Specification();
+                        readPriceSpecification(parser, value, specified);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case "@type" -> type = typeOf(parser, value);
+                case "price" -> price = scalarPrice(parser, value);
+                case "lowPrice" -> lowPrice = scalarPrice(parser, value);
+                case "priceCurrency" -> currency = scalarText(parser, value);
+                case "availability" -> availability = scalarText(parser, value);
+                case "offerCount" -> offerCount = scalarCount(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (!offerContext && !type.endsWith("Offer")) {
+            return Optional.empty();
+        }
+        BigDecimal listPrice = specified != null ? specified.listPrice : null;
+        BigDecimal offerPrice = price != null ? price : lowPrice;
+        if (offerPrice != null) {
+            return Optional.of(new Offer(offerPrice, currency, availability, listPrice, offerCount));
+        }
+        if (specified != null && specified.price != null) {
+            return Optional.of(new Offer(specified.price,
+                    specified.currency != null ? specified.currency : currency, availability, listPrice, offerCount));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Selling and list price of a priceSpecification (or a list of them), the first of each kind winning.
+     */
+    private static final class Specification {
+        private BigDecimal price;
+        private String currency;
+        private BigDecimal listPrice;
+    }
+
+    private static void readPriceSpecification(JsonParser parser, JsonToken token, Specification into) throws IOException {
+        if (token == JsonToken.START_ARRAY) {
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                readPriceSpecification(parser, token, into);
+            }
+            return;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+
+        BigDecimal price = null;
+        String currency = null;
+        String priceType = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "price" -> price = scalarPrice(parser, value);
+                case "priceCurrency" -> currency = scalarText(parser, value);
+                case "priceType" -> priceType = String.valueOf(scalarText(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        if (price == null) {
+            return;
+        }
+        // The crossed-out list price sits next to the selling price in the same specification list
+        if (priceType.contains("StrikethroughPrice") || priceType.contains("ListPrice")) {
+            if (into.listPrice == null) {
+                into.listPrice = price;
+            }
+        } else if (into.price == null) {
+            into.price = price;
+            into.currency = currency;
+        }
+    }
+
+    private static String typeOf(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.START_ARRAY) {
+            String type = "";
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                String candidate = typeOf(parser, token);
+                if (candidate.endsWith("Offer")) {
+                    type = candidate;
+                }
+            }
+            return type;
+        }
+        String type = scalarText(parser, token);
+        return type != null ? type : "";
+    }
+
+    private static BigDecimal scalarPrice(JsonParser parser, JsonToken token) throws IOException {
+        String text = scalarText(parser, token);
+        return text != null ? StructuredDataPrices.parseMachinePrice(text).orElse(null) : null;
+    }
+
+    private static Integer scalarCount(JsonParser parser, JsonToken token) throws IOException {
+        String text = scalarText(parser, token);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(text.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String scalarText(JsonParser parser, JsonToken token) throws IOException {
+        if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Outcome of a streaming pass: either a price found in structured data (html is null because the
+ * rest of the page was never read), or the page as far as it was read for the regular extractors.
+ */
+public record StreamingExtraction(
+        Optional<BigDecimal> price,
+        String source,
+        long bytesRead,
+        boolean truncated,
+        String html
+) {
+
+    public static StreamingExtraction found(BigDecimal price, String source, long bytesRead) {
+        return new StreamingExtraction(Optional.of(price), source, bytesRead, false, null);
+    }
+
+    public static StreamingExtraction notFound(String html, long bytesRead, boolean truncated) {
+        return new StreamingExtraction(Optional.empty(), null, bytesRead, truncated, html);
+    }
+}
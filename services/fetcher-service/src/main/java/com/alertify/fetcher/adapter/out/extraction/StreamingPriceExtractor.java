@@ -0,0 +1,119 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import com.alertify.fetcher.adapter.out.http.CappedInputStream;
+import com.alertify.fetcher.adapter.out.http.HttpBodyDecoder;
+import com.alertify.fetcher.adapter.out.http.HttpStream;
+import com.alertify.fetcher.adapter.out.http.PageBody;
+import com.alertify.fetcher.adapter.out.http.PageBufferPool;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamingPriceExtractor {
+
+    private static final int CHARSET_SNIFF_BYTES = 4096;
+
+    private static final Set<String> PRICE_META_NAMES = Set.of(
+            "product:price:amount", "og:price:amount", "product:price", "price"
+    );
+
+    private static final Set<String> PRICE_ITEMPROPS = Set.of("price", "lowPrice");
+
+    private final FetcherProperties properties;
+    private final PageBufferPool bufferPool;
+
+    public boolean isEnabled() {
+        return properties.getStreaming().isEnabled();
+    }
+
+    /**
+     * Feeds the response into jsoup's stream parser and inspects each element as it closes.
+     * Only machine-readable sources (JSON-LD, price meta tags, microdata content attributes)
+     * count as confident; anything softer is left to the site's regular extractors.
+     */
+    public StreamingExtraction extract(HttpStream stream, SiteConfig config) throws IOException {
+        try (PageBody captured = bufferPool.newBody()) {
+            return extract(stream, config, new CappedInputStream(stream.body(), captured));
+        }
+    }
+
+    private StreamingExtraction extract(HttpStream stream, SiteConfig config, CappedInputStream capped) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(capped, CHARSET_SNIFF_BYTES);
+        Charset charset = stream.headerCharset() != null ? stream.headerCharset() : sniffCharset(in);
+
+        try (StreamParser parser = new StreamParser(Parser.htmlParser())) {
+            parser.parse(new BufferedReader(new InputStreamReader(in, charset)), stream.url());
+
+            Iterator<Element> elements = parser.iterator();
+            while (elements.hasNext()) {
+                Element element = elements.next();
+
+                Optional<BigDecimal> price = inspect(element, config);
+                if (price.isPresent()) {
+                    String source = element.tagName();
+                    parser.stop();
+                    log.debug("Streaming extraction found {} in <{}> after {} bytes of {}",
+                            price.get(), source, capped.bytesRead(), stream.url());
+                    return StreamingExtraction.found(price.get(), source, capped.bytesRead());
+                }
+
+                // Keep the streamed DOM shallow; the raw bytes are retained for fallback extraction
+                if (element.parent() != null && !"head".equals(element.tagName()) && !"body".equals(element.tagName())) {
+                    element.remove();
+                }
+            }
+        }
+
+        if (capped.isTruncated()) {
+            log.warn("Page {} exceeded the {} byte cap, extracting from the first part only",
+                    stream.url(), properties.getHttp().getMaxPageBytes());
+        }
+
+        return StreamingExtraction.notFound(capped.captured(charset), capped.bytesRead(), capped.isTruncated());
+    }
+
+    private Optional<BigDecimal> inspect(Element element, SiteConfig config) {
+        return switch (element.normalName()) {
+            case "script" -> config.isEnableJsonLd() && "application/ld+json".equalsIgnoreCase(element.attr("type"))
+                    ? JsonLdOfferExtractor.firstOffer(element.data()).map(JsonLdOfferExtractor.Offer::price)
+                    : Optional.empty();
+            case "meta" -> config.isEnableMetaTags() && isPriceMeta(element)
+                    ? StructuredDataPrices.parseMachinePrice(element.attr("content"))
+                    : Optional.empty();
+            default -> PRICE_ITEMPROPS.contains(element.attr("itemprop")) && element.hasAttr("content")
+                    ? StructuredDataPrices.parseMachinePrice(element.attr("content"))
+                    : Optional.empty();
+        };
+    }
+
+    private boolean isPriceMeta(Element meta) {
+        String name = meta.hasAttr("property") ? meta.attr("property") : meta.attr("name");
+        return PRICE_META_NAMES.contains(name.toLowerCase());
+    }
+
+
+    private Charset sniffCharset(BufferedInputStream in) throws IOException {
+        in.mark(CHARSET_SNIFF_BYTES);
+        byte[] head = in.readNBytes(CHARSET_SNIFF_BYTES);
+        in.reset();
+        return HttpBodyDecoder.detectCharset(null, head);
+    }
+}
@@ -0,0 +1,28 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Price parsing for machine-readable page data (schema.org JSON-LD, meta tags and embedded state blobs).
+ */
+final class StructuredDataPrices {
+
+    private StructuredDataPrices() {
+    }
+
+    /**
+     * Structured data carries schema.org numbers ("1299.90"), not locale-formatted display text.
+     */
+    static Optional<BigDecimal> parseMachinePrice(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            BigDecimal price = new BigDecimal(value.trim());
+            return price.signum() > 0 ? Optional.of(price) : Optional.empty();
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Collects a response body into a pooled page body and cancels the exchange once its cap is hit,
+ * so a pathological page cannot grow the buffer without bound. The network buffers are copied
+ * straight into the body's segments.
+ */
+class CappedBodySubscriber implements HttpResponse.BodySubscriber<PageBody> {
+
+    private final PageBody body;
+    private final CompletableFuture<PageBody> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    CappedBodySubscriber(PageBody body) {
+        this.body = body;
+    }
+
+    @Override
+    public CompletionStage<PageBody> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (result.isDone()) {
+            return;
+        }
+
+        for (ByteBuffer item : items) {
+            if (!body.write(item)) {
+                subscription.cancel();
+                result.complete(body);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (result.completeExceptionally(throwable)) {
+            body.close();
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        result.complete(body);
+    }
+}
@@ -0,0 +1,75 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Reports end-of-stream once the capture body's cap has been read and keeps everything read in it,
+ * so an incremental consumer can stop early while a fallback can still see the bytes seen so far.
+ * The capture body belongs to the caller, who closes it once the captured text has been taken.
+ */
+public class CappedInputStream extends FilterInputStream {
+
+    private final PageBody captured;
+    private boolean truncated;
+
+    public CappedInputStream(InputStream in, PageBody captured) {
+        super(in);
+        this.captured = captured;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int remaining = captured.remaining();
+        if (remaining <= 0) {
+            truncated = truncated || in.read() != -1;
+            return -1;
+        }
+
+        int read = in.read(buffer, offset, Math.min(length, remaining));
+        if (read > 0) {
+            captured.write(buffer, offset, read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        byte[] scratch = new byte[8192];
+        while (skipped < n) {
+            int read = read(scratch, 0, (int) Math.min(scratch.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long bytesRead() {
+        return captured.length();
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public String captured(Charset charset) {
+        return captured.decode(charset);
+    }
+}
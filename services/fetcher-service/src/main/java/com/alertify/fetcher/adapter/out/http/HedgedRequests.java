@@ -0,0 +1,343 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Cuts the latency tail of plain HTTP fetches: when a request has not completed by its domain's
+ * observed p95 latency, an identical second request is sent and whichever completes first wins;
+ * the other is cancelled, or discarded if it completes anyway. Hedges are paid from a budget that
+ * grows by budget-percent per request, so they add at most that share of extra load, and every
+ * hedge also needs the caller's permit (a free politeness slot) at the moment it would be sent.
+ * Latencies are kept per domain until it has been idle for idle-eviction-ms.
+ */
+@Slf4j
+@Component
+public class HedgedRequests {
+
+    private static final int WINDOW_SIZE = 100;
+    private static final int RESORT_EVERY = 10;
+    private static final double MAX_BUDGET = 10.0;
+
+    private final FetcherProperties.HedgingConfig config;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timer;
+    private double budget;
+
+    private final Counter requests;
+    private final Counter won;
+    private final Counter lost;
+    private final Counter failed;
+    private final Counter noBudget;
+    private final Counter noPermit;
+
+    public HedgedRequests(FetcherProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getHedging();
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "http-hedge-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+        long evictEveryMs = Math.max(1_000, config.getIdleEvictionMs() / 4);
+        this.timer.scheduleWithFixedDelay(this::evictIdle, evictEveryMs, evictEveryMs, TimeUnit.MILLISECONDS);
+
+        this.requests = Counter.builder("fetcher.hedge.requests")
+                .description("Plain HTTP requests sent with hedging enabled")
+                .register(meterRegistry);
+        this.won = hedgeCounter(meterRegistry, "won");
+        this.lost = hedgeCounter(meterRegistry, "lost");
+        this.failed = hedgeCounter(meterRegistry, "failed");
+        this.noBudget = skipCounter(meterRegistry, "budget");
+        this.noPermit = skipCounter(meterRegistry, "politeness");
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Starts attempt and, if it is still running after the hedge delay for the url's domain and
+     * kind of request, a second one. Latencies are kept per kind, so time to headers and time to
+     * the whole body are not mixed.
+     *
+     * @param discard releases the result of an attempt that completed after the race was decided
+     * @param permit  asked right before a hedge is sent; false skips the hedge
+     */
+    public <T> CompletableFuture<T> send(String url, String kind, Supplier<CompletableFuture<T>> attempt,
+                                         Consumer<T> discard, BooleanSupplier permit) {
+        if (!config.isEnabled()) {
+            return attempt.get();
+        }
+
+        requests.increment();
+        earnBudget();
+        LatencyWindow window = latencies.computeIfAbsent(domainOf(url) + " " + kind, key -> new LatencyWindow());
+        window.touch();
+        Race<T> race = new Race<>(window, discard);
+        // A caller that gives up (e.g. on its timeout) cancels the result; the attempts go with it
+        race.result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                race.cancelAttempts();
+            }
+        });
+        race.start(attempt, false);
+
+        long p95 = window.p95Nanos(config.getMinSamples());
+        if (p95 >= 0 && !race.result.isDone()) {
+            long delay = Math.max(p95, TimeUnit.MILLISECONDS.toNanos(config.getMinDelayMs()));
+            ScheduledFuture<?> hedge = timer.schedule(() -> race.hedge(attempt, permit), delay, TimeUnit.NANOSECONDS);
+            race.result.whenComplete((value, error) -> hedge.cancel(false));
+        }
+        return race.result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Drops the latencies of domains not fetched for idle-eviction-ms, so one-off domains do not
+     * accumulate; a domain that comes back starts over with its first min-samples unhedged.
+     */
+    void evictIdle() {
+        long idleSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(config.getIdleEvictionMs());
+        latencies.values().removeIf(window -> window.usedAtNanos - idleSince < 0);
+    }
+
+    int trackedWindows() {
+        return latencies.size();
+    }
+
+    long p95Nanos(String url, String kind) {
+        LatencyWindow window = latencies.get(domainOf(url) + " " + kind);
+        return window != null ? window.p95Nanos(1) : -1;
+    }
+
+    private synchronized void earnBudget() {
+        budget = Math.min(MAX_BUDGET, budget + config.getBudgetPercent() / 100.0);
+    }
+
+    private synchronized boolean spendBudget() {
+        if (budget < 1.0) {
+            return false;
+        }
+        budget -= 1.0;
+        return true;
+    }
+
+    private synchronized void refundBudget() {
+        budget += 1.0;
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("fetcher.hedge.sent")
+                .description("Hedge requests sent, by whether the hedge completed first")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter skipCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("fetcher.hedge.skipped")
+                .description("Requests past their hedge delay that were not hedged")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String domainOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /**
+     * The primary attempt and at most one hedge; the first success completes the result, which
+     * only fails once every attempt has failed. Attempts still running when the race is decided
+     * record their elapsed time as a latency: it is a lower bound, but dropping it would leave only
+     * the winners and pull the p95 down.
+     */
+    private final class Race<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final LatencyWindow window;
+        private final Consumer<T> discard;
+        private final List<Attempt<T>> attempts = new ArrayList<>(2);
+        private int pending;
+        private boolean hedged;
+        private boolean decided;
+        private Throwable firstError;
+
+        Race(LatencyWindow window, Consumer<T> discard) {
+            this.window = window;
+            this.discard = discard;
+        }
+
+        void start(Supplier<CompletableFuture<T>> attempt, boolean hedge) {
+            long startedNanos = System.nanoTime();
+            Attempt<T> started = new Attempt<>(attempt.get(), startedNanos);
+            boolean late;
+            synchronized (this) {
+                attempts.add(started);
+                pending++;
+                hedged = hedged || hedge;
+                late = decided;
+            }
+            if (late) {
+                // The primary won while the hedge was being sent
+                started.future().cancel(true);
+            }
+            started.future().whenComplete((value, error) -> finished(started, hedge, value, error));
+        }
+
+        /**
+         * Called when the caller gave up on the result; what ran until then still counts as latency.
+         */
+        void cancelAttempts() {
+            List<Attempt<T>> running = decide(null);
+            if (running != null) {
+                cancel(running, System.nanoTime());
+            }
+        }
+
+        void hedge(Supplier<CompletableFuture<T>> attempt, BooleanSupplier permit) {
+            synchronized (this) {
+                if (decided || pending == 0) {
+                    return;
+                }
+            }
+            if (!spendBudget()) {
+                noBudget.increment();
+                return;
+            }
+            if (!permit.getAsBoolean()) {
+                refundBudget();
+                noPermit.increment();
+                return;
+            }
+            try {
+                start(attempt, true);
+            } catch (RuntimeException e) {
+                log.debug("Could not send hedge request: {}", e.getMessage());
+                failed.increment();
+            }
+        }
+
+        private void finished(Attempt<T> attempt, boolean hedge, T value, Throwable error) {
+            if (error == null) {
+                List<Attempt<T>> others = decide(attempt);
+                if (others == null) {
+                    discard.accept(value);
+                    return;
+                }
+                long now = System.nanoTime();
+                window.record(now - attempt.startedNanos());
+                synchronized (this) {
+                    if (hedged) {
+                        (hedge ? won : lost).increment();
+                    }
+                }
+                // Losers go before the result completes, so a caller never sees them still running
+                cancel(others, now);
+                if (!result.complete(value)) {
+                    discard.accept(value);
+                }
+                return;
+            }
+
+            synchronized (this) {
+                pending--;
+                if (firstError == null) {
+                    firstError = error;
+                }
+                if (pending > 0 || decided) {
+                    return;
+                }
+                decided = true;
+                if (hedged) {
+                    failed.increment();
+                }
+            }
+            result.completeExceptionally(firstError);
+        }
+
+        /**
+         * Settles the race once; the attempts other than winner, or null if it was already settled.
+         */
+        private synchronized List<Attempt<T>> decide(Attempt<T> winner) {
+            if (decided) {
+                return null;
+            }
+            decided = true;
+            return attempts.stream().filter(other -> other != winner).toList();
+        }
+
+        private void cancel(List<Attempt<T>> losers, long now) {
+            for (Attempt<T> loser : losers) {
+                if (!loser.future().isDone()) {
+                    window.record(now - loser.startedNanos());
+                    loser.future().cancel(true);
+                }
+            }
+        }
+    }
+
+    private record Attempt<T>(CompletableFuture<T> future, long startedNanos) {
+    }
+
+    /**
+     * The latest latencies of a domain; the p95 is re-derived every few samples rather than on every read.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int count;
+        private int next;
+        private int sinceSorted;
+        private long p95 = -1;
+        private volatile long usedAtNanos = System.nanoTime();
+
+        void touch() {
+            usedAtNanos = System.nanoTime();
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (++sinceSorted >= RESORT_EVERY || p95 < 0) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                p95 = sorted[(int) Math.ceil(count * 0.95) - 1];
+                sinceSorted = 0;
+            }
+        }
+
+        synchronized long p95Nanos(int minSamples) {
+            return count >= Math.max(1, minSamples) ? p95 : -1;
+        }
+    }
+}
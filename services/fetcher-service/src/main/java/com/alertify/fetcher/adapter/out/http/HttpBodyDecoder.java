@@ -0,0 +1,123 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+public final class HttpBodyDecoder {
+
+    private static final int META_SNIFF_BYTES = 4096;
+
+    private static final Pattern CONTENT_TYPE_CHARSET = Pattern.compile(
+            "charset\\s*=\\s*[\"']?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern META_CHARSET = Pattern.compile(
+            "<meta[^>]+charset\\s*=\\s*[\"']?([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+
+    private HttpBodyDecoder() {
+    }
+
+    /**
+     * The decoded body, capped like the raw one; the raw body itself when it is not compressed.
+     * A body cut short by the wire-level cap decodes up to where it was cut.
+     */
+    public static PageBody decompress(PageBody body, String contentEncoding, PageBufferPool pool) throws IOException {
+        if (contentEncoding == null || contentEncoding.isBlank()) {
+            return body;
+        }
+
+        return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip", "x-gzip" -> readCapped(new GZIPInputStream(body.inputStream()), pool);
+            case "deflate" -> inflate(body, pool);
+            case "identity" -> body;
+            default -> throw new IOException("Unsupported content encoding: " + contentEncoding);
+        };
+    }
+
+    public static InputStream decompressing(InputStream body, String contentEncoding) throws IOException {
+        if (contentEncoding == null || contentEncoding.isBlank()) {
+            return body;
+        }
+
+        return switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body);
+            case "deflate" -> new InflaterInputStream(body);
+            case "identity" -> body;
+            default -> throw new IOException("Unsupported content encoding: " + contentEncoding);
+        };
+    }
+
+    public static Charset detectCharset(String contentType, PageBody body) {
+        Charset fromHeader = charsetFromContentType(contentType);
+        return fromHeader != null ? fromHeader : detectCharset(null, body.head(META_SNIFF_BYTES));
+    }
+
+    public static Charset detectCharset(String contentType, byte[] body) {
+        Charset fromHeader = charsetFromContentType(contentType);
+        if (fromHeader != null) {
+            return fromHeader;
+        }
+
+        if (body.length >= 3 && (body[0] & 0xFF) == 0xEF && (body[1] & 0xFF) == 0xBB && (body[2] & 0xFF) == 0xBF) {
+            return StandardCharsets.UTF_8;
+        }
+
+        String head = new String(body, 0, Math.min(body.length, META_SNIFF_BYTES), StandardCharsets.ISO_8859_1);
+        Matcher matcher = META_CHARSET.matcher(head);
+        if (matcher.find()) {
+            Charset fromMeta = forName(matcher.group(1));
+            if (fromMeta != null) {
+                return fromMeta;
+            }
+        }
+
+        return StandardCharsets.UTF_8;
+    }
+
+    public static Charset charsetFromContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        Matcher matcher = CONTENT_TYPE_CHARSET.matcher(contentType);
+        return matcher.find() ? forName(matcher.group(1)) : null;
+    }
+
+    private static Charset forName(String name) {
+        try {
+            return Charset.forName(name);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static PageBody inflate(PageBody body, PageBufferPool pool) throws IOException {
+        try {
+            return readCapped(new InflaterInputStream(body.inputStream()), pool);
+        } catch (ZipException e) {
+            // Servers disagree on whether "deflate" means zlib-wrapped or raw; zlib is the RFC meaning
+            return readCapped(new InflaterInputStream(body.inputStream(), new Inflater(true)), pool);
+        }
+    }
+
+    private static PageBody readCapped(InputStream in, PageBufferPool pool) throws IOException {
+        PageBody decoded = pool.newBody();
+        try (in) {
+            decoded.readFrom(in);
+        } catch (EOFException e) {
+            // truncated compressed stream, keep what was decoded
+        } catch (IOException | RuntimeException e) {
+            decoded.close();
+            throw e;
+        }
+        return decoded;
+    }
+}
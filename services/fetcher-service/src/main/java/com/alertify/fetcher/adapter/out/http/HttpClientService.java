@@ -0,0 +1,326 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class HttpClientService {
+
+    private static final String DEFAULT_USER_AGENT = "Mozilla/5.0 (compatible; AlertifyBot/1.0)";
+
+    // Managed by HttpClient itself, or (accept-encoding) pinned to what HttpBodyDecoder can decode
+    private static final Set<String> RESTRICTED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "upgrade", "accept-encoding"
+    );
+
+    private final HttpClient httpClient;
+    private final boolean legacyMode;
+    private final ProxySelector proxySelector;
+    private final PageBufferPool bufferPool;
+    private final HedgedRequests hedgedRequests;
+
+    // Both clients go through the JVM's proxy settings (http.proxyHost, http.proxyPort, http.nonProxyHosts)
+    @Autowired
+    public HttpClientService(FetcherProperties properties, PageBufferPool bufferPool, HedgedRequests hedgedRequests) {
+        this(properties, bufferPool, hedgedRequests, ProxySelector.getDefault());
+    }
+
+    HttpClientService(FetcherProperties properties, PageBufferPool bufferPool, HedgedRequests hedgedRequests,
+                      ProxySelector proxySelector) {
+        FetcherProperties.HttpConfig http = properties.getHttp();
+        this.legacyMode = "legacy".equalsIgnoreCase(http.getClient());
+        this.bufferPool = bufferPool;
+        this.hedgedRequests = hedgedRequests;
+        this.proxySelector = proxySelector;
+
+        this.httpClient = HttpClient.newBuilder()
+                .version(http.isHttp2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(http.getConnectTimeoutMs()))
+                .followRedirects(http.isFollowRedirects() ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER)
+                .proxy(proxySelector)
+                .build();
+
+        log.info("Initialized {} HTTP client (version: {}, connect timeout: {} ms)",
+                legacyMode ? "legacy" : "pooled", httpClient.version(), http.getConnectTimeoutMs());
+    }
+
+    public HttpPage get(String url, SiteConfig config) {
+        return get(url, config, Map.of());
+    }
+
+    public HttpPage get(String url, SiteConfig config, Map<String, String> requestHeaders) {
+        if (legacyMode) {
+            return getWithUrlConnection(url, config, requestHeaders);
+        }
+
+        try {
+            return sendAsync(url, config, requestHeaders).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("HTTP fetch failed for URL: " + url + " (" + cause.getMessage() + ")", cause);
+        }
+    }
+
+    /**
+     * As {@link #get(String, SiteConfig, Map)}, hedged when hedging is enabled: a second request
+     * goes out if the first outlasts the domain's p95 and hedgePermit allows it.
+     */
+    public HttpPage get(String url, SiteConfig config, Map<String, String> requestHeaders, BooleanSupplier hedgePermit) {
+        if (legacyMode || !hedgedRequests.isEnabled()) {
+            return get(url, config, requestHeaders);
+        }
+
+        HttpRequest request = buildRequest(url, config, requestHeaders);
+        try {
+            HttpResponse<PageBody> response = withinTimeout(hedgedRequests.send(url, "page",
+                    () -> httpClient.sendAsync(request, responseInfo -> new CappedBodySubscriber(bufferPool.newBody())),
+                    loser -> loser.body().close(),
+                    hedgePermit), config, late -> late.body().close()).join();
+            return toPage(url, response);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("HTTP fetch failed for URL: " + url + " (" + cause.getMessage() + ")", cause);
+        }
+    }
+
+    public CompletableFuture<HttpPage> sendAsync(String url, SiteConfig config) {
+        return sendAsync(url, config, Map.of());
+    }
+
+    public CompletableFuture<HttpPage> sendAsync(String url, SiteConfig config, Map<String, String> requestHeaders) {
+        HttpRequest request = buildRequest(url, config, requestHeaders);
+
+        return withinTimeout(
+                httpClient.sendAsync(request, responseInfo -> new CappedBodySubscriber(bufferPool.newBody())),
+                config, late -> late.body().close())
+                .thenApply(response -> toPage(url, response));
+    }
+
+    /**
+     * Sends the request on the calling thread and returns once headers arrive; the caller reads
+     * the decoded body incrementally and closing the stream abandons the rest of the response.
+     * Reads fail once the site config's timeout has passed since the request was sent.
+     */
+    public HttpStream openStream(String url, SiteConfig config, Map<String, String> requestHeaders) {
+        long started = System.nanoTime();
+        try {
+            return toStream(url, httpClient.send(
+                    buildRequest(url, config, requestHeaders), HttpResponse.BodyHandlers.ofInputStream()),
+                    config, started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while opening stream for URL: " + url, e);
+        } catch (Exception e) {
+            throw new RuntimeException("HTTP stream failed for URL: " + url + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    /**
+     * As {@link #openStream(String, SiteConfig, Map)}, hedged on the time to response headers when
+     * hedging is enabled; a hedge that loses after its headers arrived has its body closed unread.
+     */
+    public HttpStream openStream(String url, SiteConfig config, Map<String, String> requestHeaders,
+                                 BooleanSupplier hedgePermit) {
+        if (!hedgedRequests.isEnabled()) {
+            return openStream(url, config, requestHeaders);
+        }
+
+        HttpRequest request = buildRequest(url, config, requestHeaders);
+        long started = System.nanoTime();
+        try {
+            return toStream(url, withinTimeout(hedgedRequests.send(url, "headers",
+                    () -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()),
+                    loser -> closeQuietly(loser.body()),
+                    hedgePermit), config, late -> closeQuietly(late.body())).join(), config, started);
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("HTTP stream failed for URL: " + url + " (" + cause.getMessage() + ")", cause);
+        } catch (IOException e) {
+            throw new RuntimeException("HTTP stream failed for URL: " + url + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    public int getMaxPageBytes() {
+        return bufferPool.maxPageBytes();
+    }
+
+    private Proxy proxyFor(URI uri) {
+        List<Proxy> proxies = proxySelector.select(uri);
+        return proxies.isEmpty() ? Proxy.NO_PROXY : proxies.get(0);
+    }
+
+    private HttpPage getWithUrlConnection(String url, SiteConfig config, Map<String, String> requestHeaders) {
+        try {
+            URI uri = URI.create(url);
+            HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection(proxyFor(uri));
+
+            connection.setRequestMethod("GET");
+            connection.setConnectTimeout(config.getTimeoutMs());
+            connection.setReadTimeout(config.getTimeoutMs());
+            connection.setRequestProperty("User-Agent",
+                    config.getUserAgent() != null ? config.getUserAgent() : DEFAULT_USER_AGENT);
+
+            if (config.getHeaders() != null) {
+                config.getHeaders().forEach(connection::setRequestProperty);
+            }
+
+            connection.setRequestProperty("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+            connection.setRequestProperty("Accept-Language", "en-US,en;q=0.5");
+            connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
+            connection.setRequestProperty("Connection", "keep-alive");
+            connection.setRequestProperty("Upgrade-Insecure-Requests", "1");
+            requestHeaders.forEach(connection::setRequestProperty);
+
+            int responseCode = connection.getResponseCode();
+            try (PageBody raw = bufferPool.newBody()) {
+                try (InputStream in = responseCode >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
+                    if (in != null) {
+                        raw.readFrom(in);
+                    }
+                }
+                return toPage(url, responseCode,
+                        connection.getHeaderFields().entrySet().stream()
+                                .filter(entry -> entry.getKey() != null)
+                                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)),
+                        raw, connection.getContentEncoding(), connection.getContentType());
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("HTTP fetch failed for URL: " + url + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    private HttpRequest buildRequest(String url, SiteConfig config, Map<String, String> requestHeaders) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .GET()
+                .header("User-Agent", config.getUserAgent() != null ? config.getUserAgent() : DEFAULT_USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                .header("Accept-Language", "en-US,en;q=0.5")
+                .header("Accept-Encoding", "gzip, deflate");
+
+        if (config.getTimeoutMs() > 0) {
+            builder.timeout(Duration.ofMillis(config.getTimeoutMs()));
+        }
+
+        if (config.getHeaders() != null) {
+            config.getHeaders().forEach((name, value) -> {
+                if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    builder.setHeader(name, value);
+                }
+            });
+        }
+
+        requestHeaders.forEach(builder::setHeader);
+
+        return builder.build();
+    }
+
+    /**
+     * Fails the exchange once the site config's timeout has passed, covering the body as well as the
+     * headers; the exchange is cancelled, and a response that still completes is handed to discard.
+     */
+    private static <T> CompletableFuture<T> withinTimeout(CompletableFuture<T> exchange, SiteConfig config,
+                                                          Consumer<T> discard) {
+        if (config.getTimeoutMs() <= 0) {
+            return exchange;
+        }
+        CompletableFuture<T> bounded = exchange.copy().orTimeout(config.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        bounded.whenComplete((value, error) -> {
+            if (error != null) {
+                exchange.cancel(true);
+                exchange.thenAccept(discard);
+            }
+        });
+        return bounded;
+    }
+
+    private static HttpStream toStream(String url, HttpResponse<InputStream> response, SiteConfig config,
+                                       long startedNanos) throws IOException {
+        InputStream raw = response.body();
+        if (config.getTimeoutMs() > 0) {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+            raw = new ReadDeadlineInputStream(raw, config.getTimeoutMs() - elapsedMs);
+        }
+        InputStream body = HttpBodyDecoder.decompressing(
+                raw, response.headers().firstValue("Content-Encoding").orElse(null));
+
+        return new HttpStream(
+                url,
+                response.statusCode(),
+                response.headers().map(),
+                body,
+                HttpBodyDecoder.charsetFromContentType(response.headers().firstValue("Content-Type").orElse(null))
+        );
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            log.debug("Failed to close the body of a discarded hedge response: {}", e.getMessage());
+        }
+    }
+
+    private HttpPage toPage(String url, HttpResponse<PageBody> response) {
+        try (PageBody raw = response.body()) {
+            log.debug("Fetched {} ({} bytes on the wire, {}) from {}",
+                    response.statusCode(), raw.length(), response.version(), url);
+            return toPage(url, response.statusCode(), response.headers().map(), raw,
+                    response.headers().firstValue("Content-Encoding").orElse(null),
+                    response.headers().firstValue("Content-Type").orElse(null));
+        } catch (Exception e) {
+            throw new CompletionException("Failed to decode response body from " + url, e);
+        }
+    }
+
+    /**
+     * Decompresses and decodes the pooled body into the page text; the text is the only copy of the
+     * whole page made here, and the segments go back to the pool when the caller closes raw.
+     */
+    private HttpPage toPage(String url, int statusCode, Map<String, List<String>> headers,
+                            PageBody raw, String contentEncoding, String contentType) throws IOException {
+        try (PageBody decoded = HttpBodyDecoder.decompress(raw, contentEncoding, bufferPool)) {
+            boolean truncated = raw.truncated() || decoded.truncated();
+            if (truncated) {
+                log.warn("Response from {} exceeded the {} byte page cap and was truncated", url, getMaxPageBytes());
+            }
+            Charset charset = HttpBodyDecoder.detectCharset(contentType, decoded);
+
+            return new HttpPage(
+                    url,
+                    statusCode,
+                    headers,
+                    decoded.decode(charset),
+                    charset,
+                    raw.length(),
+                    decoded.length(),
+                    truncated
+            );
+        }
+    }
+}
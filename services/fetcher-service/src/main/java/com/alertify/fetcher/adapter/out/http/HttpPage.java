@@ -0,0 +1,33 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+public record HttpPage(
+        String url,
+        int statusCode,
+        Map<String, List<String>> headers,
+        String body,
+        Charset charset,
+        long transferredBytes,
+        long decodedBytes,
+        boolean truncated
+) {
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+
+    public String firstHeader(String name) {
+        return headers.entrySet().stream()
+                .filter(entry -> name.equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty())
+                .map(entry -> entry.getValue().getFirst())
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,42 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An open response whose decoded body is read incrementally; headerCharset is null when
+ * the Content-Type header does not declare one.
+ */
+public record HttpStream(
+        String url,
+        int statusCode,
+        Map<String, List<String>> headers,
+        InputStream body,
+        Charset headerCharset
+) implements Closeable {
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+
+    public String firstHeader(String name) {
+        return headers.entrySet().stream()
+                .filter(entry -> name.equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty())
+                .map(entry -> entry.getValue().getFirst())
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
@@ -0,0 +1,198 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page body held in pooled segments up to a hard cap. Bytes past the cap are dropped and mark
+ * the body truncated. Readers get the segments through {@link #inputStream()} without a copy of the
+ * whole page; {@link #close()} hands the segments back to the pool, after which the body is empty.
+ * Not thread-safe: one fetch fills it, then reads it.
+ */
+public final class PageBody implements AutoCloseable {
+
+    private final PageBufferPool pool;
+    private final int maxBytes;
+    private final List<byte[]> segments = new ArrayList<>();
+    private int length;
+    private boolean truncated;
+
+    PageBody(PageBufferPool pool, int maxBytes) {
+        this.pool = pool;
+        this.maxBytes = maxBytes;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public boolean truncated() {
+        return truncated;
+    }
+
+    int remaining() {
+        return maxBytes - length;
+    }
+
+    /**
+     * Appends what fits under the cap; returns false once the cap was hit.
+     */
+    public boolean write(ByteBuffer source) {
+        while (source.hasRemaining()) {
+            if (length >= maxBytes) {
+                truncated = true;
+                return false;
+            }
+            byte[] segment = writableSegment();
+            int offset = length % segment.length;
+            int count = Math.min(source.remaining(), Math.min(segment.length - offset, maxBytes - length));
+            source.get(segment, offset, count);
+            length += count;
+        }
+        return true;
+    }
+
+    public boolean write(byte[] source, int offset, int count) {
+        return write(ByteBuffer.wrap(source, offset, count));
+    }
+
+    /**
+     * Reads the stream straight into the segments until it ends or the cap is hit.
+     */
+    public void readFrom(InputStream in) throws IOException {
+        while (length < maxBytes) {
+            byte[] segment = writableSegment();
+            int offset = length % segment.length;
+            int read = in.read(segment, offset, Math.min(segment.length - offset, maxBytes - length));
+            if (read == -1) {
+                return;
+            }
+            length += read;
+        }
+        truncated = truncated || in.read() != -1;
+    }
+
+    /**
+     * Copy of at most the first count bytes, for sniffing the encoding.
+     */
+    public byte[] head(int count) {
+        byte[] head = new byte[Math.min(count, length)];
+        int copied = 0;
+        for (byte[] segment : segments) {
+            if (copied == head.length) {
+                break;
+            }
+            int chunk = Math.min(segment.length, head.length - copied);
+            System.arraycopy(segment, 0, head, copied, chunk);
+            copied += chunk;
+        }
+        return head;
+    }
+
+    public InputStream inputStream() {
+        return new SegmentInputStream();
+    }
+
+    /**
+     * Decodes segment by segment into the page text; malformed input becomes U+FFFD, as with
+     * {@code new String(bytes, charset)}.
+     */
+    public String decode(Charset charset) {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        StringBuilder text = new StringBuilder(length);
+        CharBuffer chars = CharBuffer.allocate(8192);
+        ByteBuffer pending = ByteBuffer.allocate(16);
+
+        int remaining = length;
+        for (byte[] segment : segments) {
+            int count = Math.min(segment.length, remaining);
+            remaining -= count;
+            ByteBuffer bytes = ByteBuffer.wrap(segment, 0, count);
+
+            // A character split across two segments is finished from the start of the next one
+            while (pending.position() > 0 && bytes.hasRemaining()) {
+                pending.put(bytes.get()).flip();
+                decoder.decode(pending, chars, false);
+                pending.compact();
+                drain(chars, text);
+            }
+            while (true) {
+                boolean full = decoder.decode(bytes, chars, remaining == 0).isOverflow();
+                drain(chars, text);
+                if (!full) {
+                    break;
+                }
+            }
+            pending.put(bytes);
+        }
+        pending.flip();
+        decoder.decode(pending, chars, true);
+        decoder.flush(chars);
+        drain(chars, text);
+        return text.toString();
+    }
+
+    private static void drain(CharBuffer chars, StringBuilder text) {
+        chars.flip();
+        text.append(chars);
+        chars.clear();
+    }
+
+    @Override
+    public void close() {
+        for (byte[] segment : segments) {
+            pool.release(segment);
+        }
+        segments.clear();
+        length = 0;
+    }
+
+    private byte[] writableSegment() {
+        int segmentBytes = pool.segmentBytes();
+        if (length == segments.size() * segmentBytes) {
+            segments.add(pool.acquire());
+        }
+        return segments.get(length / segmentBytes);
+    }
+
+    private final class SegmentInputStream extends InputStream {
+
+        private int position;
+
+        @Override
+        public int read() {
+            if (position >= length) {
+                return -1;
+            }
+            int segmentBytes = pool.segmentBytes();
+            return segments.get(position / segmentBytes)[position++ % segmentBytes] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int count) {
+            if (position >= length) {
+                return -1;
+            }
+            int segmentBytes = pool.segmentBytes();
+            int inSegment = position % segmentBytes;
+            int chunk = Math.min(count, Math.min(segmentBytes - inSegment, length - position));
+            System.arraycopy(segments.get(position / segmentBytes), inSegment, target, offset, chunk);
+            position += chunk;
+            return chunk;
+        }
+
+        @Override
+        public int available() {
+            return length - position;
+        }
+    }
+}
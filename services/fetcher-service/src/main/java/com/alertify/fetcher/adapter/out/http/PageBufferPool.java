@@ -0,0 +1,72 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Fixed-size byte segments that page bodies are buffered in, handed back after each fetch. A
+ * segment is far below the G1 humongous-object threshold, so buffering a multi-megabyte page
+ * never allocates one huge array; segments beyond the pool's capacity are left to the GC.
+ */
+@Component
+public class PageBufferPool {
+
+    private final FetcherProperties.HttpConfig http;
+    private final int segmentBytes;
+    private final BlockingQueue<byte[]> free;
+
+    private final Counter allocatedCounter;
+    private final Counter reusedCounter;
+
+    public PageBufferPool(FetcherProperties properties, MeterRegistry meterRegistry) {
+        this.http = properties.getHttp();
+        this.segmentBytes = http.getBufferSegmentBytes();
+        this.free = new ArrayBlockingQueue<>(Math.max(1, http.getMaxPooledSegments()));
+
+        this.allocatedCounter = Counter.builder("fetcher.page_buffers.segments")
+                .description("Page buffer segments handed out, newly allocated or reused from the pool")
+                .tag("result", "allocated")
+                .register(meterRegistry);
+        this.reusedCounter = Counter.builder("fetcher.page_buffers.segments")
+                .tag("result", "reused")
+                .register(meterRegistry);
+        Gauge.builder("fetcher.page_buffers.pooled", free, BlockingQueue::size)
+                .description("Segments idle in the pool")
+                .register(meterRegistry);
+    }
+
+    /**
+     * An empty body capped at the configured page size.
+     */
+    public PageBody newBody() {
+        return new PageBody(this, http.getMaxPageBytes());
+    }
+
+    public int maxPageBytes() {
+        return http.getMaxPageBytes();
+    }
+
+    int segmentBytes() {
+        return segmentBytes;
+    }
+
+    byte[] acquire() {
+        byte[] segment = free.poll();
+        if (segment != null) {
+            reusedCounter.increment();
+            return segment;
+        }
+        allocatedCounter.increment();
+        return new byte[segmentBytes];
+    }
+
+    void release(byte[] segment) {
+        free.offer(segment);
+    }
+}
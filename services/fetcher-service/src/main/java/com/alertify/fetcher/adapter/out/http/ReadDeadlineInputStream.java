@@ -0,0 +1,108 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closes the wrapped response body once its deadline passes, so a server that stalls mid-body fails
+ * the blocked read with an {@link HttpTimeoutException} instead of holding the fetch forever. The
+ * request timeout of java.net.http only covers the wait for the response headers.
+ */
+class ReadDeadlineInputStream extends FilterInputStream {
+
+    private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+    private final long timeoutMs;
+    private final ScheduledFuture<?> expiry;
+    private volatile boolean expired;
+
+    ReadDeadlineInputStream(InputStream in, long timeoutMs) {
+        super(in);
+        this.timeoutMs = timeoutMs;
+        this.expiry = TIMER.schedule(this::expire, Math.max(0, timeoutMs), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkExpired();
+        try {
+            return checked(in.read());
+        } catch (IOException e) {
+            throw expired ? timeout(e) : e;
+        }
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        checkExpired();
+        try {
+            return checked(in.read(buffer, offset, length));
+        } catch (IOException e) {
+            throw expired ? timeout(e) : e;
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        checkExpired();
+        try {
+            return in.skip(n);
+        } catch (IOException e) {
+            throw expired ? timeout(e) : e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        expiry.cancel(false);
+        super.close();
+    }
+
+    private void expire() {
+        expired = true;
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // The pending read fails either way
+        }
+    }
+
+    /**
+     * A stream closed under a blocked read may report end-of-stream; that must not pass for a whole page.
+     */
+    private int checked(int read) throws IOException {
+        if (read == -1 && expired) {
+            throw timeout(null);
+        }
+        return read;
+    }
+
+    private void checkExpired() throws IOException {
+        if (expired) {
+            throw timeout(null);
+        }
+    }
+
+    private HttpTimeoutException timeout(IOException cause) {
+        HttpTimeoutException timeout = new HttpTimeoutException("Response body not read within " + timeoutMs + " ms");
+        if (cause != null) {
+            timeout.initCause(cause);
+        }
+        return timeout;
+    }
+
+    private static ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "http-read-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -0,0 +1,344 @@
+package com.alertify.fetcher.adapter.out.politeness;
+
+import com.alertify.fetcher.application.service.FetcherRegistry;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+import com.alertify.fetcher.domain.exception.DomainRateLimitedException;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import com.alertify.fetcher.domain.port.SiteSpecificFetcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Per-domain token buckets in front of every outbound page load. Each caller reserves the next
+ * free slot (so a domain's callers are served in arrival order) and sleeps only on its own
+ * domain's schedule. A domain may hold at most max-queued-per-domain waiting callers and callers
+ * never wait longer than max-wait-ms, so a throttled site cannot tie up the threads other
+ * domains need. A domain's rate comes from the site that owns it, whichever fetcher (such as the
+ * generic fallback) loads from it first, and follows that site's configuration when it is reloaded.
+ * Domains idle for idle-eviction-ms are forgotten, so one-off hosts of the generic fetcher do not
+ * accumulate.
+ */
+@Slf4j
+@Component
+public class PolitenessScheduler {
+
+    private final FetcherProperties.PolitenessConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Function<String, Optional<SiteSpecificFetcher>> owners;
+    private final Map<String, DomainBucket> buckets = new ConcurrentHashMap<>();
+    // Meters registered for the buckets; guards their removal against a bucket registering them again
+    private final Set<Meter> meters = new HashSet<>();
+
+    // The registry is looked up lazily: it holds the fetchers, which download through this scheduler
+    @Autowired
+    public PolitenessScheduler(FetcherProperties properties, MeterRegistry meterRegistry,
+                               ObjectProvider<FetcherRegistry> fetcherRegistry) {
+        this(properties, meterRegistry, domain -> fetcherRegistry.getObject().ownerOf(domain));
+    }
+
+    PolitenessScheduler(FetcherProperties properties, MeterRegistry meterRegistry,
+                        Function<String, Optional<SiteSpecificFetcher>> owners) {
+        this.config = properties.getPoliteness();
+        this.meterRegistry = meterRegistry;
+        this.owners = owners;
+    }
+
+    /**
+     * Blocks until the domain of url may be hit again under the site's rate.
+     *
+     * @throws DomainRateLimitedException when the wait would exceed the configured maximum or too many callers queue
+     */
+    public void acquire(String url, String siteName, SiteConfig siteConfig) {
+        acquire(url, siteName, siteConfig, Deadline.none());
+    }
+
+    /**
+     * As {@link #acquire(String, String, SiteConfig)}, but a slot that would only come after the
+     * deadline is not reserved, leaving it to callers that can still use it.
+     *
+     * @throws DeadlineExceededException when the wait would outlast the deadline
+     */
+    public void acquire(String url, String siteName, SiteConfig siteConfig, Deadline deadline) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        String domain = domainOf(url);
+        DomainBucket bucket = bucketFor(domain, siteName, siteConfig);
+        bucket.usedAtNanos = System.nanoTime();
+
+        if (bucket.waiting.incrementAndGet() > config.getMaxQueuedPerDomain()) {
+            bucket.waiting.decrementAndGet();
+            reject(bucket, domain, Duration.ofMillis(config.getMaxWaitMs()));
+        }
+
+        try {
+            long maxWaitMs = deadline.capMillis(config.getMaxWaitMs());
+            long waitNanos = bucket.reserve(System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(maxWaitMs));
+            if (waitNanos < 0) {
+                if (maxWaitMs < config.getMaxWaitMs() && -waitNanos <= TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitMs())) {
+                    throw new DeadlineExceededException("politeness");
+                }
+                reject(bucket, domain, Duration.ofNanos(-waitNanos));
+            }
+
+            if (waitNanos > 0) {
+                log.debug("Waiting {} ms for request slot on {}", TimeUnit.NANOSECONDS.toMillis(waitNanos), domain);
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            bucket.queueWait.record(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for request slot on " + domain, e);
+        } finally {
+            bucket.waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reserves a slot on the url's domain only if one is free right now, for optional extra
+     * requests such as hedges that are better skipped than delayed.
+     */
+    public boolean tryAcquire(String url) {
+        if (!config.isEnabled()) {
+            return true;
+        }
+
+        DomainBucket bucket = buckets.get(domainOf(url));
+        return bucket != null && bucket.reserve(System.nanoTime(), 0) >= 0;
+    }
+
+    /**
+     * Pushes the domain's schedule back after it answered 429/503, honouring Retry-After when given.
+     */
+    public void backoff(String url, String retryAfterHeader) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        String domain = domainOf(url);
+        DomainBucket bucket = buckets.get(domain);
+        if (bucket == null) {
+            return;
+        }
+
+        Duration pause = parseRetryAfter(retryAfterHeader);
+        bucket.pause(System.nanoTime(), pause.toNanos());
+        log.warn("{} asked us to slow down, pausing requests for {} ms", domain, pause.toMillis());
+    }
+
+    /**
+     * Applies the rates of reconfigured sites to the domains already being paced, keeping their
+     * schedules: the new spacing starts from the next request.
+     */
+    public void reconfigured(Collection<? extends SiteSpecificFetcher> fetchers) {
+        Map<String, SiteConfig> configs = new HashMap<>();
+        fetchers.forEach(fetcher -> configs.put(fetcher.getSiteName(), fetcher.getConfiguration()));
+
+        buckets.forEach((domain, bucket) -> {
+            bucket.callerConfig = configs.getOrDefault(bucket.callerSite, bucket.callerConfig);
+            Rate rate = rateFor(domain, bucket.callerSite, bucket.callerConfig);
+            if (bucket.retune(rate.perSecond(), rate.burst())) {
+                log.info("Request budget for {} ({}) now {} req/s, burst {}", domain, rate.site(), rate.perSecond(),
+                        rate.burst());
+            }
+        });
+    }
+
+    /**
+     * Drops the schedules of domains not fetched for idle-eviction-ms that nobody waits on and that
+     * are not paused, and the meters of sites left without a domain. A domain that comes back starts
+     * with a full burst, as it would have after that long anyway.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleSince = now - TimeUnit.MILLISECONDS.toNanos(config.getIdleEvictionMs());
+        synchronized (meters) {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now, idleSince));
+            Set<Meter> inUse = new HashSet<>();
+            buckets.values().forEach(bucket -> {
+                inUse.add(bucket.queueWait);
+                inUse.add(bucket.rejected);
+            });
+            meters.removeIf(meter -> {
+                if (inUse.contains(meter)) {
+                    return false;
+                }
+                meterRegistry.remove(meter);
+                return true;
+            });
+        }
+    }
+
+    int trackedDomains() {
+        return buckets.size();
+    }
+
+    /**
+     * New buckets are created under the meters lock, taken before the map's own, so eviction never
+     * removes the meters of a bucket about to be added.
+     */
+    private DomainBucket bucketFor(String domain, String siteName, SiteConfig siteConfig) {
+        DomainBucket bucket = buckets.get(domain);
+        if (bucket != null) {
+            return bucket;
+        }
+        synchronized (meters) {
+            return buckets.computeIfAbsent(domain, key -> newBucket(key, siteName, siteConfig));
+        }
+    }
+
+    private DomainBucket newBucket(String domain, String siteName, SiteConfig siteConfig) {
+        Rate rate = rateFor(domain, siteName, siteConfig);
+        log.info("Request budget for {} ({}): {} req/s, burst {}", domain, rate.site(), rate.perSecond(), rate.burst());
+
+        // Tagged by site rather than domain, which callers control and would make the tags unbounded
+        Timer queueWait = Timer.builder("fetcher.politeness.queue_wait")
+                .tag("site", rate.site())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("fetcher.politeness.rejected")
+                .tag("site", rate.site())
+                .register(meterRegistry);
+        meters.add(queueWait);
+        meters.add(rejected);
+        return new DomainBucket(rate.perSecond(), rate.burst(), siteName, siteConfig, queueWait, rejected);
+    }
+
+    /**
+     * The rate of the site that owns the domain, else of the calling site; a politeness override for
+     * the site beats its own configuration.
+     */
+    private Rate rateFor(String domain, String siteName, SiteConfig siteConfig) {
+        Optional<SiteSpecificFetcher> owner = owners.apply(domain);
+        String site = owner.map(SiteSpecificFetcher::getSiteName).orElse(siteName);
+        SiteConfig ownConfig = owner.map(SiteSpecificFetcher::getConfiguration).orElse(siteConfig);
+        FetcherProperties.RateConfig override = config.getSites().get(site);
+
+        double rate = override != null && override.getRatePerSecond() > 0 ? override.getRatePerSecond()
+                : ownConfig.getRateLimitPerSecond() > 0 ? ownConfig.getRateLimitPerSecond()
+                : config.getDefaultRatePerSecond();
+        int burst = override != null && override.getBurst() > 0 ? override.getBurst()
+                : ownConfig.getRateLimitBurst() > 0 ? ownConfig.getRateLimitBurst()
+                : config.getDefaultBurst();
+        return new Rate(site, rate, burst);
+    }
+
+    private record Rate(String site, double perSecond, int burst) {
+    }
+
+    private void reject(DomainBucket bucket, String domain, Duration retryAfter) {
+        bucket.rejected.increment();
+        throw new DomainRateLimitedException(domain, retryAfter);
+    }
+
+    private Duration parseRetryAfter(String header) {
+        if (header != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(header.trim()));
+            } catch (NumberFormatException e) {
+                // HTTP-date form; fall through to the default pause
+            }
+        }
+        return Duration.ofMillis(config.getDefaultBackoffMs());
+    }
+
+    static String domainOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host == null) {
+                return "";
+            }
+            host = host.toLowerCase(Locale.ROOT);
+            return host.startsWith("www.") ? host.substring(4) : host;
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    /**
+     * Generic cell rate algorithm: tat is the theoretical arrival time of the next request;
+     * up to burst requests may arrive ahead of it.
+     */
+    private static final class DomainBucket {
+        private final String callerSite;
+        private final Timer queueWait;
+        private final Counter rejected;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private volatile SiteConfig callerConfig;
+        private volatile long usedAtNanos = System.nanoTime();
+        private long intervalNanos;
+        private long burstToleranceNanos;
+        private long tat;
+        private boolean started;
+
+        DomainBucket(double ratePerSecond, int burst, String callerSite, SiteConfig callerConfig,
+                     Timer queueWait, Counter rejected) {
+            this.callerSite = callerSite;
+            this.callerConfig = callerConfig;
+            this.queueWait = queueWait;
+            this.rejected = rejected;
+            retune(ratePerSecond, burst);
+        }
+
+        /**
+         * @return whether the rate or burst changed
+         */
+        synchronized boolean retune(double ratePerSecond, int burst) {
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+            long burstTolerance = interval * Math.max(0, burst - 1);
+            boolean changed = interval != intervalNanos || burstTolerance != burstToleranceNanos;
+            intervalNanos = interval;
+            burstToleranceNanos = burstTolerance;
+            return changed;
+        }
+
+        /**
+         * @return nanos to wait before sending, or the negated wait if it exceeds maxWaitNanos (nothing reserved)
+         */
+        synchronized long reserve(long now, long maxWaitNanos) {
+            long start = started ? Math.max(tat, now) : now;
+            long wait = Math.max(0, start - now - burstToleranceNanos);
+            if (wait > maxWaitNanos) {
+                return -wait;
+            }
+            tat = start + intervalNanos;
+            started = true;
+            return wait;
+        }
+
+        synchronized boolean isIdle(long now, long idleSince) {
+            return waiting.get() == 0 && usedAtNanos - idleSince < 0 && (!started || tat - now <= 0);
+        }
+
+        synchronized void pause(long now, long pauseNanos) {
+            long resumeAt = now + pauseNanos + burstToleranceNanos;
+            tat = started ? Math.max(tat, resumeAt) : resumeAt;
+            started = true;
+        }
+    }
+}
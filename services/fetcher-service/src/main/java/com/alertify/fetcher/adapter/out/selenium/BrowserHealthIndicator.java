@@ -0,0 +1,32 @@
+package com.alertify.fetcher.adapter.out.selenium;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether JS-rendered sites can be fetched; exposed on its own as the browser-readiness probe.
+ */
+@Component("browser")
+@RequiredArgsConstructor
+public class BrowserHealthIndicator implements HealthIndicator {
+
+    private final SeleniumWebDriverService seleniumService;
+
+    @Override
+    public Health health() {
+        SeleniumWebDriverService.State state = seleniumService.getState();
+        Health.Builder builder = switch (state) {
+            case READY -> Health.up();
+            case STARTING, NOT_STARTED -> Health.status(Status.OUT_OF_SERVICE);
+            case FAILED -> Health.down();
+        };
+
+        builder.withDetail("state", state.name());
+        seleniumService.getStartupTime().ifPresent(time -> builder.withDetail("startupMs", time.toMillis()));
+        seleniumService.getFailureReason().ifPresent(reason -> builder.withDetail("error", reason));
+        return builder.build();
+    }
+}
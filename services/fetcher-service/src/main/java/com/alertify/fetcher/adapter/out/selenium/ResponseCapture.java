@@ -0,0 +1,15 @@
+package com.alertify.fetcher.adapter.out.selenium;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Which network responses to inspect during a page load (by request URL) and how to turn a
+ * response body into a result; a reader returning empty lets the load continue.
+ */
+public record ResponseCapture<T>(
+        Predicate<String> urlFilter,
+        Function<String, Optional<T>> reader
+) {
+}
@@ -1,69 +1,413 @@
 package com.alertify.fetcher.adapter.out.selenium;
 
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.BrowserUnavailableException;
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.SiteConfig;
 import io.github.bonigarcia.wdm.WebDriverManager;
-import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.io.File;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 @Slf4j
 @Component
 public class SeleniumWebDriverService {
 
-    private WebDriver driver;
+    private static final long PAGE_LOAD_TIMEOUT_MS = 30_000;
+    private static final long RENDER_WAIT_MS = 3_000;
 
-    @PostConstruct
+    /**
+     * DevTools blocks by URL pattern, so resource types are approximated by file extension.
+     */
+    private static final Map<String, List<String>> RESOURCE_TYPE_PATTERNS = Map.of(
+            "image", List.of("*.png*", "*.jpg*", "*.jpeg*", "*.gif*", "*.webp*", "*.avif*", "*.svg*", "*.ico*"),
+            "font", List.of("*.woff*", "*.ttf*", "*.otf*", "*.eot*"),
+            "media", List.of("*.mp4*", "*.webm*", "*.m3u8*", "*.mp3*", "*.ogg*"),
+            "stylesheet", List.of("*.css*")
+    );
+
+    private final FetcherProperties.BrowserConfig config;
+    private final Timer pageLoadTimer;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService provisioner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "browser-provisioning");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // One Chrome session serves every JS fetch, so page loads take turns on it
+    private final Semaphore session = new Semaphore(1, true);
+    private final Timer sessionWaitTimer;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.NOT_STARTED);
+    private volatile ChromeDriver driver;
+    private volatile String failureReason;
+    private volatile long failedAtNanos;
+    private volatile Duration startupTime;
+    private List<String> appliedBlockedPatterns = List.of();
+
+    /**
+     * Browser lifecycle: JS fetches are served only once it is READY.
+     */
+    public enum State {
+        NOT_STARTED, STARTING, READY, FAILED
+    }
+
+    public SeleniumWebDriverService(FetcherProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getBrowser();
+        this.meterRegistry = meterRegistry;
+        this.pageLoadTimer = Timer.builder("fetcher.browser.page_load")
+                .description("Time from navigation start until the browser reports the page loaded")
+                .tag("strategy", config.getPageLoadStrategy().toLowerCase(Locale.ROOT))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("fetcher.browser.ready", state, current -> current.get() == State.READY ? 1 : 0)
+                .description("1 while the headless browser can serve JS fetches")
+                .register(meterRegistry);
+        Gauge.builder("fetcher.browser.sessions.active", session, s -> 1 - s.availablePermits())
+                .description("Browser sessions currently loading or reading a page")
+                .register(meterRegistry);
+        Gauge.builder("fetcher.browser.sessions.waiting", session, Semaphore::getQueueLength)
+                .description("JS fetches queued for a browser session")
+                .register(meterRegistry);
+        this.sessionWaitTimer = Timer.builder("fetcher.browser.session_wait")
+                .description("Time a JS fetch waited for a browser session")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Provisioning resolves a driver (possibly downloading it) and launches Chrome, so it runs in the
+     * background after startup rather than holding the service back from HTTP-only traffic.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (config.isWarmOnStartup()) {
+            startAsync();
+        }
+    }
+
+    /**
+     * Starts the browser on the provisioning thread unless it is already up or starting. A failed
+     * start is retried once retryAfterFailureMs has passed.
+     */
+    public CompletableFuture<Void> startAsync() {
+        if (claimStart()) {
+            return CompletableFuture.runAsync(this::provision, provisioner);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Starts the browser on the calling thread, for tools and benchmarks that need it before going on.
+     */
     public void init() {
-        try {
-            log.info("Initializing Chrome WebDriver...");
+        if (claimStart()) {
+            provision();
+        }
+        if (state.get() != State.READY) {
+            throw new RuntimeException("WebDriver initialization failed: " + failureReason);
+        }
+    }
 
-            WebDriverManager.chromedriver().setup();
+    public State getState() {
+        return state.get();
+    }
+
+    public Optional<Duration> getStartupTime() {
+        return Optional.ofNullable(startupTime);
+    }
+
+    public Optional<String> getFailureReason() {
+        return Optional.ofNullable(failureReason);
+    }
+
+    /**
+     * Fails fast instead of waiting for a browser that is not there yet; the first call while the
+     * browser is down also kicks off its start.
+     *
+     * @throws BrowserUnavailableException unless the browser is READY
+     */
+    public void requireReady() {
+        if (state.get() != State.READY) {
+            startAsync();
+            State current = state.get();
+            if (current != State.READY) {
+                throw new BrowserUnavailableException(current.name().toLowerCase(Locale.ROOT), failureReason);
+            }
+        }
+    }
 
-            ChromeOptions options = new ChromeOptions();
-            options.addArguments("--headless");
-            options.addArguments("--no-sandbox");
-            options.addArguments("--disable-dev-shm-usage");
-            options.addArguments("--disable-gpu");
-            options.addArguments("--window-size=1920,1080");
-            options.addArguments("--user-agent=Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
+    private boolean claimStart() {
+        if (state.compareAndSet(State.NOT_STARTED, State.STARTING)) {
+            return true;
+        }
+        long sinceFailureMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - failedAtNanos);
+        return state.get() == State.FAILED
+                && sinceFailureMs >= config.getRetryAfterFailureMs()
+                && state.compareAndSet(State.FAILED, State.STARTING);
+    }
 
-            driver = new ChromeDriver(options);
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+    private void provision() {
+        long start = System.nanoTime();
+        try {
+            log.info("Initializing Chrome WebDriver...");
+            driver = launch();
+            startupTime = Duration.ofNanos(System.nanoTime() - start);
+            failureReason = null;
+            state.set(State.READY);
+            recordStartup("success", startupTime);
 
-            log.info("Chrome WebDriver initialized successfully");
+            log.info("Chrome WebDriver initialized in {} ms (page load strategy: {}, images blocked: {})",
+                    startupTime.toMillis(), config.getPageLoadStrategy(), config.isBlockImages());
         } catch (Exception e) {
-            log.error("Failed to initialized WebDriver: {}", e.getMessage(), e);
-            throw new RuntimeException("WebDriver initialization failed", e);
+            failureReason = e.getMessage();
+            failedAtNanos = System.nanoTime();
+            state.set(State.FAILED);
+            recordStartup("failure", Duration.ofNanos(failedAtNanos - start));
+            log.error("Failed to initialize WebDriver, JS fetches are refused for {} ms: {}",
+                    config.getRetryAfterFailureMs(), e.getMessage(), e);
         }
     }
 
+    private ChromeDriver launch() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless");
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--disable-gpu");
+        options.addArguments("--window-size=1920,1080");
+        options.addArguments("--user-agent=Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
+        options.setPageLoadStrategy(PageLoadStrategy.fromString(config.getPageLoadStrategy().toLowerCase(Locale.ROOT)));
+        if (config.isBlockImages()) {
+            options.setExperimentalOption("prefs", Map.of("profile.managed_default_content_settings.images", 2));
+        }
+        if (!config.getChromeBinary().isBlank()) {
+            options.setBinary(config.getChromeBinary());
+        }
+
+        ChromeDriver started;
+        if (config.getDriverPath().isBlank()) {
+            WebDriverManager.chromedriver().setup();
+            started = new ChromeDriver(options);
+        } else {
+            log.info("Using local chromedriver at {}", config.getDriverPath());
+            started = new ChromeDriver(new ChromeDriverService.Builder()
+                    .usingDriverExecutable(new File(config.getDriverPath()))
+                    .build(), options);
+        }
+
+        started.manage().timeouts().pageLoadTimeout(Duration.ofMillis(PAGE_LOAD_TIMEOUT_MS));
+        started.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        started.executeCdpCommand("Network.enable", Map.of());
+        applyBlockedPatterns(started, new ArrayList<>(config.getBlockedUrlPatterns()));
+        return started;
+    }
+
+    private void recordStartup(String outcome, Duration elapsed) {
+        Timer.builder("fetcher.browser.startup")
+                .description("Time to resolve the driver and launch the headless browser")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed);
+    }
+
     public String fetchPageSource(String url) {
-        try {
-            log.info("Fetching page source with Selenium for URL: {}", url);
+        return fetchPageSource(url, SiteConfig.getDefault(), Deadline.none());
+    }
+
+    public String fetchPageSource(String url, SiteConfig siteConfig, Deadline deadline) {
+        String pageSource = render(url, siteConfig, deadline, WebDriver::getPageSource);
+        log.info("Successfully fetched {} characters with Selenium from {}", pageSource.length(), url);
+        return pageSource;
+    }
 
-            driver.get(url);
+    /**
+     * Loads url with the site's resource blocking, waits for it to render and runs action against
+     * the live page, so callers can pull out just what they need instead of the whole DOM.
+     * Navigation and the render wait are both cut short by the deadline, so a caller that has
+     * already given up does not keep the browser busy.
+     */
+    public <T> T render(String url, SiteConfig siteConfig, Deadline deadline, Function<WebDriver, T> action) {
+        requireReady();
+        acquireSession(deadline);
+        try {
+            log.info("Rendering {} with Selenium", url);
 
-            Thread.sleep(3000);
+            navigate(url, siteConfig, deadline);
 
-            String pageSource = driver.getPageSource();
-            log.info("Successfully fetched {} characters with Selenium from {}",
-                    pageSource.length(), url);
+            Thread.sleep(deadline.capMillis(RENDER_WAIT_MS));
+            deadline.check("browser");
 
-            return pageSource;
+            return action.apply(readyDriver());
+        } catch (DeadlineExceededException | BrowserUnavailableException e) {
+            throw e;
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException("browser", e);
+            }
             log.error("Failed to fetch page source for URL {}: {}", url, e.getMessage());
             throw new RuntimeException("Selenium fetch failed", e);
+        } finally {
+            session.release();
+        }
+    }
+
+    /**
+     * Loads url while watching its network traffic and returns as soon as a response accepted by
+     * capture's filter yields a result, instead of waiting out the render delay. When nothing is
+     * captured within maxWait, fallback runs against the page as loaded so far.
+     */
+    public <T> T capture(String url, SiteConfig siteConfig, Deadline deadline, Duration maxWait,
+                         ResponseCapture<T> capture, Function<WebDriver, T> fallback) {
+        CompletableFuture<T> captured = new CompletableFuture<>();
+        Filter inspectResponses = next -> request -> {
+            HttpResponse response = next.execute(request);
+            if (!captured.isDone() && capture.urlFilter().test(request.getUri())) {
+                try {
+                    capture.reader().apply(Contents.string(response)).ifPresent(captured::complete);
+                } catch (RuntimeException e) {
+                    log.debug("Could not read captured response from {}: {}", request.getUri(), e.getMessage());
+                }
+            }
+            return response;
+        };
+
+        ChromeDriver browser = readyDriver();
+        acquireSession(deadline);
+        try (NetworkInterceptor ignored = new NetworkInterceptor(browser, inspectResponses)) {
+            log.info("Rendering {} with Selenium, capturing API responses", url);
+            long start = System.nanoTime();
+
+            navigate(url, siteConfig, deadline);
+
+            long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long remainingMs = deadline.capMillis(Math.max(0, maxWait.toMillis() - waitedMs));
+            try {
+                T result = captured.get(remainingMs, TimeUnit.MILLISECONDS);
+                log.debug("Captured API response for {} after {} ms",
+                        url, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return result;
+            } catch (TimeoutException e) {
+                deadline.check("browser");
+                log.info("No matching API response for {} within {} ms, reading the page instead", url, maxWait.toMillis());
+                return fallback.apply(browser);
+            }
+        } catch (DeadlineExceededException | BrowserUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException("browser", e);
+            }
+            log.error("Failed to capture API responses for URL {}: {}", url, e.getMessage());
+            throw new RuntimeException("Selenium fetch failed", e);
+        } finally {
+            session.release();
+        }
+    }
+
+    /**
+     * Waits for the browser session no longer than the deadline allows, or than a page load takes.
+     */
+    private void acquireSession(Deadline deadline) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = session.tryAcquire(deadline.capMillis(PAGE_LOAD_TIMEOUT_MS + RENDER_WAIT_MS), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the browser", e);
+        } finally {
+            sessionWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            deadline.check("browser");
+            throw new RuntimeException("Browser session busy for longer than a page load");
+        }
+    }
+
+    private void navigate(String url, SiteConfig siteConfig, Deadline deadline) {
+        deadline.check("browser");
+        ChromeDriver browser = readyDriver();
+        applyBlockedPatterns(browser, blockedPatterns(siteConfig));
+        browser.manage().timeouts().pageLoadTimeout(Duration.ofMillis(deadline.capMillis(PAGE_LOAD_TIMEOUT_MS)));
+        pageLoadTimer.record(() -> browser.get(url));
+    }
+
+    private ChromeDriver readyDriver() {
+        requireReady();
+        return driver;
+    }
+
+    List<String> blockedPatterns(SiteConfig siteConfig) {
+        Set<String> patterns = new LinkedHashSet<>(config.getBlockedUrlPatterns());
+        if (siteConfig.getBlockedResourceTypes() != null) {
+            for (String type : siteConfig.getBlockedResourceTypes()) {
+                List<String> typePatterns = RESOURCE_TYPE_PATTERNS.get(type.toLowerCase(Locale.ROOT));
+                if (typePatterns == null) {
+                    log.warn("Ignoring unknown blocked resource type '{}'", type);
+                } else {
+                    patterns.addAll(typePatterns);
+                }
+            }
+        }
+        if (siteConfig.getBlockedUrlPatterns() != null) {
+            patterns.addAll(siteConfig.getBlockedUrlPatterns());
+        }
+        return List.copyOf(patterns);
+    }
+
+    // Blocking is per browser session; only talk to DevTools when the site's list differs from the last one
+    private void applyBlockedPatterns(ChromeDriver browser, List<String> patterns) {
+        if (!patterns.equals(appliedBlockedPatterns)) {
+            browser.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+            appliedBlockedPatterns = patterns;
+            log.debug("Blocking {} URL patterns in the browser", patterns.size());
         }
     }
 
     @PreDestroy
     public void cleanup() {
+        provisioner.shutdownNow();
         if (driver != null) {
             log.info("Closing WebDriver...");
             driver.quit();
@@ -1,27 +1,76 @@
 package com.alertify.fetcher.adapter.out.sites.base;
 
-import com.alertify.fetcher.adapter.out.selenium.SeleniumWebDriverService;
+import com.alertify.fetcher.adapter.out.cache.PriceRegionHasher;
+import com.alertify.fetcher.adapter.out.cache.ValidatorCache;
+import com.alertify.fetcher.adapter.out.extraction.JsonLdOfferExtractor;
+import com.alertify.fetcher.adapter.out.extraction.StreamingExtraction;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+import com.alertify.fetcher.domain.exception.DomainRateLimitedException;
+import com.alertify.fetcher.domain.exception.PageExtractionException;
+import com.alertify.fetcher.domain.model.Deadline;
 import com.alertify.fetcher.domain.model.ExtractionContext;
+import com.alertify.fetcher.domain.model.FetchedPage;
+import com.alertify.fetcher.domain.model.ListingItem;
+import com.alertify.fetcher.domain.model.ListingSnapshot;
 import com.alertify.fetcher.domain.model.MetricSample;
 import com.alertify.fetcher.domain.model.SiteConfig;
+import com.alertify.fetcher.domain.port.ListingFetcher;
+import com.alertify.fetcher.domain.port.PriceExtractionStrategy;
 import com.alertify.fetcher.domain.port.SiteSpecificFetcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 @RequiredArgsConstructor
-public abstract class AbstractSiteFetcher implements SiteSpecificFetcher {
+public abstract class AbstractSiteFetcher implements SiteSpecificFetcher, ListingFetcher {
 
-    private final SeleniumWebDriverService seleniumService;
+    private static final Pattern COUNT = Pattern.compile("\\d+");
+
+    private final PageDownloader pageDownloader;
+    private final ValidatorCache validatorCache;
+    private final StrategyStatsService strategyStats;
+    private final FetcherMetrics fetcherMetrics;
+
+    private volatile SiteConfig configuration;
+
+    protected abstract SiteConfig defaultConfiguration();
+
+    @Override
+    public SiteConfig getConfiguration() {
+        SiteConfig override = configuration;
+        return override != null ? override : defaultConfiguration();
+    }
+
+    @Override
+    public SiteConfig getDefaultConfiguration() {
+        return defaultConfiguration();
+    }
+
+    /**
+     * Switches the fetcher to the given configuration from the next fetch on; null restores the built-in one.
+     */
+    public void reconfigure(SiteConfig config) {
+        configuration = config;
+    }
 
     @Override
     public boolean supports(String sourceType) {
@@ -30,6 +79,11 @@ public abstract class AbstractSiteFetcher implements SiteSpecificFetcher {
 
     @Override
     public MetricSample fetch(Map<String, String> params) {
+        return fetch(params, Deadline.none());
+    }
+
+    @Override
+    public MetricSample fetch(Map<String, String> params, Deadline deadline) {
         String url = params.get("url");
 
         if (!isValidUrl(url)) {
@@ -38,133 +92,464 @@ public abstract class AbstractSiteFetcher implements SiteSpecificFetcher {
 
         log.info("Fetching price from {} for URL: {}", getSiteName(), url);
 
+        long start = System.nanoTime();
+        long allocatedBefore = FetcherMetrics.threadAllocatedBytes();
+        String outcome = "error";
         try {
-            String html = fetchHtml(url);
-            ExtractionContext context = new ExtractionContext(url, html, params);
+            deadline.check("download");
+            SiteConfig config = getConfiguration();
+            String currency = params.getOrDefault("currency", config.getDefaultCurrency());
+            Set<String> extraMetrics = requestedMetrics(params);
+            if (!extraMetrics.isEmpty()) {
+                MetricSample sample = fetchWithMetrics(url, config, params, currency, extraMetrics, deadline);
+                outcome = "success";
+                return sample;
+            }
 
-            BigDecimal price = extractPrice(context)
-                    .orElseThrow(() -> new RuntimeException("Could not extract price from " + getSiteName() + ": " + url));
+            Optional<ValidatorCache.Entry> cached = validatorCache.get(url);
+            Map<String, String> conditionalHeaders = cached.map(ValidatorCache.Entry::conditionalHeaders).orElse(Map.of());
 
-            String currency = params.getOrDefault("currency", getConfiguration().getDefaultCurrency());
+            Download download = pageDownloader.download(url, config, getSiteName(), conditionalHeaders, deadline);
 
-            log.info("Successfully extracted price from {}: {} {}", getSiteName(), price, currency);
+            if (download.notModified() && cached.isPresent()) {
+                log.info("{} answered 304 Not Modified for {}, reusing cached price", getSiteName(), url);
+                outcome = "success";
+                return validatorCache.reuse(cached.get(), currency, true);
+            }
+
+            if (download.hasStreamedPrice()) {
+                StreamingExtraction streamed = download.streamed();
+                log.info("Successfully extracted price from {} via <{}> after {} bytes: {} {}",
+                        getSiteName(), streamed.source(), streamed.bytesRead(), streamed.price().get(), currency);
+                MetricSample sample = new MetricSample(MetricSample.PRICE, streamed.price().get(), currency, Instant.now());
+                validatorCache.recordMiss();
+                validatorCache.put(url, new ValidatorCache.Entry(download.etag(), download.lastModified(), null, sample));
+                outcome = "success";
+                return sample;
+            }
 
-            return new MetricSample("price", price, currency, Instant.now());
+            ExtractionContext context = contextFor(url, download.html(), params, deadline);
+            String regionHash = validatorCache.isEnabled() ? PriceRegionHasher.hash(parse(context), config) : null;
+            if (regionHash != null && cached.isPresent() && regionHash.equals(cached.get().regionHash())) {
+                log.info("Price region of {} unchanged since last fetch, skipping extraction", url);
+                validatorCache.put(url, new ValidatorCache.Entry(
+                        download.etag(), download.lastModified(), regionHash, cached.get().sample()));
+                outcome = "success";
+                return validatorCache.reuse(cached.get(), currency, false);
+            }
+
+            deadline.check("extraction");
+            Optional<BigDecimal> extracted = extractPrice(context);
+
+            if (extracted.isEmpty() && download.partial()) {
+                log.info("Price candidates from the browser were not enough for {}, loading the full page of {}",
+                        getSiteName(), url);
+                download = pageDownloader.downloadFullPage(url, config, getSiteName(), deadline);
+                deadline.check("extraction");
+                extracted = extractPrice(contextFor(url, download.html(), params, deadline));
+            }
 
+            FetchedPage page = download.toPage();
+            BigDecimal price = extracted
+                    .orElseThrow(() -> new PageExtractionException(
+                            "Could not extract price from " + getSiteName() + ": " + url, page));
+
+            log.info("Successfully extracted price from {}: {} {}", getSiteName(), price, currency);
+
+            MetricSample sample = new MetricSample(MetricSample.PRICE, price, currency, Instant.now());
+            validatorCache.recordMiss();
+            validatorCache.put(url, new ValidatorCache.Entry(download.etag(), download.lastModified(), regionHash, sample));
+            outcome = "success";
+            return sample;
+
+        } catch (PageExtractionException e) {
+            log.error("Failed to extract price from {} for URL {}: {}", getSiteName(), url, e.getMessage());
+            outcome = "not_found";
+            throw e;
+        } catch (DeadlineExceededException e) {
+            log.warn("Abandoning {} fetch of {}: {}", getSiteName(), url, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Failed to fetch price from {} for URL {}: {}", getSiteName(), url, e.getMessage());
             throw new RuntimeException("Price fetching failed for " + getSiteName(), e);
+        } finally {
+            fetcherMetrics.recordFetch(getSiteName(), outcome, System.nanoTime() - start);
+            if (allocatedBefore >= 0) {
+                fetcherMetrics.recordAllocation(getSiteName(), FetcherMetrics.threadAllocatedBytes() - allocatedBefore);
+            }
         }
     }
 
-    protected abstract Optional<BigDecimal> extractPrice(ExtractionContext context);
+    @Override
+    public MetricSample extract(FetchedPage page, Map<String, String> params) {
+        return extract(page, params, Deadline.none());
+    }
 
-    private String fetchHtml(String url) {
-        SiteConfig config = getConfiguration();
+    @Override
+    public MetricSample extract(FetchedPage page, Map<String, String> params, Deadline deadline) {
+        deadline.check("extraction");
+        String currency = params.getOrDefault("currency", getConfiguration().getDefaultCurrency());
+        ExtractionContext context = contextFor(page.url(), page.html(), params, deadline);
+
+        BigDecimal price = extractPrice(context)
+                .orElseThrow(() -> new PageExtractionException(
+                        "Could not extract price from " + getSiteName() + ": " + page.url(), page));
+
+        log.info("Successfully extracted price from {} using an already downloaded page: {} {}",
+                getSiteName(), price, currency);
+        return new MetricSample(MetricSample.PRICE, price, currency, Instant.now(),
+                extractMetrics(context, price, requestedMetrics(params)));
+    }
 
-        if (config.isUseSelenium() || config.isRequiresJs()) {
-            return fetchWithSelenium(url);
-        } else {
-            return fetchWithSimpleHttp(url);
+    /**
+     * The streamed, cached and in-browser shortcuts only ever see the price, so a sample with more
+     * metrics reads the whole page once and takes every metric from that one page.
+     */
+    private MetricSample fetchWithMetrics(String url, SiteConfig config, Map<String, String> params, String currency,
+                                          Set<String> extraMetrics, Deadline deadline) {
+        record Priced(FetchedPage page, ExtractionContext context, Optional<BigDecimal> price) {
         }
+
+        Priced priced = readWholePage(url, config, deadline,
+                page -> {
+                    ExtractionContext context = contextFor(page.url(), page.html(), params, deadline);
+                    return new Priced(page, context, extractPrice(context));
+                },
+                result -> result.price().isPresent());
+
+        BigDecimal price = priced.price()
+                .orElseThrow(() -> new PageExtractionException(
+                        "Could not extract price from " + getSiteName() + ": " + url, priced.page()));
+        deadline.check("extraction");
+        Map<String, BigDecimal> metrics = extractMetrics(priced.context(), price, extraMetrics);
+
+        log.info("Successfully extracted {} from {}: {} {}", metrics.keySet(), getSiteName(), price, currency);
+        return new MetricSample(MetricSample.PRICE, price, currency, Instant.now(), metrics);
     }
 
-    private String fetchWithSelenium(String url) {
-        log.debug("Fetching {} with Selenium", url);
+    private static Set<String> requestedMetrics(Map<String, String> params) {
+        String requested = params.get(MetricSample.METRICS_PARAM);
+        if (requested == null || requested.isBlank()) {
+            return Set.of();
+        }
+        Set<String> metrics = new LinkedHashSet<>();
+        for (String metric : requested.split(",")) {
+            String name = metric.trim();
+            if (!name.isEmpty() && !MetricSample.PRICE.equals(name)) {
+                metrics.add(name);
+            }
+        }
+        return metrics;
+    }
 
-        try {
-            String html = seleniumService.fetchPageSource(url);
+    /**
+     * The price plus whichever of the requested metrics the page carries: from the JSON-LD offer
+     * first, then from the site's selectors on a single parse of the page. Unknown names are left out.
+     */
+    protected Map<String, BigDecimal> extractMetrics(ExtractionContext context, BigDecimal price, Set<String> requested) {
+        Map<String, BigDecimal> metrics = new LinkedHashMap<>();
+        metrics.put(MetricSample.PRICE, price);
+        if (requested.isEmpty()) {
+            return metrics;
+        }
 
-            // Apply additional wait if configured
-            SiteConfig config = getConfiguration();
-            if (config.getWaitAfterLoadMs() > 1000) {
-                try {
-                    Thread.sleep(config.getWaitAfterLoadMs() - 1000); // Selenium already waits ~1s
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+        SiteConfig config = getConfiguration();
+        if (config.isEnableJsonLd()) {
+            JsonLdOfferExtractor.firstOfferInPage(context.html()).ifPresent(offer -> {
+                if (requested.contains(MetricSample.LIST_PRICE) && offer.listPrice() != null) {
+                    metrics.put(MetricSample.LIST_PRICE, offer.listPrice());
                 }
+                if (requested.contains(MetricSample.IN_STOCK) && offer.inStock() != null) {
+                    metrics.put(MetricSample.IN_STOCK, offer.inStock() ? BigDecimal.ONE : BigDecimal.ZERO);
+                }
+                if (requested.contains(MetricSample.SELLER_COUNT) && offer.offerCount() != null) {
+                    metrics.put(MetricSample.SELLER_COUNT, BigDecimal.valueOf(offer.offerCount()));
+                }
+            });
+        }
+
+        Document doc = null;
+        for (String metric : requested) {
+            if (metrics.containsKey(metric)) {
+                continue;
+            }
+            List<String> selectors = switch (metric) {
+                case MetricSample.LIST_PRICE -> config.getListPriceSelectors();
+                case MetricSample.IN_STOCK -> config.getOutOfStockSelectors();
+                case MetricSample.SELLER_COUNT -> config.getSellerCountSelectors();
+                default -> null;
+            };
+            if (selectors == null || selectors.isEmpty()) {
+                log.debug("{} has no way to read {}", getSiteName(), metric);
+                continue;
             }
+            if (doc == null) {
+                doc = parse(context);
+            }
+            readMetric(doc, metric, selectors).ifPresent(found -> metrics.put(metric, found));
+        }
+        return metrics;
+    }
 
-            return html;
-        } catch (Exception e) {
-            log.error("Selenium fetch failed for {}: {}", url, e.getMessage());
-            throw new RuntimeException("Selenium fetch failed", e);
+    private Optional<BigDecimal> readMetric(Document doc, String metric, List<String> selectors) {
+        return switch (metric) {
+            case MetricSample.LIST_PRICE -> firstPrice(doc, selectors);
+            case MetricSample.IN_STOCK -> Optional.of(
+                    selectors.stream().anyMatch(selector -> doc.selectFirst(selector) != null)
+                            ? BigDecimal.ZERO : BigDecimal.ONE);
+            default -> firstCount(doc, selectors);
+        };
+    }
+
+    private Optional<BigDecimal> firstPrice(Element root, List<String> selectors) {
+        for (String selector : selectors) {
+            Optional<BigDecimal> price = trySelector(root, selector);
+            if (price.isPresent()) {
+                return price;
+            }
         }
+        return Optional.empty();
     }
 
-    private String fetchWithSimpleHttp(String url) {
-        log.debug("Fetching {} with simple HTTP", url);
+    private static Optional<BigDecimal> firstCount(Element root, List<String> selectors) {
+        for (String selector : selectors) {
+            Element element = root.selectFirst(selector);
+            if (element != null) {
+                Matcher count = COUNT.matcher(element.text());
+                if (count.find()) {
+                    return Optional.of(new BigDecimal(count.group()));
+                }
+            }
+        }
+        return Optional.empty();
+    }
 
-        try {
-            URL urlObj = new URL(url);
-            HttpURLConnection connection = (HttpURLConnection) urlObj.openConnection();
+    /**
+     * Server-rendered HTML is tried first where the site allows plain HTTP (no browser, or tiered);
+     * browser sites render the page when that lists nothing.
+     */
+    @Override
+    public ListingSnapshot fetchListing(Map<String, String> params, Deadline deadline) {
+        String url = params.get("url");
 
-            SiteConfig config = getConfiguration();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(config.getTimeoutMs());
-            connection.setReadTimeout(config.getTimeoutMs());
+        if (url == null || !supportsDomain(extractDomain(url))) {
+            throw new IllegalArgumentException("Invalid listing URL for " + getSiteName() + ": " + url);
+        }
 
-            String userAgent = config.getUserAgent() != null ?
-                    config.getUserAgent() :
-                    "Mozilla/5.0 (compatible; AlertifyBot/1.0)";
-            connection.setRequestProperty("User-Agent", userAgent);
+        log.info("Fetching listing from {} for URL: {}", getSiteName(), url);
 
-            if (config.getHeaders() != null) {
-                config.getHeaders().forEach(connection::setRequestProperty);
-            }
+        long start = System.nanoTime();
+        String outcome = "error";
+        int items = 0;
+        try {
+            ListingSnapshot listing = readWholePage(url, getConfiguration(), deadline,
+                    page -> extractListing(page, params), result -> !result.items().isEmpty());
+
+            items = listing.items().size();
+            outcome = items > 0 ? "success" : "empty";
+            log.info("Read {} priced products from {} listing {}", items, getSiteName(), url);
+            return listing;
+        } finally {
+            fetcherMetrics.recordListing(getSiteName(), outcome, items, System.nanoTime() - start);
+        }
+    }
 
-            connection.setRequestProperty("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
-            connection.setRequestProperty("Accept-Language", "en-US,en;q=0.5");
-            connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
-            connection.setRequestProperty("Connection", "keep-alive");
-            connection.setRequestProperty("Upgrade-Insecure-Requests", "1");
-
-            int responseCode = connection.getResponseCode();
-            if (responseCode >= 200 && responseCode < 300) {
-                StringBuilder content = new StringBuilder();
-                try (BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(connection.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        content.append(line).append("\n");
-                    }
+    /**
+     * Reads what it needs from the complete page, loading it over plain HTTP where the site allows
+     * that and rendering it in the browser when plain HTTP fails or the result is not enough.
+     */
+    private <T> T readWholePage(String url, SiteConfig config, Deadline deadline,
+                                Function<FetchedPage, T> read, Predicate<T> enough) {
+        boolean browser = PageDownloader.usesBrowser(config);
+        T result = null;
+
+        if (!browser || config.isTieredFetch()) {
+            try {
+                deadline.check("download");
+                result = read.apply(pageDownloader.downloadWholePage(url, config, getSiteName(), false, deadline).toPage());
+            } catch (DomainRateLimitedException | DeadlineExceededException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                if (!browser) {
+                    throw e;
                 }
+                log.info("Browserless fetch of {} failed ({}), escalating to browser", url, e.getMessage());
+            }
+        }
+        if (browser && (result == null || !enough.test(result))) {
+            deadline.check("browser");
+            result = read.apply(pageDownloader.downloadWholePage(url, config, getSiteName(), true, deadline).toPage());
+        }
+        return result;
+    }
 
-                log.debug("Successfully fetched {} characters from {}", content.length(), url);
-                return content.toString();
+    /**
+     * Reads the products of an already downloaded listing page: the schema.org ItemList when it
+     * carries prices, otherwise the site's product cards.
+     */
+    public ListingSnapshot extractListing(FetchedPage page, Map<String, String> params) {
+        SiteConfig config = getConfiguration();
+        String currency = params.getOrDefault("currency", config.getDefaultCurrency());
+        Pattern productId = config.getProductIdPattern() != null ? Pattern.compile(config.getProductIdPattern()) : null;
+        Map<String, ListingItem> items = new LinkedHashMap<>();
+
+        if (config.isEnableJsonLd()) {
+            for (JsonLdOfferExtractor.ListedOffer listed : JsonLdOfferExtractor.itemListInPage(page.html())) {
+                String productUrl = resolveLink(page.url(), listed.url());
+                JsonLdOfferExtractor.Offer offer = listed.offer();
+                if (productUrl != null) {
+                    items.putIfAbsent(productUrl, new ListingItem(productUrl, productIdOf(productId, productUrl),
+                            offer.price(), offer.currency() != null ? offer.currency() : currency));
+                }
+            }
+        }
 
-            } else {
-                throw new RuntimeException("HTTP error " + responseCode + " for URL: " + url);
+        if (items.isEmpty() && config.getListingItemSelector() != null) {
+            Document doc = parse(contextFor(page.url(), page.html(), params, Deadline.none()));
+            for (Element card : doc.select(config.getListingItemSelector())) {
+                Element link = card.is("a[href]") ? card : card.selectFirst("a[href]");
+                String productUrl = link != null ? resolveLink(page.url(), link.attr("href")) : null;
+                Optional<BigDecimal> price = config.getListingPriceSelectors() != null
+                        ? firstPrice(card, config.getListingPriceSelectors())
+                        : Optional.empty();
+                if (productUrl != null && price.isPresent()) {
+                    items.putIfAbsent(productUrl,
+                            new ListingItem(productUrl, productIdOf(productId, productUrl), price.get(), currency));
+                }
             }
+        }
 
+        return new ListingSnapshot(page.url(), List.copyOf(items.values()), page.fetchedAt());
+    }
+
+    private static String resolveLink(String pageUrl, String href) {
+        if (href == null || href.isBlank()) {
+            return null;
+        }
+        try {
+            java.net.URI resolved = new java.net.URI(pageUrl).resolve(href.trim());
+            if (resolved.getHost() == null) {
+                return null;
+            }
+            String link = resolved.toString();
+            int fragment = link.indexOf('#');
+            return fragment >= 0 ? link.substring(0, fragment) : link;
         } catch (Exception e) {
-            log.error("Simple HTTP fetch failed for {}: {}", url, e.getMessage());
-            throw new RuntimeException("HTTP fetch failed", e);
+            return null;
+        }
+    }
+
+    private static String productIdOf(Pattern productId, String productUrl) {
+        if (productId == null) {
+            return null;
         }
+        Matcher matcher = productId.matcher(productUrl);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Extraction strategies in their default order, which is also their precedence: learning per domain
+     * only moves strategies that rarely yield a price, so the first price found stays the same.
+     */
+    protected abstract List<PriceExtractionStrategy> getExtractionStrategies();
+
+    protected Optional<BigDecimal> extractPrice(ExtractionContext context) {
+        String domain = extractDomain(context.url());
+
+        for (PriceExtractionStrategy strategy
+                : strategyStats.order(domain, getExtractionStrategies(), PriceExtractionStrategy::getName,
+                        PriceExtractionStrategy::getPriority)) {
+            context.deadline().check("extraction");
+            long start = System.nanoTime();
+            Optional<BigDecimal> price;
+            try {
+                price = strategy.extractPrice(context);
+            } catch (Exception e) {
+                log.debug("Strategy {} failed on {}: {}", strategy.getName(), getSiteName(), e.getMessage());
+                price = Optional.empty();
+            }
+            long elapsed = System.nanoTime() - start;
+            strategyStats.record(domain, strategy.getName(), price.isPresent(), elapsed);
+            fetcherMetrics.recordExtraction(getSiteName(), strategy.getName(), price.isPresent(), elapsed);
+
+            if (price.isPresent()) {
+                log.info("Price extracted from {} with {} strategy: {}", getSiteName(), strategy.getName(), price.get());
+                return price;
+            }
+        }
+
+        log.warn("Could not extract price from {} page: {}", getSiteName(), context.url());
+        return Optional.empty();
+    }
+
+    /**
+     * The page's DOM, parsed once per extraction and shared by the price region hash and every
+     * strategy, so it must not be modified; see {@link #visibleText}.
+     */
+    protected Document parse(ExtractionContext context) {
+        return context.document().get();
+    }
+
+    /**
+     * Text a reader of the page would see, from a copy of the DOM without scripts and styles.
+     */
+    protected String visibleText(ExtractionContext context) {
+        Document doc = parse(context).clone();
+        doc.select("script, style, noscript").remove();
+        return doc.text();
+    }
+
+    /**
+     * A context whose page is parsed on first use, timed per site.
+     */
+    protected ExtractionContext contextFor(String url, String html, Map<String, String> params, Deadline deadline) {
+        return new ExtractionContext(url, html, params, deadline, ExtractionContext.parsedOnce(() -> {
+            long start = System.nanoTime();
+            Document doc = Jsoup.parse(html);
+            fetcherMetrics.recordParse(getSiteName(), System.nanoTime() - start);
+            return doc;
+        }));
+    }
+
+    /**
+     * Price of the first schema.org offer in the page's JSON-LD, read straight from the HTML without
+     * parsing the DOM.
+     */
+    protected Optional<BigDecimal> extractFromJsonLd(ExtractionContext context) {
+        return JsonLdOfferExtractor.firstOfferInPage(context.html()).map(JsonLdOfferExtractor.Offer::price);
     }
 
     protected Optional<BigDecimal> trySelectorsExtraction(ExtractionContext context) {
         try {
-            org.jsoup.nodes.Document doc = org.jsoup.Jsoup.parse(context.html());
+            Document doc = parse(context);
             SiteConfig config = getConfiguration();
+            String domain = extractDomain(context.url());
 
+            List<String> selectors = new ArrayList<>();
             if (config.getPriceSelectors() != null) {
-                for (String selector : config.getPriceSelectors()) {
-                    Optional<BigDecimal> price = trySelector(doc, selector);
-                    if (price.isPresent()) {
-                        log.debug("Price extracted with selector '{}': {}", selector, price.get());
-                        return price;
-                    }
-                }
+                selectors.addAll(config.getPriceSelectors());
             }
-
             if (config.getFallbackSelectors() != null) {
-                for (String selector : config.getFallbackSelectors()) {
-                    Optional<BigDecimal> price = trySelector(doc, selector);
-                    if (price.isPresent()) {
-                        log.debug("Price extracted with fallback selector '{}': {}", selector, price.get());
-                        return price;
-                    }
+                selectors.addAll(config.getFallbackSelectors());
+            }
+
+            for (String selector : strategyStats.order(domain, selectors, AbstractSiteFetcher::selectorStatName)) {
+                if (context.deadline().isExpired()) {
+                    break;
+                }
+                long start = System.nanoTime();
+                Optional<BigDecimal> price;
+                try {
+                    price = trySelector(doc, selector);
+                } catch (Exception e) {
+                    log.debug("Selector '{}' failed: {}", selector, e.getMessage());
+                    price = Optional.empty();
+                }
+                strategyStats.record(domain, selectorStatName(selector), price.isPresent(), System.nanoTime() - start);
+
+                if (price.isPresent()) {
+                    log.debug("Price extracted with selector '{}': {}", selector, price.get());
+                    return price;
                 }
             }
 
@@ -176,8 +561,12 @@ public abstract class AbstractSiteFetcher implements SiteSpecificFetcher {
         }
     }
 
-    private Optional<BigDecimal> trySelector(org.jsoup.nodes.Document doc, String selector) {
-        org.jsoup.nodes.Element element = doc.selectFirst(selector);
+    private static String selectorStatName(String selector) {
+        return "selector:" + selector;
+    }
+
+    private Optional<BigDecimal> trySelector(Element root, String selector) {
+        Element element = root.selectFirst(selector);
         if (element != null) {
             String priceText = element.text();
             Optional<BigDecimal> price = parsePriceString(priceText);
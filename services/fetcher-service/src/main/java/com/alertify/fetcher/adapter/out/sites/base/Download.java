@@ -0,0 +1,50 @@
+package com.alertify.fetcher.adapter.out.sites.base;
+
+import com.alertify.fetcher.adapter.out.extraction.StreamingExtraction;
+import com.alertify.fetcher.domain.model.FetchedPage;
+
+import java.time.Instant;
+
+/**
+ * Page body plus the validators the server sent with it; streamed is set when a price was already
+ * read from structured data on the way in, rendered when the body came from a browser, partial when
+ * the browser sent only the price candidates rather than the whole page. bytes is what was received
+ * for it: transferred over HTTP, or the characters read back from the browser.
+ */
+public record Download(
+        String url,
+        String html,
+        StreamingExtraction streamed,
+        String etag,
+        String lastModified,
+        boolean notModified,
+        boolean rendered,
+        boolean partial,
+        long bytes
+) {
+
+    public static Download notModified(String url, String etag, String lastModified) {
+        return new Download(url, null, null, etag, lastModified, true, false, false, 0);
+    }
+
+    public static Download rendered(String url, String html) {
+        return new Download(url, html, null, null, null, false, true, false, html != null ? html.length() : 0);
+    }
+
+    public static Download inBrowser(String url, StreamingExtraction candidates) {
+        return new Download(url, candidates.html(), candidates, null, null, false, true, candidates.price().isEmpty(),
+                candidates.bytesRead());
+    }
+
+    public boolean hasStreamedPrice() {
+        return streamed != null && streamed.price().isPresent();
+    }
+
+    public Download withStreamed(StreamingExtraction extraction) {
+        return new Download(url, html, extraction, etag, lastModified, notModified, rendered, partial, bytes);
+    }
+
+    public FetchedPage toPage() {
+        return new FetchedPage(url, html, rendered, Instant.now());
+    }
+}
@@ -0,0 +1,325 @@
+package com.alertify.fetcher.adapter.out.sites.base;
+
+import com.alertify.fetcher.adapter.out.extraction.ApiResponsePriceExtractor;
+import com.alertify.fetcher.adapter.out.extraction.EmbeddedStateExtractor;
+import com.alertify.fetcher.adapter.out.extraction.InBrowserPriceExtractor;
+import com.alertify.fetcher.adapter.out.extraction.StreamingExtraction;
+import com.alertify.fetcher.adapter.out.extraction.StreamingPriceExtractor;
+import com.alertify.fetcher.adapter.out.http.HttpClientService;
+import com.alertify.fetcher.adapter.out.http.HttpPage;
+import com.alertify.fetcher.adapter.out.http.HttpStream;
+import com.alertify.fetcher.adapter.out.politeness.PolitenessScheduler;
+import com.alertify.fetcher.adapter.out.selenium.ResponseCapture;
+import com.alertify.fetcher.adapter.out.selenium.SeleniumWebDriverService;
+import com.alertify.fetcher.application.service.BrowserLane;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+import com.alertify.fetcher.domain.exception.DomainRateLimitedException;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Retrieves pages for site fetchers: plain HTTP (streamed or buffered), browser, or tiered
+ * HTTP-then-browser. Extraction is left to the fetchers so one download can serve several of them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PageDownloader {
+
+    // Matches the fixed render delay the browser gets before its page is read
+    private static final long CAPTURE_RENDER_WAIT_MS = 3_000;
+
+    private final SeleniumWebDriverService seleniumService;
+    private final HttpClientService httpClientService;
+    private final StreamingPriceExtractor streamingPriceExtractor;
+    private final EmbeddedStateExtractor embeddedStateExtractor;
+    private final PolitenessScheduler politenessScheduler;
+    private final InBrowserPriceExtractor inBrowserPriceExtractor;
+    private final ApiResponsePriceExtractor apiResponsePriceExtractor;
+    private final FetcherMetrics fetcherMetrics;
+    private final BrowserLane browserLane;
+
+    /**
+     * HTTP timeouts, politeness waits and browser loads are all capped by the deadline; a load
+     * that fails because the budget ran out surfaces as {@link DeadlineExceededException}.
+     */
+    public Download download(String url, SiteConfig config, String siteName,
+                             Map<String, String> conditionalHeaders, Deadline deadline) {
+        SiteConfig bounded = withinDeadline(config, deadline);
+        String failureMethod = usesBrowser(config) && !config.isTieredFetch()
+                ? FetcherMetrics.METHOD_BROWSER
+                : FetcherMetrics.METHOD_HTTP;
+        return recorded(siteName, failureMethod, deadline, () -> {
+            if (!usesBrowser(config)) {
+                return fetchOverHttp(url, bounded, siteName, conditionalHeaders, deadline);
+            } else if (config.isTieredFetch()) {
+                return fetchTiered(url, bounded, siteName, conditionalHeaders, deadline);
+            }
+            return fetchInBrowser(url, bounded, siteName, deadline);
+        });
+    }
+
+    /**
+     * The complete page for extractions that read all of it, such as listings: the HTTP body
+     * without streaming extraction, or the whole rendered DOM when the browser is asked for.
+     */
+    public Download downloadWholePage(String url, SiteConfig config, String siteName, boolean browser, Deadline deadline) {
+        SiteConfig bounded = withinDeadline(config, deadline);
+        if (browser) {
+            SiteConfig wholePage = bounded.toBuilder().inBrowserExtraction(false).apiCapturePatterns(null).build();
+            return recorded(siteName, FetcherMetrics.METHOD_BROWSER, deadline,
+                    () -> fetchInBrowser(url, wholePage, siteName, deadline));
+        }
+        return recorded(siteName, FetcherMetrics.METHOD_HTTP, deadline, () -> {
+            politenessScheduler.acquire(url, siteName, bounded, deadline);
+            return fetchWithSimpleHttp(url, bounded, Map.of());
+        });
+    }
+
+    private Download recorded(String siteName, String failureMethod, Deadline deadline, Supplier<Download> load) {
+        long start = System.nanoTime();
+        try {
+            Download download = load.get();
+            fetcherMetrics.recordDownload(siteName, methodOf(download),
+                    download.notModified() ? "not_modified" : "success", System.nanoTime() - start, download.bytes());
+            return download;
+        } catch (RuntimeException e) {
+            fetcherMetrics.recordDownload(siteName, failureMethod, "error", System.nanoTime() - start, 0);
+            if (e instanceof DeadlineExceededException || e instanceof DomainRateLimitedException || !deadline.isExpired()) {
+                throw e;
+            }
+            throw new DeadlineExceededException("download", e);
+        }
+    }
+
+    private static String methodOf(Download download) {
+        if (download.rendered()) {
+            return FetcherMetrics.METHOD_BROWSER;
+        }
+        return download.streamed() != null && !download.notModified()
+                ? FetcherMetrics.METHOD_STREAM
+                : FetcherMetrics.METHOD_HTTP;
+    }
+
+    /**
+     * Loads the whole rendered page, for when the price candidates of a partial download were not enough.
+     */
+    public Download downloadFullPage(String url, SiteConfig config, String siteName, Deadline deadline) {
+        inBrowserPriceExtractor.recordFullPageRetry();
+        return download(url, config.toBuilder().inBrowserExtraction(false).tieredFetch(false).apiCapturePatterns(null).build(),
+                siteName, Map.of(), deadline);
+    }
+
+    public static boolean usesBrowser(SiteConfig config) {
+        return config.isUseSelenium() || config.isRequiresJs();
+    }
+
+    private static SiteConfig withinDeadline(SiteConfig config, Deadline deadline) {
+        if (!deadline.isBounded()) {
+            return config;
+        }
+        long timeoutMs = deadline.capMillis(config.getTimeoutMs() > 0 ? config.getTimeoutMs() : Integer.MAX_VALUE);
+        return timeoutMs == config.getTimeoutMs()
+                ? config
+                : config.toBuilder().timeoutMs((int) Math.max(1, timeoutMs)).build();
+    }
+
+    private Download fetchOverHttp(String url, SiteConfig config, String siteName,
+                                   Map<String, String> conditionalHeaders, Deadline deadline) {
+        politenessScheduler.acquire(url, siteName, config, deadline);
+        return streamingPriceExtractor.isEnabled()
+                ? streamHtml(url, config, conditionalHeaders)
+                : fetchWithSimpleHttp(url, config, conditionalHeaders);
+    }
+
+    /**
+     * Browser loads run on the browser lane, wherever the fetch started, so escalations from tiered
+     * sites are bounded by its queue instead of piling up on the browser session. The politeness
+     * wait comes first, on the caller's thread, so a throttled domain does not hold a browser thread
+     * other domains could render on.
+     */
+    private Download fetchInBrowser(String url, SiteConfig config, String siteName, Deadline deadline) {
+        deadline.check("browser");
+        // Before politeness, so a refused fetch does not spend the site's request budget
+        seleniumService.requireReady();
+        politenessScheduler.acquire(url, siteName, config, deadline);
+        return browserLane.run(() -> loadInBrowser(url, config, deadline));
+    }
+
+    private Download loadInBrowser(String url, SiteConfig config, Deadline deadline) {
+        deadline.check("browser");
+        if (hasApiCapture(config)) {
+            return captureApiResponse(url, config, deadline);
+        }
+        if (config.isInBrowserExtraction()) {
+            return extractInBrowser(url, config, deadline);
+        }
+        return Download.rendered(url, fetchWithSelenium(url, config, deadline));
+    }
+
+    private Download extractInBrowser(String url, SiteConfig config, Deadline deadline) {
+        log.debug("Extracting price candidates from {} inside the browser", url);
+
+        return seleniumService.render(url, config, deadline, driver -> {
+            waitAfterLoad(config, deadline);
+            return fromLoadedPage(url, config, driver);
+        });
+    }
+
+    /**
+     * Reads the price from the product API response the page fetches for itself. The wait is
+     * bounded by the render delay the page would otherwise get; past it, the loaded page is used.
+     */
+    private Download captureApiResponse(String url, SiteConfig config, Deadline deadline) {
+        log.debug("Loading {} and waiting for its product API response", url);
+
+        List<String> pricePaths = config.getApiPricePaths() != null ? config.getApiPricePaths() : List.of();
+        ResponseCapture<Download> capture = new ResponseCapture<>(
+                requestUrl -> apiResponsePriceExtractor.matches(requestUrl, config.getApiCapturePatterns()),
+                body -> apiResponsePriceExtractor.extract(body, pricePaths)
+                        .map(found -> {
+                            apiResponsePriceExtractor.recordOutcome(true);
+                            return Download.inBrowser(url, found);
+                        }));
+        Duration maxWait = Duration.ofMillis(CAPTURE_RENDER_WAIT_MS + Math.max(0, config.getWaitAfterLoadMs() - 1000));
+
+        return seleniumService.capture(url, config, deadline, maxWait, capture, driver -> {
+            apiResponsePriceExtractor.recordOutcome(false);
+            return fromLoadedPage(url, config, driver);
+        });
+    }
+
+    private Download fromLoadedPage(String url, SiteConfig config, WebDriver driver) {
+        if (config.isInBrowserExtraction()) {
+            return inBrowserPriceExtractor.extract((JavascriptExecutor) driver, config)
+                    .map(candidates -> Download.inBrowser(url, candidates))
+                    .orElseGet(() -> Download.rendered(url, driver.getPageSource()));
+        }
+        return Download.rendered(url, driver.getPageSource());
+    }
+
+    private static boolean hasApiCapture(SiteConfig config) {
+        return config.getApiCapturePatterns() != null && !config.getApiCapturePatterns().isEmpty();
+    }
+
+    /**
+     * Plain HTTP first, reading JSON-LD and embedded application state; the browser is only
+     * started when the server-rendered page does not carry a machine-readable price.
+     */
+    private Download fetchTiered(String url, SiteConfig config, String siteName,
+                                 Map<String, String> conditionalHeaders, Deadline deadline) {
+        try {
+            Download download = fetchOverHttp(url, config, siteName, conditionalHeaders, deadline);
+            if (download.notModified() || download.hasStreamedPrice()) {
+                embeddedStateExtractor.recordTier(siteName, false);
+                return download;
+            }
+
+            Optional<StreamingExtraction> embedded = embeddedStateExtractor.extract(download.html(), config);
+            if (embedded.isPresent()) {
+                embeddedStateExtractor.recordTier(siteName, false);
+                return download.withStreamed(embedded.get());
+            }
+
+            log.info("No embedded price state in {} for {}, escalating to browser", siteName, url);
+        } catch (DomainRateLimitedException | DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            log.info("Browserless fetch of {} failed ({}), escalating to browser", url, e.getMessage());
+        }
+
+        deadline.check("browser");
+        embeddedStateExtractor.recordTier(siteName, true);
+        return fetchInBrowser(url, config, siteName, deadline);
+    }
+
+    private Download streamHtml(String url, SiteConfig config, Map<String, String> conditionalHeaders) {
+        log.debug("Fetching {} with streaming HTTP extraction", url);
+
+        try (HttpStream stream = httpClientService.openStream(url, config, conditionalHeaders, hedgePermit(url))) {
+            if (stream.isNotModified()) {
+                return Download.notModified(url, stream.firstHeader("ETag"), stream.firstHeader("Last-Modified"));
+            }
+            if (!stream.isSuccessful()) {
+                slowDownIfAsked(url, stream.statusCode(), stream.firstHeader("Retry-After"));
+                throw new RuntimeException("HTTP error " + stream.statusCode() + " for URL: " + url);
+            }
+            StreamingExtraction streamed = streamingPriceExtractor.extract(stream, config);
+            return new Download(url, streamed.html(), streamed,
+                    stream.firstHeader("ETag"), stream.firstHeader("Last-Modified"), false, false, false, streamed.bytesRead());
+        } catch (IOException e) {
+            throw new RuntimeException("Streaming HTTP fetch failed for URL: " + url, e);
+        }
+    }
+
+    private String fetchWithSelenium(String url, SiteConfig config, Deadline deadline) {
+        log.debug("Fetching {} with Selenium", url);
+
+        try {
+            String html = seleniumService.fetchPageSource(url, config, deadline);
+            waitAfterLoad(config, deadline);
+            return html;
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Selenium fetch failed for {}: {}", url, e.getMessage());
+            throw new RuntimeException("Selenium fetch failed", e);
+        }
+    }
+
+    private static void waitAfterLoad(SiteConfig config, Deadline deadline) {
+        // Apply additional wait if configured
+        if (config.getWaitAfterLoadMs() > 1000) {
+            try {
+                Thread.sleep(deadline.capMillis(config.getWaitAfterLoadMs() - 1000)); // Selenium already waits ~1s
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Download fetchWithSimpleHttp(String url, SiteConfig config, Map<String, String> conditionalHeaders) {
+        log.debug("Fetching {} with simple HTTP", url);
+
+        HttpPage page = httpClientService.get(url, config, conditionalHeaders, hedgePermit(url));
+        if (page.isNotModified()) {
+            return Download.notModified(url, page.firstHeader("ETag"), page.firstHeader("Last-Modified"));
+        }
+        if (!page.isSuccessful()) {
+            slowDownIfAsked(url, page.statusCode(), page.firstHeader("Retry-After"));
+            throw new RuntimeException("HTTP error " + page.statusCode() + " for URL: " + url);
+        }
+
+        log.debug("Successfully fetched {} characters ({} bytes transferred) from {}",
+                page.body().length(), page.transferredBytes(), url);
+        return new Download(url, page.body(), null,
+                page.firstHeader("ETag"), page.firstHeader("Last-Modified"), false, false, false, page.transferredBytes());
+    }
+
+    /**
+     * A hedge is an extra request to the site, so it needs a politeness slot that is free at once.
+     */
+    private BooleanSupplier hedgePermit(String url) {
+        return () -> politenessScheduler.tryAcquire(url);
+    }
+
+    private void slowDownIfAsked(String url, int statusCode, String retryAfter) {
+        if (statusCode == 429 || statusCode == 503) {
+            politenessScheduler.backoff(url, retryAfter);
+        }
+    }
+}
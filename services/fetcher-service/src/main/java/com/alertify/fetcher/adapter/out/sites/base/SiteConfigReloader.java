@@ -0,0 +1,159 @@
+package com.alertify.fetcher.adapter.out.sites.base;
+
+import com.alertify.fetcher.adapter.out.politeness.PolitenessScheduler;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.select.QueryParser;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Applies per-site overrides from an external YAML file and re-applies them whenever the file
+ * changes, so selectors and patterns can be tuned without a redeploy. Every fetcher built on
+ * {@link AbstractSiteFetcher} can be tuned this way. Top-level keys are fetcher site names
+ * ("Trendyol"); their members are SiteConfig field names and replace the built-in value of that
+ * field only. A file that does not parse, names an unknown site or field, or holds an
+ * invalid selector or regex is rejected as a whole and the configuration in use stays; removing a
+ * site from the file restores its built-in configuration. Rate limits apply to the domains
+ * already being paced as well, from their next request on.
+ */
+@Slf4j
+@Component
+public class SiteConfigReloader {
+
+    private final List<AbstractSiteFetcher> fetchers;
+    private final PolitenessScheduler politenessScheduler;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Path file;
+    private FileTime loadedVersion;
+
+    public SiteConfigReloader(List<AbstractSiteFetcher> fetchers,
+                              PolitenessScheduler politenessScheduler,
+                              ObjectMapper objectMapper,
+                              FetcherProperties properties,
+                              MeterRegistry meterRegistry) {
+        String configured = properties.getSiteConfigs().getFile();
+        this.fetchers = fetchers;
+        this.politenessScheduler = politenessScheduler;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.file = configured != null && !configured.isBlank() ? Path.of(configured) : null;
+    }
+
+    @PostConstruct
+    public void load() {
+        reloadIfChanged();
+    }
+
+    @Scheduled(fixedDelayString = "${fetcher.site-configs.reload-interval-ms:10000}")
+    public synchronized void reloadIfChanged() {
+        if (file == null) {
+            return;
+        }
+
+        FileTime version;
+        try {
+            version = Files.exists(file) ? Files.getLastModifiedTime(file) : null;
+        } catch (Exception e) {
+            log.warn("Could not check site config file {}: {}", file, e.getMessage());
+            return;
+        }
+        if (Objects.equals(version, loadedVersion)) {
+            return;
+        }
+
+        try {
+            Map<AbstractSiteFetcher, SiteConfig> overrides = version != null ? read() : Map.of();
+            fetchers.forEach(fetcher -> fetcher.reconfigure(overrides.get(fetcher)));
+            politenessScheduler.reconfigured(fetchers);
+            loadedVersion = version;
+            meterRegistry.counter("fetcher.site_configs.reloads", "result", "applied").increment();
+            log.info("Applied site config overrides for {} sites from {}", overrides.size(), file);
+        } catch (Exception e) {
+            // Keep the rejected version so a broken file is reported once, not on every check
+            loadedVersion = version;
+            meterRegistry.counter("fetcher.site_configs.reloads", "result", "rejected").increment();
+            log.warn("Rejected site config file {}, keeping the configuration in use: {}", file, e.getMessage());
+        }
+    }
+
+    private Map<AbstractSiteFetcher, SiteConfig> read() throws Exception {
+        Map<String, Object> sites;
+        try (Reader reader = Files.newBufferedReader(file)) {
+            sites = new Yaml().load(reader);
+        }
+        if (sites == null) {
+            return Map.of();
+        }
+
+        Map<AbstractSiteFetcher, SiteConfig> overrides = new HashMap<>();
+        for (Map.Entry<String, Object> site : sites.entrySet()) {
+            AbstractSiteFetcher fetcher = fetchers.stream()
+                    .filter(candidate -> candidate.getSiteName().equals(site.getKey()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No fetcher named " + site.getKey()));
+
+            JsonNode fields = objectMapper.valueToTree(site.getValue());
+            SiteConfig config = objectMapper.readerForUpdating(fetcher.getDefaultConfiguration().toBuilder().build())
+                    .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(fields);
+            validate(site.getKey(), config);
+            overrides.put(fetcher, config);
+        }
+        return overrides;
+    }
+
+    private static void validate(String site, SiteConfig config) {
+        List<String> selectors = new ArrayList<>();
+        Stream.of(config.getPriceSelectors(), config.getFallbackSelectors(), config.getListPriceSelectors(),
+                        config.getOutOfStockSelectors(), config.getSellerCountSelectors(),
+                        config.getListingPriceSelectors())
+                .filter(Objects::nonNull)
+                .forEach(selectors::addAll);
+        if (config.getListingItemSelector() != null) {
+            selectors.add(config.getListingItemSelector());
+        }
+        for (String selector : selectors) {
+            try {
+                QueryParser.parse(selector);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(site + ": invalid selector '" + selector + "'", e);
+            }
+        }
+
+        List<String> patterns = new ArrayList<>();
+        if (config.getPriceRegexPatterns() != null) {
+            patterns.addAll(config.getPriceRegexPatterns());
+        }
+        if (config.getProductIdPattern() != null) {
+            patterns.add(config.getProductIdPattern());
+        }
+        for (String pattern : patterns) {
+            try {
+                Pattern.compile(pattern);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException(site + ": invalid pattern '" + pattern + "'", e);
+            }
+        }
+    }
+}
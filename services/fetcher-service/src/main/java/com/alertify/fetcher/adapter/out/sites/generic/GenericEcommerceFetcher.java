@@ -1,11 +1,14 @@
 package com.alertify.fetcher.adapter.out.sites.generic;
 
-import com.alertify.fetcher.adapter.out.selenium.SeleniumWebDriverService;
+import com.alertify.fetcher.adapter.out.cache.ValidatorCache;
 import com.alertify.fetcher.adapter.out.sites.base.AbstractSiteFetcher;
+import com.alertify.fetcher.adapter.out.sites.base.PageDownloader;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
 import com.alertify.fetcher.domain.model.ExtractionContext;
 import com.alertify.fetcher.domain.model.SiteConfig;
+import com.alertify.fetcher.domain.port.PriceExtractionStrategy;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -64,6 +67,8 @@ public class GenericEcommerceFetcher extends AbstractSiteFetcher {
                     "Upgrade-Insecure-Requests", "1"
             ))
             .userAgent("Mozilla/5.0 (compatible; AlertifyBot/1.0)")
+            .listPriceSelectors(List.of(".old-price", ".was-price", ".price del", ".price s", "del .price"))
+            .outOfStockSelectors(List.of(".out-of-stock", ".sold-out", "[class*='soldout']"))
             .timeoutMs(10000)
             .requiresJs(false)
             .useSelenium(false)
@@ -73,8 +78,19 @@ public class GenericEcommerceFetcher extends AbstractSiteFetcher {
             .enableMetaTags(true)
             .build();
 
-    public GenericEcommerceFetcher(SeleniumWebDriverService seleniumService) {
-        super(seleniumService);
+    private final List<PriceExtractionStrategy> extractionStrategies = List.of(
+            PriceExtractionStrategy.of("json-ld", 1, this::extractFromJsonLd),
+            PriceExtractionStrategy.of("meta-tags", 2, this::extractFromMetaTags),
+            PriceExtractionStrategy.of("selectors", 3, this::trySelectorsExtraction),
+            PriceExtractionStrategy.of("text-content", 4, this::extractFromTextContent),
+            PriceExtractionStrategy.of("microdata", 5, this::extractFromMicrodata)
+    );
+
+    public GenericEcommerceFetcher(PageDownloader pageDownloader,
+                                   ValidatorCache validatorCache,
+                                   StrategyStatsService strategyStats,
+                                   FetcherMetrics fetcherMetrics) {
+        super(pageDownloader, validatorCache, strategyStats, fetcherMetrics);
     }
 
     @Override
@@ -93,7 +109,7 @@ public class GenericEcommerceFetcher extends AbstractSiteFetcher {
     }
 
     @Override
-    public SiteConfig getConfiguration() {
+    protected SiteConfig defaultConfiguration() {
         return GENERIC_CONFIG;
     }
 
@@ -103,100 +119,13 @@ public class GenericEcommerceFetcher extends AbstractSiteFetcher {
     }
 
     @Override
-    protected Optional<BigDecimal> extractPrice(ExtractionContext context) {
-        log.info("Extracting price using generic e-commerce strategies for: {}", context.url());
-
-        Optional<BigDecimal> jsonLdPrice = extractFromJsonLd(context);
-        if (jsonLdPrice.isPresent()) {
-            log.info("Price extracted from JSON-LD: {}", jsonLdPrice.get());
-            return jsonLdPrice;
-        }
-
-        Optional<BigDecimal> metaPrice = extractFromMetaTags(context);
-        if (metaPrice.isPresent()) {
-            log.info("Price extracted from meta tags: {}", metaPrice.get());
-            return metaPrice;
-        }
-
-        Optional<BigDecimal> selectorPrice = trySelectorsExtraction(context);
-        if (selectorPrice.isPresent()) {
-            log.info("Price extracted with generic selectors: {}", selectorPrice.get());
-            return selectorPrice;
-        }
-
-        Optional<BigDecimal> textPrice = extractFromTextContent(context);
-        if (textPrice.isPresent()) {
-            log.info("Price extracted from text content: {}", textPrice.get());
-            return textPrice;
-        }
-
-        Optional<BigDecimal> microdataPrice = extractFromMicrodata(context);
-        if (microdataPrice.isPresent()) {
-            log.info("Price extracted from microdata: {}", microdataPrice.get());
-            return microdataPrice;
-        }
-
-        log.warn("Could not extract price using generic strategies from: {}", context.url());
-        return Optional.empty();
-    }
-
-    private Optional<BigDecimal> extractFromJsonLd(ExtractionContext context) {
-        try {
-            Document doc = Jsoup.parse(context.html());
-            Elements jsonLdScripts = doc.select("script[type='application/ld+json']");
-
-            for (Element script : jsonLdScripts) {
-                String jsonContent = script.html();
-                Optional<BigDecimal> price = parseGenericJsonLd(jsonContent);
-                if (price.isPresent()) {
-                    return price;
-                }
-            }
-        } catch (Exception e) {
-            log.debug("JSON-LD extraction failed: {}", e.getMessage());
-        }
-        return Optional.empty();
-    }
-
-    private Optional<BigDecimal> parseGenericJsonLd(String jsonContent) {
-        try {
-            if (jsonContent.contains("\"@type\"") &&
-                    (jsonContent.contains("Product") || jsonContent.contains("Offer"))) {
-
-                String[] priceFields = {
-                        "\"price\"",
-                        "\"priceValue\"",
-                        "\"amount\"",
-                        "\"value\"",
-                        "\"cost\"",
-                        "\"lowPrice\"",
-                        "\"highPrice\""
-                };
-
-                for (String field : priceFields) {
-                    String pattern = field + "\\s*:\\s*\"?([0-9]+(?:\\.[0-9]{2})?)\"?";
-                    java.util.regex.Pattern regex = java.util.regex.Pattern.compile(pattern);
-                    java.util.regex.Matcher matcher = regex.matcher(jsonContent);
-
-                    if (matcher.find()) {
-                        try {
-                            String priceStr = matcher.group(1);
-                            return Optional.of(new BigDecimal(priceStr));
-                        } catch (NumberFormatException e) {
-                            log.debug("Failed to parse JSON-LD price from {}: {}", field, matcher.group(1));
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Failed to parse generic JSON-LD: {}", e.getMessage());
-        }
-        return Optional.empty();
+    protected List<PriceExtractionStrategy> getExtractionStrategies() {
+        return extractionStrategies;
     }
 
     private Optional<BigDecimal> extractFromMetaTags(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
+            Document doc = parse(context);
 
             String[] metaSelectors = {
                     "meta[property='product:price:amount']",
@@ -232,11 +161,7 @@ public class GenericEcommerceFetcher extends AbstractSiteFetcher {
 
     private Optional<BigDecimal> extractFromTextContent(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
-
-            doc.select("script, style, noscript").remove();
-
-            String pageText = doc.text();
+            String pageText = visibleText(context);
 
             String[] pricePatterns = {
                     "\\$\\s*([0-9]{1,3}(?:,[0-9]{3})*(?:\\.[0-9]{2})?)",
@@ -280,7 +205,7 @@ public class GenericEcommerceFetcher extends AbstractSiteFetcher {
 
     private Optional<BigDecimal> extractFromMicrodata(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
+            Document doc = parse(context);
 
             String[] microdataSelectors = {
                     "[itemprop='price']",
@@ -1,11 +1,14 @@
 package com.alertify.fetcher.adapter.out.sites.hepsiburada;
 
-import com.alertify.fetcher.adapter.out.selenium.SeleniumWebDriverService;
+import com.alertify.fetcher.adapter.out.cache.ValidatorCache;
 import com.alertify.fetcher.adapter.out.sites.base.AbstractSiteFetcher;
+import com.alertify.fetcher.adapter.out.sites.base.PageDownloader;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
 import com.alertify.fetcher.domain.model.ExtractionContext;
 import com.alertify.fetcher.domain.model.SiteConfig;
+import com.alertify.fetcher.domain.port.PriceExtractionStrategy;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -25,19 +28,42 @@ public class HepsiBuradaFetcher extends AbstractSiteFetcher {
             "www.hepsiburada.com"
     );
 
+    private static final Pattern PRODUCT_URL = Pattern.compile("-p-|/product/|\\d");
+
     private static final SiteConfig HEPSIBURADA_CONFIG = SiteConfig.builder()
             .userAgent("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
             .timeoutMs(20000)
             .requiresJs(true)
             .useSelenium(true)
+            .tieredFetch(true)
+            .blockedResourceTypes(List.of("image", "font", "media"))
+            .listPriceSelectors(List.of("[data-test-id='price-prev-price']", "del[data-test-id*='price']"))
+            .outOfStockSelectors(List.of("[data-test-id='out-of-stock']", ".product-out-of-stock"))
+            .sellerCountSelectors(List.of("[data-test-id='other-merchants-count']"))
+            .listingItemSelector("li[class*='productListContent']")
+            .listingPriceSelectors(List.of("[data-test-id='price-current-price']", "[data-test-id*='price']"))
+            .productIdPattern("-pm?-([A-Za-z0-9]+)")
+            .rateLimitPerSecond(0.5)
+            .rateLimitBurst(2)
             .waitAfterLoadMs(5000)
             .defaultCurrency("TRY")
             .enableJsonLd(true)
             .enableMetaTags(true)
             .build();
 
-    public HepsiBuradaFetcher(SeleniumWebDriverService seleniumService) {
-        super(seleniumService);
+    private final List<PriceExtractionStrategy> extractionStrategies = List.of(
+            PriceExtractionStrategy.of("xpath-text", 1, this::extractWithXPathTextBased),
+            PriceExtractionStrategy.of("computed-style", 2, this::extractByComputedStyle),
+            PriceExtractionStrategy.of("structural", 3, this::extractByStructuralPattern),
+            PriceExtractionStrategy.of("text-proximity", 4, this::extractByTextProximity),
+            PriceExtractionStrategy.of("json-ld", 5, this::extractFromJsonLd)
+    );
+
+    public HepsiBuradaFetcher(PageDownloader pageDownloader,
+                              ValidatorCache validatorCache,
+                              StrategyStatsService strategyStats,
+                              FetcherMetrics fetcherMetrics) {
+        super(pageDownloader, validatorCache, strategyStats, fetcherMetrics);
     }
 
     @Override
@@ -57,7 +83,7 @@ public class HepsiBuradaFetcher extends AbstractSiteFetcher {
     }
 
     @Override
-    public SiteConfig getConfiguration() {
+    protected SiteConfig defaultConfiguration() {
         return HEPSIBURADA_CONFIG;
     }
 
@@ -67,154 +93,33 @@ public class HepsiBuradaFetcher extends AbstractSiteFetcher {
     }
 
     @Override
-    protected Optional<BigDecimal> extractPrice(ExtractionContext context) {
-        log.info("Extracting price from HepsiBurada using ANTI-OBFUSCATION techniques");
-
-        Optional<BigDecimal> xpathPrice = extractWithXPathTextBased(context);
-        if (xpathPrice.isPresent()) {
-            log.info("SUCCESS: XPath text-based extraction: {}", xpathPrice.get());
-            return xpathPrice;
-        }
-
-        Optional<BigDecimal> stylePrice = extractByComputedStyle(context);
-        if (stylePrice.isPresent()) {
-            log.info("SUCCESS: Computed style extraction: {}", stylePrice.get());
-            return stylePrice;
-        }
-
-        Optional<BigDecimal> structuralPrice = extractByStructuralPattern(context);
-        if (structuralPrice.isPresent()) {
-            log.info("SUCCESS: Structural pattern extraction: {}", structuralPrice.get());
-            return structuralPrice;
-        }
-
-        Optional<BigDecimal> proximityPrice = extractByTextProximity(context);
-        if (proximityPrice.isPresent()) {
-            log.info("SUCCESS: Text proximity extraction: {}", proximityPrice.get());
-            return proximityPrice;
-        }
-
-        log.warn("ALL ANTI-OBFUSCATION STRATEGIES FAILED for URL: {}", context.url());
-        return Optional.empty();
+    protected List<PriceExtractionStrategy> getExtractionStrategies() {
+        return extractionStrategies;
     }
 
     private Optional<BigDecimal> extractWithXPathTextBased(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
-
-            String[] textPatterns = {
-                    "sepete özel",
-                    "özel fiyat",
-                    "indirimli",
-                    "kazancınız",
-                    "tasarruf"
-            };
-
-            for (String pattern : textPatterns) {
-                Optional<BigDecimal> price = findPriceByTextContext(doc, pattern);
-                if (price.isPresent()) {
-                    log.debug("XPath text pattern '{}' found price: {}", pattern, price.get());
-                    return price;
-                }
-            }
-
-            Optional<BigDecimal> currencyPrice = findPriceByCurrencyProximity(doc);
-            if (currencyPrice.isPresent()) {
-                log.debug("Currency proximity found price: {}", currencyPrice.get());
-                return currencyPrice;
-            }
-
-            return Optional.empty();
-
+            Optional<BigDecimal> price = HepsiBuradaTextScanner.scan(parse(context));
+            price.ifPresent(found -> log.debug("Text context scan found price: {}", found));
+            return price;
         } catch (Exception e) {
             log.debug("XPath text-based extraction failed: {}", e.getMessage());
             return Optional.empty();
         }
     }
 
-    private Optional<BigDecimal> findPriceByTextContext(Document doc, String contextText) {
-        Elements contextElements = doc.getElementsContainingOwnText(contextText);
-
-        for (Element contextElement : contextElements) {
-            Set<Element> relatedElements = new HashSet<>();
-
-            Element parent = contextElement.parent();
-            if (parent != null) {
-                relatedElements.addAll(parent.getAllElements());
-            }
-
-            Element grandParent = parent != null ? parent.parent() : null;
-            if (grandParent != null) {
-                relatedElements.addAll(grandParent.getAllElements());
-            }
-
-            Elements followingSiblings = contextElement.nextElementSiblings();
-            relatedElements.addAll(followingSiblings);
-
-            for (Element element : relatedElements) {
-                String text = element.ownText().trim();
-                if (containsNumericPrice(text)) {
-                    Optional<BigDecimal> price = parseHepsiBuradaPrice(text);
-                    if (price.isPresent() && isReasonablePrice(price.get())) {
-                        log.debug("Found price {} near context '{}'", price.get(), contextText);
-                        return price;
-                    }
-                }
-            }
-        }
-
-        return Optional.empty();
-    }
-
-    private Optional<BigDecimal> findPriceByCurrencyProximity(Document doc) {
-        String[] currencySymbols = {"₺", "TL", "tl"};
-
-        for (String currency : currencySymbols) {
-            Elements currencyElements = doc.getElementsContainingOwnText(currency);
-
-            for (Element currencyElement : currencyElements) {
-                String fullText = currencyElement.text();
-
-                String[] patterns = {
-                        "([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})\\s*(?:" + currency + ")",
-                        "([0-9]+,[0-9]{2})\\s*(?:" + currency + ")",
-                        "(?:" + currency + ")\\s*([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})",
-                        "(?:" + currency + ")\\s*([0-9]+,[0-9]{2})"
-                };
-
-                for (String pattern : patterns) {
-                    Pattern regex = Pattern.compile(pattern);
-                    Matcher matcher = regex.matcher(fullText);
-                    if (matcher.find()) {
-                        try {
-                            String priceStr = matcher.group(1);
-                            Optional<BigDecimal> price = parseHepsiBuradaPrice(priceStr);
-                            if (price.isPresent() && isReasonablePrice(price.get())) {
-                                return price;
-                            }
-                        } catch (Exception e) {
-                            // continue
-                        }
-                    }
-                }
-            }
-        }
-
-        return Optional.empty();
-    }
-
     private Optional<BigDecimal> extractByComputedStyle(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
+            Document doc = parse(context);
 
             Map<BigDecimal, Integer> priceStyleScores = new HashMap<>();
 
             Elements allElements = doc.select("*");
             for (Element element : allElements) {
                 String text = element.ownText().trim();
-                if (containsNumericPrice(text)) {
-                    Optional<BigDecimal> price = parseHepsiBuradaPrice(text);
-                    if (price.isPresent() && isReasonablePrice(price.get())) {
+                if (HepsiBuradaPriceText.containsNumericPrice(text)) {
+                    Optional<BigDecimal> price = HepsiBuradaPriceText.parse(text);
+                    if (price.isPresent() && HepsiBuradaPriceText.isReasonable(price.get())) {
                         int styleScore = calculateStyleScore(element);
                         priceStyleScores.put(price.get(), styleScore);
                         log.debug("Style-based candidate: {} (score: {})", price.get(), styleScore);
@@ -280,7 +185,7 @@ public class HepsiBuradaFetcher extends AbstractSiteFetcher {
 
     private Optional<BigDecimal> extractByStructuralPattern(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
+            Document doc = parse(context);
 
             String[] structuralSelectors = {
                     "[class*='price']:not([class*='old']):not([class*='original'])",
@@ -309,9 +214,9 @@ public class HepsiBuradaFetcher extends AbstractSiteFetcher {
                     Elements elements = doc.select(selector);
                     for (Element element : elements) {
                         String text = element.ownText().trim();
-                        if (containsNumericPrice(text)) {
-                            Optional<BigDecimal> price = parseHepsiBuradaPrice(text);
-                            if (price.isPresent() && isReasonablePrice(price.get())) {
+                        if (HepsiBuradaPriceText.containsNumericPrice(text)) {
+                            Optional<BigDecimal> price = HepsiBuradaPriceText.parse(text);
+                            if (price.isPresent() && HepsiBuradaPriceText.isReasonable(price.get())) {
                                 int selectorScore = getSelectorScore(selector);
                                 structuralScores.merge(price.get(), selectorScore, Integer::sum);
                                 log.debug("Structural pattern '{}' found price: {} (score: {})",
@@ -358,10 +263,7 @@ public class HepsiBuradaFetcher extends AbstractSiteFetcher {
 
     private Optional<BigDecimal> extractByTextProximity(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
-
-            doc.select("script, style, noscript").remove();
-            String cleanText = doc.text();
+            String cleanText = visibleText(context);
 
             String[] contextualPatterns = {
                     "sepete\\s+özel[^0-9]*([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})\\s*TL",
@@ -390,9 +292,9 @@ public class HepsiBuradaFetcher extends AbstractSiteFetcher {
                 while (matcher.find()) {
                     try {
                         String priceStr = matcher.group(1);
-                        BigDecimal price = parseHepsiBuradaPriceStrict(priceStr);
+                        BigDecimal price = HepsiBuradaPriceText.parseStrict(priceStr);
 
-                        if (isReasonablePrice(price)) {
+                        if (HepsiBuradaPriceText.isReasonable(price)) {
                             int patternScore = contextualPatterns.length - i;
                             proximityScores.merge(price, patternScore, Integer::sum);
 
@@ -415,93 +317,12 @@ public class HepsiBuradaFetcher extends AbstractSiteFetcher {
         }
     }
 
-    private boolean containsNumericPrice(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return false;
-        }
-
-        return text.matches(".*[0-9]{1,3}(?:[\\.,][0-9]{3})*[\\.,]?[0-9]{0,2}.*") &&
-                (text.contains("TL") || text.contains("₺") ||
-                        text.matches(".*[0-9]+[\\.,][0-9]{2}.*"));
-    }
-
-    private Optional<BigDecimal> parseHepsiBuradaPrice(String priceText) {
-        try {
-            BigDecimal price = parseHepsiBuradaPriceStrict(priceText);
-            return Optional.of(price);
-        } catch (NumberFormatException e) {
-            return Optional.empty();
-        }
-    }
-
-    private BigDecimal parseHepsiBuradaPriceStrict(String priceText) {
-        if (priceText == null || priceText.trim().isEmpty()) {
-            throw new NumberFormatException("Empty price text");
-        }
-
-        String cleaned = priceText
-                .replaceAll("TL", "")
-                .replaceAll("₺", "")
-                .replaceAll("\\s+", "")
-                .replaceAll("[^0-9.,]", "")
-                .trim();
-
-        String[] patterns = {
-                "([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})",
-                "([0-9]+,[0-9]{2})",
-                "([0-9]{1,3}(?:\\,[0-9]{3})*\\.[0-9]{2})",
-                "([0-9]+\\.[0-9]{2})",
-                "([0-9]+)"
-        };
-
-        for (String pattern : patterns) {
-            Pattern regex = Pattern.compile(pattern);
-            Matcher matcher = regex.matcher(cleaned);
-
-            if (matcher.find()) {
-                String priceMatch = matcher.group(1);
-                String normalized;
-
-                if (priceMatch.contains(",") && priceMatch.contains(".")) {
-                    int lastComma = priceMatch.lastIndexOf(",");
-                    int lastDot = priceMatch.lastIndexOf(".");
-
-                    if (lastComma > lastDot) {
-                        normalized = priceMatch.substring(0, lastComma).replace(".", "") +
-                                "." + priceMatch.substring(lastComma + 1);
-                    } else {
-                        normalized = priceMatch.substring(0, lastDot).replace(",", "") +
-                                "." + priceMatch.substring(lastDot + 1);
-                    }
-                } else if (priceMatch.contains(",")) {
-                    if (priceMatch.matches(".*,[0-9]{2}$")) {
-                        normalized = priceMatch.replace(",", ".");
-                    } else {
-                        normalized = priceMatch.replace(",", "");
-                    }
-                } else {
-                    normalized = priceMatch;
-                }
-
-                return new BigDecimal(normalized);
-            }
-        }
-
-        throw new NumberFormatException("Could not parse price: " + priceText);
-    }
-
-    private boolean isReasonablePrice(BigDecimal price) {
-        return price.compareTo(BigDecimal.valueOf(1)) >= 0 &&
-                price.compareTo(BigDecimal.valueOf(100000)) <= 0;
-    }
-
     @Override
     public boolean isValidUrl(String url) {
         if (!super.isValidUrl(url)) {
             return false;
         }
 
-        return url.contains("hepsiburada.com") &&
-                (url.contains("-p-") || url.contains("/product/") || url.matches(".*\\d+.*"));
+        return url.contains("hepsiburada.com") && PRODUCT_URL.matcher(url).find();
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.alertify.fetcher.adapter.out.sites.hepsiburada;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Price text rules shared by the HepsiBurada strategies, with every pattern compiled once.
+ */
+final class HepsiBuradaPriceText {
+
+    private static final Pattern DIGIT = Pattern.compile("[0-9]");
+    private static final Pattern DECIMAL_NUMBER = Pattern.compile("[0-9]+[.,][0-9]{2}");
+    private static final Pattern NON_PRICE_CHARS = Pattern.compile("[^0-9.,]");
+    private static final Pattern TWO_DECIMALS_AFTER_COMMA = Pattern.compile(".*,[0-9]{2}$");
+
+    private static final List<Pattern> PRICE_FORMATS = List.of(
+            Pattern.compile("([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})"),
+            Pattern.compile("([0-9]+,[0-9]{2})"),
+            Pattern.compile("([0-9]{1,3}(?:,[0-9]{3})*\\.[0-9]{2})"),
+            Pattern.compile("([0-9]+\\.[0-9]{2})"),
+            Pattern.compile("([0-9]+)")
+    );
+
+    private static final BigDecimal MIN_PRICE = BigDecimal.valueOf(1);
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(100000);
+
+    private HepsiBuradaPriceText() {
+    }
+
+    static boolean containsNumericPrice(String text) {
+        if (text == null || text.isBlank() || !DIGIT.matcher(text).find()) {
+            return false;
+        }
+        return text.contains("TL") || text.contains("₺") || DECIMAL_NUMBER.matcher(text).find();
+    }
+
+    static Optional<BigDecimal> parse(String priceText) {
+        try {
+            return Optional.of(parseStrict(priceText));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    static BigDecimal parseStrict(String priceText) {
+        if (priceText == null || priceText.isBlank()) {
+            throw new NumberFormatException("Empty price text");
+        }
+
+        String cleaned = NON_PRICE_CHARS.matcher(priceText).replaceAll("");
+
+        for (Pattern format : PRICE_FORMATS) {
+            Matcher matcher = format.matcher(cleaned);
+            if (matcher.find()) {
+                return new BigDecimal(normalize(matcher.group(1)));
+            }
+        }
+
+        throw new NumberFormatException("Could not parse price: " + priceText);
+    }
+
+    static boolean isReasonable(BigDecimal price) {
+        return price.compareTo(MIN_PRICE) >= 0 && price.compareTo(MAX_PRICE) <= 0;
+    }
+
+    private static String normalize(String priceMatch) {
+        int lastComma = priceMatch.lastIndexOf(',');
+        int lastDot = priceMatch.lastIndexOf('.');
+
+        if (lastComma >= 0 && lastDot >= 0) {
+            return lastComma > lastDot
+                    ? priceMatch.substring(0, lastComma).replace(".", "") + "." + priceMatch.substring(lastComma + 1)
+                    : priceMatch.substring(0, lastDot).replace(",", "") + "." + priceMatch.substring(lastDot + 1);
+        }
+        if (lastComma >= 0) {
+            return TWO_DECIMALS_AFTER_COMMA.matcher(priceMatch).matches()
+                    ? priceMatch.replace(",", ".")
+                    : priceMatch.replace(",", "");
+        }
+        return priceMatch;
+    }
+}
@@ -0,0 +1,234 @@
+package com.alertify.fetcher.adapter.out.sites.hepsiburada;
+
+import com.alertify.fetcher.adapter.out.extraction.AhoCorasick;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.TextNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the HepsiBurada campaign price in one walk over the document. Every element's own text is
+ * matched against all context phrases and currency markers at once, and the price-like nodes seen
+ * on the way are kept so that each phrase can pick the one closest to it in the tree.
+ */
+final class HepsiBuradaTextScanner {
+
+    /**
+     * Context phrases in priority order; a price near an earlier phrase wins over one near a later phrase.
+     */
+    static final List<String> CONTEXT_PHRASES = List.of(
+            "sepete özel",
+            "özel fiyat",
+            "indirimli",
+            "kazancınız",
+            "tasarruf"
+    );
+
+    private static final List<String> CURRENCY_MARKERS = List.of("₺", "tl");
+
+    private static final AhoCorasick MATCHER;
+
+    static {
+        List<String> patterns = new ArrayList<>(CONTEXT_PHRASES);
+        patterns.addAll(CURRENCY_MARKERS);
+        MATCHER = new AhoCorasick(patterns);
+    }
+
+    private static final List<List<Pattern>> CURRENCY_PRICES = List.of(
+            currencyPrices("₺"),
+            currencyPrices("TL|tl")
+    );
+
+    private HepsiBuradaTextScanner() {
+    }
+
+    static Optional<BigDecimal> scan(Document doc) {
+        List<List<Element>> phraseHits = new ArrayList<>();
+        List<List<Element>> currencyHits = new ArrayList<>();
+        CONTEXT_PHRASES.forEach(phrase -> phraseHits.add(new ArrayList<>()));
+        CURRENCY_MARKERS.forEach(marker -> currencyHits.add(new ArrayList<>()));
+        List<Candidate> candidates = new ArrayList<>();
+
+        // Own text is made of the element's direct text nodes, so visiting those avoids building a string per element
+        doc.traverse((node, depth) -> {
+            if (!(node instanceof TextNode textNode) || textNode.isBlank()
+                    || !(textNode.parentNode() instanceof Element element)) {
+                return;
+            }
+            String text = textNode.getWholeText();
+
+            long found = MATCHER.matches(text);
+            for (int i = 0; i < CONTEXT_PHRASES.size(); i++) {
+                if ((found & 1L << i) != 0) {
+                    addOnce(phraseHits.get(i), element);
+                }
+            }
+            for (int i = 0; i < CURRENCY_MARKERS.size(); i++) {
+                if ((found & 1L << (CONTEXT_PHRASES.size() + i)) != 0) {
+                    addOnce(currencyHits.get(i), element);
+                }
+            }
+
+            if (containsDigit(text) && (candidates.isEmpty() || candidates.getLast().element != element)) {
+                candidates.add(new Candidate(element));
+            }
+        });
+
+        if (!candidates.isEmpty()) {
+            for (List<Element> hits : phraseHits) {
+                Optional<BigDecimal> price = nearestCandidate(hits, candidates);
+                if (price.isPresent()) {
+                    return price;
+                }
+            }
+        }
+
+        for (int i = 0; i < CURRENCY_MARKERS.size(); i++) {
+            for (Element element : currencyHits.get(i)) {
+                Optional<BigDecimal> price = priceNextToCurrency(element.text(), CURRENCY_PRICES.get(i));
+                if (price.isPresent()) {
+                    return price;
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * A candidate is in range of a phrase when it sits under the phrase element's grandparent (or
+     * parent, near the root); among those the one with the fewest tree hops wins, then document order.
+     */
+    private static Optional<BigDecimal> nearestCandidate(List<Element> hits, List<Candidate> candidates) {
+        Candidate best = null;
+        int bestDistance = Integer.MAX_VALUE;
+
+        for (Element context : hits) {
+            Element parent = context.parent();
+            if (parent == null) {
+                continue;
+            }
+            Element scope = parent.parent() != null ? parent.parent() : parent;
+
+            for (Candidate candidate : candidates) {
+                if (!isWithin(candidate.element, scope)) {
+                    continue;
+                }
+                int distance = treeDistance(context, candidate.element);
+                if (distance < bestDistance && candidate.price().isPresent()) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+        }
+
+        return best != null ? best.price() : Optional.empty();
+    }
+
+    // Text nodes of one element are interleaved with its children's, so only consecutive repeats are dropped
+    private static void addOnce(List<Element> hits, Element element) {
+        if (hits.isEmpty() || hits.getLast() != element) {
+            hits.add(element);
+        }
+    }
+
+    private static boolean containsDigit(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWithin(Element element, Element ancestor) {
+        for (Element current = element; current != null; current = current.parent()) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int treeDistance(Element a, Element b) {
+        int depthA = depth(a);
+        int depthB = depth(b);
+        int distance = 0;
+        while (depthA > depthB) {
+            a = a.parent();
+            depthA--;
+            distance++;
+        }
+        while (depthB > depthA) {
+            b = b.parent();
+            depthB--;
+            distance++;
+        }
+        while (a != b) {
+            a = a.parent();
+            b = b.parent();
+            distance += 2;
+        }
+        return distance;
+    }
+
+    private static int depth(Element element) {
+        int depth = 0;
+        for (Element current = element.parent(); current != null; current = current.parent()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static Optional<BigDecimal> priceNextToCurrency(String text, List<Pattern> patterns) {
+        for (Pattern pattern : patterns) {
+            Matcher matcher = pattern.matcher(text);
+            if (matcher.find()) {
+                Optional<BigDecimal> price = HepsiBuradaPriceText.parse(matcher.group(1))
+                        .filter(HepsiBuradaPriceText::isReasonable);
+                if (price.isPresent()) {
+                    return price;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<Pattern> currencyPrices(String currency) {
+        return List.of(
+                Pattern.compile("([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})\\s*(?:" + currency + ")"),
+                Pattern.compile("([0-9]+,[0-9]{2})\\s*(?:" + currency + ")"),
+                Pattern.compile("(?:" + currency + ")\\s*([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})"),
+                Pattern.compile("(?:" + currency + ")\\s*([0-9]+,[0-9]{2})")
+        );
+    }
+
+    /**
+     * An element with digits in its own text; it is only checked for a price once a phrase brings it in range.
+     */
+    private static final class Candidate {
+
+        private final Element element;
+        private Optional<BigDecimal> price;
+
+        private Candidate(Element element) {
+            this.element = element;
+        }
+
+        private Optional<BigDecimal> price() {
+            if (price == null) {
+                String text = element.ownText().trim();
+                price = HepsiBuradaPriceText.containsNumericPrice(text)
+                        ? HepsiBuradaPriceText.parse(text).filter(HepsiBuradaPriceText::isReasonable)
+                        : Optional.empty();
+            }
+            return price;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.alertify.fetcher.adapter.out.sites.n11;
 
-import com.alertify.fetcher.adapter.out.selenium.SeleniumWebDriverService;
+import com.alertify.fetcher.adapter.out.cache.ValidatorCache;
 import com.alertify.fetcher.adapter.out.sites.base.AbstractSiteFetcher;
+import com.alertify.fetcher.adapter.out.sites.base.PageDownloader;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
 import com.alertify.fetcher.domain.model.ExtractionContext;
 import com.alertify.fetcher.domain.model.SiteConfig;
+import com.alertify.fetcher.domain.port.PriceExtractionStrategy;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -27,6 +30,8 @@ public class N11Fetcher extends AbstractSiteFetcher {
             "www.n11.com"
     );
 
+    private static final Pattern PRODUCT_URL = Pattern.compile("/urun/|n11\\.com.*\\d");
+
     private static final SiteConfig N11_CONFIG = SiteConfig.builder()
             .priceSelectors(List.of(
                     ".newPrice",
@@ -69,14 +74,36 @@ public class N11Fetcher extends AbstractSiteFetcher {
             .timeoutMs(15000)
             .requiresJs(true)
             .useSelenium(true)
+            .tieredFetch(true)
+            .blockedResourceTypes(List.of("image", "font", "media"))
+            .inBrowserExtraction(true)
+            .listPriceSelectors(List.of(".priceContainer del", ".oldPrice"))
+            .outOfStockSelectors(List.of(".unf-p-outOfStock", ".noStock"))
+            .sellerCountSelectors(List.of(".unf-p-sellers-count", ".otherSellers .count"))
+            .listingItemSelector("li.column .pro")
+            .listingPriceSelectors(List.of(".newPrice ins", ".priceContainer ins", ".newPrice"))
+            .productIdPattern("-(\\d+)(?:[?#]|$)")
+            .rateLimitPerSecond(1.0)
+            .rateLimitBurst(2)
             .waitAfterLoadMs(3000)
             .defaultCurrency("TRY")
             .enableJsonLd(true)
             .enableMetaTags(true)
             .build();
 
-    public N11Fetcher(SeleniumWebDriverService seleniumService) {
-        super(seleniumService);
+    private final List<PriceExtractionStrategy> extractionStrategies = List.of(
+            PriceExtractionStrategy.of("n11-selectors", 1, this::extractWithN11Selectors),
+            PriceExtractionStrategy.of("json-ld", 2, this::extractFromJsonLd),
+            PriceExtractionStrategy.of("meta-tags", 3, this::extractFromMetaTags),
+            PriceExtractionStrategy.of("page-text", 4, this::extractFromPageText),
+            PriceExtractionStrategy.of("fallback-selectors", 5, this::trySelectorsExtraction)
+    );
+
+    public N11Fetcher(PageDownloader pageDownloader,
+                      ValidatorCache validatorCache,
+                      StrategyStatsService strategyStats,
+                      FetcherMetrics fetcherMetrics) {
+        super(pageDownloader, validatorCache, strategyStats, fetcherMetrics);
     }
 
     @Override
@@ -96,7 +123,7 @@ public class N11Fetcher extends AbstractSiteFetcher {
     }
 
     @Override
-    public SiteConfig getConfiguration() {
+    protected SiteConfig defaultConfiguration() {
         return N11_CONFIG;
     }
 
@@ -106,46 +133,13 @@ public class N11Fetcher extends AbstractSiteFetcher {
     }
 
     @Override
-    protected Optional<BigDecimal> extractPrice(ExtractionContext context) {
-        log.info("Extracting price from N11 using specialized logic");
-
-        Optional<BigDecimal> selectorPrice = extractWithN11Selectors(context);
-        if (selectorPrice.isPresent()) {
-            log.info("Price extracted with N11 selectors: {}", selectorPrice.get());
-            return selectorPrice;
-        }
-
-        Optional<BigDecimal> jsonLdPrice = extractFromJsonLd(context);
-        if (jsonLdPrice.isPresent()) {
-            log.info("Price extracted from JSON-LD: {}", jsonLdPrice.get());
-            return jsonLdPrice;
-        }
-
-        Optional<BigDecimal> metaPrice = extractFromMetaTags(context);
-        if (metaPrice.isPresent()) {
-            log.info("Price extracted from meta tags: {}", metaPrice.get());
-            return metaPrice;
-        }
-
-        Optional<BigDecimal> textPrice = extractFromPageText(context);
-        if (textPrice.isPresent()) {
-            log.info("Price extracted from page text: {}", textPrice.get());
-            return textPrice;
-        }
-
-        Optional<BigDecimal> fallbackPrice = trySelectorsExtraction(context);
-        if (fallbackPrice.isPresent()) {
-            log.info("Price extracted with fallback selectors: {}", fallbackPrice.get());
-            return fallbackPrice;
-        }
-
-        log.warn("Could not extract price from N11 page: {}", context.url());
-        return Optional.empty();
+    protected List<PriceExtractionStrategy> getExtractionStrategies() {
+        return extractionStrategies;
     }
 
     private Optional<BigDecimal> extractWithN11Selectors(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
+            Document doc = parse(context);
 
             String[] n11Selectors = {
                     ".newPrice",
@@ -310,61 +304,9 @@ public class N11Fetcher extends AbstractSiteFetcher {
         }
     }
 
-    private Optional<BigDecimal> extractFromJsonLd(ExtractionContext context) {
-        try {
-            Document doc = Jsoup.parse(context.html());
-            Elements jsonLdScripts = doc.select("script[type='application/ld+json']");
-
-            for (Element script : jsonLdScripts) {
-                String jsonContent = script.html();
-                Optional<BigDecimal> price = parseJsonLdForPrice(jsonContent);
-                if (price.isPresent()) {
-                    return price;
-                }
-            }
-        } catch (Exception e) {
-            log.debug("JSON-LD extraction failed for N11: {}", e.getMessage());
-        }
-        return Optional.empty();
-    }
-
-    private Optional<BigDecimal> parseJsonLdForPrice(String jsonContent) {
-        try {
-            if (jsonContent.contains("\"@type\":\"Product\"") ||
-                    jsonContent.contains("\"@type\":\"Offer\"")) {
-
-                String[] pricePatterns = {
-                        "\"price\"\\s*:\\s*\"?([0-9]+(?:\\.[0-9]{2})?)\"?",
-                        "\"priceValue\"\\s*:\\s*\"?([0-9]+(?:\\.[0-9]{2})?)\"?",
-                        "\"amount\"\\s*:\\s*\"?([0-9]+(?:\\.[0-9]{2})?)\"?",
-                        "\"lowPrice\"\\s*:\\s*\"?([0-9]+(?:\\.[0-9]{2})?)\"?"
-                };
-
-                for (String pattern : pricePatterns) {
-                    Pattern regex = Pattern.compile(pattern);
-                    Matcher matcher = regex.matcher(jsonContent);
-
-                    if (matcher.find()) {
-                        try {
-                            String priceStr = matcher.group(1);
-                            BigDecimal price = new BigDecimal(priceStr);
-                            log.debug("N11 JSON-LD price found: {}", price);
-                            return Optional.of(price);
-                        } catch (NumberFormatException e) {
-                            log.debug("Failed to parse N11 JSON-LD price: {}", matcher.group(1));
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Failed to parse N11 JSON-LD content: {}", e.getMessage());
-        }
-        return Optional.empty();
-    }
-
     private Optional<BigDecimal> extractFromMetaTags(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
+            Document doc = parse(context);
 
             String[] metaSelectors = {
                     "meta[property='product:price:amount']",
@@ -395,9 +337,7 @@ public class N11Fetcher extends AbstractSiteFetcher {
 
     private Optional<BigDecimal> extractFromPageText(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
-            doc.select("script, style, noscript").remove();
-            String pageText = doc.text();
+            String pageText = visibleText(context);
 
             String[] textPatterns = {
                     "([0-9]{1,3}(?:\\.[0-9]{3})*,[0-9]{2})\\s*TL",
@@ -437,7 +377,6 @@ public class N11Fetcher extends AbstractSiteFetcher {
             return false;
         }
 
-        return url.contains("n11.com") &&
-                (url.contains("/urun/") || url.matches(".*n11\\.com.*\\d+.*"));
+        return url.contains("n11.com") && PRODUCT_URL.matcher(url).find();
     }
 }
\ No newline at end of file
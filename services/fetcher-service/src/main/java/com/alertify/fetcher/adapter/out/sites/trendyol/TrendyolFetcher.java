@@ -1,11 +1,14 @@
 package com.alertify.fetcher.adapter.out.sites.trendyol;
 
-import com.alertify.fetcher.adapter.out.selenium.SeleniumWebDriverService;
+import com.alertify.fetcher.adapter.out.cache.ValidatorCache;
 import com.alertify.fetcher.adapter.out.sites.base.AbstractSiteFetcher;
+import com.alertify.fetcher.adapter.out.sites.base.PageDownloader;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
 import com.alertify.fetcher.domain.model.ExtractionContext;
 import com.alertify.fetcher.domain.model.SiteConfig;
+import com.alertify.fetcher.domain.port.PriceExtractionStrategy;
 import lombok.extern.slf4j.Slf4j;
-import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -15,6 +18,7 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Component
@@ -25,6 +29,8 @@ public class TrendyolFetcher extends AbstractSiteFetcher {
             "www.trendyol.com"
     );
 
+    private static final Pattern PRODUCT_URL = Pattern.compile("/p/|/product/|trendyol\\.com.*\\d");
+
     private static final SiteConfig TRENDYOL_CONFIG = SiteConfig.builder()
             .priceSelectors(List.of(
                     ".prc-dsc",
@@ -56,14 +62,35 @@ public class TrendyolFetcher extends AbstractSiteFetcher {
             .timeoutMs(15000)
             .requiresJs(true)
             .useSelenium(true)
+            .tieredFetch(true)
+            .blockedResourceTypes(List.of("image", "font", "media"))
+            .inBrowserExtraction(true)
+            .listPriceSelectors(List.of(".product-price-container .prc-org", ".prc-org"))
+            .outOfStockSelectors(List.of(".sold-out", ".product-detail-sold-out"))
+            .sellerCountSelectors(List.of(".other-merchants-count", ".omc-cntr .omc-count"))
+            .listingItemSelector(".p-card-wrppr")
+            .listingPriceSelectors(List.of(".prc-box-dscntd", ".prc-box-sllng", ".price-item"))
+            .productIdPattern("-p-(\\d+)")
+            .rateLimitPerSecond(1.0)
+            .rateLimitBurst(3)
             .waitAfterLoadMs(3000)
             .defaultCurrency("TRY")
             .enableJsonLd(true)
             .enableMetaTags(true)
             .build();
 
-    public TrendyolFetcher(SeleniumWebDriverService seleniumService) {
-        super(seleniumService);
+    private final List<PriceExtractionStrategy> extractionStrategies = List.of(
+            PriceExtractionStrategy.of("json-ld", 1, this::extractFromJsonLd),
+            PriceExtractionStrategy.of("trendyol-selectors", 2, this::extractWithTrendyolSelectors),
+            PriceExtractionStrategy.of("meta-tags", 3, this::extractFromMetaTags),
+            PriceExtractionStrategy.of("fallback-selectors", 4, this::trySelectorsExtraction)
+    );
+
+    public TrendyolFetcher(PageDownloader pageDownloader,
+                           ValidatorCache validatorCache,
+                           StrategyStatsService strategyStats,
+                           FetcherMetrics fetcherMetrics) {
+        super(pageDownloader, validatorCache, strategyStats, fetcherMetrics);
     }
 
     @Override
@@ -83,7 +110,7 @@ public class TrendyolFetcher extends AbstractSiteFetcher {
     }
 
     @Override
-    public SiteConfig getConfiguration() {
+    protected SiteConfig defaultConfiguration() {
         return TRENDYOL_CONFIG;
     }
 
@@ -93,79 +120,13 @@ public class TrendyolFetcher extends AbstractSiteFetcher {
     }
 
     @Override
-    protected Optional<BigDecimal> extractPrice(ExtractionContext context) {
-        log.info("Extracting price from Trendyol using specialized logic");
-
-        Optional<BigDecimal> jsonLdPrice = extractFromJsonLd(context);
-        if (jsonLdPrice.isPresent()) {
-            log.info("Price extracted from JSON-LD: {}", jsonLdPrice.get());
-            return jsonLdPrice;
-        }
-
-        Optional<BigDecimal> selectorPrice = extractWithTrendyolSelectors(context);
-        if (selectorPrice.isPresent()) {
-            log.info("Price extracted with Trendyol selectors: {}", selectorPrice.get());
-            return selectorPrice;
-        }
-
-        Optional<BigDecimal> metaPrice = extractFromMetaTags(context);
-        if (metaPrice.isPresent()) {
-            log.info("Price extracted from meta tags: {}", metaPrice.get());
-            return metaPrice;
-        }
-
-        Optional<BigDecimal> fallbackPrice = trySelectorsExtraction(context);
-        if (fallbackPrice.isPresent()) {
-            log.info("Price extracted with fallback selectors: {}", fallbackPrice.get());
-            return fallbackPrice;
-        }
-
-        log.warn("Could not extract price from Trendyol page: {}", context.url());
-        return Optional.empty();
-    }
-
-    private Optional<BigDecimal> extractFromJsonLd(ExtractionContext context) {
-        try {
-            Document doc = Jsoup.parse(context.html());
-            Elements jsonLdScripts = doc.select("script[type='application/ld+json']");
-
-            for (Element script : jsonLdScripts) {
-                Optional<BigDecimal> price = parseJsonLdContent(script.html());
-                if (price.isPresent()) {
-                    return price;
-                }
-            }
-        } catch (Exception e) {
-            log.debug("JSON-LD extraction failed for Trendyol: {}", e.getMessage());
-        }
-        return Optional.empty();
-    }
-
-    private Optional<BigDecimal> parseJsonLdContent(String jsonContent) {
-        try {
-            if (jsonContent.contains("\"@type\":\"Product\"") && jsonContent.contains("\"offers\"")) {
-                String[] lines = jsonContent.split("\n");
-                for (String line : lines) {
-                    if (line.contains("\"price\"") && line.contains(":")) {
-                        String priceStr = line.split(":")[1]
-                                .replaceAll("[\"\\s,}]", "")
-                                .trim();
-                        Optional<BigDecimal> price = parsePriceString(priceStr);
-                        if (price.isPresent()) {
-                            return price;
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Failed to parse JSON-LD content: {}", e.getMessage());
-        }
-        return Optional.empty();
+    protected List<PriceExtractionStrategy> getExtractionStrategies() {
+        return extractionStrategies;
     }
 
     private Optional<BigDecimal> extractWithTrendyolSelectors(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
+            Document doc = parse(context);
 
             String[] trendyolSelectors = {
                     ".prc-dsc",
@@ -243,7 +204,7 @@ public class TrendyolFetcher extends AbstractSiteFetcher {
 
     private Optional<BigDecimal> extractFromMetaTags(ExtractionContext context) {
         try {
-            Document doc = Jsoup.parse(context.html());
+            Document doc = parse(context);
 
             String[] metaSelectors = {
                     "meta[property='product:price:amount']",
@@ -313,6 +274,6 @@ public class TrendyolFetcher extends AbstractSiteFetcher {
             return false;
         }
 
-        return url.contains("/p/") || url.contains("/product/") || url.matches(".*trendyol\\.com.*\\d+.*");
+        return PRODUCT_URL.matcher(url).find();
     }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.FetcherOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The platform threads every browser load runs on, one per browser session, behind a short queue.
+ * Fetches hand their browser load over with {@link #run} once their politeness wait is over, so a
+ * throttled domain never holds a browser thread. A full lane refuses at once with
+ * {@link FetcherOverloadedException} instead of queueing on the browser session.
+ */
+@Component
+public class BrowserLane {
+
+    static final String TAG = FetchExecutor.Lane.BROWSER.tag();
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final Duration retryAfter;
+
+    public BrowserLane(FetcherProperties properties, MeterRegistry meterRegistry) {
+        FetcherProperties.ExecutorConfig config = properties.getExecutor();
+        this.retryAfter = Duration.ofMillis(config.getBrowserRetryAfterMs());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                config.getBrowserThreads(), config.getBrowserThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getBrowserQueueCapacity())),
+                runnable -> new LaneThread(runnable, "fetch-browser-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("fetcher.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Fetches running on the fetch executor")
+                .tag("lane", TAG)
+                .register(meterRegistry);
+        Gauge.builder("fetcher.executor.queued", executor, e -> e.getQueue().size())
+                .description("Fetches waiting for a thread of the fetch executor")
+                .tag("lane", TAG)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("fetcher.executor.rejected")
+                .description("Fetches refused because their lane of the fetch executor was full")
+                .tag("lane", TAG)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues work for a browser thread; a full lane fails the returned future with
+     * {@link FetcherOverloadedException} without running it.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            return refused();
+        }
+    }
+
+    /**
+     * Whether a load submitted now would be refused, so fetches bound for the lane can be shed
+     * before they start rather than after their politeness wait.
+     */
+    public boolean isFull() {
+        return executor.getActiveCount() >= executor.getMaximumPoolSize()
+                && executor.getQueue().remainingCapacity() == 0;
+    }
+
+    /**
+     * A future failed with {@link FetcherOverloadedException}, counted as a rejection of the lane.
+     */
+    public <T> CompletableFuture<T> refused() {
+        rejected.increment();
+        return CompletableFuture.failedFuture(new FetcherOverloadedException(TAG, retryAfter));
+    }
+
+    /**
+     * Runs a browser load and waits for it: at once when already on a browser thread, otherwise on
+     * one of them, so escalations from the HTTP lane count against the same bound.
+     *
+     * @throws FetcherOverloadedException when the lane is full
+     */
+    public <T> T run(Supplier<T> work) {
+        if (Thread.currentThread() instanceof LaneThread) {
+            return work.get();
+        }
+        CompletableFuture<T> result = submit(work);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the browser lane", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Browser load failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class LaneThread extends Thread {
+
+        LaneThread(Runnable runnable, String name) {
+            super(runnable, name);
+            setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.FetcherOverloadedException;
+import com.alertify.fetcher.domain.port.SiteSpecificFetcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs synchronous fetch requests off the web server's threads, in two lanes. Plain HTTP fetches
+ * (including tiered sites, which mostly finish over HTTP) each get a virtual thread, up to
+ * http-max-in-flight at once. Fetches of browser-only sites also run on virtual threads, but are
+ * admitted only while the {@link BrowserLane} has room; their browser load runs on that lane, as
+ * does the browser load of a tiered fetch that escalates. A full lane refuses at once with
+ * {@link FetcherOverloadedException}, so overload turns into 429s rather than requests piling up.
+ */
+@Slf4j
+@Service
+public class FetchExecutor {
+
+    public enum Lane {
+        HTTP, BROWSER;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final FetcherRegistry fetcherRegistry;
+    private final FetcherProperties.ExecutorConfig config;
+    private final ExecutorService httpExecutor;
+    private final Semaphore httpSlots;
+    private final BrowserLane browserLane;
+    private final Counter httpRejected;
+
+    public FetchExecutor(FetcherRegistry fetcherRegistry, FetcherProperties properties, BrowserLane browserLane,
+                         MeterRegistry meterRegistry) {
+        this.fetcherRegistry = fetcherRegistry;
+        this.config = properties.getExecutor();
+        this.browserLane = browserLane;
+
+        this.httpExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fetch-http-", 1).factory());
+        this.httpSlots = new Semaphore(config.getHttpMaxInFlight());
+
+        Gauge.builder("fetcher.executor.active", httpSlots, slots -> config.getHttpMaxInFlight() - slots.availablePermits())
+                .description("Fetches running on the fetch executor")
+                .tag("lane", Lane.HTTP.tag())
+                .register(meterRegistry);
+        this.httpRejected = Counter.builder("fetcher.executor.rejected")
+                .description("Fetches refused because their lane of the fetch executor was full")
+                .tag("lane", Lane.HTTP.tag())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the fetch of url in the lane its site needs. A full lane fails the returned future with
+     * {@link FetcherOverloadedException} without running the fetch.
+     */
+    public <T> CompletableFuture<T> submit(String url, Supplier<T> fetch) {
+        return submit(laneFor(url), fetch);
+    }
+
+    public <T> CompletableFuture<T> submit(Lane lane, Supplier<T> fetch) {
+        if (lane == Lane.BROWSER) {
+            // Only the browser load takes a browser thread, not the politeness wait or the extraction
+            return browserLane.isFull()
+                    ? browserLane.refused()
+                    : CompletableFuture.supplyAsync(fetch, httpExecutor);
+        }
+
+        if (!httpSlots.tryAcquire()) {
+            return rejectedHttp();
+        }
+        try {
+            return CompletableFuture.supplyAsync(fetch, httpExecutor)
+                    .whenComplete((result, error) -> httpSlots.release());
+        } catch (RejectedExecutionException e) {
+            httpSlots.release();
+            return rejectedHttp();
+        }
+    }
+
+    /**
+     * The browser lane is for sites whose fetcher always renders in the browser; tiered sites
+     * start on the HTTP lane and only hand their browser load to the browser lane when plain
+     * HTTP is not enough.
+     */
+    public Lane laneFor(String url) {
+        if (url == null || url.isBlank()) {
+            return Lane.HTTP;
+        }
+        // Goes by the site's first fetcher rather than findBest: listing pages are not product URLs
+        Optional<SiteSpecificFetcher> fetcher = fetcherRegistry.forDomain(FetcherRegistry.domainOf(url)).stream()
+                .findFirst();
+        return fetcher.filter(site -> site.requiresBrowser() && !site.getConfiguration().isTieredFetch()).isPresent()
+                ? Lane.BROWSER
+                : Lane.HTTP;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpExecutor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> rejectedHttp() {
+        httpRejected.increment();
+        return CompletableFuture.failedFuture(
+                new FetcherOverloadedException(Lane.HTTP.tag(), Duration.ofMillis(config.getHttpRetryAfterMs())));
+    }
+}
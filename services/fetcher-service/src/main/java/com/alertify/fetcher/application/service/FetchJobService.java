@@ -0,0 +1,322 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.FetchJob;
+import com.alertify.fetcher.domain.model.MetricSample;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs fetches detached from the HTTP request that asked for them. Jobs wait in a bounded queue,
+ * are dropped if their deadline passes before a worker picks them up, stop between fetch stages
+ * once it passes (with an interrupt as backstop), and are kept for polling until the retention
+ * period ends. Callbacks only go to http(s) URLs on the configured callback hosts or, when none
+ * are configured, on public addresses, so a job cannot be used to reach internal services.
+ */
+@Slf4j
+@Service
+public class FetchJobService {
+
+    private final FetcherOrchestratorService orchestratorService;
+    private final FetcherProperties.JobsConfig config;
+    private final Map<String, FetchJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Future<?>> pending = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor watchdog;
+    private final RestClient callbackClient;
+    private final MeterRegistry meterRegistry;
+
+    public FetchJobService(FetcherOrchestratorService orchestratorService,
+                           FetcherProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.orchestratorService = orchestratorService;
+        this.config = properties.getJobs();
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                config.getWorkerThreads(), config.getWorkerThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fetch-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "fetch-job-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Jobs mostly finish well inside their budget; their expiry tasks should not linger until it ends
+        watchdog.setRemoveOnCancelPolicy(true);
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) config.getCallbackTimeoutMs());
+        requestFactory.setReadTimeout((int) config.getCallbackTimeoutMs());
+        this.callbackClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        Gauge.builder("fetcher.jobs.queued", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("fetcher.jobs.running", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IllegalArgumentException  when a parameter is null or the callback URL is not allowed
+     * @throws RejectedExecutionException when the job queue is full
+     */
+    public FetchJob submit(String sourceType, Map<String, String> params, String callbackUrl, Long deadlineMs) {
+        if (params.entrySet().stream().anyMatch(entry -> entry.getKey() == null || entry.getValue() == null)) {
+            throw new IllegalArgumentException("Job parameters must not be null");
+        }
+        if (callbackUrl != null && !callbackUrl.isBlank()) {
+            checkCallbackUrl(callbackUrl);
+        }
+        long budgetMs = deadlineMs != null && deadlineMs > 0
+                ? Math.min(deadlineMs, config.getMaxDeadlineMs())
+                : config.getDefaultDeadlineMs();
+        Instant now = Instant.now();
+        FetchJob job = new FetchJob(UUID.randomUUID().toString(), sourceType, params, callbackUrl,
+                now, now.plusMillis(budgetMs));
+
+        jobs.put(job.getId(), job);
+        try {
+            Future<?> future = executor.submit(() -> run(job));
+            ScheduledFuture<?> expiry = watchdog.schedule(() -> expire(job, future), budgetMs, TimeUnit.MILLISECONDS);
+            pending.put(job.getId(), future);
+            job.completion().thenRun(() -> {
+                pending.remove(job.getId());
+                expiry.cancel(false);
+            });
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            countOutcome("rejected");
+            throw e;
+        }
+
+        log.info("Accepted fetch job {} for {} (deadline in {} ms)", job.getId(), params.get("url"), budgetMs);
+        return job;
+    }
+
+    public Optional<FetchJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Completes with the job once it is final or the wait elapses, whichever comes first, without
+     * holding a thread meanwhile.
+     */
+    public Optional<CompletableFuture<FetchJob>> await(String jobId, Duration wait) {
+        FetchJob job = jobs.get(jobId);
+        if (job == null || job.getStatus().isFinal() || wait.isZero() || wait.isNegative()) {
+            return Optional.ofNullable(job).map(CompletableFuture::completedFuture);
+        }
+
+        long waitMs = Math.min(wait.toMillis(), config.getMaxLongPollMs());
+        // A copy, so the timeout does not complete the job's own future
+        return Optional.of(job.completion().copy().completeOnTimeout(job, waitMs, TimeUnit.MILLISECONDS));
+    }
+
+    public Optional<FetchJob> cancel(String jobId) {
+        FetchJob job = jobs.get(jobId);
+        if (job != null && job.fail(FetchJob.Status.CANCELLED, "Cancelled by client")) {
+            Future<?> future = pending.remove(jobId);
+            if (future != null) {
+                future.cancel(true);
+            }
+            countOutcome("cancelled");
+            notifyCallback(job);
+        }
+        return Optional.ofNullable(job);
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    int scheduledExpiries() {
+        return watchdog.getQueue().size();
+    }
+
+    @Scheduled(fixedDelayString = "${fetcher.jobs.cleanup-interval-ms:60000}")
+    public void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minusMillis(config.getRetentionMs());
+        jobs.values().removeIf(job -> job.getStatus().isFinal()
+                && job.getCompletedAt() != null
+                && job.getCompletedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void run(FetchJob job) {
+        if (job.getStatus().isFinal()) {
+            return;
+        }
+        if (Instant.now().isAfter(job.getDeadline())) {
+            if (job.fail(FetchJob.Status.EXPIRED, "Deadline passed while queued")) {
+                countOutcome("expired");
+                notifyCallback(job);
+            }
+            return;
+        }
+        if (!job.start()) {
+            return;
+        }
+
+        try {
+            if (job.succeed(orchestratorService.fetch(job.getParams(), Deadline.at(job.getDeadline())))) {
+                countOutcome("succeeded");
+            }
+        } catch (Exception e) {
+            if (job.fail(FetchJob.Status.FAILED, rootMessage(e))) {
+                countOutcome("failed");
+            }
+        }
+
+        if (job.getStatus().isFinal()) {
+            log.info("Fetch job {} finished as {}", job.getId(), job.getStatus());
+            notifyCallback(job);
+        }
+    }
+
+    private void expire(FetchJob job, Future<?> future) {
+        if (job.fail(FetchJob.Status.EXPIRED, "Deadline exceeded")) {
+            log.warn("Fetch job {} exceeded its deadline, abandoning it", job.getId());
+            future.cancel(true);
+            countOutcome("expired");
+            notifyCallback(job);
+        }
+    }
+
+    private void notifyCallback(FetchJob job) {
+        if (job.getCallbackUrl() == null || job.getCallbackUrl().isBlank()) {
+            return;
+        }
+        try {
+            // Again at send time, as the host may resolve differently than at submission
+            checkCallbackUrl(job.getCallbackUrl());
+            callbackClient.post()
+                    .uri(job.getCallbackUrl())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(FetchJobView.of(job))
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (Exception e) {
+            log.warn("Callback for fetch job {} to {} failed: {}", job.getId(), job.getCallbackUrl(), e.getMessage());
+            Counter.builder("fetcher.jobs.callback_failures").register(meterRegistry).increment();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException unless the URL is http(s) and its host is an allowed callback
+     *                                  host or, with none configured, resolves only to public addresses
+     */
+    void checkCallbackUrl(String callbackUrl) {
+        URI uri;
+        try {
+            uri = URI.create(callbackUrl.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed callback URL: " + callbackUrl, e);
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if ((!scheme.equals("http") && !scheme.equals("https")) || uri.getHost() == null) {
+            throw new IllegalArgumentException("Callback URL must be an absolute http(s) URL: " + callbackUrl);
+        }
+
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (!config.getCallbackAllowedHosts().isEmpty()) {
+            boolean allowed = config.getCallbackAllowedHosts().stream()
+                    .map(allowedHost -> allowedHost.toLowerCase(Locale.ROOT))
+                    .anyMatch(allowedHost -> host.equals(allowedHost) || host.endsWith("." + allowedHost));
+            if (!allowed) {
+                throw new IllegalArgumentException("Callback host is not allowed: " + host);
+            }
+            return;
+        }
+
+        try {
+            for (InetAddress address : InetAddress.getAllByName(host)) {
+                if (isInternal(address)) {
+                    throw new IllegalArgumentException("Callback host resolves to an internal address: " + host);
+                }
+            }
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Callback host does not resolve: " + host, e);
+        }
+    }
+
+    private static boolean isInternal(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        // IPv6 unique local addresses (fc00::/7) are not covered by isSiteLocalAddress
+        boolean uniqueLocal = bytes.length == 16 && (bytes[0] & 0xfe) == 0xfc;
+        return address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress() || uniqueLocal;
+    }
+
+    private void countOutcome(String outcome) {
+        Counter.builder("fetcher.jobs.completed")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    public record FetchJobView(
+            String jobId,
+            FetchJob.Status status,
+            Instant submittedAt,
+            Instant deadline,
+            Instant startedAt,
+            Instant completedAt,
+            MetricSample result,
+            String error
+    ) {
+
+        public static FetchJobView of(FetchJob job) {
+            return new FetchJobView(job.getId(), job.getStatus(), job.getSubmittedAt(), job.getDeadline(),
+                    job.getStartedAt(), job.getCompletedAt(), job.getResult(), job.getError());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.MetricSample;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived cache of fetch results keyed by canonical URL. Callers asking for a URL that is
+ * already being fetched wait on the same future instead of starting another HTTP or browser load,
+ * for no longer than their own deadline. Failures are never cached; when the load fails only
+ * because its caller's deadline passed, a waiter with budget left loads the URL itself.
+ */
+@Slf4j
+@Component
+public class FetchResultCache {
+
+    private final boolean enabled;
+    private final long ttlMs;
+    private final Map<String, CachedResult> results;
+    private final Map<String, CompletableFuture<MetricSample>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+
+    public FetchResultCache(FetcherProperties properties, MeterRegistry meterRegistry) {
+        FetcherProperties.ResultCacheConfig config = properties.getResultCache();
+        int maxEntries = config.getMaxEntries();
+
+        this.enabled = config.isEnabled();
+        this.ttlMs = config.getTtlMs();
+        this.results = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+
+        this.hitCounter = Counter.builder("fetcher.result_cache.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("fetcher.result_cache.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("fetcher.result_cache.requests")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+
+        Gauge.builder("fetcher.result_cache.size", this, FetchResultCache::size)
+                .register(meterRegistry);
+        Gauge.builder("fetcher.result_cache.in_flight", inFlight, Map::size)
+                .register(meterRegistry);
+    }
+
+    public MetricSample get(Map<String, String> params, Deadline deadline, Supplier<MetricSample> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        String key = cacheKey(params);
+
+        MetricSample cached = lookup(key);
+        if (cached != null) {
+            hitCounter.increment();
+            log.debug("Result cache hit for {}", key);
+            return cached;
+        }
+
+        CompletableFuture<MetricSample> future = new CompletableFuture<>();
+        CompletableFuture<MetricSample> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalescedCounter.increment();
+            log.debug("Joining in-flight fetch for {}", key);
+            return await(existing, params, deadline, loader);
+        }
+
+        try {
+            // Another caller may have completed and stored the result between lookup and putIfAbsent
+            MetricSample result = lookup(key);
+            if (result != null) {
+                hitCounter.increment();
+            } else {
+                missCounter.increment();
+                result = loader.get();
+                store(key, result);
+            }
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    private synchronized MetricSample lookup(String key) {
+        CachedResult cached = results.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.expiresAtMillis() < System.currentTimeMillis()) {
+            results.remove(key);
+            return null;
+        }
+        return cached.sample();
+    }
+
+    private synchronized void store(String key, MetricSample sample) {
+        results.put(key, new CachedResult(sample, System.currentTimeMillis() + ttlMs));
+    }
+
+    private MetricSample await(CompletableFuture<MetricSample> leader, Map<String, String> params,
+                               Deadline deadline, Supplier<MetricSample> loader) {
+        try {
+            return deadline.isBounded()
+                    ? leader.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS)
+                    : leader.get();
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("coalesced fetch", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight fetch", e);
+        } catch (ExecutionException e) {
+            if (causedByDeadline(e.getCause()) && !deadline.isExpired()) {
+                log.debug("In-flight fetch for {} ran out of its caller's time, fetching again", params.get("url"));
+                return get(params, deadline, loader);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static boolean causedByDeadline(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Canonical URL plus any other request parameters (e.g. currency), since they change the result.
+     */
+    static String cacheKey(Map<String, String> params) {
+        String url = canonicalUrl(params.get("url"));
+        String extras = params.entrySet().stream()
+                .filter(entry -> !"url".equals(entry.getKey()))
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("&"));
+        return extras.isEmpty() ? url : url + "|" + extras;
+    }
+
+    /**
+     * Lower-cases scheme and host, drops "www.", default ports, fragments and utm_* tracking
+     * parameters, and sorts the remaining query parameters.
+     */
+    static String canonicalUrl(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getHost() == null) {
+                return url.trim();
+            }
+
+            String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "https";
+            String host = uri.getHost().toLowerCase(Locale.ROOT);
+            if (host.startsWith("www.")) {
+                host = host.substring(4);
+            }
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                    || ("http".equals(scheme) && port == 80)
+                    || ("https".equals(scheme) && port == 443);
+
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+
+            String query = uri.getRawQuery() == null ? "" : Arrays.stream(uri.getRawQuery().split("&"))
+                    .filter(part -> !part.isEmpty())
+                    .filter(part -> !part.toLowerCase(Locale.ROOT).startsWith("utm_"))
+                    .sorted()
+                    .collect(Collectors.joining("&"));
+
+            return scheme + "://" + host + (defaultPort ? "" : ":" + port) + path
+                    + (query.isEmpty() ? "" : "?" + query);
+        } catch (Exception e) {
+            return url.trim();
+        }
+    }
+
+    private record CachedResult(MetricSample sample, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.alertify.fetcher.application.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters shared by every site fetcher, tagged only with bounded values: the fetcher's site name,
+ * the strategy name, the fetch method and an outcome. URLs and domains are never used as tags.
+ */
+@Component
+public class FetcherMetrics {
+
+    public static final String METHOD_HTTP = "http";
+    public static final String METHOD_STREAM = "stream";
+    public static final String METHOD_BROWSER = "browser";
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final MeterRegistry meterRegistry;
+
+    public FetcherMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        if (THREADS != null) {
+            FunctionCounter.builder("fetcher.allocated", THREADS, threads -> Math.max(0, threads.getTotalThreadAllocatedBytes()))
+                    .description("Heap allocated by every thread of the service, including the carriers of virtual threads")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()
+                ? threads
+                : null;
+    }
+
+    /**
+     * @param outcome "success", "not_modified" or "error"
+     */
+    public void recordDownload(String site, String method, String outcome, long nanos, long bytes) {
+        Timer.builder("fetcher.download.duration")
+                .description("Time to obtain a page, including politeness waits and browser rendering")
+                .tags("site", site, "method", method, "outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofSeconds(60))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (bytes > 0) {
+            DistributionSummary.builder("fetcher.download.bytes")
+                    .description("Page bytes received: transferred over HTTP, or read back from the browser")
+                    .baseUnit("bytes")
+                    .tags("site", site, "method", method)
+                    .register(meterRegistry)
+                    .record(bytes);
+        }
+    }
+
+    public void recordParse(String site, long nanos) {
+        Timer.builder("fetcher.parse.duration")
+                .description("Time to parse a page into a DOM for extraction")
+                .tag("site", site)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(5))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The hit rate of a strategy is its "hit" count over all of its attempts.
+     */
+    public void recordExtraction(String site, String strategy, boolean hit, long nanos) {
+        Timer.builder("fetcher.extraction.duration")
+                .description("Time one extraction strategy spent on a page, parsing included")
+                .tags("site", site, "strategy", strategy, "outcome", hit ? "hit" : "miss")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param outcome "success", "not_found" (page fetched, no price) or "error"
+     */
+    public void recordFetch(String site, String outcome, long nanos) {
+        Timer.builder("fetcher.fetch.duration")
+                .description("End-to-end time of one site fetcher handling a request")
+                .tags("site", site, "outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(120))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Heap the fetching thread allocated for one page: decoding, parsing and extraction. Buffering
+     * the body on the HTTP client's threads shows up in the page buffer pool meters instead. Only
+     * platform threads can be measured, so fetches on the virtual threads of the HTTP lane are
+     * left out; fetcher.allocated divided by the fetch count covers those.
+     */
+    public void recordAllocation(String site, long bytes) {
+        if (bytes < 0) {
+            return;
+        }
+        DistributionSummary.builder("fetcher.fetch.allocated")
+                .description("Heap allocated on the fetching thread while handling one page")
+                .baseUnit("bytes")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * Bytes allocated by the calling thread so far, or -1 where the JVM does not track it (such as
+     * on virtual threads).
+     */
+    public static long threadAllocatedBytes() {
+        return THREADS != null && THREADS.isThreadAllocatedMemoryEnabled()
+                ? THREADS.getCurrentThreadAllocatedBytes()
+                : -1;
+    }
+
+    /**
+     * @param role "primary" for the first fetcher chosen, "fallback" for those tried after it failed
+     */
+    public void recordAttempt(String site, String role, boolean succeeded) {
+        meterRegistry.counter("fetcher.fetch.attempts",
+                "site", site, "role", role, "outcome", succeeded ? "success" : "failure").increment();
+    }
+
+    /**
+     * @param outcome "success", "empty" (page loaded, no priced items) or "error"
+     */
+    public void recordListing(String site, String outcome, int items, long nanos) {
+        Timer.builder("fetcher.listing.duration")
+                .description("Time to load a category or search page and read its products")
+                .tags("site", site, "outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(120))
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (items > 0) {
+            DistributionSummary.builder("fetcher.listing.items")
+                    .description("Priced products read from one listing page")
+                    .tag("site", site)
+                    .register(meterRegistry)
+                    .record(items);
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.alertify.fetcher.application.service;
 
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+import com.alertify.fetcher.domain.exception.PageExtractionException;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.FetchedPage;
+import com.alertify.fetcher.domain.model.ListingSnapshot;
 import com.alertify.fetcher.domain.model.MetricSample;
+import com.alertify.fetcher.domain.port.ListingFetcher;
 import com.alertify.fetcher.domain.port.MetricFetcher;
 import com.alertify.fetcher.domain.port.SiteSpecificFetcher;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -17,10 +23,26 @@ import java.util.Optional;
 @Slf4j
 @Service
 @Primary
-@RequiredArgsConstructor
 public class FetcherOrchestratorService implements MetricFetcher {
 
-    private final List<SiteSpecificFetcher> siteSpecificFetchers;
+    private final FetcherRegistry fetcherRegistry;
+    private final FetchResultCache resultCache;
+    private final MeterRegistry meterRegistry;
+    private final FetcherMetrics fetcherMetrics;
+    private final Counter skippedFallbacks;
+
+    public FetcherOrchestratorService(FetcherRegistry fetcherRegistry,
+                                      FetchResultCache resultCache,
+                                      MeterRegistry meterRegistry,
+                                      FetcherMetrics fetcherMetrics) {
+        this.fetcherRegistry = fetcherRegistry;
+        this.resultCache = resultCache;
+        this.meterRegistry = meterRegistry;
+        this.fetcherMetrics = fetcherMetrics;
+        this.skippedFallbacks = Counter.builder("fetcher.deadline.skipped_fallbacks")
+                .description("Fallback fetchers not attempted because the caller's deadline had passed")
+                .register(meterRegistry);
+    }
 
     @Override
     public boolean supports(String sourceType) {
@@ -29,35 +51,72 @@ public class FetcherOrchestratorService implements MetricFetcher {
 
     @Override
     public MetricSample fetch(Map<String, String> params) {
+        return fetch(params, Deadline.none());
+    }
+
+    /**
+     * Stops between stages (politeness wait, download, browser render, each extraction strategy,
+     * each fallback fetcher) once the deadline has passed; what was abandoned is counted by stage.
+     */
+    @Override
+    public MetricSample fetch(Map<String, String> params, Deadline deadline) {
         String url = params.get("url");
 
         if (url == null || url.trim().isEmpty()) {
             throw new IllegalArgumentException("URL parameter is required");
         }
 
+        try {
+            return resultCache.get(params, deadline, () -> fetchUncached(params, deadline));
+        } catch (RuntimeException e) {
+            DeadlineExceededException exceeded = findDeadlineExceeded(e);
+            if (exceeded != null) {
+                log.warn("Abandoned fetch of {} after its deadline passed ({})", url, exceeded.getStage());
+                meterRegistry.counter("fetcher.deadline.abandoned", "stage", exceeded.getStage()).increment();
+            }
+            throw e;
+        }
+    }
+
+    private MetricSample fetchUncached(Map<String, String> params, Deadline deadline) {
+        String url = params.get("url");
+
         log.info("Orchestrating price fetch for URL: {}", url);
 
         try {
-            String domain = extractDomain(url);
+            String domain = FetcherRegistry.domainOf(url);
             log.debug("Extracted domain: {}", domain);
 
-            Optional<SiteSpecificFetcher> bestFetcher = findBestFetcher(domain, url);
+            Optional<SiteSpecificFetcher> bestFetcher = fetcherRegistry.findBest(url);
 
             if (bestFetcher.isPresent()) {
                 SiteSpecificFetcher fetcher = bestFetcher.get();
                 log.info("Using {} fetcher for domain: {}", fetcher.getSiteName(), domain);
 
                 try {
-                    MetricSample result = fetcher.fetch(params);
+                    MetricSample result = fetcher.fetch(params, deadline);
+                    fetcherMetrics.recordAttempt(fetcher.getSiteName(), "primary", true);
                     log.info("Successfully fetched price using {} fetcher: {} {}",
                             fetcher.getSiteName(), result.value(), result.unit());
                     return result;
 
+                } catch (DeadlineExceededException e) {
+                    fetcherMetrics.recordAttempt(fetcher.getSiteName(), "primary", false);
+                    throw e;
+
+                } catch (PageExtractionException e) {
+                    fetcherMetrics.recordAttempt(fetcher.getSiteName(), "primary", false);
+                    log.warn("Primary fetcher {} could not extract a price from {}: {}",
+                            fetcher.getSiteName(), url, e.getMessage());
+
+                    return tryFallbackFetchers(params, domain, fetcher, e.getPage(), deadline);
+
                 } catch (Exception e) {
+                    fetcherMetrics.recordAttempt(fetcher.getSiteName(), "primary", false);
                     log.warn("Primary fetcher {} failed for {}: {}",
                             fetcher.getSiteName(), url, e.getMessage());
 
-                    return tryFallbackFetchers(params, domain, fetcher);
+                    return tryFallbackFetchers(params, domain, fetcher, null, deadline);
                 }
             } else {
                 throw new RuntimeException("No suitable fetcher found for URL: " + url);
@@ -69,36 +128,86 @@ public class FetcherOrchestratorService implements MetricFetcher {
         }
     }
 
-    private Optional<SiteSpecificFetcher> findBestFetcher(String domain, String url) {
-        return siteSpecificFetchers.stream()
-                .filter(fetcher -> fetcher.supportsDomain(domain))
-                .filter(fetcher -> fetcher.isValidUrl(url))
-                .min(Comparator.comparing(SiteSpecificFetcher::getPriority));
+    /**
+     * Reads all products of a category or search page with the site's own fetcher, or the generic
+     * one for unknown sites. Listings are not cached: they feed many monitors, each checked against
+     * its own last price.
+     */
+    public ListingSnapshot fetchListing(Map<String, String> params, Deadline deadline) {
+        String url = params.get("url");
+
+        if (url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("URL parameter is required");
+        }
+
+        String domain = FetcherRegistry.domainOf(url);
+        SiteSpecificFetcher fetcher = fetcherRegistry.forDomain(domain).stream()
+                .filter(ListingFetcher.class::isInstance)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No fetcher reads listings of " + domain));
+
+        log.info("Using {} fetcher for listing: {}", fetcher.getSiteName(), url);
+
+        try {
+            return ((ListingFetcher) fetcher).fetchListing(params, deadline);
+        } catch (DeadlineExceededException e) {
+            log.warn("Abandoned listing fetch of {} after its deadline passed ({})", url, e.getStage());
+            meterRegistry.counter("fetcher.deadline.abandoned", "stage", e.getStage()).increment();
+            throw e;
+        }
     }
 
+    /**
+     * Fallbacks run their extractors on the page the failed fetcher already downloaded when that
+     * page suits them (browser-rendered HTML serves everyone, plain HTML only plain-HTTP fetchers);
+     * otherwise they download it themselves, and the new page becomes reusable for the rest.
+     */
     private MetricSample tryFallbackFetchers(Map<String, String> params, String domain,
-                                             SiteSpecificFetcher failedFetcher) {
+                                             SiteSpecificFetcher failedFetcher, FetchedPage page,
+                                             Deadline deadline) {
         String url = params.get("url");
 
         log.info("Trying fallback fetchers for URL: {}", url);
 
-        List<SiteSpecificFetcher> fallbackFetchers = siteSpecificFetchers.stream()
+        List<SiteSpecificFetcher> fallbackFetchers = fetcherRegistry.forDomain(domain).stream()
                 .filter(fetcher -> !fetcher.equals(failedFetcher))
-                .filter(fetcher -> fetcher.supportsDomain(domain) || fetcher.getSiteName().contains("Generic"))
-                .sorted(Comparator.comparing(SiteSpecificFetcher::getPriority))
                 .toList();
 
         Exception lastException = null;
 
-        for (SiteSpecificFetcher fetcher : fallbackFetchers) {
+        for (int i = 0; i < fallbackFetchers.size(); i++) {
+            SiteSpecificFetcher fetcher = fallbackFetchers.get(i);
+            if (deadline.isExpired()) {
+                skippedFallbacks.increment(fallbackFetchers.size() - i);
+                throw new DeadlineExceededException("fallback", lastException);
+            }
             try {
-                log.debug("Trying fallback fetcher: {}", fetcher.getSiteName());
-                MetricSample result = fetcher.fetch(params);
+                MetricSample result;
+                if (page != null && page.canServe(fetcher.requiresBrowser())) {
+                    log.debug("Trying fallback fetcher {} on the already downloaded page", fetcher.getSiteName());
+                    result = fetcher.extract(page, params, deadline);
+                } else {
+                    log.debug("Trying fallback fetcher: {}", fetcher.getSiteName());
+                    result = fetcher.fetch(params, deadline);
+                }
+                fetcherMetrics.recordAttempt(fetcher.getSiteName(), "fallback", true);
                 log.info("Fallback fetcher {} succeeded: {} {}",
                         fetcher.getSiteName(), result.value(), result.unit());
                 return result;
 
+            } catch (DeadlineExceededException e) {
+                fetcherMetrics.recordAttempt(fetcher.getSiteName(), "fallback", false);
+                skippedFallbacks.increment(fallbackFetchers.size() - i - 1);
+                throw e;
+            } catch (PageExtractionException e) {
+                fetcherMetrics.recordAttempt(fetcher.getSiteName(), "fallback", false);
+                log.debug("Fallback fetcher {} failed: {}", fetcher.getSiteName(), e.getMessage());
+                lastException = e;
+                if (page == null || !page.canServe(fetcher.requiresBrowser())) {
+                    page = e.getPage();
+                }
             } catch (Exception e) {
+                fetcherMetrics.recordAttempt(fetcher.getSiteName(), "fallback", false);
                 log.debug("Fallback fetcher {} failed: {}", fetcher.getSiteName(), e.getMessage());
                 lastException = e;
             }
@@ -107,25 +216,17 @@ public class FetcherOrchestratorService implements MetricFetcher {
         throw new RuntimeException("All fetchers failed for URL: " + url, lastException);
     }
 
-    private String extractDomain(String url) {
-        try {
-            URI uri = new URI(url);
-            String host = uri.getHost();
-            if (host != null) {
-                if (host.startsWith("www.")) {
-                    host = host.substring(4);
-                }
-                return host.toLowerCase();
+    private static DeadlineExceededException findDeadlineExceeded(Throwable error) {
+        for (Throwable current = error; current != null; current = current.getCause()) {
+            if (current instanceof DeadlineExceededException exceeded) {
+                return exceeded;
             }
-            return "";
-        } catch (Exception e) {
-            log.warn("Failed to extract domain from URL {}: {}", url, e.getMessage());
-            return "";
         }
+        return null;
     }
 
     public List<FetcherInfo> getAvailableFetchers() {
-        return siteSpecificFetchers.stream()
+        return fetcherRegistry.all().stream()
                 .map(fetcher -> new FetcherInfo(
                         fetcher.getSiteName(),
                         fetcher.getSupportedDomains(),
@@ -140,7 +241,9 @@ public class FetcherOrchestratorService implements MetricFetcher {
 
     private String determineFetchMethod(SiteSpecificFetcher fetcher) {
         var config = fetcher.getConfiguration();
-        if (config.isUseSelenium() || config.isRequiresJs()) {
+        if ((config.isUseSelenium() || config.isRequiresJs()) && config.isTieredFetch()) {
+            return "Embedded state over HTTP, Selenium fallback";
+        } else if (config.isUseSelenium() || config.isRequiresJs()) {
             return "Selenium WebDriver";
         } else {
             return "Simple HTTP";
@@ -149,8 +252,7 @@ public class FetcherOrchestratorService implements MetricFetcher {
 
     public Optional<String> getBestFetcherName(String url) {
         try {
-            String domain = extractDomain(url);
-            return findBestFetcher(domain, url)
+            return fetcherRegistry.findBest(url)
                     .map(SiteSpecificFetcher::getSiteName);
         } catch (Exception e) {
             return Optional.empty();
@@ -159,9 +261,7 @@ public class FetcherOrchestratorService implements MetricFetcher {
 
     public boolean isUrlSupported(String url) {
         try {
-            String domain = extractDomain(url);
-            return siteSpecificFetchers.stream()
-                    .anyMatch(fetcher -> fetcher.supportsDomain(domain) && fetcher.isValidUrl(url));
+            return fetcherRegistry.findBest(url).isPresent();
         } catch (Exception e) {
             return false;
         }
@@ -169,11 +269,10 @@ public class FetcherOrchestratorService implements MetricFetcher {
 
     public FetcherAnalysis analyzeFetcher(String url) {
         try {
-            String domain = extractDomain(url);
-            Optional<SiteSpecificFetcher> bestFetcher = findBestFetcher(domain, url);
+            String domain = FetcherRegistry.domainOf(url);
+            Optional<SiteSpecificFetcher> bestFetcher = fetcherRegistry.findBest(url);
 
-            List<String> allSupportingFetchers = siteSpecificFetchers.stream()
-                    .filter(fetcher -> fetcher.supportsDomain(domain))
+            List<String> allSupportingFetchers = fetcherRegistry.forDomain(domain).stream()
                     .map(SiteSpecificFetcher::getSiteName)
                     .toList();
 
@@ -183,7 +282,7 @@ public class FetcherOrchestratorService implements MetricFetcher {
                     bestFetcher.map(SiteSpecificFetcher::getSiteName).orElse("None"),
                     allSupportingFetchers,
                     bestFetcher.map(this::determineFetchMethod).orElse("Unknown"),
-                    isUrlSupported(url)
+                    bestFetcher.isPresent()
             );
         } catch (Exception e) {
             return new FetcherAnalysis(url, "", "Error", List.of(), "Unknown", false);
@@ -191,8 +290,9 @@ public class FetcherOrchestratorService implements MetricFetcher {
     }
 
     public FetcherSystemStats getSystemStats() {
-        int totalFetchers = siteSpecificFetchers.size();
-        long seleniumFetchers = siteSpecificFetchers.stream()
+        List<SiteSpecificFetcher> fetchers = fetcherRegistry.all();
+        int totalFetchers = fetchers.size();
+        long seleniumFetchers = fetchers.stream()
                 .mapToLong(f -> f.getConfiguration().isUseSelenium() ? 1 : 0)
                 .sum();
         long httpFetchers = totalFetchers - seleniumFetchers;
@@ -201,7 +301,7 @@ public class FetcherOrchestratorService implements MetricFetcher {
                 totalFetchers,
                 (int) seleniumFetchers,
                 (int) httpFetchers,
-                siteSpecificFetchers.stream()
+                fetchers.stream()
                         .flatMap(f -> f.getSupportedDomains().stream())
                         .filter(domain -> !"*".equals(domain))
                         .distinct()
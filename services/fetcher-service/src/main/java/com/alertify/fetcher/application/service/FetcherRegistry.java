@@ -0,0 +1,124 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.domain.port.SiteSpecificFetcher;
+import com.google.common.net.InternetDomainName;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Routes a URL to the fetchers of its site with one hash lookup instead of asking every fetcher.
+ * Fetchers are indexed by their supported domains; a host is looked up as given and then by its
+ * registrable domain under the public suffix list, so m.trendyol.com finds the Trendyol fetcher
+ * while nottrendyol.com or trendyol.com.tr do not. Fetchers supporting "*" serve every host, after
+ * the site's own fetchers. Each candidate list is sorted by priority once, at startup.
+ */
+@Slf4j
+@Component
+public class FetcherRegistry {
+
+    private static final String ANY_DOMAIN = "*";
+
+    private final List<SiteSpecificFetcher> all;
+    private final List<SiteSpecificFetcher> catchAll;
+    private final Map<String, List<SiteSpecificFetcher>> byDomain = new HashMap<>();
+
+    public FetcherRegistry(List<SiteSpecificFetcher> fetchers) {
+        Comparator<SiteSpecificFetcher> byPriority = Comparator.comparing(SiteSpecificFetcher::getPriority);
+        this.all = fetchers.stream().sorted(byPriority).toList();
+        this.catchAll = all.stream()
+                .filter(fetcher -> fetcher.getSupportedDomains().contains(ANY_DOMAIN))
+                .toList();
+
+        Map<String, Set<SiteSpecificFetcher>> indexed = new HashMap<>();
+        for (SiteSpecificFetcher fetcher : all) {
+            for (String domain : fetcher.getSupportedDomains()) {
+                if (!ANY_DOMAIN.equals(domain)) {
+                    indexed.computeIfAbsent(normalize(domain), key -> new LinkedHashSet<>()).add(fetcher);
+                }
+            }
+        }
+        indexed.forEach((domain, own) -> {
+            List<SiteSpecificFetcher> candidates = new ArrayList<>(own);
+            catchAll.stream().filter(fetcher -> !own.contains(fetcher)).forEach(candidates::add);
+            candidates.sort(byPriority);
+            byDomain.put(domain, List.copyOf(candidates));
+        });
+        log.info("Indexed {} fetchers under {} domains", all.size(), byDomain.size());
+    }
+
+    /**
+     * Every fetcher, in priority order.
+     */
+    public List<SiteSpecificFetcher> all() {
+        return all;
+    }
+
+    /**
+     * Fetchers that serve the host, in priority order: the site's own ones and the catch-all ones.
+     */
+    public List<SiteSpecificFetcher> forDomain(String domain) {
+        String host = normalize(domain);
+        List<SiteSpecificFetcher> candidates = byDomain.get(host);
+        if (candidates == null) {
+            String registrable = registrableDomain(host);
+            candidates = registrable != null ? byDomain.get(registrable) : null;
+        }
+        return candidates != null ? candidates : catchAll;
+    }
+
+    /**
+     * The highest-priority fetcher the host belongs to, leaving out catch-all ones; empty for hosts
+     * no site claims.
+     */
+    public Optional<SiteSpecificFetcher> ownerOf(String domain) {
+        return forDomain(domain).stream()
+                .filter(fetcher -> !catchAll.contains(fetcher))
+                .findFirst();
+    }
+
+    /**
+     * The highest-priority fetcher of the URL's site that accepts the URL itself.
+     */
+    public Optional<SiteSpecificFetcher> findBest(String url) {
+        return forDomain(domainOf(url)).stream()
+                .filter(fetcher -> fetcher.isValidUrl(url))
+                .findFirst();
+    }
+
+    /**
+     * Lower-cased host of the URL without a leading "www.", or "" when it has none.
+     */
+    public static String domainOf(String url) {
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host != null ? normalize(host) : "";
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Failed to extract domain from URL {}: {}", url, e.getMessage());
+            return "";
+        }
+    }
+
+    private static String normalize(String domain) {
+        String host = domain.toLowerCase(Locale.ROOT);
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+
+    private static String registrableDomain(String host) {
+        if (host.isEmpty() || !InternetDomainName.isValid(host)) {
+            return null;
+        }
+        InternetDomainName name = InternetDomainName.from(host);
+        return name.isUnderPublicSuffix() ? name.topPrivateDomain().toString() : null;
+    }
+}
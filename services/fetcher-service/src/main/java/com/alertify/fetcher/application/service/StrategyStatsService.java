@@ -0,0 +1,239 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Learns, per domain, how often each extraction strategy and selector succeeds and what it costs.
+ * Candidates come in precedence order and the first one to yield a price wins, so learning must not
+ * change which price is returned: a candidate that almost never yields one on a domain is moved to the
+ * back, where skipping it costs nothing, and only candidates of equal precedence are sorted by cost
+ * per success. Success rate and cost are exponentially weighted so the ordering follows site redesigns
+ * instead of averaging over all time, and every so often the default order runs unchanged to re-measure
+ * demoted candidates. Only the max-domains most recently used domains are kept, since the generic
+ * fetcher is called for any host.
+ */
+@Slf4j
+@Service
+public class StrategyStatsService {
+
+    private static final double SMOOTHING = 0.1;
+    private static final double MIN_SUCCESS_RATE = 0.01;
+    private static final double DEMOTE_BELOW_SUCCESS_RATE = 0.05;
+    private static final int EXPLORE_EVERY = 20;
+
+    private final Map<String, Map<String, StrategyCounter>> statsByDomain;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicLong orderings = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int minSamples;
+    private final Path file;
+
+    public StrategyStatsService(FetcherProperties properties, ObjectMapper objectMapper) {
+        FetcherProperties.StrategyStatsConfig config = properties.getStrategyStats();
+        this.objectMapper = objectMapper;
+        this.enabled = config.isEnabled();
+        this.minSamples = config.getMinSamples();
+        int maxDomains = Math.max(1, config.getMaxDomains());
+        this.statsByDomain = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, StrategyCounter>> eldest) {
+                return size() > maxDomains;
+            }
+        });
+        this.file = config.getFile() != null && !config.getFile().isBlank() ? Path.of(config.getFile()) : null;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+
+        try {
+            Map<String, List<StrategyStat>> stored = objectMapper.readValue(file.toFile(), new TypeReference<>() {});
+            stored.forEach((domain, stats) -> stats.forEach(stat ->
+                    counters(domain).put(stat.name(), StrategyCounter.restore(stat))));
+            log.info("Loaded extraction strategy statistics for {} domains from {}", stored.size(), file);
+        } catch (Exception e) {
+            log.warn("Could not load strategy statistics from {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${fetcher.strategy-stats.persist-interval-ms:60000}")
+    public void persist() {
+        if (file == null || !dirty.getAndSet(false)) {
+            return;
+        }
+
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), snapshot());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Persisted strategy statistics to {}", file);
+        } catch (Exception e) {
+            dirty.set(true);
+            log.warn("Could not persist strategy statistics to {}: {}", file, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persist();
+    }
+
+    public void record(String domain, String strategy, boolean success, long elapsedNanos) {
+        if (!enabled) {
+            return;
+        }
+        counters(domain).computeIfAbsent(strategy, name -> new StrategyCounter()).record(success, elapsedNanos);
+        dirty.set(true);
+    }
+
+    /**
+     * As {@link #order(String, List, Function, ToIntFunction)} for candidates that each have their own
+     * precedence, given by their position in the list.
+     */
+    public <T> List<T> order(String domain, List<T> candidates, Function<T, String> nameOf) {
+        return order(domain, candidates, nameOf, candidates::indexOf);
+    }
+
+    /**
+     * Candidates in precedence order (lower first), with those measured to almost never succeed on the
+     * domain moved behind the rest. Candidates of equal precedence are sorted by expected cost per
+     * success, unmeasured ones first. Candidates with fewer than minSamples attempts are never moved.
+     */
+    public <T> List<T> order(String domain, List<T> candidates, Function<T, String> nameOf,
+                             ToIntFunction<T> precedenceOf) {
+        if (!enabled || candidates.size() < 2) {
+            return candidates;
+        }
+
+        Map<String, StrategyCounter> counters = statsByDomain.get(normalize(domain));
+        if (counters == null || orderings.incrementAndGet() % EXPLORE_EVERY == 0) {
+            return candidates;
+        }
+
+        List<T> ordered = new ArrayList<>(candidates);
+        ordered.sort(Comparator
+                .comparing((T candidate) -> isDemoted(counters.get(nameOf.apply(candidate))))
+                .thenComparingInt(precedenceOf)
+                .thenComparingDouble(candidate -> score(counters.get(nameOf.apply(candidate)))));
+        return ordered;
+    }
+
+    public Map<String, List<StrategyStat>> snapshot() {
+        Map<String, List<StrategyStat>> snapshot = new TreeMap<>();
+        statsByDomain.forEach((domain, counters) -> {
+            List<StrategyStat> stats = new ArrayList<>();
+            counters.forEach((name, counter) -> stats.add(counter.toStat(name, score(counter))));
+            stats.sort(Comparator.comparingDouble(StrategyStat::score));
+            snapshot.put(domain, stats);
+        });
+        return snapshot;
+    }
+
+    private double score(StrategyCounter counter) {
+        if (counter == null || counter.attempts() < minSamples) {
+            return -1.0;
+        }
+        return counter.avgCostMs() / Math.max(counter.successRate(), MIN_SUCCESS_RATE);
+    }
+
+    private boolean isDemoted(StrategyCounter counter) {
+        return counter != null && counter.attempts() >= minSamples && counter.successRate() < DEMOTE_BELOW_SUCCESS_RATE;
+    }
+
+    private Map<String, StrategyCounter> counters(String domain) {
+        return statsByDomain.computeIfAbsent(normalize(domain), key -> new ConcurrentHashMap<>());
+    }
+
+    private static String normalize(String domain) {
+        String host = domain == null ? "" : domain.toLowerCase(Locale.ROOT);
+        return host.startsWith("www.") ? host.substring(4) : host;
+    }
+
+    public record StrategyStat(
+            String name,
+            long attempts,
+            long successes,
+            double successRate,
+            double avgCostMs,
+            double score
+    ) {}
+
+    private static final class StrategyCounter {
+        private long attempts;
+        private long successes;
+        private double successRate;
+        private double avgCostMs;
+
+        static StrategyCounter restore(StrategyStat stat) {
+            StrategyCounter counter = new StrategyCounter();
+            counter.attempts = stat.attempts();
+            counter.successes = stat.successes();
+            counter.successRate = stat.successRate();
+            counter.avgCostMs = stat.avgCostMs();
+            return counter;
+        }
+
+        synchronized void record(boolean success, long elapsedNanos) {
+            double costMs = elapsedNanos / 1_000_000.0;
+            double outcome = success ? 1.0 : 0.0;
+            if (attempts == 0) {
+                successRate = outcome;
+                avgCostMs = costMs;
+            } else {
+                successRate += SMOOTHING * (outcome - successRate);
+                avgCostMs += SMOOTHING * (costMs - avgCostMs);
+            }
+            attempts++;
+            if (success) {
+                successes++;
+            }
+        }
+
+        synchronized long attempts() {
+            return attempts;
+        }
+
+        synchronized double successRate() {
+            return successRate;
+        }
+
+        synchronized double avgCostMs() {
+            return avgCostMs;
+        }
+
+        synchronized StrategyStat toStat(String name, double score) {
+            return new StrategyStat(name, attempts, successes, successRate, avgCostMs, score);
+        }
+    }
+}
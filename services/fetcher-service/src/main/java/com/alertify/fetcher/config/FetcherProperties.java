@@ -0,0 +1,233 @@
+package com.alertify.fetcher.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "fetcher")
+public class FetcherProperties {
+
+    private HttpConfig http = new HttpConfig();
+    private HedgingConfig hedging = new HedgingConfig();
+    private StreamingConfig streaming = new StreamingConfig();
+    private ValidatorCacheConfig validatorCache = new ValidatorCacheConfig();
+    private ResultCacheConfig resultCache = new ResultCacheConfig();
+    private StrategyStatsConfig strategyStats = new StrategyStatsConfig();
+    private SiteConfigsConfig siteConfigs = new SiteConfigsConfig();
+    private PolitenessConfig politeness = new PolitenessConfig();
+    private JobsConfig jobs = new JobsConfig();
+    private ExecutorConfig executor = new ExecutorConfig();
+    private BrowserConfig browser = new BrowserConfig();
+
+    @Data
+    public static class HttpConfig {
+        /**
+         * "pooled" uses the shared java.net.http client, "legacy" opens a HttpURLConnection per request
+         */
+        private String client = "pooled";
+        private int connectTimeoutMs = 5000;
+        private boolean http2 = true;
+        private boolean followRedirects = true;
+        /**
+         * Hard cap on decoded page size; larger pages are truncated rather than buffered whole
+         */
+        private int maxPageBytes = 3 * 1024 * 1024;
+        /**
+         * Size of the pooled segments page bodies are buffered in; kept far below the G1 humongous-object size
+         */
+        private int bufferSegmentBytes = 64 * 1024;
+        /**
+         * Segments kept for reuse between fetches; memory held idle is this times the segment size
+         */
+        private int maxPooledSegments = 256;
+    }
+
+    @Data
+    public static class HedgingConfig {
+        /**
+         * Send a second identical request when a plain HTTP fetch outlasts its domain's p95 latency
+         */
+        private boolean enabled = false;
+        /**
+         * Hedges allowed per hundred requests; unused budget carries over for at most a handful of hedges
+         */
+        private double budgetPercent = 5.0;
+        /**
+         * Latencies a domain needs before its p95 is trusted; until then its requests are not hedged
+         */
+        private int minSamples = 20;
+        /**
+         * Floor for the hedge delay, so fast domains are not hedged on scheduling noise
+         */
+        private long minDelayMs = 50;
+        /**
+         * Latencies of a domain not fetched for this long are dropped
+         */
+        private long idleEvictionMs = 3_600_000;
+    }
+
+    @Data
+    public static class StreamingConfig {
+        /**
+         * Extract from structured data while the page is still downloading and stop reading once a price is found
+         */
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class ValidatorCacheConfig {
+        /**
+         * Send If-None-Match/If-Modified-Since and skip extraction when the price region is unchanged
+         */
+        private boolean enabled = true;
+        private int maxEntries = 10_000;
+    }
+
+    @Data
+    public static class ResultCacheConfig {
+        /**
+         * Serve repeated requests for the same URL from memory and coalesce concurrent ones
+         */
+        private boolean enabled = true;
+        private long ttlMs = 30_000;
+        private int maxEntries = 5_000;
+    }
+
+    @Data
+    public static class StrategyStatsConfig {
+        /**
+         * Reorder extraction strategies and selectors per domain by observed cost per success
+         */
+        private boolean enabled = true;
+        private int minSamples = 5;
+        /**
+         * Domains with statistics kept and persisted; the least recently used beyond this are forgotten
+         */
+        private int maxDomains = 1_000;
+        private String file = "data/strategy-stats.json";
+        private long persistIntervalMs = 60_000;
+    }
+
+    @Data
+    public static class SiteConfigsConfig {
+        /**
+         * YAML file of SiteConfig overrides keyed by fetcher site name; blank runs on the built-in configs only
+         */
+        private String file = "";
+        /**
+         * How often the file is checked for changes
+         */
+        private long reloadIntervalMs = 10_000;
+    }
+
+    @Data
+    public static class PolitenessConfig {
+        private boolean enabled = true;
+        /**
+         * Used when neither the site's SiteConfig nor an entry under "sites" sets a rate
+         */
+        private double defaultRatePerSecond = 1.0;
+        private int defaultBurst = 3;
+        /**
+         * Callers that would wait longer than this are refused with a rate-limited error instead
+         */
+        private long maxWaitMs = 10_000;
+        private int maxQueuedPerDomain = 16;
+        /**
+         * Pause applied after a 429/503 without a usable Retry-After header
+         */
+        private long defaultBackoffMs = 30_000;
+        /**
+         * The schedule of a domain not fetched for this long, and not paused, is dropped
+         */
+        private long idleEvictionMs = 3_600_000;
+        /**
+         * Overrides keyed by fetcher site name, e.g. "Trendyol"
+         */
+        private Map<String, RateConfig> sites = new HashMap<>();
+    }
+
+    @Data
+    public static class RateConfig {
+        private double ratePerSecond;
+        private int burst;
+    }
+
+    @Data
+    public static class JobsConfig {
+        private int workerThreads = 4;
+        /**
+         * Jobs beyond this many waiting are refused with 429 rather than queued
+         */
+        private int queueCapacity = 200;
+        private long defaultDeadlineMs = 120_000;
+        private long maxDeadlineMs = 600_000;
+        private long maxLongPollMs = 30_000;
+        /**
+         * How long finished jobs stay available for polling
+         */
+        private long retentionMs = 600_000;
+        private long callbackTimeoutMs = 5_000;
+        /**
+         * Hosts (and their subdomains) job callbacks may go to; when empty any host on a public address
+         */
+        private List<String> callbackAllowedHosts = new ArrayList<>();
+    }
+
+    @Data
+    public static class ExecutorConfig {
+        /**
+         * Plain HTTP fetches running at once, each on its own virtual thread; more are refused with 429
+         */
+        private int httpMaxInFlight = 256;
+        /**
+         * Threads for browser loads, politeness waits excluded; matches the number of browser sessions
+         */
+        private int browserThreads = 1;
+        /**
+         * Browser loads waiting for a thread, from browser-only sites and tiered escalations alike; more are refused with 429
+         */
+        private int browserQueueCapacity = 16;
+        private long httpRetryAfterMs = 1_000;
+        private long browserRetryAfterMs = 15_000;
+    }
+
+    @Data
+    public static class BrowserConfig {
+        /**
+         * Start Chrome in the background once the service is up; when false it starts on the first JS fetch
+         */
+        private boolean warmOnStartup = true;
+        /**
+         * Local chromedriver executable; when blank WebDriverManager resolves one, which may download it
+         */
+        private String driverPath = "";
+        /**
+         * Chrome or Chromium executable; when blank the driver looks in the default install locations
+         */
+        private String chromeBinary = "";
+        /**
+         * After a failed start, JS fetches are refused for this long before the next attempt
+         */
+        private long retryAfterFailureMs = 60_000;
+        /**
+         * "eager" returns from navigation at DOMContentLoaded instead of waiting for every subresource ("normal")
+         */
+        private String pageLoadStrategy = "eager";
+        private boolean blockImages = true;
+        /**
+         * Chrome DevTools URL patterns ("*" wildcards) blocked on every site, on top of each SiteConfig's own
+         */
+        private List<String> blockedUrlPatterns = new ArrayList<>(List.of(
+                "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+                "*googlesyndication.com*", "*facebook.net*", "*hotjar.com*", "*criteo.com*"
+        ));
+    }
+}
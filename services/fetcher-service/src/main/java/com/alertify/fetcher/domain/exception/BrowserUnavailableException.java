@@ -0,0 +1,21 @@
+package com.alertify.fetcher.domain.exception;
+
+import com.alertify.common.domain.exception.DomainException;
+
+/**
+ * A fetch needed the headless browser while it was still starting or after it failed to start.
+ * Only JS-rendered sites are affected; plain HTTP fetches carry on.
+ */
+public class BrowserUnavailableException extends DomainException {
+
+    private final String state;
+
+    public BrowserUnavailableException(String state, String reason) {
+        super("BROWSER_UNAVAILABLE", "Browser is " + state + (reason != null ? ": " + reason : ""));
+        this.state = state;
+    }
+
+    public String getState() {
+        return state;
+    }
+}
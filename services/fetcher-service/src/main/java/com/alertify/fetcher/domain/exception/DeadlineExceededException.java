@@ -0,0 +1,25 @@
+package com.alertify.fetcher.domain.exception;
+
+import com.alertify.common.domain.exception.DomainException;
+
+/**
+ * The caller's deadline passed, so the remaining work for a fetch was abandoned.
+ */
+public class DeadlineExceededException extends DomainException {
+
+    private final String stage;
+
+    public DeadlineExceededException(String stage) {
+        super("DEADLINE_EXCEEDED", "Deadline exceeded before " + stage);
+        this.stage = stage;
+    }
+
+    public DeadlineExceededException(String stage, Throwable cause) {
+        super("DEADLINE_EXCEEDED", "Deadline exceeded during " + stage, cause);
+        this.stage = stage;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+}
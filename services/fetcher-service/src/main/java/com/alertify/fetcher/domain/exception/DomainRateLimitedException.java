@@ -0,0 +1,29 @@
+package com.alertify.fetcher.domain.exception;
+
+import com.alertify.common.domain.exception.DomainException;
+
+import java.time.Duration;
+
+/**
+ * A fetch was refused locally because the target domain's request budget is exhausted for longer
+ * than callers are allowed to wait.
+ */
+public class DomainRateLimitedException extends DomainException {
+
+    private final String domain;
+    private final Duration retryAfter;
+
+    public DomainRateLimitedException(String domain, Duration retryAfter) {
+        super("DOMAIN_RATE_LIMITED", "Request budget for " + domain + " exhausted, retry after " + retryAfter.toMillis() + " ms");
+        this.domain = domain;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,28 @@
+package com.alertify.fetcher.domain.exception;
+
+import com.alertify.common.domain.exception.DomainException;
+
+import java.time.Duration;
+
+/**
+ * A fetch was refused because its lane already holds as many fetches as it may run and queue.
+ */
+public class FetcherOverloadedException extends DomainException {
+
+    private final String lane;
+    private final Duration retryAfter;
+
+    public FetcherOverloadedException(String lane, Duration retryAfter) {
+        super("FETCHER_OVERLOADED", "The " + lane + " fetch lane is full, retry after " + retryAfter.toSeconds() + " s");
+        this.lane = lane;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getLane() {
+        return lane;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
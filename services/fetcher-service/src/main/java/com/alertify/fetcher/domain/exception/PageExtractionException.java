@@ -0,0 +1,22 @@
+package com.alertify.fetcher.domain.exception;
+
+import com.alertify.common.domain.exception.DomainException;
+import com.alertify.fetcher.domain.model.FetchedPage;
+
+/**
+ * The page was downloaded but no price could be extracted from it; carries the page so other
+ * fetchers can try their extractors without downloading it again.
+ */
+public class PageExtractionException extends DomainException {
+
+    private final transient FetchedPage page;
+
+    public PageExtractionException(String message, FetchedPage page) {
+        super("PRICE_EXTRACTION_FAILED", message);
+        this.page = page;
+    }
+
+    public FetchedPage getPage() {
+        return page;
+    }
+}
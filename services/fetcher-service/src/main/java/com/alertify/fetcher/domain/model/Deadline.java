@@ -0,0 +1,74 @@
+package com.alertify.fetcher.domain.model;
+
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Point in time after which the caller no longer wants the result. Kept on the monotonic clock;
+ * callers across the wire send a remaining budget rather than a timestamp to avoid clock skew.
+ */
+public final class Deadline {
+
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    public static Deadline none() {
+        return NONE;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + Math.max(0, budget.toNanos()), true);
+    }
+
+    public static Deadline at(Instant instant) {
+        return after(Duration.between(Instant.now(), instant));
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Remaining budget, never negative; unbounded deadlines report Long.MAX_VALUE.
+     */
+    public long remainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, Duration.ofNanos(expiresAtNanos - System.nanoTime()).toMillis());
+    }
+
+    /**
+     * The smaller of timeoutMs and the remaining budget.
+     */
+    public long capMillis(long timeoutMs) {
+        return Math.min(timeoutMs, remainingMillis());
+    }
+
+    /**
+     * @throws DeadlineExceededException naming the stage that was about to start
+     */
+    public void check(String stage) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(stage);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? "Deadline[" + remainingMillis() + " ms left]" : "Deadline[none]";
+    }
+}
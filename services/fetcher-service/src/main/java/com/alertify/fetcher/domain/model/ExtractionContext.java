@@ -1,10 +1,44 @@
 package com.alertify.fetcher.domain.model;
 
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+
 import java.util.Map;
+import java.util.function.Supplier;
 
+/**
+ * A downloaded page handed to the extraction strategies. document parses the page on first use and
+ * gives every later caller the same DOM, so strategies read it but must not modify it.
+ */
 public record ExtractionContext(
         String url,
         String html,
-        Map<String, String> params
+        Map<String, String> params,
+        Deadline deadline,
+        Supplier<Document> document
 ) {
+    public ExtractionContext(String url, String html, Map<String, String> params, Deadline deadline) {
+        this(url, html, params, deadline, parsedOnce(() -> Jsoup.parse(html)));
+    }
+
+    public ExtractionContext(String url, String html, Map<String, String> params) {
+        this(url, html, params, Deadline.none());
+    }
+
+    /**
+     * Runs parser the first time the DOM is asked for and keeps its result.
+     */
+    public static Supplier<Document> parsedOnce(Supplier<Document> parser) {
+        return new Supplier<>() {
+            private Document document;
+
+            @Override
+            public synchronized Document get() {
+                if (document == null) {
+                    document = parser.get();
+                }
+                return document;
+            }
+        };
+    }
 }
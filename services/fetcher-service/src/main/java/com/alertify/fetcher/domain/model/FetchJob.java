@@ -0,0 +1,80 @@
+package com.alertify.fetcher.domain.model;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A fetch accepted for asynchronous execution. Mutable state is only written by the job's worker
+ * thread (or the deadline watchdog) and completes {@link #completion()} exactly once.
+ */
+@Getter
+public class FetchJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED, EXPIRED, CANCELLED;
+
+        public boolean isFinal() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+
+    private final String id;
+    private final String sourceType;
+    private final Map<String, String> params;
+    private final String callbackUrl;
+    private final Instant submittedAt;
+    private final Instant deadline;
+    private final CompletableFuture<FetchJob> completion = new CompletableFuture<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile MetricSample result;
+    private volatile String error;
+
+    public FetchJob(String id, String sourceType, Map<String, String> params, String callbackUrl,
+                    Instant submittedAt, Instant deadline) {
+        this.id = id;
+        this.sourceType = sourceType;
+        this.params = Map.copyOf(params);
+        this.callbackUrl = callbackUrl;
+        this.submittedAt = submittedAt;
+        this.deadline = deadline;
+    }
+
+    public CompletableFuture<FetchJob> completion() {
+        return completion;
+    }
+
+    public synchronized boolean start() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    public boolean succeed(MetricSample sample) {
+        return finish(Status.SUCCEEDED, sample, null);
+    }
+
+    public boolean fail(Status finalStatus, String message) {
+        return finish(finalStatus, null, message);
+    }
+
+    private synchronized boolean finish(Status finalStatus, MetricSample sample, String message) {
+        if (status.isFinal()) {
+            return false;
+        }
+        status = finalStatus;
+        result = sample;
+        error = message;
+        completedAt = Instant.now();
+        completion.complete(this);
+        return true;
+    }
+}
@@ -0,0 +1,19 @@
+package com.alertify.fetcher.domain.model;
+
+import java.time.Instant;
+
+/**
+ * A page already downloaded for a URL. rendered is true when the HTML came from a browser, so
+ * fetchers that need JavaScript can reuse it; plain-HTTP HTML only serves plain-HTTP fetchers.
+ */
+public record FetchedPage(
+        String url,
+        String html,
+        boolean rendered,
+        Instant fetchedAt
+) {
+
+    public boolean canServe(boolean requiresBrowser) {
+        return html != null && (rendered || !requiresBrowser);
+    }
+}
@@ -0,0 +1,14 @@
+package com.alertify.fetcher.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * One product on a listing page. productId is the site's own id parsed from the product URL, null
+ * when the site has no id pattern; currency is null when the page does not state it.
+ */
+public record ListingItem(
+        String productUrl,
+        String productId,
+        BigDecimal price,
+        String currency
+) {}
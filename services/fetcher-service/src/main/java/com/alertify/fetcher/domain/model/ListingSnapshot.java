@@ -0,0 +1,13 @@
+package com.alertify.fetcher.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Every priced product read from one load of a category or search page, in page order.
+ */
+public record ListingSnapshot(
+        String url,
+        List<ListingItem> items,
+        Instant fetchedAt
+) {}
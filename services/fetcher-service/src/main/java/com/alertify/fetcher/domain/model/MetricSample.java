@@ -2,10 +2,49 @@ package com.alertify.fetcher.domain.model;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Map;
 
+/**
+ * The price read from a page (metric, value, unit) plus every metric read from the same page load,
+ * keyed by name. metrics always holds the primary metric; the others are there when they were asked
+ * for and the page carries them.
+ */
 public record MetricSample(
         String metric,
         BigDecimal value,
         String unit,
-        Instant at
-) { }
+        Instant at,
+        Map<String, BigDecimal> metrics
+) {
+
+    public static final String PRICE = "price";
+
+    /**
+     * The crossed-out price shown next to a discounted one
+     */
+    public static final String LIST_PRICE = "list_price";
+
+    /**
+     * 1 when the product can be bought, 0 when it is out of stock
+     */
+    public static final String IN_STOCK = "in_stock";
+
+    public static final String SELLER_COUNT = "seller_count";
+
+    /**
+     * Request param naming the metrics wanted besides the price, comma separated
+     */
+    public static final String METRICS_PARAM = "metrics";
+
+    public MetricSample {
+        if (metrics == null || metrics.isEmpty()) {
+            metrics = value != null ? Map.of(metric, value) : Map.of();
+        } else {
+            metrics = Map.copyOf(metrics);
+        }
+    }
+
+    public MetricSample(String metric, BigDecimal value, String unit, Instant at) {
+        this(metric, value, unit, at, null);
+    }
+}
@@ -9,7 +9,7 @@ import java.util.List;
 import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SiteConfig {
@@ -79,6 +79,83 @@ public class SiteConfig {
      */
     private boolean enableMetaTags;
 
+    /**
+     * For browser sites: try a plain HTTP GET and embedded state/JSON-LD first, escalate to the browser only on failure
+     */
+    private boolean tieredFetch;
+
+    /**
+     * Field names holding the price in embedded application state, in order of preference (null uses defaults)
+     */
+    private List<String> embeddedStatePriceFields;
+
+    /**
+     * For browser sites: look for price candidates inside the browser and transfer only those, not the whole rendered DOM
+     */
+    private boolean inBrowserExtraction;
+
+    /**
+     * For browser sites: resource types not to load ("image", "font", "media", "stylesheet")
+     */
+    private List<String> blockedResourceTypes;
+
+    /**
+     * For browser sites: request URL patterns ("*" wildcards) not to load, e.g. recommendation widgets
+     */
+    private List<String> blockedUrlPatterns;
+
+    /**
+     * For browser sites: request URL patterns ("*" wildcards) of the JSON API the page loads its price from,
+     * e.g. "*api.example.com/product-detail*"; when set, the browser returns as soon as such a response arrives
+     */
+    private List<String> apiCapturePatterns;
+
+    /**
+     * Paths to the price inside a captured API response, in order of preference, e.g. "result.price.sellingPrice"
+     * or "items[0].price.value"
+     */
+    private List<String> apiPricePaths;
+
+    /**
+     * Selectors for the crossed-out list price of a discounted product, in order of preference
+     */
+    private List<String> listPriceSelectors;
+
+    /**
+     * Selectors of elements that only appear while the product is out of stock (null: stock is read from JSON-LD only)
+     */
+    private List<String> outOfStockSelectors;
+
+    /**
+     * Selectors for the number of sellers offering the product, e.g. "Diğer satıcılar (4)"
+     */
+    private List<String> sellerCountSelectors;
+
+    /**
+     * On category and search pages: CSS selector matching each product card (null reads listings from JSON-LD only)
+     */
+    private String listingItemSelector;
+
+    /**
+     * Selectors for the current price inside a product card, in order of preference
+     */
+    private List<String> listingPriceSelectors;
+
+    /**
+     * Regex whose first group is the site's product id in a product URL, e.g. "-p-(\\d+)"
+     */
+    private String productIdPattern;
+
+    /**
+     * Sustained request rate allowed against this site's domain (0 uses the service default)
+     */
+    private double rateLimitPerSecond;
+
+    /**
+     * Requests that may be sent back to back before the rate applies (0 uses the service default)
+     */
+    private int rateLimitBurst;
+
     public static SiteConfig getDefault() {
         return SiteConfig.builder()
                 .timeoutMs(10000)
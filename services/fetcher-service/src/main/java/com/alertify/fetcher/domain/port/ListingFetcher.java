@@ -0,0 +1,17 @@
+package com.alertify.fetcher.domain.port;
+
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.ListingSnapshot;
+
+import java.util.Map;
+
+/**
+ * A site fetcher that can also read category and search pages.
+ */
+public interface ListingFetcher {
+
+    /**
+     * Reads every product and its price from the category or search page at params["url"].
+     */
+    ListingSnapshot fetchListing(Map<String, String> params, Deadline deadline);
+}
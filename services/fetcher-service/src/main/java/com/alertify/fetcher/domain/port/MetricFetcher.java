@@ -1,5 +1,6 @@
 package com.alertify.fetcher.domain.port;
 
+import com.alertify.fetcher.domain.model.Deadline;
 import com.alertify.fetcher.domain.model.MetricSample;
 
 import java.util.Map;
@@ -7,4 +8,12 @@ import java.util.Map;
 public interface MetricFetcher {
     boolean supports(String sourceType);
     MetricSample fetch(Map<String, String> params);
+
+    /**
+     * Fetches within the caller's deadline; implementations that can stop part-way override this.
+     */
+    default MetricSample fetch(Map<String, String> params, Deadline deadline) {
+        deadline.check("fetch");
+        return fetch(params);
+    }
 }
@@ -4,8 +4,30 @@ import com.alertify.fetcher.domain.model.ExtractionContext;
 
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.function.Function;
 
 public interface PriceExtractionStrategy {
     Optional<BigDecimal> extractPrice(ExtractionContext context);
     int getPriority();
+    String getName();
+
+    static PriceExtractionStrategy of(String name, int priority,
+                                      Function<ExtractionContext, Optional<BigDecimal>> extractor) {
+        return new PriceExtractionStrategy() {
+            @Override
+            public Optional<BigDecimal> extractPrice(ExtractionContext context) {
+                return extractor.apply(context);
+            }
+
+            @Override
+            public int getPriority() {
+                return priority;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
 }
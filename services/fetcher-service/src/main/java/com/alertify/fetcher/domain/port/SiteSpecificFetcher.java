@@ -1,8 +1,12 @@
 package com.alertify.fetcher.domain.port;
 
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.FetchedPage;
+import com.alertify.fetcher.domain.model.MetricSample;
 import com.alertify.fetcher.domain.model.SiteConfig;
 
 import java.util.List;
+import java.util.Map;
 
 public interface SiteSpecificFetcher extends MetricFetcher {
 
@@ -14,6 +18,23 @@ public interface SiteSpecificFetcher extends MetricFetcher {
 
     SiteConfig getConfiguration();
 
+    /**
+     * The configuration built into the fetcher, before any override from the site config file.
+     */
+    default SiteConfig getDefaultConfiguration() {
+        return getConfiguration();
+    }
+
+    /**
+     * Runs this fetcher's extractors against a page another fetcher already downloaded.
+     */
+    MetricSample extract(FetchedPage page, Map<String, String> params);
+
+    default MetricSample extract(FetchedPage page, Map<String, String> params, Deadline deadline) {
+        deadline.check("extraction");
+        return extract(page, params);
+    }
+
     default int getPriority() {
         return 100;
     }
@@ -22,12 +43,18 @@ public interface SiteSpecificFetcher extends MetricFetcher {
         return getConfiguration().isRequiresJs();
     }
 
+    default boolean requiresBrowser() {
+        SiteConfig config = getConfiguration();
+        return config.isUseSelenium() || config.isRequiresJs();
+    }
+
     default boolean isValidUrl(String url) {
         if (url == null || url.trim().isEmpty()) {
             return false;
         }
 
+        String lowerCaseUrl = url.toLowerCase();
         return getSupportedDomains().stream()
-                .anyMatch(domain -> url.toLowerCase().contains(domain.toLowerCase()));
+                .anyMatch(domain -> lowerCaseUrl.contains(domain));
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+// Runs inside the rendered page. arguments[0] holds the site's CSS price selectors in preference order.
+// Returns the page's JSON-LD blocks, price meta/microdata values and, for each selector that matches,
+// the matched element wrapped in bare copies of its ancestors so descendant selectors still match
+// outside the page. Returns null when none of these exist.
+var selectors = arguments[0] || [];
+var maxFragmentChars = arguments[1] || 20000;
+var result = { jsonLd: [], meta: [], fragments: [] };
+
+document.querySelectorAll('script[type="application/ld+json"]').forEach(function (script) {
+    result.jsonLd.push(script.textContent);
+});
+
+document.querySelectorAll(
+    'meta[property="product:price:amount"], meta[property="og:price:amount"], meta[name="price"],'
+    + ' [itemprop="price"][content], [itemprop="lowPrice"][content]'
+).forEach(function (element) {
+    result.meta.push(element.getAttribute('content'));
+});
+
+function withAncestors(element) {
+    var node = element.cloneNode(true);
+    for (var parent = element.parentElement;
+         parent && parent !== document.body && parent !== document.documentElement;
+         parent = parent.parentElement) {
+        var shell = parent.cloneNode(false);
+        shell.appendChild(node);
+        node = shell;
+    }
+    return node.outerHTML;
+}
+
+var seen = [];
+selectors.forEach(function (selector) {
+    try {
+        var element = document.querySelector(selector);
+        if (element && seen.indexOf(element) < 0) {
+            seen.push(element);
+            var html = withAncestors(element);
+            if (html.length <= maxFragmentChars) {
+                result.fragments.push(html);
+            }
+        }
+    } catch (e) {
+        // Selector the browser cannot parse; the JVM-side extractors may still handle it
+    }
+});
+
+if (!result.jsonLd.length && !result.meta.length && !result.fragments.length) {
+    return null;
+}
+return result;
@@ -0,0 +1,56 @@
+package com.alertify.fetcher.adapter.out.cache;
+
+import com.alertify.fetcher.domain.model.SiteConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceRegionHasherTest {
+
+    private static final SiteConfig CONFIG = SiteConfig.builder()
+            .priceSelectors(List.of(".product-price"))
+            .build();
+
+    private static final String PAGE = """
+            <html><head><meta name="csrf-token" content="%s"></head>
+            <body><div class="ads">%s</div><span class="product-price">%s</span></body></html>
+            """;
+
+    @Test
+    void ignoresChangesOutsideThePriceRegion() {
+        String first = PriceRegionHasher.hash(PAGE.formatted("token-1", "Kampanya A", "1.299,90 TL"), CONFIG);
+        String second = PriceRegionHasher.hash(PAGE.formatted("token-2", "Kampanya B", "1.299,90 TL"), CONFIG);
+
+        assertThat(first).isNotNull().isEqualTo(second);
+    }
+
+    @Test
+    void changesWhenThePriceChanges() {
+        String first = PriceRegionHasher.hash(PAGE.formatted("token", "Kampanya", "1.299,90 TL"), CONFIG);
+        String second = PriceRegionHasher.hash(PAGE.formatted("token", "Kampanya", "1.199,90 TL"), CONFIG);
+
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void changesWhenOnlyTheEmbeddedStatePriceChanges() {
+        String state = """
+                <html><body><div id="app"></div>
+                <script>window.__PRODUCT_DETAIL_APP_INITIAL_STATE__ = {"product": {"price": {"sellingPrice": %s}}};</script>
+                <script id="__NEXT_DATA__" type="application/json">{"props": {"price": %s}}</script>
+                </body></html>
+                """;
+        String first = PriceRegionHasher.hash(state.formatted("1299.9", "1299.9"), CONFIG);
+
+        assertThat(first).isNotNull()
+                .isNotEqualTo(PriceRegionHasher.hash(state.formatted("1199.9", "1299.9"), CONFIG))
+                .isNotEqualTo(PriceRegionHasher.hash(state.formatted("1299.9", "1199.9"), CONFIG));
+    }
+
+    @Test
+    void returnsNullWithoutPriceRegion() {
+        assertThat(PriceRegionHasher.hash("<html><body><p>Sayfa bulunamadı</p></body></html>", CONFIG)).isNull();
+    }
+}
@@ -0,0 +1,51 @@
+package com.alertify.fetcher.adapter.out.cache;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.MetricSample;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValidatorCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getValidatorCache().setMaxEntries(2);
+        ValidatorCache cache = new ValidatorCache(properties, meterRegistry);
+
+        cache.put("a", entry("\"a\""));
+        cache.put("b", entry("\"b\""));
+        cache.get("a");
+        cache.put("c", entry("\"c\""));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isPresent();
+        assertThat(cache.get("b")).isEmpty();
+    }
+
+    @Test
+    void reuseRestampsSampleAndTracksHitRatio() {
+        ValidatorCache cache = new ValidatorCache(new FetcherProperties(), meterRegistry);
+        ValidatorCache.Entry entry = entry("\"v1\"");
+
+        MetricSample reused = cache.reuse(entry, "TRY", true);
+        cache.recordMiss();
+
+        assertThat(entry.conditionalHeaders()).containsEntry("If-None-Match", "\"v1\"");
+        assertThat(reused.value()).isEqualByComparingTo("99.90");
+        assertThat(reused.at()).isAfter(entry.sample().at());
+        assertThat(meterRegistry.get("fetcher.validator_cache.hit_ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    private static ValidatorCache.Entry entry(String etag) {
+        return new ValidatorCache.Entry(etag, null, null,
+                new MetricSample("price", new BigDecimal("99.90"), "TRY", Instant.EPOCH));
+    }
+}
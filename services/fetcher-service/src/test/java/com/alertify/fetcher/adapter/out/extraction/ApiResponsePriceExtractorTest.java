@@ -0,0 +1,48 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiResponsePriceExtractorTest {
+
+    private static final String PRODUCT_RESPONSE = """
+            {"result": {"id": 42, "prices": [
+                {"type": "original", "value": 0},
+                {"type": "selling", "value": 1299.90, "text": "1.299,90 TL"}
+            ], "campaign": {"price": "1149.00"}}}
+            """;
+
+    private final ApiResponsePriceExtractor extractor =
+            new ApiResponsePriceExtractor(new ObjectMapper(), new SimpleMeterRegistry());
+
+    @Test
+    void readsFirstPositivePriceAlongConfiguredPaths() {
+        assertThat(extractor.extract(PRODUCT_RESPONSE, List.of("result.prices[0].value", "$.result.prices[1].value")))
+                .hasValueSatisfying(found -> {
+                    assertThat(found.price()).hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo("1299.90"));
+                    assertThat(found.source()).isEqualTo("api:$.result.prices[1].value");
+                });
+        assertThat(extractor.extract(PRODUCT_RESPONSE, List.of("/result/campaign/price")))
+                .hasValueSatisfying(found -> assertThat(found.price()).contains(new BigDecimal("1149.00")));
+    }
+
+    @Test
+    void ignoresNonJsonBodiesAndMissingPaths() {
+        assertThat(extractor.extract("<html></html>", List.of("result.price"))).isEmpty();
+        assertThat(extractor.extract(PRODUCT_RESPONSE, List.of("result.prices[1].text", "result.missing"))).isEmpty();
+    }
+
+    @Test
+    void matchesRequestUrlsAgainstWildcardPatterns() {
+        List<String> patterns = List.of("*api.shop.example/product-detail/*?*");
+
+        assertThat(extractor.matches("https://api.shop.example/product-detail/42?culture=tr-TR", patterns)).isTrue();
+        assertThat(extractor.matches("https://api.shop.example/recommendations/42?x=1", patterns)).isFalse();
+    }
+}
@@ -0,0 +1,81 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import com.alertify.fetcher.domain.model.SiteConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedStateExtractorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmbeddedStateExtractor extractor = new EmbeddedStateExtractor(new ObjectMapper(), meterRegistry);
+
+    @Test
+    void readsWindowStateAssignmentAndPrefersShallowProductPrice() {
+        String html = """
+                <html><body><div id="app"></div>
+                <script>
+                  window.__PRODUCT_DETAIL_APP_INITIAL_STATE__ = {"product":{"name":"Kulaklık",
+                    "price":{"sellingPrice":{"value":1499.9},"discountedPrice":{"value":1299.9,"text":"1.299,90 TL"}},
+                    "recommendations":[{"price":{"discountedPrice":{"value":19.9}}}]}};
+                  window.TYPageName = "product_detail";
+                </script></body></html>
+                """;
+
+        Optional<StreamingExtraction> result = extractor.extract(html, SiteConfig.getDefault());
+
+        assertThat(result).isPresent();
+        assertThat(result.get().price()).hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo("1299.9"));
+        assertThat(result.get().source()).isEqualTo("__PRODUCT_DETAIL_APP_INITIAL_STATE__");
+    }
+
+    @Test
+    void prefersAShallowPriceOverAFieldConfiguredEarlierThatIsNestedDeeper() {
+        String html = """
+                <script id="__NEXT_DATA__" type="application/json">
+                {"props":{"pageProps":{"product":{"price":"849.90",
+                  "bundles":[{"items":[{"offer":{"discountedPrice":"19.90"}}]}]}}}}
+                </script>
+                """;
+
+        assertThat(extractor.extract(html, SiteConfig.getDefault()).flatMap(StreamingExtraction::price))
+                .hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo("849.90"));
+    }
+
+    @Test
+    void readsNextDataAndFallsBackToJsonLd() {
+        String nextData = """
+                <script id="__NEXT_DATA__" type="application/json">
+                {"props":{"pageProps":{"product":{"finalPrice":"849.50"}}}}
+                </script>
+                """;
+        String jsonLd = """
+                <script type="application/ld+json">
+                {"@type":"Product","offers":{"@type":"Offer","price":"2199.00"}}
+                </script>
+                """;
+
+        assertThat(extractor.extract(nextData, SiteConfig.getDefault()).flatMap(StreamingExtraction::price))
+                .hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo("849.50"));
+        assertThat(extractor.extract(jsonLd, SiteConfig.getDefault()).flatMap(StreamingExtraction::price))
+                .hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo("2199.00"));
+        assertThat(extractor.extract("<html><body><div class=price>?</div></body></html>", SiteConfig.getDefault()))
+                .isEmpty();
+    }
+
+    @Test
+    void countsEscalationsPerSite() {
+        extractor.recordTier("Trendyol", false);
+        extractor.recordTier("Trendyol", false);
+        extractor.recordTier("Trendyol", true);
+
+        assertThat(meterRegistry.get("fetcher.tiered.requests").tags("site", "Trendyol", "outcome", "escalated")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("fetcher.tiered.requests").tags("site", "Trendyol", "outcome", "browserless")
+                .counter().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,65 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import com.alertify.fetcher.domain.model.SiteConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InBrowserPriceExtractorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InBrowserPriceExtractor extractor = new InBrowserPriceExtractor(meterRegistry);
+    private final JavascriptExecutor browser = mock(JavascriptExecutor.class);
+
+    @Test
+    void readsStructuredPriceWithoutTransferringThePage() {
+        browserReturns(Map.of(
+                "jsonLd", List.of("{\"@type\":\"Product\",\"offers\":{\"@type\":\"Offer\",\"price\":\"1299.90\"}}"),
+                "meta", List.of(),
+                "fragments", List.of("<div class=\"prc-dsc\">1.299,90 TL</div>")));
+
+        Optional<StreamingExtraction> result = extractor.extract(browser, SiteConfig.getDefault());
+
+        assertThat(result).hasValueSatisfying(extraction -> {
+            assertThat(extraction.price()).hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo("1299.90"));
+            assertThat(extraction.source()).isEqualTo("browser:json-ld");
+        });
+    }
+
+    @Test
+    void returnsCandidateFragmentsAsAPrunedPage() {
+        String fragment = "<div class=\"product-price-container\"><span class=\"prc-dsc\">1.299,90 TL</span></div>";
+        browserReturns(Map.of("jsonLd", List.of(), "meta", List.of(), "fragments", List.of(fragment)));
+
+        Optional<StreamingExtraction> result = extractor.extract(browser, SiteConfig.getDefault());
+
+        assertThat(result).hasValueSatisfying(extraction -> {
+            assertThat(extraction.price()).isEmpty();
+            assertThat(extraction.html()).contains(fragment).startsWith("<html>");
+            assertThat(extraction.bytesRead()).isEqualTo(fragment.length());
+        });
+        assertThat(meterRegistry.counter("fetcher.browser_extraction.requests", "outcome", "candidates").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void asksForThePageSourceWhenTheBrowserFoundNoCandidates() {
+        browserReturns(null);
+
+        assertThat(extractor.extract(browser, SiteConfig.getDefault())).isEmpty();
+    }
+
+    private void browserReturns(Object result) {
+        when(browser.executeScript(anyString(), any(), any())).thenReturn(result);
+    }
+}
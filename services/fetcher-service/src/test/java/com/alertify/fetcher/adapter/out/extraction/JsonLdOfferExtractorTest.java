@@ -0,0 +1,66 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLdOfferExtractorTest {
+
+    @Test
+    void findsTheSellingPriceInAGraphAndIgnoresRelatedProducts() {
+        String json = """
+                {"@context": "https://schema.org", "@graph": [
+                  {"@type": "BreadcrumbList", "itemListElement": [{"position": 1, "name": "Audio"}]},
+                  {"@type": "Product", "name": "Headphones",
+                   "isRelatedTo": {"@type": "Product", "offers": {"@type": "Offer", "price": "99.00"}},
+                   "offers": [{
+                     "@type": "Offer",
+                     "priceSpecification": [
+                       {"@type": "UnitPriceSpecification", "priceType": "https://schema.org/StrikethroughPrice", "price": 2799.00},
+                       {"@type": "UnitPriceSpecification", "price": 2349.90, "priceCurrency": "TRY"}
+                     ],
+                     "availability": "https://schema.org/InStock"
+                   }]}
+                ]}
+                """;
+
+        JsonLdOfferExtractor.Offer offer = JsonLdOfferExtractor.firstOffer(json).orElseThrow();
+
+        assertThat(offer.price()).isEqualByComparingTo("2349.90");
+        assertThat(offer.currency()).isEqualTo("TRY");
+        assertThat(offer.availability()).isEqualTo("https://schema.org/InStock");
+        assertThat(offer.inStock()).isTrue();
+        assertThat(offer.listPrice()).isEqualByComparingTo("2799.00");
+    }
+
+    @Test
+    void readsAggregateOffersWhateverTheMemberOrder() {
+        String json = """
+                {"@type": "Product",
+                 "review": {"reviewRating": {"@type": "Rating", "ratingValue": "5", "value": "5"}},
+                 "offers": {"priceCurrency": "USD", "lowPrice": "19.99", "highPrice": "34.50", "offerCount": 4,
+                            "@type": "AggregateOffer"}}
+                """;
+
+        JsonLdOfferExtractor.Offer offer = JsonLdOfferExtractor.firstOffer(json).orElseThrow();
+
+        assertThat(offer.price()).isEqualByComparingTo("19.99");
+        assertThat(offer.currency()).isEqualTo("USD");
+        assertThat(offer.offerCount()).isEqualTo(4);
+        assertThat(offer.inStock()).isNull();
+    }
+
+    @Test
+    void toleratesHandWrittenBlocksAndSkipsScriptsWithoutOffers() {
+        String html = "<html><head>"
+                + "<script type=\"application/ld+json\">{\"@type\": \"Organization\", \"name\": \"Shop\"}</script>"
+                + "<script type='application/ld+json'>{\"@type\": \"Product\", \"description\": \"Two lines\nof text\","
+                + " \"offers\": {\"@type\": \"Offer\", \"price\": 849.90,},}</script>"
+                + "</head><body></body></html>";
+
+        assertThat(JsonLdOfferExtractor.firstOfferInPage(html))
+                .map(JsonLdOfferExtractor.Offer::price)
+                .hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo("849.90"));
+        assertThat(JsonLdOfferExtractor.firstOffer("{\"@type\": \"Product\", \"offers\": ")).isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+package com.alertify.fetcher.adapter.out.extraction;
+
+import com.alertify.fetcher.adapter.out.http.HttpStream;
+import com.alertify.fetcher.adapter.out.http.PageBufferPool;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingPriceExtractorTest {
+
+    private static final String FILLER = "<div class=\"card\"><p>Benzer ürünler ve kampanyalar</p></div>\n".repeat(20_000);
+
+    private FetcherProperties properties;
+    private StreamingPriceExtractor extractor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FetcherProperties();
+        extractor = new StreamingPriceExtractor(properties, new PageBufferPool(properties, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void stopsReadingOnceJsonLdOfferIsClosed() throws Exception {
+        String html = """
+                <html><head>
+                <script type="application/ld+json">
+                {"@context":"https://schema.org","@graph":[
+                  {"@type":"BreadcrumbList","itemListElement":[]},
+                  {"@type":"Product","name":"Kulaklık","offers":[{"@type":"Offer","price":"1299.90","priceCurrency":"TRY"}]}
+                ]}
+                </script>
+                </head><body>""" + FILLER + "</body></html>";
+
+        StreamingExtraction result = extractor.extract(stream(html, StandardCharsets.UTF_8), SiteConfig.getDefault());
+
+        assertThat(result.price()).contains(new BigDecimal("1299.90"));
+        assertThat(result.source()).isEqualTo("script");
+        assertThat(result.html()).isNull();
+        assertThat(result.bytesRead()).isLessThan(html.length() / 10);
+    }
+
+    @Test
+    void usesMetaPriceAndIgnoresDisabledJsonLd() throws Exception {
+        String html = """
+                <html><head>
+                <script type="application/ld+json">{"@type":"Offer","price":"5.00"}</script>
+                <meta property="product:price:amount" content="749.5">
+                </head><body></body></html>""";
+        SiteConfig config = SiteConfig.builder().enableJsonLd(false).enableMetaTags(true).build();
+
+        StreamingExtraction result = extractor.extract(stream(html, StandardCharsets.UTF_8), config);
+
+        assertThat(result.price()).contains(new BigDecimal("749.5"));
+        assertThat(result.source()).isEqualTo("meta");
+    }
+
+    @Test
+    void returnsPageForRegularExtractorsWhenNothingStructuredIsFound() throws Exception {
+        Charset turkish = Charset.forName("windows-1254");
+        String html = "<html><head><meta charset=\"windows-1254\"></head>"
+                + "<body><span class=\"price\">Sepete özel 1.299,90 TL</span></body></html>";
+
+        StreamingExtraction result = extractor.extract(stream(html, turkish, null), SiteConfig.getDefault());
+
+        assertThat(result.price()).isEmpty();
+        assertThat(result.truncated()).isFalse();
+        assertThat(result.html()).isEqualTo(html);
+    }
+
+    @Test
+    void capsPathologicalPages() throws Exception {
+        properties.getHttp().setMaxPageBytes(64 * 1024);
+        String html = "<html><body>" + FILLER + "<meta property=\"og:price:amount\" content=\"10\"></body></html>";
+
+        StreamingExtraction result = extractor.extract(stream(html, StandardCharsets.UTF_8), SiteConfig.getDefault());
+
+        assertThat(result.price()).isEmpty();
+        assertThat(result.truncated()).isTrue();
+        assertThat(result.bytesRead()).isEqualTo(64 * 1024);
+        assertThat(result.html()).hasSizeLessThanOrEqualTo(64 * 1024);
+    }
+
+    private HttpStream stream(String html, Charset charset) {
+        return stream(html, charset, charset);
+    }
+
+    private HttpStream stream(String html, Charset charset, Charset headerCharset) {
+        return new HttpStream("https://shop.example.com/p/1", 200, Map.of(),
+                new ByteArrayInputStream(html.getBytes(charset)), headerCharset);
+    }
+}
@@ -0,0 +1,103 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgedRequestsTest {
+
+    private static final String URL = "https://shop.example.com/p/1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FetcherProperties properties = new FetcherProperties();
+    private HedgedRequests hedgedRequests;
+
+    @AfterEach
+    void shutdown() {
+        hedgedRequests.shutdown();
+    }
+
+    @Test
+    void hedgeWinsOverAHangingRequestAndTheLoserIsCancelled() throws Exception {
+        hedgedRequests = hedging(100.0);
+        warmUp();
+
+        CompletableFuture<String> hanging = new CompletableFuture<>();
+        List<CompletableFuture<String>> attempts = new ArrayList<>(List.of(hanging, CompletableFuture.completedFuture("hedge")));
+
+        String result = hedgedRequests.send(URL, "page", () -> attempts.removeFirst(), unused -> { }, () -> true)
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(hanging).isCancelled();
+        assertThat(meterRegistry.counter("fetcher.hedge.sent", "outcome", "won").count()).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotHedgeBeyondTheBudget() throws Exception {
+        hedgedRequests = hedging(0.0);
+        warmUp();
+
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        CompletableFuture<String> result = hedgedRequests.send(URL, "page", () -> slow, unused -> { }, () -> true);
+        TimeUnit.MILLISECONDS.sleep(100);
+        slow.complete("primary");
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("primary");
+        assertThat(meterRegistry.counter("fetcher.hedge.skipped", "reason", "budget").count()).isEqualTo(1);
+        assertThat(meterRegistry.find("fetcher.hedge.sent").counters())
+                .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+
+    @Test
+    void recordsTheElapsedTimeOfCancelledLosersSoTheP95DoesNotDriftDown() throws Exception {
+        hedgedRequests = hedging(100.0);
+        warmUp();
+
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<String> hanging = new CompletableFuture<>();
+            List<CompletableFuture<String>> attempts = new ArrayList<>(List.of(hanging, CompletableFuture.completedFuture("hedge")));
+            hedgedRequests.send(URL, "page", () -> attempts.removeFirst(), unused -> { }, () -> true).get(5, TimeUnit.SECONDS);
+            assertThat(hanging).isCancelled();
+        }
+
+        // Only the instant hedges would have been recorded before, keeping the p95 near zero
+        assertThat(hedgedRequests.p95Nanos(URL, "page")).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+
+    @Test
+    void evictsTheLatenciesOfIdleDomains() {
+        hedgedRequests = hedging(0.0);
+        warmUp();
+        assertThat(hedgedRequests.trackedWindows()).isEqualTo(1);
+
+        hedgedRequests.evictIdle();
+        assertThat(hedgedRequests.trackedWindows()).isEqualTo(1);
+
+        properties.getHedging().setIdleEvictionMs(0);
+        hedgedRequests.evictIdle();
+        assertThat(hedgedRequests.trackedWindows()).isZero();
+    }
+
+    private HedgedRequests hedging(double budgetPercent) {
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setBudgetPercent(budgetPercent);
+        properties.getHedging().setMinSamples(3);
+        properties.getHedging().setMinDelayMs(10);
+        return new HedgedRequests(properties, meterRegistry);
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 3; i++) {
+            hedgedRequests.send(URL, "page", () -> CompletableFuture.completedFuture("fast"), unused -> { }, () -> true).join();
+        }
+    }
+}
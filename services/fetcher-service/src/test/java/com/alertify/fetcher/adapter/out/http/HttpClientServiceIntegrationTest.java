@@ -0,0 +1,272 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import com.alertify.fetcher.adapter.out.sites.RecordedCorpus;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import com.alertify.stub.StubShop;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpClientServiceIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpClientServiceIntegrationTest.class);
+
+    private static final Charset TURKISH = Charset.forName("windows-1254");
+    private static final String PRODUCT_PAGE = """
+            <html><head><title>Ürün</title></head>
+            <body><div class="price">Sepete özel fiyat: 1.299,90 TL — kazancınız ışıl ışıl</div>
+            %s
+            </body></html>
+            """.formatted("<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit.</p>".repeat(200));
+
+    private HttpServer server;
+    private HttpClientService httpClientService;
+    private final Set<InetSocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final CountDownLatch unstall = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(16));
+
+        server.createContext("/gzip", exchange -> respond(exchange, "gzip",
+                "text/html; charset=utf-8", gzip(PRODUCT_PAGE.getBytes(StandardCharsets.UTF_8))));
+        server.createContext("/deflate", exchange -> respond(exchange, "deflate",
+                "text/html; charset=windows-1254", deflate(PRODUCT_PAGE.getBytes(TURKISH))));
+        server.createContext("/meta-charset", exchange -> respond(exchange, null, "text/html",
+                ("<meta charset=\"windows-1254\">" + PRODUCT_PAGE).getBytes(TURKISH)));
+        server.createContext("/missing", exchange -> respond(exchange, null, "text/html", new byte[0], 404));
+        server.createContext("/stall", this::stallMidBody);
+
+        server.start();
+
+        FetcherProperties properties = new FetcherProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        httpClientService = new HttpClientService(properties, new PageBufferPool(properties, meterRegistry),
+                new HedgedRequests(properties, meterRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        unstall.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void decodesGzipBodyWithHeaderCharset() {
+        HttpPage page = httpClientService.get(url("/gzip"), SiteConfig.getDefault());
+
+        assertThat(page.isSuccessful()).isTrue();
+        assertThat(page.charset()).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(page.body()).contains("Sepete özel fiyat: 1.299,90 TL", "kazancınız ışıl ışıl");
+        assertThat(page.transferredBytes()).isLessThan(page.decodedBytes());
+    }
+
+    @Test
+    void decodesDeflateBodyWithNonUtf8Charset() {
+        HttpPage page = httpClientService.get(url("/deflate"), SiteConfig.getDefault());
+
+        assertThat(page.charset()).isEqualTo(TURKISH);
+        assertThat(page.body()).contains("kazancınız ışıl ışıl");
+    }
+
+    @Test
+    void fallsBackToMetaCharsetWhenHeaderHasNone() {
+        HttpPage page = httpClientService.get(url("/meta-charset"), SiteConfig.getDefault());
+
+        assertThat(page.charset()).isEqualTo(TURKISH);
+        assertThat(page.body()).contains("kazancınız ışıl ışıl");
+    }
+
+    @Test
+    void fetchesThroughTheConfiguredProxyWithEitherClient() throws IOException {
+        RecordedCorpus.RecordedPage recorded = RecordedCorpus.page("trendyol/product");
+        String url = recorded.url().replace("https://", "http://");
+
+        try (StubShop shop = StubShop.builder().page(recorded.url(), recorded.html()).start()) {
+            for (String client : List.of("pooled", "legacy")) {
+                FetcherProperties properties = new FetcherProperties();
+                properties.getHttp().setClient(client);
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                HttpClientService proxied = new HttpClientService(properties,
+                        new PageBufferPool(properties, meterRegistry), new HedgedRequests(properties, meterRegistry),
+                        ProxySelector.of(new InetSocketAddress("127.0.0.1", shop.port())));
+
+                HttpPage page = proxied.get(url, SiteConfig.getDefault());
+                assertThat(page.statusCode()).as(client).isEqualTo(200);
+                assertThat(page.body()).as(client).isEqualTo(recorded.html());
+
+                HttpPage revalidated = proxied.get(url, SiteConfig.getDefault(),
+                        Map.of("If-None-Match", page.firstHeader("ETag")));
+                assertThat(revalidated.isNotModified()).as(client).isTrue();
+            }
+
+            assertThat(shop.stats().served()).isEqualTo(2);
+            assertThat(shop.stats().notModified()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void failsPagesWhoseBodyStallsPastTheTimeout() {
+        SiteConfig config = SiteConfig.getDefault().toBuilder().timeoutMs(500).build();
+        long started = System.nanoTime();
+
+        assertThatThrownBy(() -> httpClientService.get(url("/stall"), config))
+                .hasRootCauseInstanceOf(TimeoutException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void failsStreamReadsOnceTheBodyStallsPastTheTimeout() throws IOException {
+        SiteConfig config = SiteConfig.getDefault().toBuilder().timeoutMs(500).build();
+        long started = System.nanoTime();
+
+        try (HttpStream stream = httpClientService.openStream(url("/stall"), config, Map.of())) {
+            assertThatThrownBy(() -> stream.body().readAllBytes()).isInstanceOf(HttpTimeoutException.class);
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void reportsNonSuccessStatus() {
+        HttpPage page = httpClientService.get(url("/missing"), SiteConfig.getDefault());
+
+        assertThat(page.statusCode()).isEqualTo(404);
+        assertThat(page.isSuccessful()).isFalse();
+    }
+
+    @Test
+    void reusesConnectionsUnderConcurrentLoad() throws Exception {
+        int clients = 8;
+        int requestsPerClient = 50;
+        int requests = clients * requestsPerClient;
+        SiteConfig config = SiteConfig.builder()
+                .timeoutMs(5000)
+                .headers(Map.of("Connection", "close", "Accept-Language", "tr-TR,tr;q=0.9"))
+                .build();
+
+        // Warm up the pool so the measurement reflects steady-state keep-alive behaviour
+        httpClientService.get(url("/gzip"), config);
+        bytesWritten.set(0);
+
+        long start = System.nanoTime();
+        List<HttpPage> pages = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<Void>> loops = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            loops.add(sendSequentially(url("/gzip"), config, requestsPerClient, pages));
+        }
+        CompletableFuture.allOf(loops.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long transferred = pages.stream().mapToLong(HttpPage::transferredBytes).sum();
+        long decoded = pages.stream().mapToLong(HttpPage::decodedBytes).sum();
+
+        log.info("Pooled client: {} requests in {} s ({} req/s), {} bytes transferred, {} bytes decoded, {} connections",
+                requests, String.format("%.3f", elapsedSeconds), String.format("%.0f", requests / elapsedSeconds),
+                transferred, decoded, clientAddresses.size());
+
+        assertThat(pages).hasSize(requests).allMatch(HttpPage::isSuccessful);
+        assertThat(transferred).isEqualTo(bytesWritten.get());
+        assertThat(decoded).isGreaterThan(transferred * 5);
+        // A restricted "Connection: close" site header must not defeat pooling
+        assertThat(clientAddresses.size()).isLessThanOrEqualTo(clients * 2);
+    }
+
+    private CompletableFuture<Void> sendSequentially(String url, SiteConfig config, int remaining, List<HttpPage> pages) {
+        if (remaining == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return httpClientService.sendAsync(url, config)
+                .thenCompose(page -> {
+                    pages.add(page);
+                    return sendSequentially(url, config, remaining - 1, pages);
+                });
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void stallMidBody(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, 100_000);
+        OutputStream out = exchange.getResponseBody();
+        out.write("<html><body>".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        try {
+            unstall.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.close();
+    }
+
+    private void respond(HttpExchange exchange, String contentEncoding, String contentType, byte[] body)
+            throws IOException {
+        respond(exchange, contentEncoding, contentType, body, 200);
+    }
+
+    private void respond(HttpExchange exchange, String contentEncoding, String contentType, byte[] body, int status)
+            throws IOException {
+        clientAddresses.add(exchange.getRemoteAddress());
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (contentEncoding != null) {
+            exchange.getResponseHeaders().set("Content-Encoding", contentEncoding);
+        }
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        bytesWritten.addAndGet(body.length);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+}
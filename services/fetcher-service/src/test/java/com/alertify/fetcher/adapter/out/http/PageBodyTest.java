@@ -0,0 +1,65 @@
+package com.alertify.fetcher.adapter.out.http;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageBodyTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PageBufferPool pool;
+
+    PageBodyTest() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getHttp().setBufferSegmentBytes(4);
+        properties.getHttp().setMaxPageBytes(32);
+        pool = new PageBufferPool(properties, meterRegistry);
+    }
+
+    @Test
+    void decodesCharactersSplitAcrossSegments() throws Exception {
+        String text = "Fiyat: 1.299,90 ₺ ğüş";
+
+        try (PageBody body = pool.newBody()) {
+            body.readFrom(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(body.truncated()).isFalse();
+            assertThat(body.decode(StandardCharsets.UTF_8)).isEqualTo(text);
+            assertThat(body.inputStream().readAllBytes()).isEqualTo(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void dropsBytesPastTheCap() {
+        byte[] page = "<html><body>0123456789abcdefghijklmnop</body></html>".getBytes(StandardCharsets.US_ASCII);
+
+        try (PageBody body = pool.newBody()) {
+            assertThat(body.write(page, 0, page.length)).isFalse();
+
+            assertThat(body.truncated()).isTrue();
+            assertThat(body.length()).isEqualTo(32);
+            assertThat(body.decode(StandardCharsets.US_ASCII)).isEqualTo("<html><body>0123456789abcdefghij");
+        }
+    }
+
+    @Test
+    void reusesSegmentsOfClosedBodies() {
+        byte[] page = "0123456789ab".getBytes(StandardCharsets.US_ASCII);
+        try (PageBody body = pool.newBody()) {
+            body.write(page, 0, page.length);
+        }
+        try (PageBody body = pool.newBody()) {
+            body.write(page, 0, page.length);
+        }
+
+        assertThat(meterRegistry.get("fetcher.page_buffers.segments").tag("result", "allocated").counter().count())
+                .isEqualTo(3);
+        assertThat(meterRegistry.get("fetcher.page_buffers.segments").tag("result", "reused").counter().count())
+                .isEqualTo(3);
+    }
+}
@@ -0,0 +1,133 @@
+package com.alertify.fetcher.adapter.out.politeness;
+
+import com.alertify.fetcher.adapter.out.sites.trendyol.TrendyolFetcher;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.DomainRateLimitedException;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PolitenessSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void spacesRequestsToOneDomainAfterTheBurst() {
+        PolitenessScheduler scheduler = scheduler(new FetcherProperties());
+        SiteConfig config = SiteConfig.builder().rateLimitPerSecond(20).rateLimitBurst(2).build();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            scheduler.acquire("https://www.trendyol.com/p/" + i, "Trendyol", config);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Two burst slots are free, the next two wait 50 ms each
+        assertThat(elapsedMs).isBetween(90L, 400L);
+        assertThat(meterRegistry.get("fetcher.politeness.queue_wait").tag("site", "Trendyol").timer().count())
+                .isEqualTo(4);
+    }
+
+    @Test
+    void throttledDomainDoesNotDelayOtherDomains() throws Exception {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getPoliteness().setMaxWaitMs(200);
+        PolitenessScheduler scheduler = scheduler(properties);
+        SiteConfig slow = SiteConfig.builder().rateLimitPerSecond(0.1).rateLimitBurst(1).build();
+
+        scheduler.acquire("https://www.hepsiburada.com/a-p-1", "HepsiBurada-XPath", slow);
+        assertThatThrownBy(() -> scheduler.acquire("https://www.hepsiburada.com/a-p-2", "HepsiBurada-XPath", slow))
+                .isInstanceOf(DomainRateLimitedException.class);
+
+        long start = System.nanoTime();
+        CompletableFuture.runAsync(() -> scheduler.acquire("https://www.n11.com/urun/1", "N11", SiteConfig.getDefault()))
+                .get(1, TimeUnit.SECONDS);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+        assertThat(meterRegistry.get("fetcher.politeness.rejected").tag("site", "HepsiBurada-XPath").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void takesTheRateOfTheSiteThatOwnsTheDomainWhoeverFetchesFirst() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getPoliteness().setMaxWaitMs(200);
+        properties.getStrategyStats().setEnabled(false);
+        properties.getStrategyStats().setFile("");
+        TrendyolFetcher trendyol = new TrendyolFetcher(null, null,
+                new StrategyStatsService(properties, new ObjectMapper()), new FetcherMetrics(new SimpleMeterRegistry()));
+        trendyol.reconfigure(trendyol.getDefaultConfiguration().toBuilder()
+                .rateLimitPerSecond(20)
+                .rateLimitBurst(2)
+                .build());
+        PolitenessScheduler scheduler = new PolitenessScheduler(properties, meterRegistry,
+                domain -> domain.equals("trendyol.com") ? Optional.of(trendyol) : Optional.empty());
+        SiteConfig slowFallback = SiteConfig.builder().rateLimitPerSecond(0.1).rateLimitBurst(1).build();
+
+        // The generic fetcher's own rate would refuse the second request
+        for (int i = 0; i < 4; i++) {
+            scheduler.acquire("https://www.trendyol.com/p/" + i, "Generic E-commerce", slowFallback);
+        }
+
+        assertThat(meterRegistry.get("fetcher.politeness.queue_wait").tag("site", "Trendyol").timer().count())
+                .isEqualTo(4);
+        assertThat(meterRegistry.find("fetcher.politeness.queue_wait").tag("site", "Generic E-commerce").timer())
+                .isNull();
+    }
+
+    @Test
+    void backoffPausesTheDomain() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getPoliteness().setMaxWaitMs(500);
+        PolitenessScheduler scheduler = scheduler(properties);
+
+        scheduler.acquire("https://n11.com/urun/1", "N11", SiteConfig.getDefault());
+        scheduler.backoff("https://n11.com/urun/1", "120");
+
+        assertThatThrownBy(() -> scheduler.acquire("https://n11.com/urun/2", "N11", SiteConfig.getDefault()))
+                .isInstanceOf(DomainRateLimitedException.class)
+                .satisfies(e -> assertThat(((DomainRateLimitedException) e).getRetryAfter().toSeconds()).isBetween(118L, 121L));
+    }
+
+    @Test
+    void evictsIdleDomainsAndTheMetersOfSitesLeftWithoutOne() throws Exception {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getPoliteness().setIdleEvictionMs(200);
+        PolitenessScheduler scheduler = scheduler(properties);
+        SiteConfig fast = SiteConfig.builder().rateLimitPerSecond(1000).rateLimitBurst(1).build();
+
+        scheduler.acquire("https://shop-a.example.com/p/1", "Generic E-commerce", fast);
+        scheduler.acquire("https://www.trendyol.com/p/1", "Trendyol", fast);
+        scheduler.acquire("https://n11.com/urun/1", "N11", fast);
+        scheduler.backoff("https://n11.com/urun/1", "120");
+        Thread.sleep(300);
+        scheduler.acquire("https://shop-b.example.com/p/1", "Generic E-commerce", fast);
+
+        scheduler.evictIdle();
+
+        // The paused domain and the one just used stay
+        assertThat(scheduler.trackedDomains()).isEqualTo(2);
+        assertThat(meterRegistry.find("fetcher.politeness.queue_wait").tag("site", "Trendyol").timer()).isNull();
+        assertThat(meterRegistry.find("fetcher.politeness.rejected").tag("site", "Trendyol").counter()).isNull();
+        assertThat(meterRegistry.get("fetcher.politeness.queue_wait").tag("site", "Generic E-commerce").timer().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.find("fetcher.politeness.queue_wait").tag("site", "N11").timer()).isNotNull();
+
+        scheduler.acquire("https://www.trendyol.com/p/2", "Trendyol", fast);
+        assertThat(meterRegistry.get("fetcher.politeness.queue_wait").tag("site", "Trendyol").timer().count())
+                .isEqualTo(1);
+    }
+
+    private PolitenessScheduler scheduler(FetcherProperties properties) {
+        return new PolitenessScheduler(properties, meterRegistry, domain -> Optional.empty());
+    }
+}
@@ -0,0 +1,61 @@
+package com.alertify.fetcher.adapter.out.selenium;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.BrowserUnavailableException;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BrowserProvisioningTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void refusesJsFetchesUntilTheBrowserIsUpAndReportsAFailedStart() throws Exception {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getBrowser().setDriverPath("/nonexistent/chromedriver");
+        properties.getBrowser().setRetryAfterFailureMs(60_000);
+        SeleniumWebDriverService service = new SeleniumWebDriverService(properties, meterRegistry);
+        BrowserHealthIndicator health = new BrowserHealthIndicator(service);
+
+        assertThat(service.getState()).isEqualTo(SeleniumWebDriverService.State.NOT_STARTED);
+        assertThat(health.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        service.startAsync().get(30, TimeUnit.SECONDS);
+
+        assertThat(service.getState()).isEqualTo(SeleniumWebDriverService.State.FAILED);
+        assertThat(health.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.health().getDetails()).containsKey("error");
+        assertThatThrownBy(() -> service.render("https://example.com", SiteConfig.getDefault(), Deadline.none(), WebDriver::getTitle))
+                .isInstanceOf(BrowserUnavailableException.class)
+                .hasMessageContaining("failed");
+        assertThat(meterRegistry.get("fetcher.browser.startup").tag("outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("fetcher.browser.ready").gauge().value()).isZero();
+
+        // Within the retry interval no further attempt is made
+        service.startAsync().get(30, TimeUnit.SECONDS);
+        assertThat(meterRegistry.get("fetcher.browser.startup").tag("outcome", "failure").timer().count()).isEqualTo(1);
+
+        service.cleanup();
+    }
+
+    @Test
+    void doesNotStartTheBrowserAtStartupWhenWarmUpIsDisabled() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getBrowser().setWarmOnStartup(false);
+        SeleniumWebDriverService service = new SeleniumWebDriverService(properties, meterRegistry);
+
+        service.warmUp();
+
+        assertThat(service.getState()).isEqualTo(SeleniumWebDriverService.State.NOT_STARTED);
+        service.cleanup();
+    }
+}
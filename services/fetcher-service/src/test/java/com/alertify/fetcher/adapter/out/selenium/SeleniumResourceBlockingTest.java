@@ -0,0 +1,140 @@
+package com.alertify.fetcher.adapter.out.selenium;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeleniumResourceBlockingTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SeleniumResourceBlockingTest.class);
+
+    private static final int IMAGES = 30;
+    private static final int LOADS = 5;
+
+    @Test
+    void combinesServiceWideAndSiteBlockingPatterns() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getBrowser().setBlockedUrlPatterns(List.of("*tracker.example*"));
+        SeleniumWebDriverService service = new SeleniumWebDriverService(properties, new SimpleMeterRegistry());
+
+        List<String> patterns = service.blockedPatterns(SiteConfig.builder()
+                .blockedResourceTypes(List.of("font", "video"))
+                .blockedUrlPatterns(List.of("*/recommendations*", "*tracker.example*"))
+                .build());
+
+        assertThat(patterns).containsExactly(
+                "*tracker.example*", "*.woff*", "*.ttf*", "*.otf*", "*.eot*", "*/recommendations*");
+    }
+
+    /**
+     * Needs a local Chrome: run with -Dbrowser.benchmark=true. Compares a default browser against
+     * eager loading with images, fonts, media and a tracker script blocked, on a page served from
+     * localhost so that bytes are counted at the server.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "browser.benchmark", matches = "true")
+    void blockingReducesBytesAndLoadTimePerFetch() throws IOException {
+        AtomicLong bytesServed = new AtomicLong();
+        HttpServer server = recordedProductPage(bytesServed);
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/product";
+
+        try {
+            FetcherProperties baseline = new FetcherProperties();
+            baseline.getBrowser().setPageLoadStrategy("normal");
+            baseline.getBrowser().setBlockImages(false);
+            baseline.getBrowser().setBlockedUrlPatterns(List.of());
+            Result unblocked = measure(baseline, SiteConfig.getDefault(), url, bytesServed);
+
+            SiteConfig blocking = SiteConfig.builder()
+                    .blockedResourceTypes(List.of("image", "font", "media"))
+                    .blockedUrlPatterns(List.of("*/analytics.js*"))
+                    .build();
+            Result blocked = measure(new FetcherProperties(), blocking, url, bytesServed);
+
+            log.info("Unblocked (normal): {} ms/fetch, {} bytes/fetch", unblocked.millisPerFetch, unblocked.bytesPerFetch);
+            log.info("Blocked (eager):    {} ms/fetch, {} bytes/fetch", blocked.millisPerFetch, blocked.bytesPerFetch);
+
+            assertThat(blocked.bytesPerFetch).isLessThan(unblocked.bytesPerFetch / 10);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private Result measure(FetcherProperties properties, SiteConfig siteConfig, String url, AtomicLong bytesServed) {
+        SeleniumWebDriverService service = new SeleniumWebDriverService(properties, new SimpleMeterRegistry());
+        service.init();
+        try {
+            // Warm up the browser process before counting
+            service.render(url, siteConfig, Deadline.none(), WebDriver::getTitle);
+            bytesServed.set(0);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < LOADS; i++) {
+                // A fresh query string defeats the browser cache so every load hits the server
+                service.render(url + "?v=" + i, siteConfig, Deadline.none(), WebDriver::getTitle);
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            return new Result(elapsedMs / LOADS, bytesServed.get() / LOADS);
+        } finally {
+            service.cleanup();
+        }
+    }
+
+    private static HttpServer recordedProductPage(AtomicLong bytesServed) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+
+        StringBuilder page = new StringBuilder("""
+                <html><head><title>Ürün</title>
+                <style>@font-face { font-family: Brand; src: url('/static/brand.woff2'); } body { font-family: Brand; }</style>
+                <script src="/static/analytics.js"></script></head><body>
+                <div class="product-price-container"><span class="prc-dsc">1.299,90 TL</span></div>
+                <video src="/static/promo.mp4" autoplay muted></video>
+                """);
+        for (int i = 0; i < IMAGES; i++) {
+            page.append("<img src=\"/static/gallery-").append(i).append(".jpg\">");
+        }
+        byte[] html = page.append("</body></html>").toString().getBytes(StandardCharsets.UTF_8);
+
+        server.createContext("/product", exchange -> respond(exchange, "text/html; charset=utf-8", html, bytesServed));
+        server.createContext("/static/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            int size = path.endsWith(".mp4") ? 512 * 1024 : path.endsWith(".js") ? 64 * 1024 : 48 * 1024;
+            respond(exchange, "application/octet-stream", new byte[size], bytesServed);
+        });
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, byte[] body, AtomicLong bytesServed)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+        bytesServed.addAndGet(body.length);
+    }
+
+    private record Result(long millisPerFetch, long bytesPerFetch) {
+    }
+}
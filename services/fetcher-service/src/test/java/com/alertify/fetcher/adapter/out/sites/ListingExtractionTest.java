@@ -0,0 +1,88 @@
+package com.alertify.fetcher.adapter.out.sites;
+
+import com.alertify.fetcher.adapter.out.sites.generic.GenericEcommerceFetcher;
+import com.alertify.fetcher.adapter.out.sites.trendyol.TrendyolFetcher;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.FetchedPage;
+import com.alertify.fetcher.domain.model.ListingItem;
+import com.alertify.fetcher.domain.model.ListingSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ListingExtractionTest {
+
+    private final FetcherMetrics fetcherMetrics = new FetcherMetrics(new SimpleMeterRegistry());
+    private final StrategyStatsService strategyStats;
+
+    ListingExtractionTest() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setEnabled(false);
+        properties.getStrategyStats().setFile("");
+        strategyStats = new StrategyStatsService(properties, new ObjectMapper());
+    }
+
+    @Test
+    void readsProductCardsWithTheirCurrentPrice() {
+        String html = """
+                <html><body><div class="prdct-cntnr-wrppr">
+                  <div class="p-card-wrppr"><a href="/sespro/bluetooth-hoparlor-p-784512?boutiqueId=61&merchantId=9#reviews">
+                    <span class="prdct-desc-cntnr-name">Bluetooth Hoparlör</span>
+                    <div class="prc-box-orgnl">1.099,90 TL</div><div class="prc-box-dscntd">849,90 TL</div></a></div>
+                  <div class="p-card-wrppr"><a href="https://www.trendyol.com/sespro/kulaklik-p-22113"><span>Kulaklık</span>
+                    <div class="prc-box-sllng">1.249,00 TL</div></a></div>
+                  <div class="p-card-wrppr"><a href="/sespro/bluetooth-hoparlor-p-784512"><div class="prc-box-dscntd">849,90 TL</div></a></div>
+                  <div class="p-card-wrppr"><a href="/sespro/tukendi-p-9981"><span>Tükendi</span></a></div>
+                </div></body></html>
+                """;
+        TrendyolFetcher fetcher = new TrendyolFetcher(null, null, strategyStats, fetcherMetrics);
+
+        ListingSnapshot listing = fetcher.extractListing(page("https://www.trendyol.com/sr?q=hoparlor", html), Map.of());
+
+        assertThat(listing.items())
+                .extracting(ListingItem::productUrl, ListingItem::productId, item -> item.price().toPlainString())
+                .containsExactly(
+                        tuple("https://www.trendyol.com/sespro/bluetooth-hoparlor-p-784512?boutiqueId=61&merchantId=9",
+                                "784512", "849.90"),
+                        tuple("https://www.trendyol.com/sespro/kulaklik-p-22113", "22113", "1249.00"),
+                        tuple("https://www.trendyol.com/sespro/bluetooth-hoparlor-p-784512", "784512", "849.90"));
+        assertThat(listing.items()).allSatisfy(item -> assertThat(item.currency()).isEqualTo("TRY"));
+    }
+
+    @Test
+    void prefersAPricedItemListOverCards() {
+        String html = """
+                <html><head><script type="application/ld+json">
+                {"@context": "https://schema.org", "@type": "ItemList", "itemListElement": [
+                  {"@type": "ListItem", "position": 1, "item": {"@type": "Product", "url": "/products/mug",
+                    "offers": [{"@type": "Offer", "price": "24.99", "priceCurrency": "EUR"},
+                               {"@type": "Offer", "price": "29.99", "priceCurrency": "EUR"}]}},
+                  {"@type": "ListItem", "position": 2, "url": "https://shop.example.com/products/lamp"},
+                  {"@type": "ListItem", "position": 3, "item": {"@type": "Product", "url": "/products/bottle",
+                    "offers": {"@type": "Offer", "price": 12.5}}}
+                ]}
+                </script></head><body></body></html>
+                """;
+        GenericEcommerceFetcher fetcher = new GenericEcommerceFetcher(null, null, strategyStats, fetcherMetrics);
+
+        ListingSnapshot listing = fetcher.extractListing(page("https://shop.example.com/collections/all", html), Map.of());
+
+        assertThat(listing.items())
+                .extracting(ListingItem::productUrl, item -> item.price().toPlainString(), ListingItem::currency)
+                .containsExactly(
+                        tuple("https://shop.example.com/products/mug", "24.99", "EUR"),
+                        tuple("https://shop.example.com/products/bottle", "12.5", "USD"));
+    }
+
+    private static FetchedPage page(String url, String html) {
+        return new FetchedPage(url, html, false, Instant.now());
+    }
+}
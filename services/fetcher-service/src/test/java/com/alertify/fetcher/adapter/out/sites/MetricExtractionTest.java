@@ -0,0 +1,76 @@
+package com.alertify.fetcher.adapter.out.sites;
+
+import com.alertify.fetcher.adapter.out.sites.generic.GenericEcommerceFetcher;
+import com.alertify.fetcher.adapter.out.sites.trendyol.TrendyolFetcher;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.FetchedPage;
+import com.alertify.fetcher.domain.model.MetricSample;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricExtractionTest {
+
+    private final FetcherMetrics fetcherMetrics = new FetcherMetrics(new SimpleMeterRegistry());
+    private final StrategyStatsService strategyStats;
+
+    MetricExtractionTest() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setEnabled(false);
+        properties.getStrategyStats().setFile("");
+        strategyStats = new StrategyStatsService(properties, new ObjectMapper());
+    }
+
+    @Test
+    void readsTheRequestedMetricsFromTheSamePage() {
+        String html = """
+                <html><head><script type="application/ld+json">
+                {"@type": "Product", "offers": {"@type": "AggregateOffer", "lowPrice": "849.90", "offerCount": "3",
+                  "availability": "https://schema.org/InStock"}}
+                </script></head><body>
+                  <div class="product-price-container"><span class="prc-org">1.099,90 TL</span><span class="prc-dsc">849,90 TL</span></div>
+                </body></html>
+                """;
+        TrendyolFetcher fetcher = new TrendyolFetcher(null, null, strategyStats, fetcherMetrics);
+
+        MetricSample sample = fetcher.extract(page("https://www.trendyol.com/marka/urun-p-123", html),
+                Map.of(MetricSample.METRICS_PARAM, "in_stock,list_price,seller_count,rating"));
+
+        assertThat(sample.value()).isEqualByComparingTo("849.90");
+        assertThat(sample.metrics()).containsOnlyKeys("price", "in_stock", "list_price", "seller_count");
+        assertThat(sample.metrics().get("in_stock")).isEqualByComparingTo(BigDecimal.ONE);
+        assertThat(sample.metrics().get("list_price")).isEqualByComparingTo("1099.90");
+        assertThat(sample.metrics().get("seller_count")).isEqualByComparingTo("3");
+    }
+
+    @Test
+    void fallsBackToSelectorsAndOnlyReadsWhatWasAskedFor() {
+        String html = """
+                <html><body><div class="product">
+                  <span class="price"><del>39,00 €</del> 24,99 €</span>
+                  <p class="out-of-stock">Sold out</p>
+                </div></body></html>
+                """;
+        GenericEcommerceFetcher fetcher = new GenericEcommerceFetcher(null, null, strategyStats, fetcherMetrics);
+        FetchedPage page = page("https://shop.example.com/products/mug", html);
+
+        MetricSample priceOnly = fetcher.extract(page, Map.of());
+        MetricSample withStock = fetcher.extract(page, Map.of(MetricSample.METRICS_PARAM, "in_stock,list_price"));
+
+        assertThat(priceOnly.metrics()).containsOnlyKeys("price");
+        assertThat(withStock.metrics().get("in_stock")).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(withStock.metrics().get("list_price")).isEqualByComparingTo("39.00");
+    }
+
+    private static FetchedPage page(String url, String html) {
+        return new FetchedPage(url, html, false, Instant.now());
+    }
+}
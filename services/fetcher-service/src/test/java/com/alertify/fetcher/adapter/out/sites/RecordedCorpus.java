@@ -0,0 +1,108 @@
+package com.alertify.fetcher.adapter.out.sites;
+
+import com.alertify.fetcher.adapter.out.sites.base.AbstractSiteFetcher;
+import com.alertify.fetcher.adapter.out.sites.generic.GenericEcommerceFetcher;
+import com.alertify.fetcher.adapter.out.sites.hepsiburada.HepsiBuradaFetcher;
+import com.alertify.fetcher.adapter.out.sites.n11.N11Fetcher;
+import com.alertify.fetcher.adapter.out.sites.trendyol.TrendyolFetcher;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.FetchedPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Saved product pages with the price each one must yield, shared by the extraction tests and the JMH
+ * benchmarks. The pages are anonymised stand-ins shaped like each site's product pages, not
+ * byte-for-byte captures. A corpus version is never edited in place: re-recorded pages or changed
+ * expectations go into a new version directory so benchmark results stay comparable across runs.
+ */
+public final class RecordedCorpus {
+
+    public static final String VERSION = "v1";
+
+    private static final String ROOT = "/corpus/" + VERSION + "/";
+
+    private RecordedCorpus() {
+    }
+
+    public record RecordedPage(String id, String site, String url, BigDecimal expectedPrice) {
+
+        public String html() {
+            return read(ROOT + id + ".html");
+        }
+
+        public FetchedPage toFetchedPage() {
+            return new FetchedPage(url, html(), false, Instant.now());
+        }
+    }
+
+    private record Manifest(String version, List<RecordedPage> pages) {
+    }
+
+    public static List<RecordedPage> pages() {
+        try {
+            Manifest manifest = new ObjectMapper().readValue(read(ROOT + "manifest.json"), Manifest.class);
+            if (!VERSION.equals(manifest.version())) {
+                throw new IllegalStateException("Manifest of corpus " + VERSION + " says " + manifest.version());
+            }
+            return manifest.pages();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static RecordedPage page(String id) {
+        return pages().stream()
+                .filter(page -> page.id().equals(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No recorded page " + id + " in corpus " + VERSION));
+    }
+
+    /**
+     * The fetcher for the page's site, wired for extraction only: nothing is downloaded or cached.
+     * Strategy learning is on, as in production, so the tests and benchmarks cover the order it picks;
+     * its statistics stay in memory and belong to this fetcher alone.
+     */
+    public static AbstractSiteFetcher fetcherFor(RecordedPage page, MeterRegistry meterRegistry) {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setFile("");
+        return fetcherFor(page, meterRegistry, new StrategyStatsService(properties, new ObjectMapper()));
+    }
+
+    /**
+     * The fetcher for the page's site, ordering its strategies with the given statistics.
+     */
+    public static AbstractSiteFetcher fetcherFor(RecordedPage page, MeterRegistry meterRegistry,
+                                                 StrategyStatsService strategyStats) {
+        FetcherMetrics fetcherMetrics = new FetcherMetrics(meterRegistry);
+
+        return switch (page.site()) {
+            case "hepsiburada" -> new HepsiBuradaFetcher(null, null, strategyStats, fetcherMetrics);
+            case "n11" -> new N11Fetcher(null, null, strategyStats, fetcherMetrics);
+            case "trendyol" -> new TrendyolFetcher(null, null, strategyStats, fetcherMetrics);
+            case "generic" -> new GenericEcommerceFetcher(null, null, strategyStats, fetcherMetrics);
+            default -> throw new IllegalArgumentException("Unknown site " + page.site());
+        };
+    }
+
+    private static String read(String resource) {
+        try (InputStream in = RecordedCorpus.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing corpus resource " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
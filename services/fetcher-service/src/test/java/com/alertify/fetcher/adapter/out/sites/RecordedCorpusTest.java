@@ -0,0 +1,62 @@
+package com.alertify.fetcher.adapter.out.sites;
+
+import com.alertify.fetcher.adapter.out.sites.RecordedCorpus.RecordedPage;
+import com.alertify.fetcher.application.service.StrategyStatsService;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.MetricSample;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordedCorpusTest {
+
+    static List<String> pageIds() {
+        return RecordedCorpus.pages().stream().map(RecordedPage::id).toList();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("pageIds")
+    void extractsTheRecordedPrice(String id) {
+        RecordedPage page = RecordedCorpus.page(id);
+
+        MetricSample sample = RecordedCorpus.fetcherFor(page, new SimpleMeterRegistry())
+                .extract(page.toFetchedPage(), Map.of());
+
+        assertThat(sample.value()).isEqualByComparingTo(page.expectedPrice());
+    }
+
+    @Test
+    void keepsEveryRecordedPriceOnceStrategyOrderIsLearned() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setFile("");
+        StrategyStatsService strategyStats = new StrategyStatsService(properties, new ObjectMapper());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        // Well past min-samples, and across the periodic runs of the default order
+        for (int round = 0; round < 50; round++) {
+            for (RecordedPage page : RecordedCorpus.pages()) {
+                MetricSample sample = RecordedCorpus.fetcherFor(page, meterRegistry, strategyStats)
+                        .extract(page.toFetchedPage(), Map.of());
+
+                assertThat(sample.value()).as("%s in round %d", page.id(), round)
+                        .isEqualByComparingTo(page.expectedPrice());
+            }
+        }
+        assertThat(strategyStats.snapshot()).isNotEmpty();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("pageIds")
+    void pageUrlBelongsToTheRecordedSite(String id) {
+        RecordedPage page = RecordedCorpus.page(id);
+
+        assertThat(RecordedCorpus.fetcherFor(page, new SimpleMeterRegistry()).isValidUrl(page.url())).isTrue();
+    }
+}
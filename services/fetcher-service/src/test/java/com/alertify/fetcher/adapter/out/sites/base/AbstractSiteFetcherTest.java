@@ -0,0 +1,50 @@
+package com.alertify.fetcher.adapter.out.sites.base;
+
+import com.alertify.fetcher.adapter.out.cache.ValidatorCache;
+import com.alertify.fetcher.adapter.out.sites.trendyol.TrendyolFetcher;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.StrategyStatsService;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.MetricSample;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AbstractSiteFetcherTest {
+
+    private static final String URL = "https://www.trendyol.com/marka/urun-p-123";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PageDownloader pageDownloader = mock(PageDownloader.class);
+
+    @Test
+    void hashesThePriceRegionFromThePageItExtractsFrom() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setEnabled(false);
+        properties.getStrategyStats().setFile("");
+        ValidatorCache validatorCache = new ValidatorCache(properties, meterRegistry);
+        TrendyolFetcher fetcher = new TrendyolFetcher(pageDownloader, validatorCache,
+                new StrategyStatsService(properties, new ObjectMapper()), new FetcherMetrics(meterRegistry));
+        String html = "<html><body><div class=\"product-price-container\">"
+                + "<span class=\"prc-dsc\">849,90 TL</span></div></body></html>";
+        when(pageDownloader.download(anyString(), any(), anyString(), anyMap(), any()))
+                .thenReturn(new Download(URL, html, null, null, null, false, false, false, html.length()));
+
+        MetricSample sample = fetcher.fetch(Map.of("url", URL), Deadline.none());
+
+        assertThat(validatorCache.isEnabled()).isTrue();
+        assertThat(sample.value()).isEqualByComparingTo("849.90");
+        assertThat(validatorCache.get(URL)).hasValueSatisfying(entry -> assertThat(entry.regionHash()).isNotNull());
+        assertThat(meterRegistry.get("fetcher.parse.duration").timer().count()).isEqualTo(1);
+    }
+}
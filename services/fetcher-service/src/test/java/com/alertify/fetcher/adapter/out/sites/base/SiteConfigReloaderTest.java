@@ -0,0 +1,104 @@
+package com.alertify.fetcher.adapter.out.sites.base;
+
+import com.alertify.fetcher.adapter.out.politeness.PolitenessScheduler;
+import com.alertify.fetcher.adapter.out.sites.trendyol.TrendyolFetcher;
+import com.alertify.fetcher.application.service.FetcherMetrics;
+import com.alertify.fetcher.application.service.FetcherRegistry;
+import com.alertify.fetcher.application.service.StrategyStatsService;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.DomainRateLimitedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SiteConfigReloaderTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TrendyolFetcher fetcher;
+    private PolitenessScheduler politenessScheduler;
+    private Path file;
+
+    @Test
+    void appliesChangedFieldsAndKeepsTheRest() throws Exception {
+        SiteConfigReloader reloader = reloader("""
+                Trendyol:
+                  priceSelectors: [".price-box .sale", ".prc-dsc"]
+                  waitAfterLoadMs: 500
+                """);
+
+        reloader.load();
+
+        assertThat(fetcher.getConfiguration().getPriceSelectors()).containsExactly(".price-box .sale", ".prc-dsc");
+        assertThat(fetcher.getConfiguration().getWaitAfterLoadMs()).isEqualTo(500);
+        assertThat(fetcher.getConfiguration().getListingItemSelector()).isEqualTo(".p-card-wrppr");
+        assertThat(fetcher.getDefaultConfiguration().getWaitAfterLoadMs()).isEqualTo(3000);
+    }
+
+    @Test
+    void rejectsAnInvalidFileAndRestoresDefaultsWhenTheSiteIsRemoved() throws Exception {
+        SiteConfigReloader reloader = reloader("Trendyol: {waitAfterLoadMs: 500}");
+        reloader.load();
+
+        rewrite("Trendyol: {priceSelectors: ['div[data-price']}", 1);
+        reloader.reloadIfChanged();
+        assertThat(fetcher.getConfiguration().getWaitAfterLoadMs()).isEqualTo(500);
+        assertThat(meterRegistry.counter("fetcher.site_configs.reloads", "result", "rejected").count()).isEqualTo(1);
+
+        rewrite("{}", 2);
+        reloader.reloadIfChanged();
+        assertThat(fetcher.getConfiguration()).isSameAs(fetcher.getDefaultConfiguration());
+    }
+
+    @Test
+    void appliesNewRateLimitsToDomainsAlreadyBeingPaced() throws Exception {
+        SiteConfigReloader reloader = reloader("{}");
+        reloader.load();
+        String url = "https://www.trendyol.com/marka/urun-p-1";
+        politenessScheduler.acquire(url, fetcher.getSiteName(), fetcher.getConfiguration());
+
+        rewrite("Trendyol: {rateLimitPerSecond: 0.1, rateLimitBurst: 1}", 1);
+        reloader.reloadIfChanged();
+
+        // The built-in burst of 3 would have let this one through at once
+        assertThatThrownBy(() -> politenessScheduler.acquire(url, fetcher.getSiteName(), fetcher.getConfiguration()))
+                .isInstanceOf(DomainRateLimitedException.class);
+    }
+
+    private SiteConfigReloader reloader(String yaml) throws Exception {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setEnabled(false);
+        properties.getStrategyStats().setFile("");
+        file = dir.resolve("sites.yml");
+        Files.writeString(file, yaml);
+        properties.getSiteConfigs().setFile(file.toString());
+
+        fetcher = new TrendyolFetcher(null, null, new StrategyStatsService(properties, new ObjectMapper()),
+                new FetcherMetrics(meterRegistry));
+        properties.getPoliteness().setMaxWaitMs(200);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("fetcherRegistry", new FetcherRegistry(List.of(fetcher)));
+        politenessScheduler = new PolitenessScheduler(properties, meterRegistry,
+                beans.getBeanProvider(FetcherRegistry.class));
+        return new SiteConfigReloader(List.of(fetcher), politenessScheduler, new ObjectMapper(), properties,
+                meterRegistry);
+    }
+
+    private void rewrite(String yaml, int secondsLater) throws Exception {
+        Files.writeString(file, yaml);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(secondsLater)));
+    }
+}
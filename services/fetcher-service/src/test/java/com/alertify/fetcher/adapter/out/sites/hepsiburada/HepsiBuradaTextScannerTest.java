@@ -0,0 +1,47 @@
+package com.alertify.fetcher.adapter.out.sites.hepsiburada;
+
+import com.alertify.fetcher.adapter.out.extraction.AhoCorasick;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HepsiBuradaTextScannerTest {
+
+    @Test
+    void reportsEveryPatternIncludingOverlapsInOnePass() {
+        AhoCorasick matcher = new AhoCorasick(List.of("özel fiyat", "fiyat", "tl", "sepete özel"));
+
+        assertThat(matcher.matches("sepete özel fiyat 1.299,90 tl")).isEqualTo(0b1111);
+        assertThat(matcher.matches("SEPETE ÖZEL")).isEqualTo(0b1000);
+        assertThat(matcher.matches("fiyatı")).isEqualTo(0b0010);
+        assertThat(matcher.matches("sepete öze")).isZero();
+    }
+
+    @Test
+    void picksThePriceClosestToTheHighestPriorityPhrase() {
+        String html = """
+                <div class="product">
+                  <div class="old"><span>İndirimli</span><div><div><span>2.499,00 TL</span></div></div></div>
+                  <div class="campaign">
+                    <p>Önerilen: <span>1.999,00 TL</span></p>
+                    <div><span>Sepete Özel</span><span>1.749,90 TL</span></div>
+                  </div>
+                </div>
+                """;
+
+        assertThat(HepsiBuradaTextScanner.scan(Jsoup.parse(html)))
+                .hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo("1749.90"));
+    }
+
+    @Test
+    void fallsBackToPricesNextToCurrencyMarkers() {
+        String html = "<div><p>Ürün açıklaması</p><div class=\"x\">₺ <b>349,50</b></div></div>";
+
+        assertThat(HepsiBuradaTextScanner.scan(Jsoup.parse(html)))
+                .hasValueSatisfying(price -> assertThat(price).isEqualByComparingTo("349.50"));
+        assertThat(HepsiBuradaTextScanner.scan(Jsoup.parse("<p>Stokta yok</p>"))).isEmpty();
+    }
+}
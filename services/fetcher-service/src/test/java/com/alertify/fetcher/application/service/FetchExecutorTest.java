@@ -0,0 +1,173 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.adapter.out.sites.generic.GenericEcommerceFetcher;
+import com.alertify.fetcher.adapter.out.sites.trendyol.TrendyolFetcher;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.FetcherOverloadedException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FetchExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TrendyolFetcher trendyol;
+    private final BrowserLane browserLane;
+    private final FetchExecutor executor;
+
+    FetchExecutorTest() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setEnabled(false);
+        properties.getStrategyStats().setFile("");
+        properties.getExecutor().setBrowserThreads(1);
+        properties.getExecutor().setBrowserQueueCapacity(1);
+        properties.getExecutor().setBrowserRetryAfterMs(15_000);
+        StrategyStatsService strategyStats = new StrategyStatsService(properties, new ObjectMapper());
+        FetcherMetrics fetcherMetrics = new FetcherMetrics(meterRegistry);
+        trendyol = new TrendyolFetcher(null, null, strategyStats, fetcherMetrics);
+        FetcherRegistry registry = new FetcherRegistry(List.of(
+                new GenericEcommerceFetcher(null, null, strategyStats, fetcherMetrics), trendyol));
+        browserLane = new BrowserLane(properties, meterRegistry);
+        executor = new FetchExecutor(registry, properties, browserLane, meterRegistry);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+        browserLane.shutdown();
+    }
+
+    @Test
+    void refusesBrowserFetchesOnceTheSessionAndQueueAreTaken() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        CompletableFuture<String> first = executor.submit(FetchExecutor.Lane.BROWSER, () -> browserLane.run(() -> {
+            running.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = executor.submit(FetchExecutor.Lane.BROWSER,
+                () -> browserLane.run(() -> "queued"));
+        awaitQueuedLoads(1);
+        CompletableFuture<String> shed = executor.submit(FetchExecutor.Lane.BROWSER,
+                () -> browserLane.run(() -> "shed"));
+
+        assertThat(shed).isCompletedExceptionally();
+        assertThat(shed.handle((value, error) -> error).join())
+                .isInstanceOfSatisfying(FetcherOverloadedException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(15)));
+        assertThat(meterRegistry.get("fetcher.executor.rejected").tag("lane", "browser").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void keepsBrowserThreadsFreeWhileBrowserFetchesWaitForTheirTurn() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> throttled = executor.submit(FetchExecutor.Lane.BROWSER, () -> {
+            await(release);
+            return browserLane.run(() -> "throttled");
+        });
+        CompletableFuture<String> other = executor.submit(FetchExecutor.Lane.BROWSER, () -> {
+            assertThat(Thread.currentThread().isVirtual()).isTrue();
+            return browserLane.run(() -> Thread.currentThread().getName());
+        });
+
+        assertThat(other.get(5, TimeUnit.SECONDS)).startsWith("fetch-browser-");
+        assertThat(throttled).isNotDone();
+        release.countDown();
+        assertThat(throttled.get(5, TimeUnit.SECONDS)).isEqualTo("throttled");
+    }
+
+    @Test
+    void runsEscalationsFromTheHttpLaneOnTheBrowserLaneAndShedsThemWhenItIsFull() throws Exception {
+        CompletableFuture<String> escalated = executor.submit(FetchExecutor.Lane.HTTP,
+                () -> browserLane.run(() -> Thread.currentThread().getName()));
+        assertThat(escalated.get(5, TimeUnit.SECONDS)).startsWith("fetch-browser-");
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<String> first = executor.submit(FetchExecutor.Lane.BROWSER, () -> browserLane.run(() -> {
+            running.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = executor.submit(FetchExecutor.Lane.BROWSER,
+                () -> browserLane.run(() -> "queued"));
+        awaitQueuedLoads(1);
+
+        CompletableFuture<String> shed = executor.submit(FetchExecutor.Lane.HTTP,
+                () -> browserLane.run(() -> "escalated"));
+        assertThat(shed.handle((value, error) -> error).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(FetcherOverloadedException.class);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void countsTheHeapThatFetchesOnTheHttpLaneAllocate() throws Exception {
+        FunctionCounter allocated = meterRegistry.get("fetcher.allocated").functionCounter();
+        double before = allocated.count();
+
+        byte[][] chunks = executor.submit(FetchExecutor.Lane.HTTP, () -> {
+            assertThat(Thread.currentThread().isVirtual()).isTrue();
+            assertThat(FetcherMetrics.threadAllocatedBytes()).isEqualTo(-1);
+            byte[][] allocating = new byte[64][];
+            for (int i = 0; i < allocating.length; i++) {
+                allocating[i] = new byte[64 * 1024];
+            }
+            return allocating;
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(chunks.length).isEqualTo(64);
+        assertThat(allocated.count() - before).isGreaterThanOrEqualTo(64 * 64 * 1024);
+    }
+
+    @Test
+    void keepsTieredAndUnknownSitesOnTheHttpLane() {
+        String product = "https://www.trendyol.com/sespro/kulaklik-p-22113";
+        assertThat(executor.laneFor(product)).isEqualTo(FetchExecutor.Lane.HTTP);
+        assertThat(executor.laneFor("https://shop.example.com/item/1")).isEqualTo(FetchExecutor.Lane.HTTP);
+
+        trendyol.reconfigure(trendyol.getDefaultConfiguration().toBuilder()
+                .useSelenium(true)
+                .tieredFetch(false)
+                .build());
+        assertThat(executor.laneFor(product)).isEqualTo(FetchExecutor.Lane.BROWSER);
+        assertThat(executor.laneFor("https://www.trendyol.com/sr?q=kulaklik")).isEqualTo(FetchExecutor.Lane.BROWSER);
+    }
+
+    private void awaitQueuedLoads(int loads) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("fetcher.executor.queued").tag("lane", "browser").gauge().value() < loads
+                && System.nanoTime() < until) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
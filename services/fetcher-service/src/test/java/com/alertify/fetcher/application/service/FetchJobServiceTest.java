@@ -0,0 +1,162 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.FetchJob;
+import com.alertify.fetcher.domain.model.MetricSample;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FetchJobServiceTest {
+
+    private static final Map<String, String> PARAMS = Map.of("url", "https://www.trendyol.com/p/1");
+
+    private final FetcherOrchestratorService orchestrator = mock(FetcherOrchestratorService.class);
+    private final FetcherProperties properties = new FetcherProperties();
+    private FetchJobService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void longPollReturnsAsSoonAsTheJobSucceeds() throws Exception {
+        when(orchestrator.fetch(anyMap(), any(Deadline.class))).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return new MetricSample("price", new BigDecimal("899.00"), "TRY", Instant.now());
+        });
+        service = new FetchJobService(orchestrator, properties, new SimpleMeterRegistry());
+
+        FetchJob job = service.submit("ECOMMERCE_PRODUCT", PARAMS, null, null);
+        assertThat(job.getStatus()).isIn(FetchJob.Status.QUEUED, FetchJob.Status.RUNNING);
+
+        FetchJob finished = service.await(job.getId(), Duration.ofSeconds(5)).orElseThrow().get(5, TimeUnit.SECONDS);
+        assertThat(finished.getStatus()).isEqualTo(FetchJob.Status.SUCCEEDED);
+        assertThat(finished.getResult().value()).isEqualByComparingTo("899.00");
+    }
+
+    @Test
+    void dropsTheExpiryOfJobsThatFinishBeforeTheirDeadline() throws Exception {
+        when(orchestrator.fetch(anyMap(), any(Deadline.class)))
+                .thenReturn(new MetricSample("price", new BigDecimal("899.00"), "TRY", Instant.now()));
+        service = new FetchJobService(orchestrator, properties, new SimpleMeterRegistry());
+
+        FetchJob job = service.submit("ECOMMERCE_PRODUCT", PARAMS, null, 60_000L);
+        assertThat(service.await(job.getId(), Duration.ofSeconds(5)).orElseThrow().get(5, TimeUnit.SECONDS).getStatus())
+                .isEqualTo(FetchJob.Status.SUCCEEDED);
+
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.scheduledExpiries() > 0 && System.nanoTime() < until) {
+            Thread.sleep(10);
+        }
+        assertThat(service.scheduledExpiries()).isZero();
+    }
+
+    @Test
+    void expiresAndInterruptsJobsPastTheirDeadline() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(orchestrator.fetch(anyMap(), any(Deadline.class))).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        });
+        service = new FetchJobService(orchestrator, properties, new SimpleMeterRegistry());
+
+        FetchJob job = service.submit("ECOMMERCE_PRODUCT", PARAMS, null, 150L);
+
+        assertThat(service.await(job.getId(), Duration.ofSeconds(5)).orElseThrow().get(5, TimeUnit.SECONDS).getStatus())
+                .isEqualTo(FetchJob.Status.EXPIRED);
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void longPollAnswersWithTheRunningJobOnceTheWaitElapsesWithoutHoldingTheCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(orchestrator.fetch(anyMap(), any(Deadline.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new MetricSample("price", new BigDecimal("899.00"), "TRY", Instant.now());
+        });
+        service = new FetchJobService(orchestrator, properties, new SimpleMeterRegistry());
+        FetchJob job = service.submit("ECOMMERCE_PRODUCT", PARAMS, null, null);
+
+        CompletableFuture<FetchJob> poll = service.await(job.getId(), Duration.ofMillis(100)).orElseThrow();
+        assertThat(poll).isNotDone();
+        assertThat(poll.get(5, TimeUnit.SECONDS).getStatus()).isIn(FetchJob.Status.QUEUED, FetchJob.Status.RUNNING);
+
+        // The timed-out poll must not have completed the job itself
+        release.countDown();
+        assertThat(job.completion().get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(FetchJob.Status.SUCCEEDED);
+    }
+
+    @Test
+    void refusesNullParametersAndCallbacksToInternalOrNonHttpAddresses() {
+        service = new FetchJobService(orchestrator, properties, new SimpleMeterRegistry());
+        Map<String, String> withNull = new HashMap<>(PARAMS);
+        withNull.put("currency", null);
+
+        assertThatThrownBy(() -> service.submit("ECOMMERCE_PRODUCT", withNull, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        for (String callbackUrl : new String[] {"http://127.0.0.1:8080/hook", "http://10.0.0.5/hook",
+                "http://169.254.169.254/latest/meta-data", "http://[::1]/hook", "file:///etc/passwd", "/relative"}) {
+            assertThatThrownBy(() -> service.submit("ECOMMERCE_PRODUCT", PARAMS, callbackUrl, null))
+                    .as(callbackUrl)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void allowsCallbacksOnlyToConfiguredHostsWhenSomeAreSet() {
+        properties.getJobs().setCallbackAllowedHosts(List.of("monitor-service"));
+        service = new FetchJobService(orchestrator, properties, new SimpleMeterRegistry());
+
+        service.checkCallbackUrl("http://monitor-service:8080/api/jobs/done");
+        service.checkCallbackUrl("https://eu.monitor-service/hook");
+        assertThatThrownBy(() -> service.checkCallbackUrl("https://example.com/hook"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.checkCallbackUrl("http://evil-monitor-service/hook"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() {
+        properties.getJobs().setWorkerThreads(1);
+        properties.getJobs().setQueueCapacity(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orchestrator.fetch(anyMap(), any(Deadline.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        service = new FetchJobService(orchestrator, properties, new SimpleMeterRegistry());
+
+        service.submit("ECOMMERCE_PRODUCT", PARAMS, null, null);
+        service.submit("ECOMMERCE_PRODUCT", PARAMS, null, null);
+
+        assertThatThrownBy(() -> service.submit("ECOMMERCE_PRODUCT", PARAMS, null, null))
+                .isInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+    }
+}
@@ -0,0 +1,176 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.MetricSample;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FetchResultCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FetcherProperties properties = new FetcherProperties();
+
+    @Test
+    void coalescesConcurrentRequestsForTheSameUrl() throws Exception {
+        FetchResultCache cache = new FetchResultCache(properties, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<MetricSample>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                String url = i % 2 == 0
+                        ? "https://www.trendyol.com/p/123?utm_source=mail&b=2&a=1"
+                        : "https://TRENDYOL.com:443/p/123?a=1&b=2#reviews";
+                results.add(executor.submit(() -> cache.get(Map.of("url", url), Deadline.none(), () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return sample();
+                })));
+            }
+
+            // Let every caller reach the cache before the single load completes
+            while (counter("miss") + counter("coalesced") < callers) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<MetricSample> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).value()).isEqualByComparingTo("149.90");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(counter("miss")).isEqualTo(1);
+        assertThat(counter("coalesced")).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void expiresEntriesAfterTtlAndDoesNotCacheFailures() throws Exception {
+        properties.getResultCache().setTtlMs(50);
+        FetchResultCache cache = new FetchResultCache(properties, meterRegistry);
+        Map<String, String> params = Map.of("url", "https://www.n11.com/urun/1");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThatThrownBy(() -> cache.get(params, Deadline.none(), () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        cache.get(params, Deadline.none(), () -> {
+            loads.incrementAndGet();
+            return sample();
+        });
+        cache.get(params, Deadline.none(), FetchResultCacheTest::sample);
+        assertThat(counter("hit")).isEqualTo(1);
+
+        Thread.sleep(80);
+        cache.get(params, Deadline.none(), () -> {
+            loads.incrementAndGet();
+            return sample();
+        });
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void coalescedCallersStopWaitingAtTheirOwnDeadline() throws Exception {
+        FetchResultCache cache = new FetchResultCache(properties, meterRegistry);
+        Map<String, String> params = Map.of("url", "https://www.trendyol.com/p/123");
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MetricSample> leader = executor.submit(() -> cache.get(params, Deadline.none(), () -> {
+                await(release);
+                return sample();
+            }));
+            while (counter("miss") < 1) {
+                Thread.sleep(5);
+            }
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> cache.get(params, Deadline.after(Duration.ofMillis(100)), FetchResultCacheTest::sample))
+                    .isInstanceOf(DeadlineExceededException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS).value()).isEqualByComparingTo("149.90");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void refetchesForAWaiterWithBudgetLeftWhenTheLeaderRanOutOfTime() throws Exception {
+        FetchResultCache cache = new FetchResultCache(properties, meterRegistry);
+        Map<String, String> params = Map.of("url", "https://www.trendyol.com/p/123");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MetricSample> leader = executor.submit(() -> cache.get(params, Deadline.none(), () -> {
+                loads.incrementAndGet();
+                await(release);
+                throw new RuntimeException("Price fetching failed", new DeadlineExceededException("download"));
+            }));
+            while (counter("miss") < 1) {
+                Thread.sleep(5);
+            }
+            Future<MetricSample> waiter = executor.submit(() ->
+                    cache.get(params, Deadline.after(Duration.ofSeconds(5)), () -> {
+                        loads.incrementAndGet();
+                        return sample();
+                    }));
+            while (counter("coalesced") < 1) {
+                Thread.sleep(5);
+            }
+
+            release.countDown();
+            assertThat(waiter.get(5, TimeUnit.SECONDS).value()).isEqualByComparingTo("149.90");
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasRootCauseInstanceOf(DeadlineExceededException.class);
+            assertThat(loads.get()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double counter(String result) {
+        return meterRegistry.get("fetcher.result_cache.requests").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MetricSample sample() {
+        return new MetricSample("price", new BigDecimal("149.90"), "TRY", Instant.now());
+    }
+}
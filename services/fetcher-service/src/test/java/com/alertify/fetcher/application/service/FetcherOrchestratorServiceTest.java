@@ -0,0 +1,164 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.exception.DeadlineExceededException;
+import com.alertify.fetcher.domain.exception.PageExtractionException;
+import com.alertify.fetcher.domain.model.Deadline;
+import com.alertify.fetcher.domain.model.FetchedPage;
+import com.alertify.fetcher.domain.model.MetricSample;
+import com.alertify.fetcher.domain.model.SiteConfig;
+import com.alertify.fetcher.domain.port.SiteSpecificFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FetcherOrchestratorServiceTest {
+
+    private static final String URL = "https://www.example-shop.com/p/123";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fallbackReusesTheRenderedPageInsteadOfDownloadingAgain() {
+        StubFetcher primary = new StubFetcher("Shop", 10, true, null);
+        StubFetcher generic = new StubFetcher("Generic E-commerce", 1000, false, new BigDecimal("349.90"));
+
+        MetricSample sample = orchestrator(primary, generic).fetch(Map.of("url", URL));
+
+        assertThat(sample.value()).isEqualByComparingTo("349.90");
+        assertThat(primary.downloads).isEqualTo(1);
+        assertThat(generic.downloads).isZero();
+        assertThat(generic.extractions).isEqualTo(1);
+        assertThat(meterRegistry.counter("fetcher.fetch.attempts",
+                "site", "Shop", "role", "primary", "outcome", "failure").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("fetcher.fetch.attempts",
+                "site", "Generic E-commerce", "role", "fallback", "outcome", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    void browserFallbackDownloadsAgainWhenOnlyPlainHtmlIsAvailable() {
+        StubFetcher primary = new StubFetcher("Shop", 10, false, null);
+        StubFetcher browserFallback = new StubFetcher("Generic E-commerce", 1000, true, new BigDecimal("12.50"));
+
+        orchestrator(primary, browserFallback).fetch(Map.of("url", URL));
+
+        assertThat(browserFallback.downloads).isEqualTo(1);
+        assertThat(browserFallback.extractions).isZero();
+    }
+
+    @Test
+    void fallbackChainIsAbandonedOnceTheDeadlinePasses() {
+        StubFetcher primary = new StubFetcher("Shop", 10, true, null);
+        primary.delayMs = 50;
+        StubFetcher generic = new StubFetcher("Generic E-commerce", 1000, false, new BigDecimal("349.90"));
+
+        assertThatThrownBy(() -> orchestrator(primary, generic)
+                .fetch(Map.of("url", URL), Deadline.after(Duration.ofMillis(10))))
+                .hasCauseInstanceOf(DeadlineExceededException.class);
+
+        assertThat(generic.downloads + generic.extractions).isZero();
+        assertThat(meterRegistry.counter("fetcher.deadline.abandoned", "stage", "fallback").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("fetcher.deadline.skipped_fallbacks").count()).isEqualTo(1);
+    }
+
+    @Test
+    void refusesListingsOfSitesWithoutAListingFetcher() {
+        StubFetcher shop = new StubFetcher("Shop", 10, false, new BigDecimal("349.90"));
+
+        assertThatThrownBy(() -> orchestrator(shop)
+                .fetchListing(Map.of("url", "https://www.example-shop.com/c/kulaklik"), Deadline.none()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("example-shop.com");
+        assertThat(shop.downloads).isZero();
+    }
+
+    private FetcherOrchestratorService orchestrator(SiteSpecificFetcher... fetchers) {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getResultCache().setEnabled(false);
+        return new FetcherOrchestratorService(new FetcherRegistry(List.of(fetchers)),
+                new FetchResultCache(properties, meterRegistry), meterRegistry, new FetcherMetrics(meterRegistry));
+    }
+
+    private static final class StubFetcher implements SiteSpecificFetcher {
+
+        private final String name;
+        private final int priority;
+        private final boolean browser;
+        private final BigDecimal price;
+        private int downloads;
+        private int extractions;
+        private long delayMs;
+
+        StubFetcher(String name, int priority, boolean browser, BigDecimal price) {
+            this.name = name;
+            this.priority = priority;
+            this.browser = browser;
+            this.price = price;
+        }
+
+        @Override
+        public MetricSample fetch(Map<String, String> params) {
+            downloads++;
+            if (delayMs > 0) {
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            FetchedPage page = new FetchedPage(params.get("url"), "<html></html>", browser, Instant.now());
+            return price(page);
+        }
+
+        @Override
+        public MetricSample extract(FetchedPage page, Map<String, String> params) {
+            extractions++;
+            return price(page);
+        }
+
+        private MetricSample price(FetchedPage page) {
+            if (price == null) {
+                throw new PageExtractionException("no price", page);
+            }
+            return new MetricSample("price", price, "TRY", Instant.now());
+        }
+
+        @Override
+        public boolean supports(String sourceType) {
+            return true;
+        }
+
+        @Override
+        public boolean supportsDomain(String domain) {
+            return domain.contains("example-shop.com");
+        }
+
+        @Override
+        public String getSiteName() {
+            return name;
+        }
+
+        @Override
+        public List<String> getSupportedDomains() {
+            return List.of("example-shop.com");
+        }
+
+        @Override
+        public SiteConfig getConfiguration() {
+            return SiteConfig.builder().useSelenium(browser).build();
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.adapter.out.sites.generic.GenericEcommerceFetcher;
+import com.alertify.fetcher.adapter.out.sites.n11.N11Fetcher;
+import com.alertify.fetcher.adapter.out.sites.trendyol.TrendyolFetcher;
+import com.alertify.fetcher.config.FetcherProperties;
+import com.alertify.fetcher.domain.port.SiteSpecificFetcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FetcherRegistryTest {
+
+    private final FetcherRegistry registry;
+
+    FetcherRegistryTest() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setEnabled(false);
+        properties.getStrategyStats().setFile("");
+        StrategyStatsService strategyStats = new StrategyStatsService(properties, new ObjectMapper());
+        FetcherMetrics fetcherMetrics = new FetcherMetrics(new SimpleMeterRegistry());
+        registry = new FetcherRegistry(List.of(
+                new GenericEcommerceFetcher(null, null, strategyStats, fetcherMetrics),
+                new N11Fetcher(null, null, strategyStats, fetcherMetrics),
+                new TrendyolFetcher(null, null, strategyStats, fetcherMetrics)));
+    }
+
+    @Test
+    void routesSubdomainsToTheSiteAndLeavesTheGenericFetcherAsFallback() {
+        assertThat(names(registry.forDomain("m.trendyol.com"))).containsExactly("Trendyol", "Generic E-commerce");
+        assertThat(names(registry.forDomain("WWW.N11.COM"))).containsExactly("N11", "Generic E-commerce");
+        assertThat(registry.findBest("https://www.trendyol.com/sespro/kulaklik-p-22113").map(SiteSpecificFetcher::getSiteName))
+                .contains("Trendyol");
+    }
+
+    @Test
+    void doesNotRouteLookalikeDomainsToTheSite() {
+        assertThat(names(registry.forDomain("nottrendyol.com"))).containsExactly("Generic E-commerce");
+        assertThat(names(registry.forDomain("trendyol.com.tr"))).containsExactly("Generic E-commerce");
+        assertThat(names(registry.forDomain("127.0.0.1"))).containsExactly("Generic E-commerce");
+        assertThat(registry.findBest("not a url")).isEqualTo(Optional.empty());
+    }
+
+    private static List<String> names(List<SiteSpecificFetcher> fetchers) {
+        return fetchers.stream().map(SiteSpecificFetcher::getSiteName).toList();
+    }
+}
@@ -0,0 +1,95 @@
+package com.alertify.fetcher.application.service;
+
+import com.alertify.fetcher.config.FetcherProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StrategyStatsServiceTest {
+
+    private static final List<String> DEFAULT_ORDER = List.of("xpath-text", "computed-style", "structural", "text-proximity");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void movesStrategiesThatNeverSucceedBehindTheOnlySuccessfulOneAndRestoresAfterRestart() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setFile(tempDir.resolve("stats.json").toString());
+
+        StrategyStatsService stats = new StrategyStatsService(properties, new ObjectMapper());
+        for (int i = 0; i < 5; i++) {
+            stats.record("www.hepsiburada.com", "xpath-text", false, 40_000_000);
+            stats.record("www.hepsiburada.com", "computed-style", false, 90_000_000);
+            stats.record("www.hepsiburada.com", "structural", false, 60_000_000);
+            stats.record("www.hepsiburada.com", "text-proximity", true, 30_000_000);
+        }
+
+        assertThat(stats.order("hepsiburada.com", DEFAULT_ORDER, Function.identity()))
+                .containsExactly("text-proximity", "xpath-text", "computed-style", "structural");
+        assertThat(stats.order("n11.com", DEFAULT_ORDER, Function.identity())).isEqualTo(DEFAULT_ORDER);
+
+        stats.shutdown();
+
+        StrategyStatsService restarted = new StrategyStatsService(properties, new ObjectMapper());
+        restarted.load();
+
+        assertThat(restarted.order("hepsiburada.com", DEFAULT_ORDER, Function.identity()).getFirst())
+                .isEqualTo("text-proximity");
+        assertThat(restarted.snapshot().get("hepsiburada.com"))
+                .first()
+                .satisfies(stat -> assertThat(stat.successes()).isEqualTo(5));
+    }
+
+    @Test
+    void neverMovesACheaperSuccessfulStrategyAheadOfOneWithHigherPrecedence() {
+        StrategyStatsService stats = new StrategyStatsService(new FetcherProperties(), new ObjectMapper());
+        for (int i = 0; i < 5; i++) {
+            stats.record("hepsiburada.com", "xpath-text", true, 90_000_000);
+            stats.record("hepsiburada.com", "structural", true, 1_000_000);
+            stats.record("hepsiburada.com", "json-ld", true, 2_000_000);
+            stats.record("hepsiburada.com", "text-proximity", true, 1_000_000);
+        }
+        List<String> strategies = List.of("xpath-text", "structural", "json-ld", "text-proximity");
+        Map<String, Integer> precedence = Map.of("xpath-text", 1, "structural", 2, "json-ld", 3, "text-proximity", 3);
+
+        assertThat(stats.order("hepsiburada.com", strategies, Function.identity(), precedence::get))
+                .containsExactly("xpath-text", "structural", "text-proximity", "json-ld");
+    }
+
+    @Test
+    void keepsDefaultOrderUntilEnoughSamples() {
+        StrategyStatsService stats = new StrategyStatsService(new FetcherProperties(), new ObjectMapper());
+        stats.record("trendyol.com", "xpath-text", false, 1_000_000);
+        stats.record("trendyol.com", "text-proximity", true, 1_000_000);
+
+        assertThat(stats.order("trendyol.com", DEFAULT_ORDER, Function.identity())).isEqualTo(DEFAULT_ORDER);
+    }
+
+    @Test
+    void keepsAndPersistsOnlyTheMostRecentlyUsedDomains() {
+        FetcherProperties properties = new FetcherProperties();
+        properties.getStrategyStats().setMaxDomains(2);
+        properties.getStrategyStats().setFile(tempDir.resolve("stats.json").toString());
+
+        StrategyStatsService stats = new StrategyStatsService(properties, new ObjectMapper());
+        stats.record("shop-a.example.com", "json-ld", true, 1_000_000);
+        stats.record("shop-b.example.com", "json-ld", true, 1_000_000);
+        stats.order("shop-a.example.com", DEFAULT_ORDER, Function.identity());
+        stats.record("shop-c.example.com", "json-ld", true, 1_000_000);
+        stats.shutdown();
+
+        StrategyStatsService restarted = new StrategyStatsService(properties, new ObjectMapper());
+        restarted.load();
+
+        assertThat(stats.snapshot()).containsOnlyKeys("shop-a.example.com", "shop-c.example.com");
+        assertThat(restarted.snapshot()).containsOnlyKeys("shop-a.example.com", "shop-c.example.com");
+    }
+}
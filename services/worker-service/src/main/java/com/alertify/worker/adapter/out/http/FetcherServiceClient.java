@@ -3,6 +3,7 @@ package com.alertify.worker.adapter.out.http;
 import com.alertify.worker.config.FetcherConfigurationProperties;
 import com.alertify.worker.domain.entity.Monitor;
 import com.alertify.worker.domain.exception.ClientException;
+import com.alertify.worker.domain.model.ListingSnapshot;
 import com.alertify.worker.domain.model.MetricSample;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -17,6 +18,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
@@ -25,6 +27,8 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class FetcherServiceClient {
 
+    private static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
     private final WebClient webClient;
     private final FetcherConfigurationProperties config;
     private final Random random = new Random();
@@ -33,6 +37,8 @@ public class FetcherServiceClient {
     private final Counter fetchSuccessCounter;
     private final Counter fetchFailureCounter;
     private final Timer fetchTimer;
+    private final Counter listingSuccessCounter;
+    private final Counter listingFailureCounter;
 
     public FetcherServiceClient(@Value("${services.fetcher-service.url}") String fetcherServiceUrl,
                                 FetcherConfigurationProperties config,
@@ -51,6 +57,58 @@ public class FetcherServiceClient {
                 .register(meterRegistry);
         this.fetchTimer = Timer.builder("worker.fetcher.duration")
                 .register(meterRegistry);
+        this.listingSuccessCounter = Counter.builder("worker.fetcher.listing.requests")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.listingFailureCounter = Counter.builder("worker.fetcher.listing.requests")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Listing pages are only read by the real fetcher; the mock has no pages to list.
+     */
+    public boolean supportsListings() {
+        return "http".equalsIgnoreCase(config.getMode());
+    }
+
+    public ListingSnapshot fetchListing(String sourceType, String listingUrl) {
+        if (!supportsListings()) {
+            throw new ClientException("fetcher-service", "Listing pages are not available in " + config.getMode() + " mode");
+        }
+
+        try {
+            FetchRequest request = new FetchRequest(sourceType, Map.of("url", listingUrl), null);
+            long timeoutMs = config.getHttp().getTimeout();
+            long budgetMs = Math.max(1, timeoutMs - config.getHttp().getDeadlineMargin());
+
+            ListingSnapshot listing = webClient.post()
+                    .uri("/api/fetch/listing")
+                    .header(TIMEOUT_HEADER, String.valueOf(budgetMs))
+                    .bodyValue(request)
+                    .retrieve()
+                    .bodyToMono(ListingSnapshot.class)
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .block();
+
+            if (listing == null || listing.items() == null) {
+                throw new ClientException("fetcher-service", "Received empty listing for " + listingUrl);
+            }
+
+            listingSuccessCounter.increment();
+            log.debug("Fetched listing {} with {} items", listingUrl, listing.items().size());
+            return listing;
+
+        } catch (ClientException e) {
+            listingFailureCounter.increment();
+            throw e;
+        } catch (WebClientResponseException e) {
+            listingFailureCounter.increment();
+            throw new ClientException("HTTP error " + e.getStatusCode() + ": " + e.getResponseBodyAsString(), e);
+        } catch (Exception e) {
+            listingFailureCounter.increment();
+            throw new ClientException("Network error while fetching listing " + listingUrl, e);
+        }
     }
 
     public MetricSample fetchMetric(Monitor monitor) {
@@ -84,17 +142,21 @@ public class FetcherServiceClient {
         log.debug("Fetching metric for monitor {} via HTTP", monitor.getId());
 
         try {
-            FetchRequest request = new FetchRequest(monitor.getSourceType(), monitor.getParams());
+            FetchRequest request = new FetchRequest(monitor.getSourceType(), monitor.getParams(), monitor.extraMetrics());
+            long timeoutMs = config.getHttp().getTimeout();
+            // The fetcher stops working once we would have given up on it anyway
+            long budgetMs = Math.max(1, timeoutMs - config.getHttp().getDeadlineMargin());
 
             MetricSample sample = webClient.post()
                     .uri("/api/fetch")
+                    .header(TIMEOUT_HEADER, String.valueOf(budgetMs))
                     .bodyValue(request)
                     .retrieve()
                     .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
                             response -> response.bodyToMono(String.class)
                                     .map(body -> new RuntimeException("HTTP error: " + response.statusCode() + " - " + body)))
                     .bodyToMono(MetricSample.class)
-                    .timeout(Duration.ofMillis(config.getHttp().getTimeout()))
+                    .timeout(Duration.ofMillis(timeoutMs))
                     .block();
 
             if (sample == null) {
@@ -128,7 +190,7 @@ public class FetcherServiceClient {
 
         log.info("Mock fetched price {} {} for monitor {}", currentPrice, currency, monitor.getId());
 
-        return new MetricSample("price", currentPrice, currency, Instant.now());
+        return new MetricSample(MetricSample.PRICE, currentPrice, currency, Instant.now());
     }
 
     private void simulateNetworkDelay() {
@@ -180,5 +242,8 @@ public class FetcherServiceClient {
         }
     }
 
-    public record FetchRequest(String sourceType, Map<String, String> params) {}
+    /**
+     * metrics names what the fetcher should read from the page besides the price.
+     */
+    public record FetchRequest(String sourceType, Map<String, String> params, List<String> metrics) {}
 }
\ No newline at end of file
@@ -36,6 +36,12 @@ public class SnapshotRepositoryAdapter implements SnapshotRepository {
                 .map(this::mapToDomain);
     }
 
+    @Override
+    public Optional<Snapshot> findLastByMonitorIdAndMetric(UUID monitorId, String metric) {
+        return repository.findTop1ByMonitorIdAndMetricOrderByAtDesc(monitorId, metric)
+                .map(this::mapToDomain);
+    }
+
     private Snapshot mapToDomain(SnapshotJpaEntity entity) {
         return Snapshot.builder()
                 .id(entity.getId())
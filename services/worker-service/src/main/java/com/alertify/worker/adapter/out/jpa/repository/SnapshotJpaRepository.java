@@ -10,4 +10,5 @@ import java.util.UUID;
 @Repository
 public interface SnapshotJpaRepository extends JpaRepository<SnapshotJpaEntity, UUID> {
     Optional<SnapshotJpaEntity> findTop1ByMonitorIdOrderByAtDesc(UUID monitorId);
+    Optional<SnapshotJpaEntity> findTop1ByMonitorIdAndMetricOrderByAtDesc(UUID monitorId, String metric);
 }
\ No newline at end of file
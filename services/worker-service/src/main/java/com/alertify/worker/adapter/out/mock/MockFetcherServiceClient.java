@@ -47,7 +47,7 @@ public class MockFetcherServiceClient implements FetcherServiceClient {
 
         log.info("Mock fetched price {} {} for monitor: {}", currentPrice, currency, monitor.getId());
 
-        return new MetricSample("price", currentPrice, currency, Instant.now());
+        return new MetricSample(MetricSample.PRICE, currentPrice, currency, Instant.now());
     }
 
     @Override
@@ -2,7 +2,10 @@ package com.alertify.worker.application.service;
 
 import com.alertify.worker.adapter.out.http.FetcherServiceClient;
 import com.alertify.worker.adapter.out.http.MonitorServiceClient;
+import com.alertify.worker.config.FetcherConfigurationProperties;
 import com.alertify.worker.domain.entity.Monitor;
+import com.alertify.worker.domain.model.ListingItem;
+import com.alertify.worker.domain.model.ListingSnapshot;
 import com.alertify.worker.domain.model.MetricSample;
 import com.alertify.worker.domain.exception.ClientException;
 import com.alertify.worker.domain.exception.MetricProcessingException;
@@ -10,16 +13,23 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class FetchAndStoreMetricsService {
 
+    private static final String LISTING_URL_PARAM = "listingUrl";
+
     private final MonitorServiceClient monitorServiceClient;
     private final FetcherServiceClient fetcherServiceClient;
     private final RuleEvaluator ruleEvaluator;
+    private final FetcherConfigurationProperties fetcherConfig;
 
     public void runCheck() {
         try {
@@ -34,29 +44,18 @@ public class FetchAndStoreMetricsService {
             int successCount = 0;
             int failureCount = 0;
 
-            for (Monitor monitor : activeMonitors) {
-                try {
-                    MetricSample sample = fetcherServiceClient.fetchMetric(monitor);
-                    if (sample == null) {
-                        log.warn("Failed to fetch metric for monitor {} - null response", monitor.getId());
-                        failureCount++;
-                        continue;
-                    }
-
-                    log.info("Fetched sample for monitor {}: {} {}",
-                            monitor.getId(), sample.value(), sample.unit());
+            List<Monitor> remaining = new ArrayList<>();
+            for (List<Monitor> group : groupByListing(activeMonitors, remaining)) {
+                ListingRefresh refresh = refreshFromListing(group);
+                successCount += refresh.refreshed();
+                failureCount += refresh.failed();
+                remaining.addAll(refresh.unmatched());
+            }
 
-                    ruleEvaluator.evaluateAndProcess(monitor, sample);
+            for (Monitor monitor : remaining) {
+                if (fetchAndEvaluate(monitor)) {
                     successCount++;
-
-                } catch (ClientException e) {
-                    log.warn("Failed to fetch metric for monitor {} - client error: {}",
-                            monitor.getId(), e.getMessage());
-                    failureCount++;
-
-                } catch (Exception e) {
-                    log.error("Unexpected error processing monitor {}: {}",
-                            monitor.getId(), e.getMessage(), e);
+                } else {
                     failureCount++;
                 }
             }
@@ -68,4 +67,109 @@ public class FetchAndStoreMetricsService {
             throw new MetricProcessingException("Critical error during monitor batch processing: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Monitors sharing a listing page, in groups large enough to be worth one load of it. Everything
+     * else is added to {@code single} for the per-monitor path.
+     */
+    private List<List<Monitor>> groupByListing(List<Monitor> monitors, List<Monitor> single) {
+        if (!fetcherConfig.getListing().isEnabled() || !fetcherServiceClient.supportsListings()) {
+            single.addAll(monitors);
+            return List.of();
+        }
+
+        Map<String, List<Monitor>> byListing = new LinkedHashMap<>();
+        for (Monitor monitor : monitors) {
+            String listingUrl = monitor.getParams() != null ? monitor.getParams().get(LISTING_URL_PARAM) : null;
+            // A listing only shows prices, so monitors with rules on other metrics need their product page
+            if (listingUrl == null || listingUrl.isBlank() || !monitor.extraMetrics().isEmpty()) {
+                single.add(monitor);
+                continue;
+            }
+            byListing.computeIfAbsent(monitor.getSourceType() + " " + listingUrl, k -> new ArrayList<>()).add(monitor);
+        }
+
+        List<List<Monitor>> groups = new ArrayList<>();
+        for (List<Monitor> group : byListing.values()) {
+            if (group.size() >= fetcherConfig.getListing().getMinGroupSize()) {
+                groups.add(group);
+            } else {
+                single.addAll(group);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Loads the group's listing page once and evaluates every monitor found on it. Monitors that still
+     * need their own fetch are all of the group when the listing could not be read, otherwise those
+     * whose product was not on the page.
+     */
+    private ListingRefresh refreshFromListing(List<Monitor> group) {
+        Monitor first = group.get(0);
+        String listingUrl = first.getParams().get(LISTING_URL_PARAM);
+
+        ListingSnapshot listing;
+        try {
+            listing = fetcherServiceClient.fetchListing(first.getSourceType(), listingUrl);
+        } catch (ClientException e) {
+            log.warn("Failed to fetch listing {} for {} monitors, fetching them one by one: {}",
+                    listingUrl, group.size(), e.getMessage());
+            return new ListingRefresh(0, 0, group);
+        }
+
+        ListingMatcher matcher = new ListingMatcher(listing);
+        List<Monitor> unmatched = new ArrayList<>();
+        int refreshed = 0;
+        int failed = 0;
+        for (Monitor monitor : group) {
+            Optional<ListingItem> item = matcher.find(monitor);
+            if (item.isEmpty()) {
+                unmatched.add(monitor);
+                continue;
+            }
+            String unit = monitor.getParams().getOrDefault("currency", item.get().currency());
+            MetricSample sample = new MetricSample(MetricSample.PRICE, item.get().price(), unit, listing.fetchedAt());
+            try {
+                ruleEvaluator.evaluateAndProcess(monitor, sample);
+                refreshed++;
+            } catch (Exception e) {
+                log.error("Unexpected error processing monitor {} from listing {}: {}",
+                        monitor.getId(), listingUrl, e.getMessage(), e);
+                failed++;
+            }
+        }
+
+        log.info("Listing {} refreshed {} of {} monitors, saving {} page loads",
+                listingUrl, refreshed, group.size(), Math.max(0, refreshed + failed - 1));
+        return new ListingRefresh(refreshed, failed, unmatched);
+    }
+
+    private boolean fetchAndEvaluate(Monitor monitor) {
+        try {
+            MetricSample sample = fetcherServiceClient.fetchMetric(monitor);
+            if (sample == null) {
+                log.warn("Failed to fetch metric for monitor {} - null response", monitor.getId());
+                return false;
+            }
+
+            log.info("Fetched sample for monitor {}: {} {}",
+                    monitor.getId(), sample.value(), sample.unit());
+
+            ruleEvaluator.evaluateAndProcess(monitor, sample);
+            return true;
+
+        } catch (ClientException e) {
+            log.warn("Failed to fetch metric for monitor {} - client error: {}",
+                    monitor.getId(), e.getMessage());
+            return false;
+
+        } catch (Exception e) {
+            log.error("Unexpected error processing monitor {}: {}",
+                    monitor.getId(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private record ListingRefresh(int refreshed, int failed, List<Monitor> unmatched) {}
+}
@@ -0,0 +1,67 @@
+package com.alertify.worker.application.service;
+
+import com.alertify.worker.domain.entity.Monitor;
+import com.alertify.worker.domain.model.ListingItem;
+import com.alertify.worker.domain.model.ListingSnapshot;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Finds a monitor's product among the items of a listing page. Listings link products with tracking
+ * query strings and without the www. prefix the monitor may have been created with, so URLs are
+ * compared by host and path only; a productId param, when the monitor has one, wins over the URL.
+ */
+final class ListingMatcher {
+
+    private final Map<String, ListingItem> byProductId = new HashMap<>();
+    private final Map<String, ListingItem> byUrl = new HashMap<>();
+
+    ListingMatcher(ListingSnapshot listing) {
+        for (ListingItem item : listing.items()) {
+            if (item.productId() != null) {
+                byProductId.putIfAbsent(item.productId(), item);
+            }
+            String url = canonical(item.productUrl());
+            if (url != null) {
+                byUrl.putIfAbsent(url, item);
+            }
+        }
+    }
+
+    Optional<ListingItem> find(Monitor monitor) {
+        Map<String, String> params = monitor.getParams();
+        String productId = params.get("productId");
+        if (productId != null && byProductId.containsKey(productId)) {
+            return Optional.of(byProductId.get(productId));
+        }
+        String url = canonical(params.get("url"));
+        return url != null ? Optional.ofNullable(byUrl.get(url)) : Optional.empty();
+    }
+
+    static String canonical(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url.trim());
+            if (uri.getHost() == null) {
+                return null;
+            }
+            String host = uri.getHost().toLowerCase(Locale.ROOT);
+            if (host.startsWith("www.")) {
+                host = host.substring(4);
+            }
+            String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+            while (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            return host + path;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
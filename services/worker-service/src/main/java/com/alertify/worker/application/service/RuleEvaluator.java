@@ -17,6 +17,7 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -31,33 +32,62 @@ public class RuleEvaluator {
     private final AlertRepository alertRepository;
     private final AlertEventPublisher alertEventPublisher;
 
+    /**
+     * Stores one snapshot per metric in the sample and evaluates each rule against the metric it
+     * names, compared with the previous snapshot of that same metric.
+     */
     public void evaluateAndProcess(Monitor monitor, MetricSample sample) {
-        Optional<Snapshot> previousSnapshotOpt = snapshotRepository.findLastByMonitorId(monitor.getId());
-
-        Snapshot snapshot = Snapshot.builder()
-                .id(UUID.randomUUID())
-                .monitorId(monitor.getId())
-                .metric(sample.metric())
-                .value(sample.value())
-                .unit(sample.unit())
-                .at(sample.at())
-                .build();
-        snapshotRepository.save(snapshot);
-        log.debug("Saved snapshot for monitor {}: {} {}", monitor.getId(), sample.value(), sample.unit());
+        Map<String, MetricSample> readings = new HashMap<>();
+        Map<String, Optional<Snapshot>> previousSnapshots = new HashMap<>();
+
+        for (Map.Entry<String, BigDecimal> metric : sample.metrics().entrySet()) {
+            MetricSample reading = sample.metric().equals(metric.getKey())
+                    ? sample
+                    : new MetricSample(metric.getKey(), metric.getValue(), unitOf(metric.getKey(), sample), sample.at());
+            readings.put(metric.getKey(), reading);
+            previousSnapshots.put(metric.getKey(),
+                    snapshotRepository.findLastByMonitorIdAndMetric(monitor.getId(), metric.getKey()));
+
+            Snapshot snapshot = Snapshot.builder()
+                    .id(UUID.randomUUID())
+                    .monitorId(monitor.getId())
+                    .metric(reading.metric())
+                    .value(reading.value())
+                    .unit(reading.unit())
+                    .at(reading.at())
+                    .build();
+            snapshotRepository.save(snapshot);
+            log.debug("Saved {} snapshot for monitor {}: {} {}",
+                    reading.metric(), monitor.getId(), reading.value(), reading.unit());
+        }
 
         List<Rule> rules = monitor.getRules() != null ? monitor.getRules() : List.of();
         log.debug("Evaluating {} rules for monitor {}", rules.size(), monitor.getId());
 
         for (Rule rule : rules) {
-            boolean triggered = evaluateRule(rule, sample, previousSnapshotOpt);
+            MetricSample reading = readings.get(rule.targetMetric());
+            if (reading == null) {
+                log.debug("Rule {} skipped: no {} in the sample for monitor {}",
+                        rule.getId(), rule.targetMetric(), monitor.getId());
+                continue;
+            }
+            Optional<Snapshot> previousSnapshotOpt = previousSnapshots.get(reading.metric());
+            boolean triggered = evaluateRule(rule, reading, previousSnapshotOpt);
 
             if (triggered) {
-                String message = createAlertMessage(rule, sample, previousSnapshotOpt);
+                String message = createAlertMessage(rule, reading, previousSnapshotOpt);
                 fireAlert(monitor, rule, message);
             }
         }
     }
 
+    /**
+     * Prices share the sample's currency; stock flags and seller counts have no unit.
+     */
+    private static String unitOf(String metric, MetricSample sample) {
+        return metric.endsWith(MetricSample.PRICE) ? sample.unit() : null;
+    }
+
     private boolean evaluateRule(Rule rule, MetricSample sample, Optional<Snapshot> previousSnapshotOpt) {
         Map<String, Object> config = rule.getConfig() != null ? parseConfig(rule.getConfig()) : Map.of();
 
@@ -117,8 +147,8 @@ public class RuleEvaluator {
         return switch (rule.getType().toUpperCase()) {
             case "TARGET_PRICE" -> {
                 BigDecimal target = getBigDecimal(config.get("targetPrice"));
-                yield String.format("Price reached target: %s %s (target: %s)",
-                        sample.value(), sample.unit(), target);
+                yield String.format("%s reached target: %s (target: %s)",
+                        label(sample), amount(sample), target);
             }
 
             case "PERCENT_DROP" -> {
@@ -128,8 +158,8 @@ public class RuleEvaluator {
                             .subtract(sample.value())
                             .divide(previous.getValue(), 2, RoundingMode.HALF_UP)
                             .multiply(BigDecimal.valueOf(100));
-                    yield String.format("Price dropped %.2f%% from %s to %s %s",
-                            diff, previous.getValue(), sample.value(), sample.unit());
+                    yield String.format("%s dropped %.2f%% from %s to %s",
+                            label(sample), diff, previous.getValue(), amount(sample));
                 } else {
                     yield "Price drop detected (no previous data)";
                 }
@@ -140,6 +170,14 @@ public class RuleEvaluator {
         };
     }
 
+    private static String label(MetricSample sample) {
+        return MetricSample.PRICE.equals(sample.metric()) ? "Price" : sample.metric();
+    }
+
+    private static String amount(MetricSample sample) {
+        return sample.unit() != null ? sample.value() + " " + sample.unit() : String.valueOf(sample.value());
+    }
+
     private void fireAlert(Monitor monitor, Rule rule, String message) {
         Alert alert = Alert.builder()
                 .id(UUID.randomUUID())
@@ -12,6 +12,7 @@ public class FetcherConfigurationProperties {
     private String mode = "mock";
     private MockConfig mock = new MockConfig();
     private HttpConfig http = new HttpConfig();
+    private ListingConfig listing = new ListingConfig();
 
     @Data
     public static class MockConfig {
@@ -26,8 +27,24 @@ public class FetcherConfigurationProperties {
     @Data
     public static class HttpConfig {
         private long timeout = 10000;
+        /**
+         * Subtracted from timeout when telling the fetcher how long it may work, leaving room for the response to arrive
+         */
+        private long deadlineMargin = 500;
         private int retryAttempts = 3;
         private int circuitBreakerThreshold = 5;
         private long circuitBreakWaitDuration = 30000;
     }
+
+    @Data
+    public static class ListingConfig {
+        /**
+         * Refresh monitors that name the same listingUrl param from one load of that listing page
+         */
+        private boolean enabled = false;
+        /**
+         * Smallest group worth a listing load; smaller groups are fetched per monitor
+         */
+        private int minGroupSize = 2;
+    }
 }
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import com.alertify.worker.domain.model.MetricSample;
+
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -18,4 +20,19 @@ public class Monitor {
     private String sourceType;
     private Map<String, String> params;
     private List<Rule> rules;
+
+    /**
+     * Metrics besides the price that its rules are evaluated on, to be read in the same fetch.
+     */
+    public List<String> extraMetrics() {
+        if (rules == null) {
+            return List.of();
+        }
+        return rules.stream()
+                .map(Rule::targetMetric)
+                .filter(metric -> !MetricSample.PRICE.equals(metric))
+                .distinct()
+                .sorted()
+                .toList();
+    }
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import com.alertify.worker.domain.model.MetricSample;
+
 import java.util.Map;
 import java.util.UUID;
 
@@ -16,4 +18,12 @@ public class Rule {
     private UUID id;
     private String type;
     private Map<String, Object> config;
+
+    /**
+     * The sample metric the rule is evaluated on: config "metric" (e.g. "in_stock"), the price by default.
+     */
+    public String targetMetric() {
+        Object metric = config != null ? config.get("metric") : null;
+        return metric != null && !metric.toString().isBlank() ? metric.toString() : MetricSample.PRICE;
+    }
 }
\ No newline at end of file
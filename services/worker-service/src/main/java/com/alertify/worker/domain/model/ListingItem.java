@@ -0,0 +1,10 @@
+package com.alertify.worker.domain.model;
+
+import java.math.BigDecimal;
+
+public record ListingItem(
+        String productUrl,
+        String productId,
+        BigDecimal price,
+        String currency
+) {}
@@ -0,0 +1,10 @@
+package com.alertify.worker.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ListingSnapshot(
+        String url,
+        List<ListingItem> items,
+        Instant fetchedAt
+) {}
@@ -2,10 +2,31 @@ package com.alertify.worker.domain.model;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Map;
 
+/**
+ * metrics holds every metric read from the same page load, the primary one included; fetchers that
+ * only send the primary metric get a map of just that.
+ */
 public record MetricSample(
         String metric,
         BigDecimal value,
         String unit,
-        Instant at
-) {}
\ No newline at end of file
+        Instant at,
+        Map<String, BigDecimal> metrics
+) {
+
+    public static final String PRICE = "price";
+
+    public MetricSample {
+        if (metrics == null || metrics.isEmpty()) {
+            metrics = value != null ? Map.of(metric, value) : Map.of();
+        } else {
+            metrics = Map.copyOf(metrics);
+        }
+    }
+
+    public MetricSample(String metric, BigDecimal value, String unit, Instant at) {
+        this(metric, value, unit, at, null);
+    }
+}
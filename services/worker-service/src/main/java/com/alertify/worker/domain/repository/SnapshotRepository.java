@@ -8,4 +8,5 @@ import java.util.UUID;
 public interface SnapshotRepository {
     Snapshot save(Snapshot snapshot);
     Optional<Snapshot> findLastByMonitorId(UUID monitorId);
+    Optional<Snapshot> findLastByMonitorIdAndMetric(UUID monitorId, String metric);
 }
\ No newline at end of file
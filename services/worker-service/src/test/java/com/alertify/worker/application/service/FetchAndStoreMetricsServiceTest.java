@@ -0,0 +1,108 @@
+package com.alertify.worker.application.service;
+
+import com.alertify.worker.adapter.out.http.FetcherServiceClient;
+import com.alertify.worker.adapter.out.http.MonitorServiceClient;
+import com.alertify.worker.config.FetcherConfigurationProperties;
+import com.alertify.worker.domain.entity.Monitor;
+import com.alertify.worker.domain.entity.Rule;
+import com.alertify.worker.domain.model.ListingItem;
+import com.alertify.worker.domain.model.ListingSnapshot;
+import com.alertify.worker.domain.model.MetricSample;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FetchAndStoreMetricsServiceTest {
+
+    private static final Instant AT = Instant.parse("2026-10-19T08:00:00Z");
+    private static final String LISTING_URL = "https://www.trendyol.com/sr?q=laptop";
+
+    private final MonitorServiceClient monitorServiceClient = mock(MonitorServiceClient.class);
+    private final FetcherServiceClient fetcherServiceClient = mock(FetcherServiceClient.class);
+    private final RuleEvaluator ruleEvaluator = mock(RuleEvaluator.class);
+    private final FetcherConfigurationProperties fetcherConfig = new FetcherConfigurationProperties();
+    private final FetchAndStoreMetricsService service = new FetchAndStoreMetricsService(
+            monitorServiceClient, fetcherServiceClient, ruleEvaluator, fetcherConfig);
+
+    @BeforeEach
+    void setUp() {
+        fetcherConfig.getListing().setEnabled(true);
+        when(fetcherServiceClient.supportsListings()).thenReturn(true);
+    }
+
+    @Test
+    void evaluatesEveryMetricTheFetcherReadForAMonitor() {
+        Monitor monitor = monitor("https://www.trendyol.com/p/1", null, rule("in_stock"));
+        MetricSample sample = new MetricSample(MetricSample.PRICE, new BigDecimal("899.00"), "TRY", AT,
+                Map.of(MetricSample.PRICE, new BigDecimal("899.00"), "in_stock", BigDecimal.ZERO));
+        when(monitorServiceClient.fetchActiveMonitors()).thenReturn(List.of(monitor));
+        when(fetcherServiceClient.fetchMetric(monitor)).thenReturn(sample);
+
+        service.runCheck();
+
+        ArgumentCaptor<MetricSample> evaluated = ArgumentCaptor.forClass(MetricSample.class);
+        verify(ruleEvaluator).evaluateAndProcess(eq(monitor), evaluated.capture());
+        assertThat(evaluated.getValue().metrics())
+                .containsOnlyKeys(MetricSample.PRICE, "in_stock")
+                .containsEntry("in_stock", BigDecimal.ZERO);
+    }
+
+    @Test
+    void fetchesMonitorsWithRulesOnOtherMetricsFromTheirProductPage() {
+        Monitor priceOnly = monitor("https://www.trendyol.com/p/1", LISTING_URL, rule(null));
+        Monitor alsoPriceOnly = monitor("https://www.trendyol.com/p/2", LISTING_URL, rule(null));
+        Monitor stock = monitor("https://www.trendyol.com/p/3", LISTING_URL, rule("in_stock"));
+        when(monitorServiceClient.fetchActiveMonitors()).thenReturn(List.of(priceOnly, alsoPriceOnly, stock));
+        when(fetcherServiceClient.fetchListing(anyString(), eq(LISTING_URL))).thenReturn(new ListingSnapshot(LISTING_URL,
+                List.of(item("https://trendyol.com/p/1", "899.00"), item("https://trendyol.com/p/2", "1299.00"),
+                        item("https://trendyol.com/p/3", "499.00")),
+                AT));
+        when(fetcherServiceClient.fetchMetric(stock)).thenReturn(new MetricSample(MetricSample.PRICE,
+                new BigDecimal("499.00"), "TRY", AT, Map.of(MetricSample.PRICE, new BigDecimal("499.00"), "in_stock", BigDecimal.ONE)));
+
+        service.runCheck();
+
+        verify(fetcherServiceClient, never()).fetchMetric(priceOnly);
+        verify(fetcherServiceClient, never()).fetchMetric(alsoPriceOnly);
+        verify(ruleEvaluator).evaluateAndProcess(eq(priceOnly), any());
+        ArgumentCaptor<MetricSample> evaluated = ArgumentCaptor.forClass(MetricSample.class);
+        verify(ruleEvaluator).evaluateAndProcess(eq(stock), evaluated.capture());
+        assertThat(evaluated.getValue().metrics()).containsKey("in_stock");
+    }
+
+    private static Monitor monitor(String url, String listingUrl, Rule rule) {
+        Map<String, String> params = listingUrl != null ? Map.of("url", url, "listingUrl", listingUrl) : Map.of("url", url);
+        return Monitor.builder()
+                .id(UUID.randomUUID())
+                .sourceType("ECOMMERCE_PRODUCT")
+                .params(params)
+                .rules(List.of(rule))
+                .build();
+    }
+
+    private static Rule rule(String metric) {
+        Map<String, Object> config = metric != null
+                ? Map.of("metric", metric, "targetPrice", 0)
+                : Map.of("targetPrice", 1000);
+        return Rule.builder().id(UUID.randomUUID()).type("TARGET_PRICE").config(config).build();
+    }
+
+    private static ListingItem item(String url, String price) {
+        return new ListingItem(url, null, new BigDecimal(price), "TRY");
+    }
+}
@@ -0,0 +1,99 @@
+package com.alertify.worker.application.service;
+
+import com.alertify.worker.domain.entity.Monitor;
+import com.alertify.worker.domain.model.ListingItem;
+import com.alertify.worker.domain.model.ListingSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListingMatcherTest {
+
+    @Test
+    void matchesProductUrlsDespiteTrackingParamsAndTheWwwPrefix() {
+        ListingMatcher matcher = matcher(
+                item("https://trendyol.com/apple/iphone-15-p-123?boutiqueId=61&merchantId=9", null, "42999.00"),
+                item("https://trendyol.com/samsung/galaxy-s24-p-456", null, "38999.00"));
+
+        assertThat(matcher.find(monitor(Map.of("url", "https://www.trendyol.com/apple/iphone-15-p-123/"))))
+                .map(ListingItem::price)
+                .contains(new BigDecimal("42999.00"));
+        assertThat(matcher.find(monitor(Map.of("url", "https://WWW.Trendyol.com/samsung/galaxy-s24-p-456?utm_source=x"))))
+                .map(ListingItem::price)
+                .contains(new BigDecimal("38999.00"));
+    }
+
+    @Test
+    void prefersTheProductIdOverTheUrl() {
+        ListingMatcher matcher = matcher(
+                item("https://trendyol.com/apple/iphone-15-p-123", "123", "42999.00"),
+                item("https://trendyol.com/apple/iphone-15-p-123-renewed", "999", "29999.00"));
+
+        assertThat(matcher.find(monitor(Map.of("url", "https://www.trendyol.com/apple/iphone-15-p-123", "productId", "999"))))
+                .map(ListingItem::price)
+                .contains(new BigDecimal("29999.00"));
+        // An id the listing does not carry falls back to the URL
+        assertThat(matcher.find(monitor(Map.of("url", "https://www.trendyol.com/apple/iphone-15-p-123", "productId", "777"))))
+                .map(ListingItem::price)
+                .contains(new BigDecimal("42999.00"));
+    }
+
+    @Test
+    void missesProductsNotOnTheListing() {
+        ListingMatcher matcher = matcher(item("https://trendyol.com/apple/iphone-15-p-123", "123", "42999.00"));
+
+        assertThat(matcher.find(monitor(Map.of("url", "https://www.trendyol.com/apple/iphone-15-p-124")))).isEmpty();
+        assertThat(matcher.find(monitor(Map.of("url", "https://www.hepsiburada.com/apple/iphone-15-p-123")))).isEmpty();
+        assertThat(matcher.find(monitor(Map.of("productId", "124")))).isEmpty();
+        assertThat(matcher.find(monitor(Map.of("url", "not a url")))).isEmpty();
+    }
+
+    @Test
+    void keepsTheFirstOfDuplicateEntries() {
+        // Listings repeat sponsored products; the first placement is the one shown at the listed price
+        ListingMatcher matcher = matcher(
+                item("https://trendyol.com/apple/iphone-15-p-123?sponsored=1", "123", "41999.00"),
+                item("https://trendyol.com/apple/iphone-15-p-123", "123", "42999.00"));
+
+        assertThat(matcher.find(monitor(Map.of("productId", "123"))))
+                .map(ListingItem::price)
+                .contains(new BigDecimal("41999.00"));
+        assertThat(matcher.find(monitor(Map.of("url", "https://www.trendyol.com/apple/iphone-15-p-123"))))
+                .map(ListingItem::price)
+                .contains(new BigDecimal("41999.00"));
+    }
+
+    @Test
+    void skipsItemsWithoutAUsableUrl() {
+        ListingMatcher matcher = matcher(item(null, "123", "42999.00"), item("/relative/p-456", null, "38999.00"));
+
+        assertThat(matcher.find(monitor(Map.of("productId", "123")))).isPresent();
+        assertThat(matcher.find(monitor(Map.of("url", "/relative/p-456")))).isEmpty();
+    }
+
+    @Test
+    void canonicalFormIsHostAndPathOnly() {
+        assertThat(ListingMatcher.canonical("https://www.N11.com/urun/kulaklik-123/?ref=listing#reviews"))
+                .isEqualTo("n11.com/urun/kulaklik-123");
+        assertThat(ListingMatcher.canonical(" ")).isNull();
+        assertThat(ListingMatcher.canonical(null)).isNull();
+    }
+
+    private static ListingMatcher matcher(ListingItem... items) {
+        return new ListingMatcher(new ListingSnapshot("https://www.trendyol.com/sr?q=iphone", List.of(items), Instant.now()));
+    }
+
+    private static ListingItem item(String url, String productId, String price) {
+        return new ListingItem(url, productId, new BigDecimal(price), "TRY");
+    }
+
+    private static Monitor monitor(Map<String, String> params) {
+        return Monitor.builder().id(UUID.randomUUID()).sourceType("ECOMMERCE_PRODUCT").params(params).build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.alertify.worker.application.service;
+
+import com.alertify.worker.adapter.out.kafka.AlertEventPublisher;
+import com.alertify.worker.domain.entity.Alert;
+import com.alertify.worker.domain.entity.Monitor;
+import com.alertify.worker.domain.entity.Rule;
+import com.alertify.worker.domain.entity.Snapshot;
+import com.alertify.worker.domain.model.MetricSample;
+import com.alertify.worker.domain.repository.AlertRepository;
+import com.alertify.worker.domain.repository.SnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RuleEvaluatorTest {
+
+    private static final Instant AT = Instant.parse("2026-10-19T08:00:00Z");
+
+    private final SnapshotRepository snapshotRepository = mock(SnapshotRepository.class);
+    private final AlertRepository alertRepository = mock(AlertRepository.class);
+    private final AlertEventPublisher alertEventPublisher = mock(AlertEventPublisher.class);
+    private final RuleEvaluator evaluator = new RuleEvaluator(snapshotRepository, alertRepository, alertEventPublisher);
+
+    @BeforeEach
+    void setUp() {
+        when(snapshotRepository.findLastByMonitorIdAndMetric(any(), anyString())).thenReturn(Optional.empty());
+        when(alertRepository.save(any(Alert.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void storesOneSnapshotPerMetricOfTheSample() {
+        Monitor monitor = monitor();
+
+        evaluator.evaluateAndProcess(monitor, sample(Map.of(
+                MetricSample.PRICE, new BigDecimal("899.00"),
+                "list_price", new BigDecimal("1099.00"),
+                "in_stock", BigDecimal.ONE)));
+
+        ArgumentCaptor<Snapshot> saved = ArgumentCaptor.forClass(Snapshot.class);
+        verify(snapshotRepository, times(3)).save(saved.capture());
+        assertThat(saved.getAllValues())
+                .extracting(Snapshot::getMonitorId, Snapshot::getMetric, Snapshot::getValue, Snapshot::getUnit, Snapshot::getAt)
+                .containsExactlyInAnyOrder(
+                        tuple(monitor.getId(), "price", new BigDecimal("899.00"), "TRY", AT),
+                        tuple(monitor.getId(), "list_price", new BigDecimal("1099.00"), "TRY", AT),
+                        tuple(monitor.getId(), "in_stock", BigDecimal.ONE, null, AT));
+        assertThat(saved.getAllValues()).extracting(Snapshot::getId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void evaluatesARuleOnTheMetricItNames() {
+        Rule outOfStock = rule("TARGET_PRICE", Map.of("metric", "in_stock", "targetPrice", 0));
+        Monitor monitor = monitor(outOfStock);
+
+        evaluator.evaluateAndProcess(monitor, sample(Map.of(
+                MetricSample.PRICE, new BigDecimal("899.00"),
+                "in_stock", BigDecimal.ZERO)));
+
+        ArgumentCaptor<Alert> alert = ArgumentCaptor.forClass(Alert.class);
+        verify(alertRepository).save(alert.capture());
+        assertThat(alert.getValue().getRuleId()).isEqualTo(outOfStock.getId());
+        assertThat(alert.getValue().getMessage()).isEqualTo("in_stock reached target: 0 (target: 0.0)");
+        verify(alertEventPublisher).publish(any());
+    }
+
+    @Test
+    void comparesAgainstThePreviousSnapshotOfTheSameMetric() {
+        Monitor monitor = monitor(rule("PERCENT_DROP", Map.of("metric", "seller_count", "percent", 50)));
+        when(snapshotRepository.findLastByMonitorIdAndMetric(monitor.getId(), "seller_count"))
+                .thenReturn(Optional.of(snapshot("seller_count", new BigDecimal("8"))));
+        when(snapshotRepository.findLastByMonitorIdAndMetric(monitor.getId(), MetricSample.PRICE))
+                .thenReturn(Optional.of(snapshot(MetricSample.PRICE, new BigDecimal("100000.00"))));
+
+        evaluator.evaluateAndProcess(monitor, sample(Map.of(
+                MetricSample.PRICE, new BigDecimal("899.00"),
+                "seller_count", new BigDecimal("3"))));
+
+        ArgumentCaptor<Alert> alert = ArgumentCaptor.forClass(Alert.class);
+        verify(alertRepository).save(alert.capture());
+        assertThat(alert.getValue().getMessage()).isEqualTo("seller_count dropped 63.00% from 8 to 3");
+    }
+
+    @Test
+    void skipsRulesOnMetricsTheSampleDoesNotCarry() {
+        Monitor monitor = monitor(rule("TARGET_PRICE", Map.of("metric", "list_price", "targetPrice", 5000)));
+
+        evaluator.evaluateAndProcess(monitor, sample(Map.of(MetricSample.PRICE, new BigDecimal("899.00"))));
+
+        verify(snapshotRepository).save(any(Snapshot.class));
+        verify(snapshotRepository, never()).findLastByMonitorIdAndMetric(eq(monitor.getId()), eq("list_price"));
+        verify(alertRepository, never()).save(any());
+        verify(alertEventPublisher, never()).publish(any());
+    }
+
+    @Test
+    void leavesPriceRulesOnThePrice() {
+        Monitor monitor = monitor(rule("TARGET_PRICE", Map.of("targetPrice", 900)));
+
+        evaluator.evaluateAndProcess(monitor, sample(Map.of(
+                MetricSample.PRICE, new BigDecimal("899.00"),
+                "list_price", new BigDecimal("1099.00"))));
+
+        ArgumentCaptor<Alert> alert = ArgumentCaptor.forClass(Alert.class);
+        verify(alertRepository).save(alert.capture());
+        assertThat(alert.getValue().getMessage()).isEqualTo("Price reached target: 899.00 TRY (target: 900.0)");
+    }
+
+    private static MetricSample sample(Map<String, BigDecimal> metrics) {
+        return new MetricSample(MetricSample.PRICE, metrics.get(MetricSample.PRICE), "TRY", AT, metrics);
+    }
+
+    private static Monitor monitor(Rule... rules) {
+        return Monitor.builder()
+                .id(UUID.randomUUID())
+                .sourceType("ECOMMERCE_PRODUCT")
+                .params(Map.of("url", "https://www.trendyol.com/p/1"))
+                .rules(List.of(rules))
+                .build();
+    }
+
+    private static Rule rule(String type, Map<String, Object> config) {
+        return Rule.builder().id(UUID.randomUUID()).type(type).config(config).build();
+    }
+
+    private static Snapshot snapshot(String metric, BigDecimal value) {
+        return Snapshot.builder().id(UUID.randomUUID()).metric(metric).value(value).at(AT.minusSeconds(3600)).build();
+    }
+}
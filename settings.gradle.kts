@@ -6,6 +6,7 @@ include(
     "libs:common-web",
     "libs:common-utils",
     "libs:common-test",
+    "libs:shop-stub",
     "services:monitor-service",
     "services:fetcher-service",
     "services:worker-service",